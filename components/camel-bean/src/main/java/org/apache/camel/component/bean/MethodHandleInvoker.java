@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invokes a bean method using a {@link MethodHandle}, which is adapted once to a fixed signature taking the bean and
+ * an array of arguments, so invoking the method does not involve the access checks and argument unwrapping of
+ * reflection.
+ * <p/>
+ * The method handle does not convert the arguments like reflection does (i.e. widening an {@link Integer} to a
+ * <tt>long</tt>), so the callers should check the arguments with {@link #isApplicable(Object, Object[])} first, and
+ * invoke the method using reflection when they do not match the parameter types of the method.
+ */
+public final class MethodHandleInvoker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandleInvoker.class);
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    private final boolean[] primitives;
+
+    private MethodHandleInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+        this.declaringClass = Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass();
+        this.parameterTypes = method.getParameterTypes();
+        this.primitives = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive()) {
+                primitives[i] = true;
+                parameterTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+            }
+        }
+    }
+
+    /**
+     * Creates an invoker for the given method
+     *
+     * @param  method the method
+     * @return        the invoker, or <tt>null</tt> if the method cannot be accessed using a method handle, in which
+     *                case the method should be invoked using reflection
+     */
+    public static MethodHandleInvoker create(Method method) {
+        try {
+            // allow invoking methods which are not public, as done when invoking them using reflection
+            method.trySetAccessible();
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                // ignore the bean when invoking static methods
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            int count = method.getParameterCount();
+            // void methods return null
+            handle = handle.asType(MethodType.genericMethodType(count + 1))
+                    .asSpreader(Object[].class, count);
+            return new MethodHandleInvoker(method, handle);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOG.debug("Cannot create method handle for method: {} due to: {}. Reflection will be used instead.", method,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Whether the method can be invoked on the given bean with the given arguments, which is when the bean and the
+     * arguments are instances of the declaring class and parameter types of the method.
+     */
+    public boolean isApplicable(Object pojo, Object[] arguments) {
+        if (declaringClass != null && !declaringClass.isInstance(pojo)) {
+            return false;
+        }
+        if (arguments == null) {
+            return parameterTypes.length == 0;
+        }
+        if (arguments.length != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            if (argument == null ? primitives[i] : !parameterTypes[i].isInstance(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invokes the method, which must be applicable to the bean and arguments.
+     *
+     * @param  pojo                      the bean, or <tt>null</tt> for static methods
+     * @param  arguments                 the arguments, or <tt>null</tt> for methods without parameters
+     * @return                           the result of the method, or <tt>null</tt> for void methods
+     * @throws InvocationTargetException wrapping the exception thrown by the method
+     */
+    public Object invoke(Object pojo, Object[] arguments) throws InvocationTargetException {
+        Object[] args = arguments != null ? arguments : NO_ARGUMENTS;
+        try {
+            return (Object) handle.invokeExact(pojo, args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MethodHandleInvoker[" + method + "]";
+    }
+}
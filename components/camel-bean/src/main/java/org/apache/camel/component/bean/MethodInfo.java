@@ -82,6 +82,9 @@ public class MethodInfo {
     private AsyncProcessor recipientList;
     private AsyncProcessor routingSlip;
     private AsyncProcessor dynamicRouter;
+    // the invoker is created on first use, as most of the introspected methods are never invoked
+    private volatile boolean invokerCreated;
+    private MethodHandleInvoker invoker;
 
     /**
      * Adapter to invoke the method which has been annotated with the @DynamicRouter
@@ -489,6 +492,13 @@ public class MethodInfo {
     }
 
     protected Object invoke(Method mth, Object pojo, Object[] arguments, Exchange exchange) throws InvocationTargetException {
+        if (mth == method) {
+            MethodHandleInvoker answer = getInvoker();
+            if (answer != null && answer.isApplicable(pojo, arguments)) {
+                return answer.invoke(pojo, arguments);
+            }
+        }
+        // fallback to reflection which reports invalid arguments
         try {
             return ObjectHelper.invokeMethodSafe(mth, pojo, arguments);
         } catch (IllegalAccessException e) {
@@ -502,6 +512,17 @@ public class MethodInfo {
         }
     }
 
+    /**
+     * Gets the invoker which invokes the method using a method handle, or <tt>null</tt> if reflection should be used.
+     */
+    protected MethodHandleInvoker getInvoker() {
+        if (!invokerCreated) {
+            invoker = MethodHandleInvoker.create(method);
+            invokerCreated = true;
+        }
+        return invoker;
+    }
+
     protected Expression[] createParameterExpressions() {
         final int size = parameters.size();
         LOG.trace("Creating parameters expression for {} parameters", size);
@@ -545,6 +566,7 @@ public class MethodInfo {
      */
     private final class ParameterExpression implements Expression {
         private final Expression[] expressions;
+        private volatile boolean initialized;
 
         ParameterExpression(Expression[] expressions) {
             this.expressions = expressions;
@@ -552,6 +574,10 @@ public class MethodInfo {
 
         @Override
         public void init(CamelContext context) {
+            // this is called before each invocation, so only initialize the parameter expressions once
+            if (initialized) {
+                return;
+            }
             if (expressions != null) {
                 for (Expression exp : expressions) {
                     if (exp != null) {
@@ -559,6 +585,7 @@ public class MethodInfo {
                     }
                 }
             }
+            initialized = true;
         }
 
         @Override
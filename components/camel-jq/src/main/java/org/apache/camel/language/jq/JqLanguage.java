@@ -55,6 +55,12 @@ public class JqLanguage extends SingleInputTypedLanguageSupport implements Stati
         // noop
     }
 
+    @Override
+    protected boolean supportExpressionCache() {
+        // compiling the query is costly, and the compiled queries are thread-safe
+        return true;
+    }
+
     @Override
     public Expression createExpression(Expression source, String expression, Object[] properties) {
         JqExpression answer = new JqExpression(Scope.newChildScope(rootScope), expression);
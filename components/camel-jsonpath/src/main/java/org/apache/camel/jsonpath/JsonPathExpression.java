@@ -38,7 +38,7 @@ public class JsonPathExpression extends ExpressionAdapter {
     private static final Logger LOG = LoggerFactory.getLogger(JsonPathExpression.class);
 
     private final String expression;
-    private JsonPathEngine engine;
+    private volatile JsonPathEngine engine;
 
     private boolean predicate;
     private Class<?> resultType;
@@ -196,6 +196,11 @@ public class JsonPathExpression extends ExpressionAdapter {
 
     @Override
     public void init(CamelContext context) {
+        // avoid initializing multiple times, as the expression may be shared (such as from the expression cache)
+        if (engine != null) {
+            return;
+        }
+
         String exp = expression;
 
         if (predicate && isAllowEasyPredicate()) {
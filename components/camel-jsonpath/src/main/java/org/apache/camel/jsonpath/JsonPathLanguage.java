@@ -89,6 +89,12 @@ public class JsonPathLanguage extends SingleInputTypedLanguageSupport implements
         this.options = options;
     }
 
+    @Override
+    protected boolean supportExpressionCache() {
+        // compiling the path is costly, and the expressions are only initialized once so they can be shared
+        return true;
+    }
+
     @Override
     public Predicate createPredicate(Expression source, String expression, Object[] properties) {
         return doCreateJsonPathExpression(source, expression, properties, true);
@@ -28,8 +28,10 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.ShutdownRunningTask;
 import org.apache.camel.Suspendable;
+import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.support.DefaultConsumer;
 import org.apache.camel.support.EmptyAsyncCallback;
 import org.apache.camel.support.ExchangeHelper;
@@ -326,8 +328,18 @@ public class SedaConsumer extends DefaultConsumer implements Runnable, ShutdownA
 
         // create thread pool if needed
         if (executor == null) {
-            executor = getEndpoint().getCamelContext().getExecutorServiceManager().newFixedThreadPool(this,
-                    getEndpoint().getEndpointUri(), poolSize);
+            ExecutorServiceManager manager = getEndpoint().getCamelContext().getExecutorServiceManager();
+            if (getEndpoint().isVirtualThreads()) {
+                ThreadPoolProfile profile = new ThreadPoolProfile(getEndpoint().getEndpointUri());
+                profile.setPoolSize(poolSize);
+                profile.setMaxPoolSize(poolSize);
+                profile.setKeepAliveTime(0L);
+                profile.setAllowCoreThreadTimeOut(false);
+                profile.setVirtualThreadPerTask(true);
+                executor = manager.newThreadPool(this, getEndpoint().getEndpointUri(), profile);
+            } else {
+                executor = manager.newFixedThreadPool(this, getEndpoint().getEndpointUri(), poolSize);
+            }
         }
 
         // submit needed number of tasks
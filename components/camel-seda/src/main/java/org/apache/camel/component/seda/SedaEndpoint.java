@@ -84,6 +84,8 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
     private boolean purgeWhenStopping;
     @UriParam(label = "consumer,advanced", defaultValue = "1000")
     private int pollTimeout = 1000;
+    @UriParam(label = "consumer,advanced")
+    private boolean virtualThreads;
 
     @UriParam(label = "producer", defaultValue = "IfReplyExpected")
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -480,6 +482,20 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
         this.purgeWhenStopping = purgeWhenStopping;
     }
 
+    @ManagedAttribute
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Whether the concurrent consumers should use virtual threads instead of platform threads (requires Java 21 or
+     * newer). Virtual threads are cheap, which allows to use a high number of concurrent consumers for blocking
+     * processing (such as HTTP or JDBC calls) without tying up a platform thread per consumer.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     /**
      * Returns the current pending exchanges
      */
@@ -22,6 +22,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +36,7 @@ import javax.sql.DataSource;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.BatchAggregationRepository;
 import org.apache.camel.spi.Configurer;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
@@ -61,13 +65,15 @@ import org.springframework.transaction.support.TransactionTemplate;
  * JDBC based {@link org.apache.camel.spi.AggregationRepository} JdbcAggregationRepository will only preserve any
  * Serializable compatible data types. If a data type is not such a type its dropped and a WARN is logged. And it only
  * persists the Message body and the Message headers. The Exchange properties are not persisted.
+ * <p/>
+ * The batch operations used by the aggregator group commit are done in a single transaction for all the exchanges.
  */
 @Metadata(label = "bean",
           description = "Aggregation repository that uses SQL database to store exchanges.",
           annotations = { "interfaceName=org.apache.camel.spi.AggregationRepository" })
 @Configurer(metadataOnly = true)
 public class JdbcAggregationRepository extends ServiceSupport
-        implements RecoverableAggregationRepository, OptimisticLockingAggregationRepository {
+        implements RecoverableAggregationRepository, OptimisticLockingAggregationRepository, BatchAggregationRepository {
 
     protected static final String EXCHANGE = "exchange";
     protected static final String ID = "id";
@@ -365,6 +371,83 @@ public class JdbcAggregationRepository extends ServiceSupport
         }
     }
 
+    @Override
+    public void addAll(final CamelContext camelContext, final Map<String, Exchange> exchanges) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+                    final String correlationId = entry.getKey();
+                    final Exchange exchange = entry.getValue();
+                    try {
+                        LOG.debug("Adding exchange with key {}", correlationId);
+                        // the aggregator guards the correlation groups when using group commit, so the version is not checked
+                        if (updateLatest(camelContext, correlationId, exchange, getRepositoryName()) == 0) {
+                            LOG.debug("Inserting record with key {}", correlationId);
+                            insert(camelContext, correlationId, exchange, getRepositoryName(), 1L);
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(
+                                "Error adding to repository " + repositoryName + " with key " + correlationId, e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Updates the current exchange details in the given repository table regardless of the version, which is
+     * incremented.
+     *
+     * @param  camelContext   Current CamelContext
+     * @param  key            Correlation key
+     * @param  exchange       Aggregated exchange
+     * @param  repositoryName Table's name
+     * @return                the number of updated records
+     */
+    protected int updateLatest(
+            final CamelContext camelContext, final String key, final Exchange exchange, String repositoryName)
+            throws Exception {
+        StringBuilder queryBuilder = new StringBuilder()
+                .append("UPDATE ").append(repositoryName)
+                .append(" SET ")
+                .append(EXCHANGE).append(" = ?")
+                .append(", ")
+                .append(VERSION).append(" = ").append(VERSION).append(" + 1");
+        if (storeBodyAsText) {
+            queryBuilder.append(", ").append(BODY).append(" = ?");
+        }
+
+        if (hasHeadersToStoreAsText()) {
+            for (String headerName : headersToStoreAsText) {
+                queryBuilder.append(", ").append(headerName).append(" = ?");
+            }
+        }
+
+        queryBuilder.append(" WHERE ")
+                .append(ID).append(" = ?");
+
+        final byte[] data = jdbcCamelCodec.marshallExchange(exchange, allowSerializedHeaders);
+        Integer updateCount = jdbcTemplate.execute(queryBuilder.toString(),
+                new AbstractLobCreatingPreparedStatementCallback(getLobHandler()) {
+                    @Override
+                    protected void setValues(PreparedStatement ps, LobCreator lobCreator) throws SQLException {
+                        int totalParameterIndex = 0;
+                        lobCreator.setBlobAsBytes(ps, ++totalParameterIndex, data);
+                        if (storeBodyAsText) {
+                            ps.setString(++totalParameterIndex, exchange.getIn().getBody(String.class));
+                        }
+                        if (hasHeadersToStoreAsText()) {
+                            for (String headerName : headersToStoreAsText) {
+                                String headerValue = exchange.getIn().getHeader(headerName, String.class);
+                                ps.setString(++totalParameterIndex, headerValue);
+                            }
+                        }
+                        ps.setString(++totalParameterIndex, key);
+                    }
+                });
+        return updateCount == null ? 0 : updateCount;
+    }
+
     @Override
     public Exchange get(final CamelContext camelContext, final String correlationId) {
         Exchange result = get(correlationId, getRepositoryName(), camelContext);
@@ -430,6 +513,62 @@ public class JdbcAggregationRepository extends ServiceSupport
         });
     }
 
+    @Override
+    public Map<String, Exchange> getAll(final CamelContext camelContext, final Collection<String> keys) {
+        return transactionTemplateReadOnly.execute(new TransactionCallback<Map<String, Exchange>>() {
+            public Map<String, Exchange> doInTransaction(TransactionStatus status) {
+                Map<String, Exchange> answer = new LinkedHashMap<>();
+                for (String key : keys) {
+                    Exchange exchange = get(key, getRepositoryName(), camelContext);
+                    if (exchange != null) {
+                        answer.put(key, exchange);
+                    }
+                }
+                return answer;
+            }
+        });
+    }
+
+    @Override
+    public void removeAll(final CamelContext camelContext, final Map<String, Exchange> exchanges) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+                    final String correlationId = entry.getKey();
+                    final Exchange exchange = entry.getValue();
+                    final Long version = exchange.getProperty(VERSION_PROPERTY, Long.class);
+                    try {
+                        LOG.debug("Removing key {}", correlationId);
+
+                        jdbcTemplate.update("DELETE FROM " + getRepositoryName() + " WHERE " + ID + " = ?", correlationId);
+
+                        insert(camelContext, exchange.getExchangeId(), exchange, getRepositoryNameCompleted(),
+                                version != null ? version : 1L);
+                        LOG.debug("Removed key {}", correlationId);
+
+                    } catch (Exception e) {
+                        throw new RuntimeException(
+                                "Error removing key " + correlationId + " from repository " + repositoryName, e);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void confirmAll(final CamelContext camelContext, final Collection<String> exchangeIds) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                LOG.debug("Confirming {} exchangeIds", exchangeIds.size());
+                List<Object[]> args = new ArrayList<>(exchangeIds.size());
+                for (String exchangeId : exchangeIds) {
+                    args.add(new Object[] { exchangeId });
+                }
+                jdbcTemplate.batchUpdate("DELETE FROM " + getRepositoryNameCompleted() + " WHERE " + ID + " = ?", args);
+            }
+        });
+    }
+
     @Override
     public void confirm(final CamelContext camelContext, final String exchangeId) {
         confirmWithResult(camelContext, exchangeId);
@@ -17,11 +17,13 @@
 package org.apache.camel.processor.idempotent.jdbc;
 
 import java.sql.Timestamp;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
 import org.apache.camel.spi.Configurer;
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.ScannableIdempotentRepository;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.TransactionStatus;
@@ -35,7 +37,7 @@ import org.springframework.transaction.support.TransactionTemplate;
           description = "Idempotent repository that uses a SQL database to store message ids.",
           annotations = { "interfaceName=org.apache.camel.spi.IdempotentRepository" })
 @Configurer(metadataOnly = true)
-public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
+public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository implements ScannableIdempotentRepository {
 
     protected static final String DEFAULT_TABLENAME = "CAMEL_MESSAGEPROCESSED";
     protected static final String DEFAULT_TABLE_EXISTS_STRING = "SELECT 1 FROM CAMEL_MESSAGEPROCESSED WHERE 1 = 0";
@@ -49,6 +51,8 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
     protected static final String DEFAULT_DELETE_STRING
             = "DELETE FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ? AND messageId = ?";
     protected static final String DEFAULT_CLEAR_STRING = "DELETE FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ?";
+    protected static final String DEFAULT_QUERY_KEYS_STRING
+            = "SELECT messageId FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ?";
 
     @Metadata(description = "The name of the table to use in the database", defaultValue = "CAMEL_MESSAGEPROCESSED")
     private String tableName;
@@ -67,6 +71,8 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
     private String deleteString = DEFAULT_DELETE_STRING;
     @Metadata(label = "advanced", description = "SQL query to delete all message ids from the table")
     private String clearString = DEFAULT_CLEAR_STRING;
+    @Metadata(label = "advanced", description = "SQL query to use for scanning all the message ids in the table")
+    private String queryKeysString = DEFAULT_QUERY_KEYS_STRING;
 
     public JdbcMessageIdRepository() {
     }
@@ -95,6 +101,7 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
             insertString = DEFAULT_INSERT_STRING.replace(DEFAULT_TABLENAME, tableName);
             deleteString = DEFAULT_DELETE_STRING.replace(DEFAULT_TABLENAME, tableName);
             clearString = DEFAULT_CLEAR_STRING.replace(DEFAULT_TABLENAME, tableName);
+            queryKeysString = DEFAULT_QUERY_KEYS_STRING.replace(DEFAULT_TABLENAME, tableName);
         }
     }
 
@@ -152,6 +159,13 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
         return jdbcTemplate.update(getClearString(), processorName);
     }
 
+    @Override
+    public void scan(Consumer<String> consumer) {
+        jdbcTemplate.query(getQueryKeysString(), rs -> {
+            consumer.accept(rs.getString(1));
+        }, processorName);
+    }
+
     public boolean isCreateTableIfNotExists() {
         return createTableIfNotExists;
     }
@@ -218,4 +232,12 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository {
     public void setClearString(String clearString) {
         this.clearString = clearString;
     }
+
+    public String getQueryKeysString() {
+        return queryKeysString;
+    }
+
+    public void setQueryKeysString(String queryKeysString) {
+        this.queryKeysString = queryKeysString;
+    }
 }
@@ -23,6 +23,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -173,7 +174,10 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
         private static final Pattern NAMESPACE_PATTERN = Pattern.compile("xmlns(:\\w+|)\\s*=\\s*('[^']*'|\"[^\"]*\")");
 
         private AttributedQName[] splitpath;
-        private int index;
+        private boolean[] descendants;
+        // the steps of the path matched by the ancestors of the current element, as bits indexed by step
+        private long[] states = new long[16];
+        private int stateDepth;
         private char mode;
         private int group;
         private RecordableReader in;
@@ -193,17 +197,29 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
         private Object nextToken;
 
         XMLTokenIterator(String path, Map<String, String> nsmap, char mode, int group, Reader in) throws XMLStreamException {
-            final String[] sl = path.substring(1).split("/");
-            this.splitpath = new AttributedQName[sl.length];
-            for (int i = 0; i < sl.length; i++) {
-                String s = sl[i];
-                if (s.length() > 0) {
-                    int d = s.indexOf(':');
-                    String pfx = StringHelper.before(s, ":", "");
-                    this.splitpath[i] = new AttributedQName(
-                            "*".equals(pfx) ? "*" : nsmap == null ? "" : nsmap.get(pfx), d > 0 ? s.substring(d + 1) : s, pfx);
+            List<AttributedQName> steps = new ArrayList<>();
+            List<Boolean> axes = new ArrayList<>();
+            boolean descendant = false;
+            for (String s : splitPath(path.substring(1))) {
+                if (s.isEmpty()) {
+                    // an empty step is the descendant-or-self axis of the next step
+                    descendant = true;
+                } else {
+                    steps.add(createStep(s, nsmap));
+                    axes.add(descendant);
+                    descendant = false;
                 }
             }
+            if (steps.size() >= Long.SIZE) {
+                throw new IllegalArgumentException("Path has too many steps: " + path);
+            }
+            this.splitpath = steps.toArray(new AttributedQName[0]);
+            this.descendants = new boolean[splitpath.length];
+            for (int i = 0; i < descendants.length; i++) {
+                descendants[i] = axes.get(i);
+            }
+            // the document node matches the empty path
+            this.states[0] = 1L;
 
             this.mode = mode != 0 ? mode : 'i';
             this.group = group > 0 ? group : 1;
@@ -233,35 +249,39 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
             this.nextToken = getNextToken();
         }
 
-        private boolean isDoS() {
-            return splitpath[index] == null;
-        }
-
-        private AttributedQName current() {
-            return splitpath[index + (isDoS() ? 1 : 0)];
-        }
-
-        private AttributedQName ancestor() {
-            return index == 0 ? null : splitpath[index - 1];
-        }
-
-        private void down() {
-            if (isDoS()) {
-                index++;
+        /**
+         * Matches the current element against the steps of the path which may be matched by its children, given the
+         * steps matched by its parent.
+         *
+         * @return the steps matched by the current element, as bits indexed by the number of steps matched
+         */
+        private long matchSteps(long parent) {
+            long answer = 0;
+            for (int k = 0; k < splitpath.length; k++) {
+                if ((parent & (1L << k)) != 0) {
+                    if (descendants[k]) {
+                        // the step may match a descendant of the current element as well
+                        answer |= 1L << k;
+                    }
+                    if (splitpath[k].matches(reader)) {
+                        answer |= 1L << (k + 1);
+                    }
+                }
             }
-            index++;
+            return answer;
         }
 
-        private void up() {
-            index--;
-        }
-
-        private boolean isBottom() {
-            return index == splitpath.length - (isDoS() ? 2 : 1);
+        private void pushState(long state) {
+            if (++stateDepth == states.length) {
+                states = Arrays.copyOf(states, states.length * 2);
+            }
+            states[stateDepth] = state;
         }
 
-        private boolean isTop() {
-            return index == 0;
+        private void popState() {
+            if (stateDepth > 0) {
+                stateDepth--;
+            }
         }
 
         private int readNext() throws XMLStreamException {
@@ -485,30 +505,26 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
                             pushNamespaces(reader);
                         }
                         backtrack = false;
-                        if (current().matches(name)) {
-                            // mark the position of the match in the segments list
-                            if (isBottom()) {
-                                // final match
-                                token = getCurrentToken();
-                                backtrack = true;
-                                trackdepth = depth;
-                                if (group > 1) {
-                                    tokens.add(token);
-                                    if (group == tokens.size()) {
-                                        return getGroupedToken();
-                                    }
-                                } else {
-                                    return token;
+                        long state = matchSteps(states[stateDepth]);
+                        if ((state & (1L << splitpath.length)) != 0) {
+                            // final match
+                            token = getCurrentToken();
+                            backtrack = true;
+                            trackdepth = depth;
+                            if (group > 1) {
+                                tokens.add(token);
+                                if (group == tokens.size()) {
+                                    return getGroupedToken();
                                 }
                             } else {
-                                // intermediary match
-                                down();
+                                return token;
                             }
-                        } else if (isDoS()) {
-                            // continue
                         } else {
-                            // skip
-                            readCurrent(false);
+                            pushState(state);
+                            if (state == 0) {
+                                // skip as none of the steps can match the descendants
+                                readCurrent(false);
+                            }
                         }
                         break;
                     case XMLStreamConstants.END_ELEMENT:
@@ -524,6 +540,7 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
                         LOG.trace("ee={}", endname);
 
                         popName();
+                        popState();
                         if (mode == 'i') {
                             popNamespaces();
                         }
@@ -548,11 +565,6 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
                                 }
                             }
                         }
-
-                        if (ancestor() == null && !isTop()
-                                || ancestor() != null && ancestor().matches(endname)) {
-                            up();
-                        }
                         break;
                     case XMLStreamConstants.END_DOCUMENT:
                         LOG.trace("depth={}", depth);
@@ -569,6 +581,117 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
             return null;
         }
 
+        /**
+         * Splits the path into its steps, ignoring the slashes within the predicates
+         */
+        static List<String> splitPath(String path) {
+            List<String> answer = new ArrayList<>();
+            int start = 0;
+            int brackets = 0;
+            char quote = 0;
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '[') {
+                    brackets++;
+                } else if (c == ']') {
+                    brackets--;
+                } else if (c == '/' && brackets == 0) {
+                    answer.add(path.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            if (start < path.length()) {
+                answer.add(path.substring(start));
+            }
+            return answer;
+        }
+
+        /**
+         * Creates the name test and the attribute predicates of a step of the path, such as
+         * <tt>ns:order[@type='book'][@id]</tt>
+         */
+        static AttributedQName createStep(String step, Map<String, String> nsmap) {
+            int bracket = step.indexOf('[');
+            String name = bracket < 0 ? step : step.substring(0, bracket);
+            int d = name.indexOf(':');
+            String pfx = StringHelper.before(name, ":", "");
+            AttributedQName answer = new AttributedQName(
+                    "*".equals(pfx) ? "*" : nsmap == null ? "" : nsmap.get(pfx), d > 0 ? name.substring(d + 1) : name, pfx);
+
+            while (bracket >= 0) {
+                int end = findPredicateEnd(step, bracket);
+                answer.addPredicate(createPredicate(step.substring(bracket + 1, end).trim(), nsmap, step));
+                bracket = end + 1 < step.length() ? end + 1 : -1;
+                if (bracket >= 0 && step.charAt(bracket) != '[') {
+                    throw new IllegalArgumentException("Invalid predicate in step: " + step);
+                }
+            }
+            return answer;
+        }
+
+        private static int findPredicateEnd(String step, int start) {
+            char quote = 0;
+            for (int i = start + 1; i < step.length(); i++) {
+                char c = step.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == ']') {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unterminated predicate in step: " + step);
+        }
+
+        /**
+         * Creates an attribute predicate, which is either <tt>@name</tt>, <tt>@name='value'</tt> or
+         * <tt>@name!='value'</tt>
+         */
+        private static AttributePredicate createPredicate(String predicate, Map<String, String> nsmap, String step) {
+            if (!predicate.startsWith("@")) {
+                throw new IllegalArgumentException(
+                        "Only attribute predicates are supported, was: [" + predicate + "] in step: " + step);
+            }
+            int end = 1;
+            while (end < predicate.length() && "=!".indexOf(predicate.charAt(end)) < 0
+                    && !Character.isWhitespace(predicate.charAt(end))) {
+                end++;
+            }
+            String name = predicate.substring(1, end);
+            String rest = predicate.substring(end).trim();
+
+            String value = null;
+            boolean negate = false;
+            if (!rest.isEmpty()) {
+                negate = rest.startsWith("!=");
+                if (!negate && !rest.startsWith("=")) {
+                    throw new IllegalArgumentException("Invalid predicate: [" + predicate + "] in step: " + step);
+                }
+                value = rest.substring(negate ? 2 : 1).trim();
+                if (value.length() < 2 || value.charAt(0) != value.charAt(value.length() - 1)
+                        || value.charAt(0) != '\'' && value.charAt(0) != '"') {
+                    throw new IllegalArgumentException(
+                            "The value must be quoted in predicate: [" + predicate + "] in step: " + step);
+                }
+                value = value.substring(1, value.length() - 1);
+            }
+
+            // unlike the elements, attributes without a prefix are not in the default namespace
+            int d = name.indexOf(':');
+            String pfx = StringHelper.before(name, ":", "");
+            String ns = "*".equals(pfx) ? "*" : pfx.isEmpty() || nsmap == null ? "" : nsmap.get(pfx);
+            return new AttributePredicate(ns, d > 0 ? name.substring(d + 1) : name, value, negate);
+        }
+
         private static String makeName(QName qname) {
             String pfx = qname.getPrefix();
             return pfx.isEmpty() ? qname.getLocalPart() : qname.getPrefix() + ":" + qname.getLocalPart();
@@ -612,6 +735,7 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
         private static final long serialVersionUID = 9878370226894144L;
         private Pattern lcpattern;
         private boolean nsany;
+        private List<AttributePredicate> predicates;
 
         AttributedQName(String localPart) {
             super(localPart);
@@ -635,6 +759,30 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
                             : getLocalPart().equals(qname.getLocalPart()));
         }
 
+        /**
+         * Whether the current element of the reader matches the name and the attribute predicates
+         */
+        public boolean matches(XMLStreamReader reader) {
+            if (!matches(reader.getName())) {
+                return false;
+            }
+            if (predicates != null) {
+                for (AttributePredicate predicate : predicates) {
+                    if (!predicate.matches(reader)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void addPredicate(AttributePredicate predicate) {
+            if (predicates == null) {
+                predicates = new ArrayList<>();
+            }
+            predicates.add(predicate);
+        }
+
         private void checkWildcard(String nsa, String lcp) {
             nsany = "*".equals(nsa);
             boolean wc = false;
@@ -668,4 +816,33 @@ public class XMLTokenExpressionIterator extends ExpressionAdapter implements Nam
             }
         }
     }
+
+    /**
+     * A predicate on an attribute of an element, which is true if the attribute exists and, when a value is given, the
+     * attribute is (or is not) equal to the value.
+     */
+    static final class AttributePredicate {
+        private final String namespaceURI;
+        private final String localPart;
+        private final String value;
+        private final boolean negate;
+
+        AttributePredicate(String namespaceURI, String localPart, String value, boolean negate) {
+            this.namespaceURI = namespaceURI != null ? namespaceURI : "";
+            this.localPart = localPart;
+            this.value = value;
+            this.negate = negate;
+        }
+
+        boolean matches(XMLStreamReader reader) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                QName name = reader.getAttributeName(i);
+                if (localPart.equals(name.getLocalPart())
+                        && ("*".equals(namespaceURI) || namespaceURI.equals(name.getNamespaceURI()))) {
+                    return value == null || value.equals(reader.getAttributeValue(i)) != negate;
+                }
+            }
+            return false;
+        }
+    }
 }
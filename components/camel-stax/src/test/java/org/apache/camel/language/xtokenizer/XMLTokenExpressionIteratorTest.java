@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.xmlunit.assertj3.XmlAssert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -113,6 +114,12 @@ public class XMLTokenExpressionIteratorTest {
                                                             + "</greatgrandparent>")
             .getBytes();
 
+    // nesting elements of the same name
+    private static final byte[] TEST_BODY_NESTED = ("<?xml version='1.0' encoding='UTF-8'?>"
+                                                    + "<items><item type='a'><item type='b'><sub>0</sub></item><sub>1</sub></item>"
+                                                    + "<item type='b'><sub>2</sub></item></items>")
+            .getBytes();
+
     private static final String RESULTS_CW1 = "<?xml version='1.0' encoding='UTF-8'?>"
                                               + "<g:greatgrandparent xmlns:g='urn:g'><grandparent><uncle/><aunt>emma</aunt>"
                                               + "<c:parent some_attr='1' xmlns:c='urn:c' xmlns:d=\"urn:d\">"
@@ -309,6 +316,10 @@ public class XMLTokenExpressionIteratorTest {
     private static final String[] RESULTS_NULL = {
     };
 
+    private static final String[] RESULTS_NESTED_SUB = {
+            "<sub>1</sub>"
+    };
+
     private Map<String, String> nsmap;
 
     @BeforeEach
@@ -478,6 +489,49 @@ public class XMLTokenExpressionIteratorTest {
                 'i', new ByteArrayInputStream(TEST_BODY_MIXED_CHILDREN), RESULTS_AUNT_AND_UNCLE);
     }
 
+    @Test
+    public void testExtractChildWithAttribute() throws Exception {
+        invokeAndVerify("//C:child[@some_attr='b']",
+                'i', new ByteArrayInputStream(TEST_BODY), new String[] { RESULTS_CHILD[1] });
+    }
+
+    @Test
+    public void testExtractChildWithParentAttribute() throws Exception {
+        invokeAndVerify("//C:parent[@some_attr='2']/C:child",
+                'w', new ByteArrayInputStream(TEST_BODY), new String[] { RESULTS_CW3, RESULTS_CW4 });
+    }
+
+    @Test
+    public void testExtractChildWithAttributePredicates() throws Exception {
+        invokeAndVerify("//C:parent[@some_attr][@some_attr!=\"2\"]/C:child[@anotherAttr]",
+                'i', new ByteArrayInputStream(TEST_BODY),
+                new String[] { RESULTS_CHILD[0], RESULTS_CHILD[1], RESULTS_CHILD[4], RESULTS_CHILD[5] });
+    }
+
+    @Test
+    public void testExtractParentWithAttribute() throws Exception {
+        invokeAndVerify("//C:parent[@some_attr='3']",
+                'i', new ByteArrayInputStream(TEST_BODY), new String[] { RESULTS_P3 });
+    }
+
+    @Test
+    public void testExtractChildWithMissingAttribute() throws Exception {
+        invokeAndVerify("//C:child[@missing_attr]",
+                'i', new ByteArrayInputStream(TEST_BODY), RESULTS_NULL);
+    }
+
+    @Test
+    public void testExtractNestedWithAttribute() throws Exception {
+        invokeAndVerify("//item[@type='a']/sub",
+                'i', new ByteArrayInputStream(TEST_BODY_NESTED), RESULTS_NESTED_SUB);
+    }
+
+    @Test
+    public void testUnsupportedPredicate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> invokeAndVerify("//C:child[1]", 'i', new ByteArrayInputStream(TEST_BODY), RESULTS_NULL));
+    }
+
     private void invokeAndVerify(String path, char mode, InputStream in, String[] expected) throws Exception {
         XMLTokenExpressionIterator xtei = new XMLTokenExpressionIterator(path, mode);
         xtei.setNamespaces(nsmap);
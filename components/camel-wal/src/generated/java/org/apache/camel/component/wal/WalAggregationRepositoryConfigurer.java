@@ -0,0 +1,102 @@
+/* Generated by camel build tools - do NOT edit this file! */
+package org.apache.camel.component.wal;
+
+import javax.annotation.processing.Generated;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.ExtendedPropertyConfigurerGetter;
+import org.apache.camel.spi.PropertyConfigurerGetter;
+import org.apache.camel.spi.ConfigurerStrategy;
+import org.apache.camel.spi.GeneratedPropertyConfigurer;
+import org.apache.camel.util.CaseInsensitiveMap;
+import org.apache.camel.component.wal.WalAggregationRepository;
+
+/**
+ * Generated by camel build tools - do NOT edit this file!
+ */
+@Generated("org.apache.camel.maven.packaging.GenerateConfigurerMojo")
+@SuppressWarnings("unchecked")
+public class WalAggregationRepositoryConfigurer extends org.apache.camel.support.component.PropertyConfigurerSupport implements GeneratedPropertyConfigurer, PropertyConfigurerGetter {
+
+    @Override
+    public boolean configure(CamelContext camelContext, Object obj, String name, Object value, boolean ignoreCase) {
+        org.apache.camel.component.wal.WalAggregationRepository target = (org.apache.camel.component.wal.WalAggregationRepository) obj;
+        switch (ignoreCase ? name.toLowerCase() : name) {
+        case "allowserializedheaders":
+        case "allowSerializedHeaders": target.setAllowSerializedHeaders(property(camelContext, boolean.class, value)); return true;
+        case "compactionminsize":
+        case "compactionMinSize": target.setCompactionMinSize(property(camelContext, long.class, value)); return true;
+        case "compactionthreshold":
+        case "compactionThreshold": target.setCompactionThreshold(property(camelContext, double.class, value)); return true;
+        case "deadletteruri":
+        case "deadLetterUri": target.setDeadLetterUri(property(camelContext, java.lang.String.class, value)); return true;
+        case "deserializationfilter":
+        case "deserializationFilter": target.setDeserializationFilter(property(camelContext, java.lang.String.class, value)); return true;
+        case "logfile":
+        case "logFile": target.setLogFile(property(camelContext, java.io.File.class, value)); return true;
+        case "maximumredeliveries":
+        case "maximumRedeliveries": target.setMaximumRedeliveries(property(camelContext, int.class, value)); return true;
+        case "recoveryinterval":
+        case "recoveryInterval": target.setRecoveryInterval(property(camelContext, long.class, value)); return true;
+        case "sync": target.setSync(property(camelContext, boolean.class, value)); return true;
+        case "userecovery":
+        case "useRecovery": target.setUseRecovery(property(camelContext, boolean.class, value)); return true;
+        default: return false;
+        }
+    }
+
+    @Override
+    public Class<?> getOptionType(String name, boolean ignoreCase) {
+        switch (ignoreCase ? name.toLowerCase() : name) {
+        case "allowserializedheaders":
+        case "allowSerializedHeaders": return boolean.class;
+        case "compactionminsize":
+        case "compactionMinSize": return long.class;
+        case "compactionthreshold":
+        case "compactionThreshold": return double.class;
+        case "deadletteruri":
+        case "deadLetterUri": return java.lang.String.class;
+        case "deserializationfilter":
+        case "deserializationFilter": return java.lang.String.class;
+        case "logfile":
+        case "logFile": return java.io.File.class;
+        case "maximumredeliveries":
+        case "maximumRedeliveries": return int.class;
+        case "recoveryinterval":
+        case "recoveryInterval": return long.class;
+        case "sync": return boolean.class;
+        case "userecovery":
+        case "useRecovery": return boolean.class;
+        default: return null;
+        }
+    }
+
+    @Override
+    public Object getOptionValue(Object obj, String name, boolean ignoreCase) {
+        org.apache.camel.component.wal.WalAggregationRepository target = (org.apache.camel.component.wal.WalAggregationRepository) obj;
+        switch (ignoreCase ? name.toLowerCase() : name) {
+        case "allowserializedheaders":
+        case "allowSerializedHeaders": return target.isAllowSerializedHeaders();
+        case "compactionminsize":
+        case "compactionMinSize": return target.getCompactionMinSize();
+        case "compactionthreshold":
+        case "compactionThreshold": return target.getCompactionThreshold();
+        case "deadletteruri":
+        case "deadLetterUri": return target.getDeadLetterUri();
+        case "deserializationfilter":
+        case "deserializationFilter": return target.getDeserializationFilter();
+        case "logfile":
+        case "logFile": return target.getLogFile();
+        case "maximumredeliveries":
+        case "maximumRedeliveries": return target.getMaximumRedeliveries();
+        case "recoveryinterval":
+        case "recoveryInterval": return target.getRecoveryInterval();
+        case "sync": return target.isSync();
+        case "userecovery":
+        case "useRecovery": return target.isUseRecovery();
+        default: return null;
+        }
+    }
+}
+
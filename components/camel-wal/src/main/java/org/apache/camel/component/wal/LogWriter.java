@@ -23,6 +23,9 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import org.apache.camel.RuntimeCamelException;
@@ -30,21 +33,42 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A writer for write-ahead log files
+ * A writer for write-ahead log files.
+ *
+ * The entries are serialized into a reusable direct buffer. By default, the buffer is written to the file on every
+ * append. When group commit is enabled, the entries appended (possibly by many threads) are batched in the buffer, which
+ * is written to the file when it fills up. The file is forced to disk when the unsynced data exceeds the group commit
+ * size, or when the {@link LogSupervisor} flushes it at regular intervals, and the callers waiting with
+ * {@link #whenDurable()} are notified once their entries are durable.
  */
 public final class LogWriter implements AutoCloseable {
     /**
      * The default buffer capacity: 512 KiB
      */
     public static final int DEFAULT_CAPACITY = 1024 * 512;
+    /**
+     * The default group commit size: 64 KiB
+     */
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 1024 * 64;
+    private static final int INITIAL_BUFFER_SIZE = 1024 * 4;
     private static final Logger LOG = LoggerFactory.getLogger(LogWriter.class);
 
     private final FileChannel fileChannel;
 
     private final LogSupervisor flushPolicy;
     private final TransactionLog transactionLog;
+    private final int groupCommitSize;
+    private final SyncWaiters syncWaiters = new SyncWaiters();
+    // only one thread forces the file to disk at any time, the others wait and are likely covered by the same sync
+    private final Lock syncLock = new ReentrantLock();
+    private final ByteBuffer stateBuffer = ByteBuffer.allocateDirect(Integer.BYTES);
+    private ByteBuffer writeBuffer;
 
     private long startOfRecords;
+    // the sequence of the last change to the file and the number of bytes not synced yet (guarded by this)
+    private long writeSequence;
+    private long unsyncedBytes;
+    private volatile long syncCount;
 
     /**
      * Constructs a new log writer with the default capacity {@link LogWriter#DEFAULT_CAPACITY} (512 KiB). If the file
@@ -69,6 +93,27 @@ public final class LogWriter implements AutoCloseable {
      * @throws IOException    in case of I/O errors
      */
     LogWriter(File logFile, LogSupervisor logSupervisor, int maxRecordCount) throws IOException {
+        this(logFile, logSupervisor, maxRecordCount, 0);
+    }
+
+    /**
+     * Constructs a new log writer. If the file already exists, it will be truncated.
+     *
+     * @param  logFile         the transaction log file
+     * @param  logSupervisor   the log supervisor {@link LogSupervisor} for the writer
+     * @param  maxRecordCount  the maximum number of records to keep in the file. Beyond this count, entries will be
+     *                         rolled-over.
+     * @param  groupCommitSize the size (in bytes) of the appended entries that are batched in memory before writing
+     *                         them to the file, and forcing them to disk. Zero to disable group commit.
+     * @throws IOException     in case of I/O errors
+     */
+    LogWriter(File logFile, LogSupervisor logSupervisor, int maxRecordCount, int groupCommitSize) throws IOException {
+        if (groupCommitSize < 0) {
+            throw new IllegalArgumentException("The group commit size must not be negative: " + groupCommitSize);
+        }
+
+        this.groupCommitSize = groupCommitSize;
+        this.writeBuffer = ByteBuffer.allocateDirect(groupCommitSize > 0 ? groupCommitSize : INITIAL_BUFFER_SIZE);
         this.fileChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
                 StandardOpenOption.TRUNCATE_EXISTING);
 
@@ -81,15 +126,74 @@ public final class LogWriter implements AutoCloseable {
     }
 
     /**
-     * Flushes the data to disk
+     * Flushes the data to disk, and notifies the callers waiting for it to be durable. If another thread is already
+     * flushing, then this waits for it, and only flushes again if the data was changed in the meantime.
      *
      * @throws IOException in case of I/O errors
      */
     void flush() throws IOException {
-        fileChannel.force(true);
+        final long target;
+        synchronized (this) {
+            target = writeSequence;
+        }
+
+        long sequence = target;
+        syncLock.lock();
+        try {
+            if (target <= syncWaiters.getSyncedSequence()) {
+                // a concurrent flush already covered the changes
+                return;
+            }
+
+            synchronized (this) {
+                drain();
+                sequence = writeSequence;
+                unsyncedBytes = 0;
+            }
+
+            fileChannel.force(true);
+            syncCount++;
+        } catch (IOException e) {
+            syncWaiters.failed(sequence, e);
+            throw e;
+        } finally {
+            syncLock.unlock();
+        }
+
+        syncWaiters.synced(sequence);
+    }
+
+    /**
+     * Waits for all the entries appended, and the states updated, so far to be forced to disk. This does not flush by
+     * itself: the data is forced to disk when the group commit size is reached or when the log supervisor flushes the
+     * log.
+     *
+     * @return a future which is completed once the data is durable, or completed exceptionally if it could not be
+     *         forced to disk
+     */
+    public CompletableFuture<Void> whenDurable() {
+        final long sequence;
+        synchronized (this) {
+            sequence = writeSequence;
+        }
+        return syncWaiters.await(sequence);
+    }
+
+    /**
+     * Whether the entries are batched in memory and forced to disk in groups
+     */
+    public boolean isGroupCommit() {
+        return groupCommitSize > 0;
+    }
+
+    /**
+     * The number of times the file has been forced to disk
+     */
+    long getSyncCount() {
+        return syncCount;
     }
 
-    private synchronized void tryFlush() {
+    private void tryFlush() {
         try {
             flush();
         } catch (IOException e) {
@@ -98,7 +202,10 @@ public final class LogWriter implements AutoCloseable {
         }
     }
 
-    public void reset() throws IOException {
+    public synchronized void reset() throws IOException {
+        // the pending entries are discarded along with the rest of the records
+        writeBuffer.clear();
+        writeSequence++;
         fileChannel.truncate(startOfRecords);
         fileChannel.position(startOfRecords);
     }
@@ -124,6 +231,7 @@ public final class LogWriter implements AutoCloseable {
         IOUtil.write(fileChannel, headerBuffer);
 
         startOfRecords = fileChannel.position();
+        writeSequence++;
     }
 
     /**
@@ -134,6 +242,22 @@ public final class LogWriter implements AutoCloseable {
      * @throws IOException for lower-level I/O errors
      */
     public EntryInfo.CachedEntryInfo append(LogEntry entry) throws IOException {
+        final EntryInfo.CachedEntryInfo entryInfo;
+        final boolean sync;
+        synchronized (this) {
+            entryInfo = doAppend(entry);
+            writeSequence++;
+            sync = groupCommitSize > 0 && unsyncedBytes >= groupCommitSize;
+        }
+
+        if (sync) {
+            flush();
+        }
+
+        return entryInfo;
+    }
+
+    private EntryInfo.CachedEntryInfo doAppend(LogEntry entry) throws IOException {
         final TransactionLog.LayerInfo layerInfo = transactionLog.add(entry);
         if (layerInfo.getLayer() == 0) {
             return persist(layerInfo, entry);
@@ -153,6 +277,8 @@ public final class LogWriter implements AutoCloseable {
         if (!collect.isEmpty()) {
             final EntryInfo lastOnLayer = collect.get(0);
 
+            // the position can only be moved once the pending entries are written
+            drain();
             LOG.trace("Current pos is: {}", fileChannel.position());
             LOG.trace("Next pos should be: {}", lastOnLayer.getPosition());
 
@@ -164,26 +290,40 @@ public final class LogWriter implements AutoCloseable {
     }
 
     /**
-     * Persists an entry to the log
+     * Writes the state of an entry, either in the write buffer if the entry is still pending or otherwise in the file
      *
-     * @param  layerInfo   the in-memory layer information about the record being persisted
-     * @param  entry       the entry to persist
-     * @param  position    the position in the channel where the entry will be persisted
+     * @param  position    the position of the entry in the file
+     * @param  state       the state of the entry
      * @throws IOException in case of lower-level I/O errors
      */
-    private void persist(TransactionLog.LayerInfo layerInfo, LogEntry entry, long position) throws IOException {
-        ByteBuffer updateBuffer = ByteBuffer.allocate(entry.size());
-
-        IOUtil.serialize(updateBuffer, entry);
+    private void writeState(long position, LogEntry.EntryState state) throws IOException {
+        final long bufferPosition = fileChannel.position();
 
         if (LOG.isTraceEnabled()) {
-            LOG.trace("Position: {} for record {} with key {}", position, layerInfo, new String(entry.getKey()));
+            LOG.trace("Position: {} updated to state {}", position, state);
         }
 
-        long size = IOUtil.write(fileChannel, updateBuffer, position);
+        if (position >= bufferPosition && position < bufferPosition + writeBuffer.position()) {
+            writeBuffer.putInt((int) (position - bufferPosition), state.getCode());
+        } else {
+            stateBuffer.putInt(state.getCode());
+            long size = IOUtil.write(fileChannel, stateBuffer, position);
 
-        if (size == 0) {
-            LOG.warn("No bytes written for the given record!");
+            if (size == 0) {
+                LOG.warn("No bytes written for the given record!");
+            }
+        }
+        writeSequence++;
+    }
+
+    /**
+     * Writes the pending entries in the write buffer to the file
+     *
+     * @throws IOException in case of lower-level I/O errors
+     */
+    private void drain() throws IOException {
+        if (writeBuffer.position() > 0) {
+            IOUtil.write(fileChannel, writeBuffer);
         }
     }
 
@@ -196,14 +336,23 @@ public final class LogWriter implements AutoCloseable {
      * @throws IOException in case of lower-level I/O errors
      */
     private EntryInfo.CachedEntryInfo persist(TransactionLog.LayerInfo layerInfo, LogEntry entry) throws IOException {
-        final byte[] key = entry.getKey();
-        final byte[] value = entry.getValue();
+        final int size = entry.size();
+
+        if (writeBuffer.remaining() < size) {
+            drain();
+            if (writeBuffer.capacity() < size) {
+                // only grows for entries larger than the buffer
+                writeBuffer = ByteBuffer.allocateDirect(size);
+            }
+        }
 
-        ByteBuffer writeBuffer = ByteBuffer.allocate(LogEntry.size(key, value));
+        long recordPosition = fileChannel.position() + writeBuffer.position();
         IOUtil.serialize(writeBuffer, entry);
+        unsyncedBytes += size;
 
-        long recordPosition = fileChannel.position();
-        IOUtil.write(fileChannel, writeBuffer);
+        if (groupCommitSize == 0) {
+            drain();
+        }
 
         return EntryInfo.createForCached(recordPosition, layerInfo);
     }
@@ -230,7 +379,8 @@ public final class LogWriter implements AutoCloseable {
      * @param  state       the state to update the entry to
      * @throws IOException in case of lower-level I/O errors
      */
-    public void updateState(EntryInfo.CachedEntryInfo entryInfo, LogEntry.EntryState state) throws IOException {
+    public synchronized void updateState(EntryInfo.CachedEntryInfo entryInfo, LogEntry.EntryState state)
+            throws IOException {
         final TransactionLog.LayerInfo layerInfo = entryInfo.getLayerInfo();
 
         /*
@@ -244,7 +394,8 @@ public final class LogWriter implements AutoCloseable {
         final LogEntry logEntry = transactionLog.update(layerInfo, state);
 
         if (logEntry != null) {
-            persist(layerInfo, logEntry, entryInfo.getPosition());
+            // only the state changes, so there is no need to rewrite the whole entry
+            writeState(entryInfo.getPosition(), logEntry.getEntryState());
         }
     }
 
@@ -256,7 +407,9 @@ public final class LogWriter implements AutoCloseable {
      * @param  state       the state to update the entry to
      * @throws IOException if the buffer is too small for the entry or in case of lower-level I/O errors
      */
-    public void updateState(PersistedLogEntry entry, LogEntry.EntryState state) throws IOException {
+    public synchronized void updateState(PersistedLogEntry entry, LogEntry.EntryState state) throws IOException {
+        drain();
+
         ByteBuffer updateBuffer = ByteBuffer.allocate(entry.size());
 
         IOUtil.serialize(updateBuffer, state.getCode(), entry.getKeyMetadata(), entry.getKey(), entry.getValueMetadata(),
@@ -272,6 +425,7 @@ public final class LogWriter implements AutoCloseable {
         if (size == 0) {
             LOG.warn("No bytes written for the given record!");
         }
+        writeSequence++;
     }
 
 }
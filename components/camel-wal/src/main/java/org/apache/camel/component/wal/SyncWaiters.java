@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.camel.component.wal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps track of the callers waiting for the writes to a log to be forced to disk. Each write to the log is identified
+ * by a sequence number, and once the writes up to a given sequence are durable, all the callers waiting for them are
+ * notified.
+ */
+final class SyncWaiters {
+
+    private final List<Waiter> waiters = new ArrayList<>();
+    private long syncedSequence;
+
+    /**
+     * Waits for the writes up to the given sequence to be durable
+     *
+     * @param  sequence the sequence of the last write to wait for
+     * @return          a future which is completed once the writes are durable, or completed exceptionally if the log
+     *                  failed to force them to disk
+     */
+    synchronized CompletableFuture<Void> await(long sequence) {
+        if (sequence <= syncedSequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        waiters.add(new Waiter(sequence, future));
+        return future;
+    }
+
+    /**
+     * Gets the sequence of the last write which is durable
+     *
+     * @return the sequence of the last durable write
+     */
+    synchronized long getSyncedSequence() {
+        return syncedSequence;
+    }
+
+    /**
+     * Marks the writes up to the given sequence as durable and notifies the callers waiting for them
+     *
+     * @param sequence the sequence of the last write forced to disk
+     */
+    void synced(long sequence) {
+        for (Waiter waiter : remove(sequence, true)) {
+            waiter.future.complete(null);
+        }
+    }
+
+    /**
+     * Notifies the callers waiting for the writes up to the given sequence that they could not be forced to disk
+     *
+     * @param sequence the sequence of the last write that failed
+     * @param cause    the cause of the failure
+     */
+    void failed(long sequence, Throwable cause) {
+        for (Waiter waiter : remove(sequence, false)) {
+            waiter.future.completeExceptionally(cause);
+        }
+    }
+
+    private synchronized List<Waiter> remove(long sequence, boolean synced) {
+        if (synced && sequence > syncedSequence) {
+            syncedSequence = sequence;
+        }
+
+        // the futures are completed outside the lock, as their callbacks may write to the log again
+        List<Waiter> answer = new ArrayList<>();
+        Iterator<Waiter> it = waiters.iterator();
+        while (it.hasNext()) {
+            Waiter waiter = it.next();
+            if (waiter.sequence <= sequence) {
+                answer.add(waiter);
+                it.remove();
+            }
+        }
+        return answer;
+    }
+
+    private record Waiter(long sequence, CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,920 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.wal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.BatchAggregationRepository;
+import org.apache.camel.spi.Configurer;
+import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.OptimisticLockingAggregationRepository;
+import org.apache.camel.spi.RecoverableAggregationRepository;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link org.apache.camel.spi.AggregationRepository} which stores the aggregated exchanges in a local write-ahead
+ * log file, so the aggregation state survives a restart or crash without any external store.
+ * <p/>
+ * The log file uses the write-ahead log format of the {@link LogWriter}: a {@link Header} followed by {@link LogEntry}
+ * records, where the key metadata holds the record type and the value metadata holds a checksum of the record. Every
+ * change to a correlation group is appended as a record, and an in-memory index holds the position of the latest
+ * exchange of each correlation group and completed exchange, which is read back from the log file when needed. On
+ * startup the index is rebuilt by reading the log file, and a partially written record at the end of the log (such as
+ * after a crash) is truncated.
+ * <p/>
+ * When sync is enabled (the default), then the records are forced to disk before returning. The threads which append
+ * records concurrently share a single force (group commit), so the cost of the sync is amortized when there are many
+ * concurrent correlation groups. The batch operations of {@link BatchAggregationRepository}, which the aggregator uses
+ * with group commit, append all their records at once with a single force.
+ * <p/>
+ * The records of the exchanges which have been replaced, completed or confirmed are dead. When the log file has grown
+ * beyond the compaction minimum size, and the dead records exceed the compaction threshold, then the live records are
+ * rewritten to a new log file which atomically replaces the current log file.
+ */
+@Metadata(label = "bean",
+          description = "Aggregation repository that stores exchanges in a local write-ahead log file.",
+          annotations = { "interfaceName=org.apache.camel.AggregationStrategy" })
+@Configurer(metadataOnly = true)
+@ManagedResource(description = "Write-ahead log based aggregation repository")
+public class WalAggregationRepository extends ServiceSupport
+        implements RecoverableAggregationRepository, OptimisticLockingAggregationRepository, BatchAggregationRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalAggregationRepository.class);
+
+    // optimistic locking: version identifier of the stored exchange
+    static final String VERSION_PROPERTY = "CamelOptimisticLockVersion";
+
+    private static final String COMPACT_SUFFIX = ".compact";
+    // the record types, which are stored as the key metadata of the log entries
+    private static final int RECORD_ADD = 1;
+    private static final int RECORD_REMOVE = 2;
+    private static final int RECORD_CONFIRM = 3;
+    private static final byte[] EMPTY = new byte[0];
+    // the exchange id and correlation key of a removed exchange are stored in the key of the record
+    private static final char KEY_SEPARATOR = '\0';
+
+    private final WalCamelCodec codec = new WalCamelCodec();
+    // the read lock guards reading and writing the current log file, and the write lock guards replacing it
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final Lock appendLock = new ReentrantLock();
+    private final Lock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Map<String, Slot> groups = new ConcurrentHashMap<>();
+    private final Map<String, Slot> completed = new ConcurrentHashMap<>();
+    private final LongAdder syncCounter = new LongAdder();
+    private final LongAdder compactionCounter = new LongAdder();
+    private FileChannel fileChannel;
+    // guarded by appendLock
+    private long position;
+    private long liveBytes;
+    private volatile long writtenSequence;
+    // guarded by syncLock
+    private long syncedSequence;
+    private boolean syncing;
+
+    @Metadata(description = "The write-ahead log file to store the exchanges", required = true)
+    private File logFile;
+    @Metadata(description = "Whether to force the records to disk (fsync) before returning. The threads which write concurrently"
+                            + " share a single force (group commit).",
+              defaultValue = "true")
+    private boolean sync = true;
+    @Metadata(description = "The ratio of dead records in the log file (exchanges which have been replaced, completed or confirmed),"
+                            + " which triggers compacting the log file",
+              defaultValue = "0.5")
+    private double compactionThreshold = 0.5;
+    @Metadata(description = "The minimum size in bytes of the log file before it is compacted",
+              defaultValue = "" + 16 * 1024 * 1024)
+    private long compactionMinSize = 16 * 1024 * 1024;
+    @Metadata(description = "Whether or not recovery is enabled", defaultValue = "true")
+    private boolean useRecovery = true;
+    @Metadata(description = "Sets the interval between recovery scans", defaultValue = "5000")
+    private long recoveryInterval = 5000;
+    @Metadata(description = "Sets an optional limit of the number of redelivery attempt of recovered Exchange should be attempted, before its exhausted."
+                            + " When this limit is hit, then the Exchange is moved to the dead letter channel.")
+    private int maximumRedeliveries;
+    @Metadata(description = "Sets an optional dead letter channel which exhausted recovered Exchange should be send to.")
+    private String deadLetterUri;
+    @Metadata(label = "advanced",
+              description = "Whether headers on the Exchange that are Java objects and Serializable should be included and saved to the repository")
+    private boolean allowSerializedHeaders;
+    @Metadata(label = "security", defaultValue = "java.**;org.apache.camel.**;!*",
+              description = "Sets a deserialization filter while reading Object from Aggregation Repository. By default the filter will allow"
+                            + " all java packages and subpackages and all org.apache.camel packages and subpackages, while the remaining will be"
+                            + " blacklisted and not deserialized. This parameter should be customized if you're using classes you trust to be"
+                            + " deserialized.")
+    private String deserializationFilter = "java.**;org.apache.camel.**;!*";
+
+    /**
+     * Creates an aggregation repository
+     */
+    public WalAggregationRepository() {
+    }
+
+    /**
+     * Creates an aggregation repository which stores the exchanges in the given log file
+     *
+     * @param logFile the write-ahead log file
+     */
+    public WalAggregationRepository(File logFile) {
+        this.logFile = logFile;
+    }
+
+    @Override
+    public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+        LOG.debug("Adding key [{}] -> {}", key, exchange);
+        long version = write(List.of(Write.add(key, marshal(exchange), -1)));
+        exchange.setProperty(VERSION_PROPERTY, version);
+        return null;
+    }
+
+    @Override
+    public Exchange add(CamelContext camelContext, String key, Exchange oldExchange, Exchange newExchange)
+            throws OptimisticLockingException {
+        LOG.debug("Adding key [{}] -> {}", key, newExchange);
+        long expected = oldExchange != null ? versionOf(oldExchange) : 0;
+        long version = write(List.of(Write.add(key, marshal(newExchange), expected)));
+        newExchange.setProperty(VERSION_PROPERTY, version);
+        return oldExchange;
+    }
+
+    @Override
+    public void addAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+        LOG.debug("Adding {} keys", exchanges.size());
+        List<Write> writes = new ArrayList<>(exchanges.size());
+        for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+            writes.add(Write.add(entry.getKey(), marshal(entry.getValue()), -1));
+        }
+        write(writes);
+    }
+
+    @Override
+    public Exchange get(CamelContext camelContext, String key) {
+        Exchange answer = read(camelContext, groups, key);
+        LOG.debug("Getting key [{}] -> {}", key, answer);
+        return answer;
+    }
+
+    @Override
+    public void remove(CamelContext camelContext, String key, Exchange exchange) throws OptimisticLockingException {
+        LOG.debug("Removing key [{}]", key);
+        // only check the version if the exchange has been read from this repository
+        Long version = exchange.getProperty(VERSION_PROPERTY, Long.class);
+        write(List.of(Write.remove(key, exchange.getExchangeId(), marshal(exchange), version != null ? version : -1)));
+    }
+
+    @Override
+    public void removeAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+        LOG.debug("Removing {} keys", exchanges.size());
+        List<Write> writes = new ArrayList<>(exchanges.size());
+        for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+            Exchange exchange = entry.getValue();
+            writes.add(Write.remove(entry.getKey(), exchange.getExchangeId(), marshal(exchange), -1));
+        }
+        write(writes);
+    }
+
+    @Override
+    public void confirm(CamelContext camelContext, String exchangeId) {
+        LOG.debug("Confirming exchangeId [{}]", exchangeId);
+        confirmAll(camelContext, List.of(exchangeId));
+    }
+
+    @Override
+    public void confirmAll(CamelContext camelContext, Collection<String> exchangeIds) {
+        List<Write> writes = new ArrayList<>(exchangeIds.size());
+        for (String exchangeId : exchangeIds) {
+            // there is nothing to confirm if the exchange has already been confirmed
+            if (completed.containsKey(exchangeId)) {
+                writes.add(Write.confirm(exchangeId));
+            }
+        }
+        if (!writes.isEmpty()) {
+            write(writes);
+        }
+    }
+
+    @Override
+    public Set<String> getKeys() {
+        // interval task could potentially be running while we are shutting down so check for that
+        if (!isRunAllowed()) {
+            return null;
+        }
+        return Collections.unmodifiableSet(new LinkedHashSet<>(groups.keySet()));
+    }
+
+    @Override
+    public Set<String> scan(CamelContext camelContext) {
+        if (!isRunAllowed()) {
+            return null;
+        }
+        Set<String> answer = new LinkedHashSet<>(completed.keySet());
+        if (answer.isEmpty()) {
+            LOG.trace("Scanned and found no exchange to recover.");
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("Scanned and found {} exchange(s) to recover (note some of them may already be in progress).",
+                    answer.size());
+        }
+        return answer;
+    }
+
+    @Override
+    public Exchange recover(CamelContext camelContext, String exchangeId) {
+        Exchange answer = read(camelContext, completed, exchangeId);
+        LOG.debug("Recovering exchangeId [{}] -> {}", exchangeId, answer);
+        return answer;
+    }
+
+    /**
+     * Rewrites the live records to a new log file, which replaces the current log file
+     */
+    @ManagedOperation(description = "Compacts the log file")
+    public void compact() {
+        fileLock.writeLock().lock();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error compacting the log file " + logFile, e);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The size in bytes of the log file")
+    public long getLogSize() {
+        appendLock.lock();
+        try {
+            return position;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The size in bytes of the live records in the log file")
+    public long getLiveSize() {
+        appendLock.lock();
+        try {
+            return liveBytes;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of correlation groups which are not completed")
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    @ManagedAttribute(description = "Number of completed exchanges which have not been confirmed")
+    public int getCompletedCount() {
+        return completed.size();
+    }
+
+    @ManagedAttribute(description = "Number of times the log file has been forced to disk")
+    public long getSyncCount() {
+        return syncCounter.sum();
+    }
+
+    @ManagedAttribute(description = "Number of times the log file has been compacted")
+    public long getCompactionCount() {
+        return compactionCounter.sum();
+    }
+
+    public File getLogFile() {
+        return logFile;
+    }
+
+    public void setLogFile(File logFile) {
+        this.logFile = logFile;
+    }
+
+    @ManagedAttribute(description = "Whether to force the records to disk before returning")
+    public boolean isSync() {
+        return sync;
+    }
+
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public long getCompactionMinSize() {
+        return compactionMinSize;
+    }
+
+    public void setCompactionMinSize(long compactionMinSize) {
+        this.compactionMinSize = compactionMinSize;
+    }
+
+    @Override
+    public void setRecoveryInterval(long interval, TimeUnit timeUnit) {
+        this.recoveryInterval = timeUnit.toMillis(interval);
+    }
+
+    @Override
+    public void setRecoveryInterval(long interval) {
+        this.recoveryInterval = interval;
+    }
+
+    @Override
+    public long getRecoveryInterval() {
+        return recoveryInterval;
+    }
+
+    @Override
+    public boolean isUseRecovery() {
+        return useRecovery;
+    }
+
+    @Override
+    public void setUseRecovery(boolean useRecovery) {
+        this.useRecovery = useRecovery;
+    }
+
+    @Override
+    public int getMaximumRedeliveries() {
+        return maximumRedeliveries;
+    }
+
+    @Override
+    public void setMaximumRedeliveries(int maximumRedeliveries) {
+        this.maximumRedeliveries = maximumRedeliveries;
+    }
+
+    @Override
+    public String getDeadLetterUri() {
+        return deadLetterUri;
+    }
+
+    @Override
+    public void setDeadLetterUri(String deadLetterUri) {
+        this.deadLetterUri = deadLetterUri;
+    }
+
+    public boolean isAllowSerializedHeaders() {
+        return allowSerializedHeaders;
+    }
+
+    public void setAllowSerializedHeaders(boolean allowSerializedHeaders) {
+        this.allowSerializedHeaders = allowSerializedHeaders;
+    }
+
+    public String getDeserializationFilter() {
+        return deserializationFilter;
+    }
+
+    public void setDeserializationFilter(String deserializationFilter) {
+        this.deserializationFilter = deserializationFilter;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(logFile, "logFile");
+        if (compactionThreshold <= 0 || compactionThreshold > 1) {
+            throw new IllegalArgumentException("The compaction threshold must be between 0 and 1, was: " + compactionThreshold);
+        }
+
+        Path path = logFile.toPath();
+        File parent = logFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        // a compaction which did not complete is discarded, as the log file has not been replaced
+        Files.deleteIfExists(compactPath());
+
+        groups.clear();
+        completed.clear();
+        liveBytes = 0;
+        fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (fileChannel.size() == 0) {
+            writeHeader(fileChannel);
+            position = Header.BYTES;
+        } else {
+            position = replay(path, fileChannel.size());
+            if (fileChannel.size() > position) {
+                LOG.warn("Truncating {} bytes of a partially written record at the end of the log file: {}",
+                        fileChannel.size() - position, logFile);
+                fileChannel.truncate(position);
+                fileChannel.force(true);
+            }
+        }
+
+        if (!groups.isEmpty()) {
+            LOG.info("On startup there are {} aggregate exchanges (not completed) in log file: {}", groups.size(), logFile);
+        } else {
+            LOG.info("On startup there are no existing aggregate exchanges (not completed) in log file: {}", logFile);
+        }
+        if (!completed.isEmpty()) {
+            LOG.warn("On startup there are {} completed exchanges to be recovered in log file: {}", completed.size(), logFile);
+        } else {
+            LOG.info("On startup there are no completed exchanges to be recovered in log file: {}", logFile);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        fileLock.writeLock().lock();
+        try {
+            if (fileChannel != null) {
+                fileChannel.force(true);
+                fileChannel.close();
+                fileChannel = null;
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private byte[] marshal(Exchange exchange) {
+        try {
+            return codec.marshallExchange(exchange, allowSerializedHeaders);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error marshalling exchange " + exchange.getExchangeId(), e);
+        }
+    }
+
+    private static long versionOf(Exchange exchange) {
+        Long version = exchange.getProperty(VERSION_PROPERTY, Long.class);
+        return version != null ? version : 0;
+    }
+
+    private Exchange read(CamelContext camelContext, Map<String, Slot> index, String key) {
+        byte[] data;
+        long version;
+        fileLock.readLock().lock();
+        try {
+            Slot slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            data = readValue(fileChannel, slot);
+            version = slot.version;
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error reading key " + key + " from log file " + logFile, e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+
+        try {
+            Exchange answer = codec.unmarshallExchange(camelContext, data, deserializationFilter);
+            if (version > 0) {
+                answer.setProperty(VERSION_PROPERTY, version);
+            }
+            return answer;
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeCamelException("Error unmarshalling key " + key + " from log file " + logFile, e);
+        }
+    }
+
+    /**
+     * Appends the records to the log file and updates the index, and awaits the records being synced to disk.
+     *
+     * @return the version of the last added exchange
+     */
+    private long write(List<Write> writes) {
+        long sequence;
+        long version = 0;
+        fileLock.readLock().lock();
+        try {
+            appendLock.lock();
+            try {
+                for (Write write : writes) {
+                    if (write.expectedVersion >= 0) {
+                        Slot current = groups.get(write.key);
+                        long currentVersion = current != null ? current.version : 0;
+                        if (currentVersion != write.expectedVersion) {
+                            LOG.debug("Optimistic locking failure for key [{}], expected version {} but was {}",
+                                    write.key, write.expectedVersion, currentVersion);
+                            throw new OptimisticLockingException();
+                        }
+                    }
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate(size(writes));
+                for (Write write : writes) {
+                    serialize(buffer, write.type, write.recordKey, write.value);
+                }
+                IOUtil.write(fileChannel, buffer, position);
+
+                for (Write write : writes) {
+                    version = apply(write.type, write.recordKey, position, write.value.length);
+                    position += LogEntry.size(write.recordKey, write.value);
+                }
+                sequence = ++writtenSequence;
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error writing to log file " + logFile, e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+
+        if (sync) {
+            awaitSync(sequence);
+        }
+        if (isCompactionNeeded() && compacting.compareAndSet(false, true)) {
+            try {
+                compact();
+            } finally {
+                compacting.set(false);
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Updates the index with a record, which starts at the given position of the log file
+     *
+     * @return the version of the correlation group if the record is an added exchange
+     */
+    private long apply(int type, byte[] recordKey, long recordPosition, int valueLength) {
+        Slot slot = new Slot(recordPosition, recordKey.length, valueLength);
+        switch (type) {
+            case RECORD_ADD: {
+                String key = new String(recordKey, StandardCharsets.UTF_8);
+                Slot old = groups.get(key);
+                slot.version = old != null ? old.version + 1 : 1;
+                groups.put(key, slot);
+                liveBytes += slot.size() - (old != null ? old.size() : 0);
+                return slot.version;
+            }
+            case RECORD_REMOVE: {
+                String ids = new String(recordKey, StandardCharsets.UTF_8);
+                int separator = ids.indexOf(KEY_SEPARATOR);
+                Slot old = groups.remove(ids.substring(separator + 1));
+                if (old != null) {
+                    liveBytes -= old.size();
+                }
+                old = completed.put(ids.substring(0, separator), slot);
+                liveBytes += slot.size() - (old != null ? old.size() : 0);
+                return 0;
+            }
+            case RECORD_CONFIRM: {
+                Slot old = completed.remove(new String(recordKey, StandardCharsets.UTF_8));
+                if (old != null) {
+                    liveBytes -= old.size();
+                }
+                return 0;
+            }
+            default:
+                throw new IllegalArgumentException("Invalid record type " + type);
+        }
+    }
+
+    /**
+     * Forces the log file to disk, unless it has been forced after the given write. A single thread forces the log
+     * file at any time, and the threads which write meanwhile await the next force, which then includes all their
+     * writes.
+     */
+    private void awaitSync(long sequence) {
+        syncLock.lock();
+        try {
+            while (syncedSequence < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = writtenSequence;
+                IOException failure = null;
+                syncLock.unlock();
+                try {
+                    force();
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (failure == null) {
+                        syncedSequence = Math.max(syncedSequence, target);
+                    }
+                    synced.signalAll();
+                }
+                if (failure != null) {
+                    throw new RuntimeCamelException("Error syncing log file " + logFile, failure);
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void force() throws IOException {
+        fileLock.readLock().lock();
+        try {
+            // the log file is only appended to, so the file metadata is not needed to read back the records
+            fileChannel.force(false);
+            syncCounter.increment();
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    private boolean isCompactionNeeded() {
+        appendLock.lock();
+        try {
+            long size = position - Header.BYTES;
+            return size >= compactionMinSize && size - liveBytes >= size * compactionThreshold;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the live records to a new log file, and replaces the current log file with it. Must be called while
+     * holding the write lock of the log file.
+     */
+    private void doCompact() throws IOException {
+        long oldPosition = position;
+        Path compactPath = compactPath();
+        Map<String, Slot> newGroups = new HashMap<>(groups.size());
+        Map<String, Slot> newCompleted = new HashMap<>(completed.size());
+        long newPosition = Header.BYTES;
+        try (FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            for (Map.Entry<String, Slot> entry : groups.entrySet()) {
+                Slot slot = entry.getValue();
+                byte[] recordKey = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                newPosition = copy(out, newPosition, RECORD_ADD, recordKey, slot, newGroups, entry.getKey());
+            }
+            for (Map.Entry<String, Slot> entry : completed.entrySet()) {
+                Slot slot = entry.getValue();
+                byte[] recordKey = readKey(fileChannel, slot);
+                newPosition = copy(out, newPosition, RECORD_REMOVE, recordKey, slot, newCompleted, entry.getKey());
+            }
+            out.force(true);
+        }
+
+        fileChannel.close();
+        try {
+            Files.move(compactPath, logFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // reopen the current log file, which is the compacted log file if it has been replaced
+            fileChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        appendLock.lock();
+        try {
+            groups.putAll(newGroups);
+            completed.putAll(newCompleted);
+            position = newPosition;
+            liveBytes = newPosition - Header.BYTES;
+        } finally {
+            appendLock.unlock();
+        }
+        // all the records which have been written are now synced to disk
+        syncLock.lock();
+        try {
+            syncedSequence = Math.max(syncedSequence, writtenSequence);
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        compactionCounter.increment();
+        LOG.debug("Compacted log file {} from {} to {} bytes", logFile, oldPosition, newPosition);
+    }
+
+    private long copy(
+            FileChannel out, long outPosition, int type, byte[] recordKey, Slot slot, Map<String, Slot> index, String key)
+            throws IOException {
+        byte[] value = readValue(fileChannel, slot);
+        ByteBuffer buffer = ByteBuffer.allocate(LogEntry.size(recordKey, value));
+        serialize(buffer, type, recordKey, value);
+        IOUtil.write(out, buffer, outPosition);
+
+        Slot copy = new Slot(outPosition, recordKey.length, value.length);
+        copy.version = slot.version;
+        index.put(key, copy);
+        return outPosition + LogEntry.size(recordKey, value);
+    }
+
+    private Path compactPath() {
+        return logFile.toPath().resolveSibling(logFile.getName() + COMPACT_SUFFIX);
+    }
+
+    /**
+     * Reads the records of the log file to rebuild the index
+     *
+     * @return the position after the last valid record
+     */
+    private long replay(Path path, long fileSize) throws IOException {
+        long recordPosition = Header.BYTES;
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] name = new byte[Header.FORMAT_NAME_SIZE];
+            in.readFully(name);
+            int fileVersion = in.readInt();
+            if (!Header.FORMAT_NAME.equals(new String(name, StandardCharsets.US_ASCII))
+                    || fileVersion != Header.CURRENT_FILE_VERSION) {
+                throw new IOException("The file " + logFile + " is not a write-ahead log file of a supported version");
+            }
+
+            while (true) {
+                byte[] recordKey;
+                byte[] value;
+                int type;
+                int checksum;
+                try {
+                    in.readInt(); // the entry state
+                    type = in.readInt();
+                    recordKey = readSlot(in, fileSize - recordPosition);
+                    checksum = in.readInt();
+                    value = readSlot(in, fileSize - recordPosition);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (recordKey == null || value == null || checksum != checksum(recordKey, value)
+                        || type < RECORD_ADD || type > RECORD_CONFIRM) {
+                    LOG.warn("The log file {} has an invalid record at position {}", logFile, recordPosition);
+                    break;
+                }
+                apply(type, recordKey, recordPosition, value.length);
+                recordPosition += LogEntry.size(recordKey, value);
+                records++;
+            }
+        }
+        LOG.debug("Read {} records from log file {}", records, logFile);
+        return recordPosition;
+    }
+
+    private static byte[] readSlot(DataInputStream in, long remaining) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > remaining) {
+            // a partially written record
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Header.BYTES);
+        headerBuffer.put(Header.WA_DEFAULT_V1.getFormatName().getBytes(StandardCharsets.US_ASCII));
+        headerBuffer.putInt(Header.WA_DEFAULT_V1.getFileVersion());
+        IOUtil.write(channel, headerBuffer, 0);
+    }
+
+    private static byte[] readValue(FileChannel channel, Slot slot) throws IOException {
+        return read(channel, slot.valuePosition(), slot.valueLength);
+    }
+
+    private static byte[] readKey(FileChannel channel, Slot slot) throws IOException {
+        return read(channel, slot.keyPosition(), slot.keyLength);
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the log file at position " + position);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void serialize(ByteBuffer buffer, int type, byte[] recordKey, byte[] value) throws IOException {
+        IOUtil.serialize(buffer, LogEntry.EntryState.NEW.getCode(), type, recordKey, checksum(recordKey, value), value);
+    }
+
+    private static int checksum(byte[] recordKey, byte[] value) {
+        CRC32C crc = new CRC32C();
+        crc.update(recordKey);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    private static int size(List<Write> writes) {
+        int size = 0;
+        for (Write write : writes) {
+            size += LogEntry.size(write.recordKey, write.value);
+        }
+        return size;
+    }
+
+    /**
+     * The position of a record in the log file
+     */
+    private static final class Slot {
+        // entry state, key metadata and key length
+        private static final int KEY_OFFSET = Integer.BYTES * 3;
+        // value metadata and value length
+        private static final int VALUE_OFFSET = Integer.BYTES * 2;
+
+        private final long position;
+        private final int keyLength;
+        private final int valueLength;
+        private long version;
+
+        private Slot(long position, int keyLength, int valueLength) {
+            this.position = position;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        private long keyPosition() {
+            return position + KEY_OFFSET;
+        }
+
+        private long valuePosition() {
+            return keyPosition() + keyLength + VALUE_OFFSET;
+        }
+
+        private int size() {
+            return KEY_OFFSET + keyLength + VALUE_OFFSET + valueLength;
+        }
+    }
+
+    /**
+     * A record to append to the log file
+     */
+    private static final class Write {
+        private final int type;
+        private final String key;
+        private final byte[] recordKey;
+        private final byte[] value;
+        // the version the correlation group must have, where 0 is a group which does not exist and -1 is not checked
+        private final long expectedVersion;
+
+        private Write(int type, String key, byte[] recordKey, byte[] value, long expectedVersion) {
+            this.type = type;
+            this.key = key;
+            this.recordKey = recordKey;
+            this.value = value;
+            this.expectedVersion = expectedVersion;
+        }
+
+        static Write add(String key, byte[] exchange, long expectedVersion) {
+            return new Write(RECORD_ADD, key, key.getBytes(StandardCharsets.UTF_8), exchange, expectedVersion);
+        }
+
+        static Write remove(String key, String exchangeId, byte[] exchange, long expectedVersion) {
+            byte[] recordKey = (exchangeId + KEY_SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+            return new Write(RECORD_REMOVE, key, recordKey, exchange, expectedVersion);
+        }
+
+        static Write confirm(String exchangeId) {
+            return new Write(RECORD_CONFIRM, null, exchangeId.getBytes(StandardCharsets.UTF_8), EMPTY, -1);
+        }
+    }
+}
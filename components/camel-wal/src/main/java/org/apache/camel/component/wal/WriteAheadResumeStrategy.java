@@ -315,7 +315,8 @@ public class WriteAheadResumeStrategy implements ResumeStrategy, CamelContextAwa
             DefaultLogSupervisor flushPolicy = new DefaultLogSupervisor(
                     resumeStrategyConfiguration.getSupervisorInterval(),
                     executorService);
-            logWriter = new LogWriter(logFile, flushPolicy);
+            logWriter = new LogWriter(
+                    logFile, flushPolicy, LogWriter.DEFAULT_CAPACITY, resumeStrategyConfiguration.getGroupCommitSize());
         } catch (Exception e) {
             throw new RuntimeCamelException(e);
         }
@@ -28,6 +28,7 @@ public class WriteAheadResumeStrategyConfiguration extends ResumeStrategyConfigu
     private File logFile;
     private ResumeStrategy delegateResumeStrategy;
     private long supervisorInterval;
+    private int groupCommitSize;
 
     public File getLogFile() {
         return logFile;
@@ -53,6 +54,14 @@ public class WriteAheadResumeStrategyConfiguration extends ResumeStrategyConfigu
         this.supervisorInterval = supervisorInterval;
     }
 
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    void setGroupCommitSize(int groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+    }
+
     @Override
     public String resumeStrategyService() {
         return "write-ahead-resume-strategy";
@@ -28,6 +28,7 @@ public class WriteAheadResumeStrategyConfigurationBuilder
     private File logFile;
     private ResumeStrategy delegateResumeStrategy;
     private long supervisorInterval;
+    private int groupCommitSize;
 
     /**
      * The transaction log file to use
@@ -53,6 +54,20 @@ public class WriteAheadResumeStrategyConfigurationBuilder
         return this;
     }
 
+    /**
+     * Batches the records appended to the transaction log in memory, up to the given size in bytes, before writing them
+     * to the file and forcing them to disk. Otherwise, the records are only forced to disk at the supervisor interval.
+     * Zero (the default) disables group commit.
+     *
+     * @param  groupCommitSize the group commit size in bytes (i.e.: {@link LogWriter#DEFAULT_GROUP_COMMIT_SIZE})
+     * @return                 this instance
+     */
+    public WriteAheadResumeStrategyConfigurationBuilder withGroupCommitSize(int groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+
+        return this;
+    }
+
     @Override
     public WriteAheadResumeStrategyConfiguration build() {
         final WriteAheadResumeStrategyConfiguration writeAheadResumeStrategyConfiguration
@@ -63,6 +78,7 @@ public class WriteAheadResumeStrategyConfigurationBuilder
         writeAheadResumeStrategyConfiguration.setLogFile(logFile);
         writeAheadResumeStrategyConfiguration.setDelegateResumeStrategy(delegateResumeStrategy);
         writeAheadResumeStrategyConfiguration.setSupervisorInterval(supervisorInterval);
+        writeAheadResumeStrategyConfiguration.setGroupCommitSize(groupCommitSize);
 
         return writeAheadResumeStrategyConfiguration;
     }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.camel.component.wal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogWriterGroupCommitTest extends LogTestBase {
+
+    @Test
+    public void testReadWriteUpdateRecords() throws IOException {
+        final List<EntryInfo.CachedEntryInfo> entryInfos = new ArrayList<>();
+        File reportFile = new File(testDir, "test.data");
+        final List<Instant> values;
+
+        try (LogWriter logWriter = new LogWriter(reportFile, new DefaultLogSupervisor(10000), LogWriter.DEFAULT_CAPACITY, 4096)) {
+            values = Assertions.assertDoesNotThrow(() -> generateDataFilePredictable(entryInfos::add, logWriter));
+
+            // the records still in the buffer are updated in memory, the others in the file
+            for (int i = 0; i < entryInfos.size(); i += 2) {
+                logWriter.updateState(entryInfos.get(i), LogEntry.EntryState.PROCESSED);
+            }
+
+            // the records were forced to disk whenever the buffer filled up
+            assertTrue(logWriter.getSyncCount() > 0);
+            assertTrue(logWriter.getSyncCount() < RECORD_COUNT / 10, "Syncs: " + logWriter.getSyncCount());
+        }
+
+        try (LogReader reader = new LogReader(reportFile)) {
+            int count = 0;
+            PersistedLogEntry entry = reader.readEntry();
+            while (entry != null) {
+                LogEntry.EntryState expected = count % 2 == 0 ? LogEntry.EntryState.PROCESSED : LogEntry.EntryState.NEW;
+                assertEquals(expected, entry.getEntryState());
+                assertEquals("record-" + count, new String(entry.getKey()));
+                assertEquals(values.get(count).toEpochMilli(), ByteBuffer.wrap(entry.getValue()).getLong());
+
+                count++;
+                entry = reader.readEntry();
+            }
+
+            assertEquals(RECORD_COUNT, count, "The number of records don't match");
+        }
+    }
+
+    @Test
+    public void testWhenDurable() throws Exception {
+        File reportFile = new File(testDir, "test.data");
+        ManualLogSupervisor supervisor = new ManualLogSupervisor();
+
+        try (LogWriter logWriter = new LogWriter(reportFile, supervisor, LogWriter.DEFAULT_CAPACITY, 4096)) {
+            assertTrue(logWriter.isGroupCommit());
+            logWriter.append(createNewLogEntry(null, 0));
+
+            // the record is kept in memory until the supervisor flushes it
+            CompletableFuture<Void> durable = logWriter.whenDurable();
+            assertFalse(durable.isDone());
+            assertEquals(Header.BYTES, reportFile.length());
+
+            supervisor.flush();
+            assertTrue(durable.isDone());
+            assertTrue(reportFile.length() > Header.BYTES);
+
+            // nothing has changed since the last flush
+            assertTrue(logWriter.whenDurable().isDone());
+        }
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        final int threads = 8;
+        final int recordsPerThread = 100;
+        File reportFile = new File(testDir, "test.data");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try (LogWriter logWriter = new LogWriter(reportFile, new DefaultLogSupervisor(10), LogWriter.DEFAULT_CAPACITY, 4096)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        logWriter.append(createNewLogEntry(null, i));
+                        logWriter.whenDurable().get(10, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+
+            // the writers share the syncs
+            assertTrue(logWriter.getSyncCount() < threads * recordsPerThread, "Syncs: " + logWriter.getSyncCount());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        try (LogReader reader = new LogReader(reportFile)) {
+            int count = 0;
+            while (reader.readEntry() != null) {
+                count++;
+            }
+            assertEquals(threads * recordsPerThread, count);
+        }
+    }
+
+    /**
+     * A supervisor which only flushes the log when requested by the test
+     */
+    static final class ManualLogSupervisor implements LogSupervisor {
+        private Runnable runnable;
+
+        @Override
+        public void start(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void stop() {
+            // noop
+        }
+
+        void flush() {
+            runnable.run();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.wal;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.apache.camel.util.FileUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WalAggregateRecoverTest extends CamelTestSupport {
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private WalAggregationRepository repo;
+
+    @Override
+    protected void doPreSetup() {
+        File logFile = new File("target/data/wal-recover/aggregation.log");
+        FileUtil.removeDir(logFile.getParentFile());
+        repo = new WalAggregationRepository(logFile);
+        // check faster
+        repo.setRecoveryInterval(500);
+    }
+
+    @Test
+    public void testWalAggregateRecover() throws Exception {
+        // should fail the first 2 times and then recover
+        getMockEndpoint("mock:aggregated").expectedMessageCount(3);
+        getMockEndpoint("mock:result").expectedBodiesReceived("ABCDE");
+        // should be marked as redelivered
+        getMockEndpoint("mock:result").message(0).header(Exchange.REDELIVERED).isEqualTo(Boolean.TRUE);
+        // on the 2nd redelivery attempt we success
+        getMockEndpoint("mock:result").message(0).header(Exchange.REDELIVERY_COUNTER).isEqualTo(2);
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 123);
+        template.sendBodyAndHeader("direct:start", "B", "id", 123);
+        template.sendBodyAndHeader("direct:start", "C", "id", 123);
+        template.sendBodyAndHeader("direct:start", "D", "id", 123);
+        template.sendBodyAndHeader("direct:start", "E", "id", 123);
+
+        MockEndpoint.assertIsSatisfied(context, 30, TimeUnit.SECONDS);
+        // the correlation group has been removed when it completed
+        assertTrue(repo.getKeys().isEmpty());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .aggregate(header("id"), new MyAggregationStrategy())
+                        .completionSize(5).aggregationRepository(repo)
+                        .to("mock:aggregated")
+                        // simulate errors the first two times
+                        .process(exchange -> {
+                            int count = counter.incrementAndGet();
+                            if (count <= 2) {
+                                throw new IllegalArgumentException("Damn");
+                            }
+                        })
+                        .to("mock:result")
+                        .end();
+            }
+        };
+    }
+
+    private static final class MyAggregationStrategy implements AggregationStrategy {
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            String body = oldExchange.getIn().getBody(String.class) + newExchange.getIn().getBody(String.class);
+            oldExchange.getIn().setBody(body);
+            return oldExchange;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.wal;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.OptimisticLockingAggregationRepository.OptimisticLockingException;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.apache.camel.util.FileUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WalAggregationRepositoryTest extends CamelTestSupport {
+
+    private final File logFile = new File("target/data/wal-aggregation/aggregation.log");
+    private WalAggregationRepository repo;
+
+    @Override
+    protected void doPreSetup() {
+        FileUtil.removeDir(logFile.getParentFile());
+        repo = new WalAggregationRepository(logFile);
+        repo.start();
+    }
+
+    @Override
+    protected void doPostTearDown() {
+        repo.stop();
+    }
+
+    @Test
+    public void testOperations() {
+        // Can't get something we have not put in...
+        assertNull(repo.get(context, "missing"));
+
+        // Store it..
+        repo.add(context, "foo", createExchange("counter:1"));
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("counter:1", actual.getIn().getBody());
+
+        // Change it..
+        repo.add(context, "foo", createExchange("counter:2"));
+        actual = repo.get(context, "foo");
+        assertEquals("counter:2", actual.getIn().getBody());
+        assertEquals(1, repo.getKeys().size());
+
+        // Remove it, which moves it to the completed exchanges
+        repo.remove(context, "foo", actual);
+        assertNull(repo.get(context, "foo"));
+        assertTrue(repo.getKeys().isEmpty());
+        assertEquals(1, repo.scan(context).size());
+        assertTrue(repo.scan(context).contains(actual.getExchangeId()));
+
+        Exchange recovered = repo.recover(context, actual.getExchangeId());
+        assertNotNull(recovered);
+        assertEquals("counter:2", recovered.getIn().getBody());
+        assertEquals(actual.getExchangeId(), recovered.getExchangeId());
+
+        // Confirm it
+        repo.confirm(context, actual.getExchangeId());
+        assertTrue(repo.scan(context).isEmpty());
+        assertNull(repo.recover(context, actual.getExchangeId()));
+    }
+
+    @Test
+    public void testRestart() {
+        repo.add(context, "foo", createExchange("foo:1"));
+        repo.add(context, "bar", createExchange("bar:1"));
+        repo.add(context, "foo", createExchange("foo:2"));
+        Exchange completed = repo.get(context, "bar");
+        repo.remove(context, "bar", completed);
+        repo.add(context, "baz", createExchange("baz:1"));
+        Exchange confirmed = repo.get(context, "baz");
+        repo.remove(context, "baz", confirmed);
+        repo.confirm(context, confirmed.getExchangeId());
+        repo.stop();
+
+        repo = new WalAggregationRepository(logFile);
+        repo.start();
+
+        assertEquals(1, repo.getKeys().size());
+        assertEquals("foo:2", repo.get(context, "foo").getIn().getBody());
+        assertEquals(1, repo.scan(context).size());
+        assertEquals("bar:1", repo.recover(context, completed.getExchangeId()).getIn().getBody());
+        assertNull(repo.recover(context, confirmed.getExchangeId()));
+    }
+
+    @Test
+    public void testPartiallyWrittenRecord() throws Exception {
+        repo.add(context, "foo", createExchange("foo:1"));
+        long size = repo.getLogSize();
+        repo.stop();
+
+        // simulate a crash while appending a record
+        try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocate(10);
+            buffer.putInt(LogEntry.EntryState.NEW.getCode()).putInt(1).put((byte) 0).put((byte) 0);
+            buffer.flip();
+            channel.write(buffer);
+        }
+        assertEquals(size + 10, logFile.length());
+
+        repo = new WalAggregationRepository(logFile);
+        repo.start();
+
+        assertEquals("foo:1", repo.get(context, "foo").getIn().getBody());
+        assertEquals(size, logFile.length());
+
+        // and it can be appended to again
+        repo.add(context, "foo", createExchange("foo:2"));
+        repo.stop();
+        repo.start();
+        assertEquals("foo:2", repo.get(context, "foo").getIn().getBody());
+    }
+
+    @Test
+    public void testOptimisticLocking() {
+        repo.add(context, "foo", null, createExchange("foo:1"));
+        // the correlation group has already been added
+        assertThrows(OptimisticLockingException.class, () -> repo.add(context, "foo", null, createExchange("foo:1")));
+
+        Exchange old = repo.get(context, "foo");
+        Exchange stale = repo.get(context, "foo");
+        Exchange updated = createExchange("foo:2");
+        assertEquals(old, repo.add(context, "foo", old, updated));
+        assertEquals("foo:2", repo.get(context, "foo").getIn().getBody());
+
+        // the correlation group has been changed since it was read
+        assertThrows(OptimisticLockingException.class, () -> repo.add(context, "foo", stale, createExchange("foo:3")));
+        assertThrows(OptimisticLockingException.class, () -> repo.remove(context, "foo", stale));
+
+        repo.remove(context, "foo", repo.get(context, "foo"));
+        assertNull(repo.get(context, "foo"));
+    }
+
+    @Test
+    public void testBatchOperations() {
+        Map<String, Exchange> exchanges = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            exchanges.put("key" + i, createExchange("body" + i));
+        }
+
+        long syncs = repo.getSyncCount();
+        repo.addAll(context, exchanges);
+        // all the records are forced to disk at once
+        assertEquals(syncs + 1, repo.getSyncCount());
+        assertEquals(10, repo.getGroupCount());
+        assertEquals("body5", repo.getAll(context, List.of("key5")).get("key5").getIn().getBody());
+
+        repo.removeAll(context, exchanges);
+        assertEquals(0, repo.getGroupCount());
+        assertEquals(10, repo.getCompletedCount());
+
+        repo.confirmAll(context, exchanges.values().stream().map(Exchange::getExchangeId).toList());
+        assertEquals(0, repo.getCompletedCount());
+        assertEquals(syncs + 3, repo.getSyncCount());
+    }
+
+    @Test
+    public void testCompaction() {
+        repo.stop();
+        repo.setCompactionMinSize(16 * 1024);
+        repo.start();
+
+        for (int i = 0; i < 1000; i++) {
+            repo.add(context, "foo", createExchange("foo:" + i));
+            repo.add(context, "bar" + i, createExchange("bar:" + i));
+            repo.remove(context, "bar" + i, repo.get(context, "bar" + i));
+            if (i % 2 == 0) {
+                repo.confirm(context, repo.recover(context, repo.scan(context).iterator().next()).getExchangeId());
+            }
+        }
+
+        assertTrue(repo.getCompactionCount() > 0);
+        // the log file is compacted whenever half of it is dead records
+        assertTrue(repo.getLogSize() < Math.max(16 * 1024, 2 * repo.getLiveSize()) + Header.BYTES,
+                "Log size was " + repo.getLogSize());
+        assertEquals("foo:999", repo.get(context, "foo").getIn().getBody());
+        assertEquals(500, repo.scan(context).size());
+
+        repo.stop();
+        repo.start();
+        assertEquals("foo:999", repo.get(context, "foo").getIn().getBody());
+        assertEquals(500, repo.scan(context).size());
+        for (String exchangeId : repo.scan(context)) {
+            assertNotNull(repo.recover(context, exchangeId));
+        }
+    }
+
+    private Exchange createExchange(String body) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+}
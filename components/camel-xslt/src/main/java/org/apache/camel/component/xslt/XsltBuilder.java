@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.Result;
@@ -43,6 +44,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
 import org.apache.camel.support.ExchangeHelper;
+import org.apache.camel.support.MessageHelper;
 import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.support.builder.xml.XMLConverterHelper;
 import org.apache.camel.util.FileUtil;
@@ -65,6 +67,10 @@ public class XsltBuilder implements Processor {
     private Map<String, Object> parameters = new HashMap<>();
     private Templates template;
     private volatile BlockingQueue<Transformer> transformers;
+    private int transformerCacheSize;
+    private final LongAdder transformersCreated = new LongAdder();
+    private final LongAdder transformersReused = new LongAdder();
+    private final LongAdder transformersDiscarded = new LongAdder();
     private volatile SourceHandlerFactory sourceHandlerFactory;
     private ResultHandlerFactory resultHandlerFactory = new StringResultHandlerFactory();
     private boolean failOnNullBody = true;
@@ -99,7 +105,9 @@ public class XsltBuilder implements Processor {
             exchange.getExchangeExtension().addOnCompletion(new XsltBuilderOnCompletion(fileName));
         }
 
-        Transformer transformer = getTransformer();
+        // the transformer is released to the pool it was taken from, which is replaced when the template changes
+        BlockingQueue<Transformer> pool = transformers;
+        Transformer transformer = getTransformer(pool);
         configureTransformer(transformer, exchange);
 
         ResultHandler resultHandler = resultHandlerFactory.createResult(exchange);
@@ -111,6 +119,8 @@ public class XsltBuilder implements Processor {
         // the underlying input stream, which we need to close to avoid locking files or other resources
         InputStream is = null;
         try {
+            // reset cached streams so the message body is transformed from the beginning
+            MessageHelper.resetStreamCache(exchange.getIn());
             Source source = getSourceHandlerFactory().getSource(exchange);
 
             source = prepareSource(source);
@@ -124,7 +134,7 @@ public class XsltBuilder implements Processor {
             LOG.trace("Transform complete with result {}", result);
             resultHandler.setBody(out);
         } finally {
-            releaseTransformer(transformer);
+            releaseTransformer(pool, transformer);
             // IOHelper can handle if null
             IOHelper.close(is);
         }
@@ -245,6 +255,7 @@ public class XsltBuilder implements Processor {
      * @param numberToCache the maximum number of transformers to cache
      */
     public XsltBuilder transformerCacheSize(int numberToCache) {
+        this.transformerCacheSize = Math.max(0, numberToCache);
         if (numberToCache > 0) {
             transformers = new ArrayBlockingQueue<>(numberToCache);
         } else {
@@ -280,7 +291,8 @@ public class XsltBuilder implements Processor {
     public void setTemplate(Templates template) {
         this.template = template;
         if (transformers != null) {
-            transformers.clear();
+            // use a new pool, so the transformers of the previous template in use are not released to it
+            transformers = new ArrayBlockingQueue<>(transformerCacheSize);
         }
     }
 
@@ -419,6 +431,52 @@ public class XsltBuilder implements Processor {
         this.converter.setTransformerFactory(transformerFactory);
     }
 
+    /**
+     * The maximum number of {@link Transformer}s cached for reuse
+     */
+    public int getTransformerCacheSize() {
+        return transformerCacheSize;
+    }
+
+    /**
+     * The number of {@link Transformer}s currently idle in the cache
+     */
+    public int getTransformerCacheIdle() {
+        BlockingQueue<Transformer> pool = transformers;
+        return pool != null ? pool.size() : 0;
+    }
+
+    /**
+     * The number of {@link Transformer}s created from the template
+     */
+    public long getTransformersCreated() {
+        return transformersCreated.sum();
+    }
+
+    /**
+     * The number of times a {@link Transformer} was reused from the cache
+     */
+    public long getTransformersReused() {
+        return transformersReused.sum();
+    }
+
+    /**
+     * The number of {@link Transformer}s which could not be returned to the cache, because it was full or the
+     * transformer could not be reset
+     */
+    public long getTransformersDiscarded() {
+        return transformersDiscarded.sum();
+    }
+
+    /**
+     * Resets the statistics of the {@link Transformer} cache
+     */
+    public void resetTransformerStatistics() {
+        transformersCreated.reset();
+        transformersReused.reset();
+        transformersDiscarded.reset();
+    }
+
     public XsltMessageLogger getXsltMessageLogger() {
         return xsltMessageLogger;
     }
@@ -427,23 +485,34 @@ public class XsltBuilder implements Processor {
         this.xsltMessageLogger = xsltMessageLogger;
     }
 
-    private void releaseTransformer(Transformer transformer) {
-        if (transformers != null) {
-            transformer.reset();
-            boolean result = transformers.offer(transformer);
-            if (!result) {
-                LOG.error("failed to offer() a transform");
+    private void releaseTransformer(BlockingQueue<Transformer> pool, Transformer transformer) {
+        if (pool != null) {
+            try {
+                // reset the parameters, and release the resolvers and listeners referring to the exchange
+                transformer.reset();
+            } catch (RuntimeException e) {
+                LOG.debug("Discarding transformer which cannot be reset due to: {}", e.getMessage(), e);
+                transformersDiscarded.increment();
+                return;
+            }
+            if (!pool.offer(transformer)) {
+                // more exchanges than the size of the cache are transformed concurrently
+                LOG.trace("Discarding transformer as the cache is full");
+                transformersDiscarded.increment();
             }
         }
     }
 
-    private Transformer getTransformer() throws Exception {
+    private Transformer getTransformer(BlockingQueue<Transformer> pool) throws Exception {
         Transformer t = null;
-        if (transformers != null) {
-            t = transformers.poll();
+        if (pool != null) {
+            t = pool.poll();
         }
         if (t == null) {
             t = createTransformer();
+            transformersCreated.increment();
+        } else {
+            transformersReused.increment();
         }
         return t;
     }
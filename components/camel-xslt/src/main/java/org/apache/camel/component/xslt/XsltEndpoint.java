@@ -267,6 +267,7 @@ public class XsltEndpoint extends ProcessorEndpoint {
         this.output = output;
     }
 
+    @ManagedAttribute(description = "The number of Transformer objects that are cached for reuse")
     public int getTransformerCacheSize() {
         return transformerCacheSize;
     }
@@ -292,6 +293,38 @@ public class XsltEndpoint extends ProcessorEndpoint {
         this.errorListener = errorListener;
     }
 
+    @ManagedAttribute(description = "The number of Transformer objects currently idle in the cache")
+    public int getTransformerCacheIdle() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformerCacheIdle() : 0;
+    }
+
+    @ManagedAttribute(description = "The number of Transformer objects created from the stylesheet")
+    public long getTransformersCreated() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformersCreated() : 0;
+    }
+
+    @ManagedAttribute(description = "The number of times a Transformer object was reused from the cache")
+    public long getTransformersReused() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformersReused() : 0;
+    }
+
+    @ManagedAttribute(description = "The number of Transformer objects which could not be returned to the cache")
+    public long getTransformersDiscarded() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformersDiscarded() : 0;
+    }
+
+    @ManagedOperation(description = "Resets the statistics of the Transformer cache")
+    public void resetTransformerStatistics() {
+        XsltBuilder builder = xslt;
+        if (builder != null) {
+            builder.resetTransformerStatistics();
+        }
+    }
+
     @ManagedAttribute(description = "Cache for the resource content (the stylesheet file) when it is loaded on startup.")
     public boolean isContentCache() {
         return contentCache;
@@ -13,7 +13,7 @@ public class ExchangeConstantProvider {
 
     private static final Map<String, String> MAP;
     static {
-        Map<String, String> map = new HashMap<>(156);
+        Map<String, String> map = new HashMap<>(157);
         map.put("ACCEPT_CONTENT_TYPE", "CamelAcceptContentType");
         map.put("AGGREGATED_COLLECTION_GUARD", "CamelAggregatedCollectionGuard");
         map.put("AGGREGATED_COMPLETED_BY", "CamelAggregatedCompletedBy");
@@ -108,6 +108,7 @@ public class ExchangeConstantProvider {
         map.put("LOOP_SIZE", "CamelLoopSize");
         map.put("MAXIMUM_CACHE_POOL_SIZE", "CamelMaximumCachePoolSize");
         map.put("MAXIMUM_ENDPOINT_CACHE_SIZE", "CamelMaximumEndpointCacheSize");
+        map.put("MAXIMUM_EXPRESSION_CACHE_SIZE", "CamelMaximumExpressionCacheSize");
         map.put("MAXIMUM_SIMPLE_CACHE_SIZE", "CamelMaximumSimpleCacheSize");
         map.put("MAXIMUM_TRANSFORMER_CACHE_SIZE", "CamelMaximumTransformerCacheSize");
         map.put("MAXIMUM_VALIDATOR_CACHE_SIZE", "CamelMaximumValidatorCacheSize");
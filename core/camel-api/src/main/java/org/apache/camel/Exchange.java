@@ -224,6 +224,7 @@ public interface Exchange extends VariableAware {
 
     String MAXIMUM_CACHE_POOL_SIZE = "CamelMaximumCachePoolSize";
     String MAXIMUM_ENDPOINT_CACHE_SIZE = "CamelMaximumEndpointCacheSize";
+    String MAXIMUM_EXPRESSION_CACHE_SIZE = "CamelMaximumExpressionCacheSize";
     String MAXIMUM_SIMPLE_CACHE_SIZE = "CamelMaximumSimpleCacheSize";
     String MAXIMUM_TRANSFORMER_CACHE_SIZE = "CamelMaximumTransformerCacheSize";
     String MAXIMUM_VALIDATOR_CACHE_SIZE = "CamelMaximumValidatorCacheSize";
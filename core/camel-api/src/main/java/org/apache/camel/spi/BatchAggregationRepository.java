@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+
+/**
+ * A specialized {@link org.apache.camel.spi.AggregationRepository} which also supports adding, getting, removing and
+ * confirming many exchanges at once, such as in a single round trip or transaction to the underlying store.
+ * <p/>
+ * The aggregator uses these operations when group commit is enabled, where the repository writes of many aggregated
+ * exchanges are coalesced and written together per interval. When group commit is in use, the aggregator guards the
+ * correlation groups itself, and the implementation should therefore not perform optimistic locking checks for the
+ * batched operations.
+ * <p/>
+ * The default implementations invoke the single operations one by one, so an implementation only needs to override
+ * the operations it can do more efficiently.
+ */
+public interface BatchAggregationRepository extends AggregationRepository {
+
+    /**
+     * Add the given {@link Exchange}s under their correlation keys.
+     * <p/>
+     * Will replace any existing exchanges.
+     *
+     * @param camelContext the current CamelContext
+     * @param exchanges    the aggregated exchanges by their correlation key
+     */
+    default void addAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+        for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+            add(camelContext, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the exchanges with the given correlation keys
+     *
+     * @param  camelContext the current CamelContext
+     * @param  keys         the correlation keys
+     * @return              the exchanges by their correlation key, where keys which have no exchange are not included
+     */
+    default Map<String, Exchange> getAll(CamelContext camelContext, Collection<String> keys) {
+        Map<String, Exchange> answer = new LinkedHashMap<>();
+        for (String key : keys) {
+            Exchange exchange = get(camelContext, key);
+            if (exchange != null) {
+                answer.put(key, exchange);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Removes the exchanges with the given correlation keys, which should happen when the {@link Exchange}s are
+     * completed
+     *
+     * @param camelContext the current CamelContext
+     * @param exchanges    the exchanges to remove by their correlation key
+     */
+    default void removeAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+        for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+            remove(camelContext, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Confirms the completion of the {@link Exchange}s.
+     *
+     * @param camelContext the current CamelContext
+     * @param exchangeIds  exchange ids to confirm
+     */
+    default void confirmAll(CamelContext camelContext, Collection<String> exchangeIds) {
+        for (String exchangeId : exchangeIds) {
+            confirm(camelContext, exchangeId);
+        }
+    }
+
+}
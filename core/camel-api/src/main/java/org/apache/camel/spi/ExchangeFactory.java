@@ -82,4 +82,13 @@ public interface ExchangeFactory extends PooledObjectFactory<Exchange>, NonManag
         return true;
     }
 
+    /**
+     * Whether deep pooling is enabled. When enabled then not only the {@link Exchange} is pooled, but also the
+     * {@link UnitOfWork}, {@link org.apache.camel.MessageHistory} and the tasks used by the EIPs during routing are
+     * pooled and reused.
+     */
+    default boolean isDeepPooling() {
+        return false;
+    }
+
 }
@@ -17,6 +17,7 @@
 package org.apache.camel.spi;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import org.apache.camel.StaticService;
 
@@ -85,4 +86,37 @@ public interface ExchangeFactoryManager extends StaticService {
      */
     ExchangeFactory.Statistics getStatistics();
 
+    /**
+     * Adds a {@link PooledObjectFactory} to be managed, which is used for pooling other objects than {@link ExchangeFactory}
+     * when deep pooling is enabled (such as unit of work, message history and tasks used by the EIPs).
+     *
+     * @param factory the pooled object factory
+     */
+    default void addPooledObjectFactory(PooledObjectFactory<?> factory) {
+        // noop
+    }
+
+    /**
+     * Removes the {@link PooledObjectFactory} from being managed.
+     *
+     * @param factory the pooled object factory
+     */
+    default void removePooledObjectFactory(PooledObjectFactory<?> factory) {
+        // noop
+    }
+
+    /**
+     * Returns a read-only view of the managed pooled object factories (used by deep pooling).
+     */
+    default Collection<PooledObjectFactory<?>> getPooledObjectFactories() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Aggregated statistics for all the managed pooled object factories (used by deep pooling)
+     */
+    default PooledObjectFactory.Statistics getPooledObjectStatistics() {
+        return null;
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.spi;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -343,4 +344,13 @@ public interface ExecutorServiceManager extends ShutdownableService, StaticServi
      */
     boolean awaitTermination(ExecutorService executorService, long shutdownAwaitTermination) throws InterruptedException;
 
+    /**
+     * Gets the thread pools that has been created by this manager, and which has not been shutdown.
+     *
+     * @return the thread pools, or an empty list if not supported by this manager
+     */
+    default List<ExecutorService> getExecutorServices() {
+        return Collections.emptyList();
+    }
+
 }
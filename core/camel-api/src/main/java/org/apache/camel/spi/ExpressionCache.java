@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.StaticService;
+
+/**
+ * A cache of the expressions and predicates created by the languages, which is shared by all the languages of the
+ * {@link org.apache.camel.CamelContext}. This avoids parsing or compiling the same expression over and over again,
+ * such as when expressions are created per message.
+ *
+ * The expressions are cached by the language, the text of the expression and the properties used to create the
+ * expression. The cache is bounded, and evicts the expressions which are the least likely to be used again. As the
+ * cached expressions are shared, only the languages which create expressions that are thread-safe, and not modified
+ * after they are created, should use the cache.
+ *
+ * @see org.apache.camel.support.LanguageSupport
+ */
+public interface ExpressionCache extends StaticService {
+
+    /**
+     * Gets the expression from the cache, or creates and caches the expression if not already cached.
+     *
+     * @param  language   the name of the language
+     * @param  owner      the language which creates the expression, as different instances of the same language can
+     *                    be configured differently
+     * @param  expression the text of the expression
+     * @param  properties the properties used to create the expression, or <tt>null</tt> if none
+     * @param  factory    to create the expression if not cached
+     * @return            the expression
+     */
+    Expression computeExpressionIfAbsent(
+            String language, Language owner, String expression, Object[] properties, Supplier<Expression> factory);
+
+    /**
+     * Gets the predicate from the cache, or creates and caches the predicate if not already cached.
+     *
+     * @param  language   the name of the language
+     * @param  owner      the language which creates the predicate, as different instances of the same language can
+     *                    be configured differently
+     * @param  expression the text of the predicate
+     * @param  properties the properties used to create the predicate, or <tt>null</tt> if none
+     * @param  factory    to create the predicate if not cached
+     * @return            the predicate
+     */
+    Predicate computePredicateIfAbsent(
+            String language, Language owner, String expression, Object[] properties, Supplier<Predicate> factory);
+
+    /**
+     * The maximum number of expressions and predicates in the cache.
+     */
+    int getMaximumCacheSize();
+
+    /**
+     * The maximum number of expressions and predicates in the cache. Use 0 or a negative value to disable the cache.
+     */
+    void setMaximumCacheSize(int maximumCacheSize);
+
+    /**
+     * The current number of expressions and predicates in the cache.
+     */
+    int size();
+
+    /**
+     * Clears the cache.
+     */
+    void clear();
+
+    /**
+     * Gets the statistics of the cache for each language which uses the cache.
+     */
+    Collection<Statistics> getStatistics();
+
+    /**
+     * Reset the statistics.
+     */
+    void resetStatistics();
+
+    /**
+     * The statistics of the cache for a language.
+     */
+    interface Statistics {
+
+        /**
+         * The name of the language
+         */
+        String getLanguage();
+
+        /**
+         * The number of expressions and predicates of the language in the cache
+         */
+        int getSize();
+
+        /**
+         * The number of times an expression or predicate was found in the cache
+         */
+        long getHits();
+
+        /**
+         * The number of times an expression or predicate was not found in the cache, and was created
+         */
+        long getMisses();
+
+        /**
+         * The number of expressions and predicates evicted from the cache
+         */
+        long getEvicted();
+    }
+}
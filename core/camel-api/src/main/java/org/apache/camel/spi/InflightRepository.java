@@ -196,4 +196,27 @@ public interface InflightRepository extends StaticService {
      */
     InflightExchange oldest(String fromRouteId);
 
+    /**
+     * Gets the estimated duration (in millis) within which the given percentile of the exchanges that has been
+     * inflight in the given route were completed. The duration is the time from when the exchange was added to the
+     * route until it was removed from the route.
+     * <p/>
+     * This requires inflight browsing to be enabled, as the durations are not tracked when only counting the inflight
+     * exchanges.
+     *
+     * @param  routeId    the id of the route
+     * @param  percentile the percentile such as 50, 90, or 99
+     * @return            the estimated duration in millis, or <tt>-1</tt> if not tracked
+     */
+    default long durationPercentile(String routeId, double percentile) {
+        return -1;
+    }
+
+    /**
+     * Reset the statistics, such as the durations recorded per route.
+     */
+    default void resetStatistics() {
+        // noop
+    }
+
 }
@@ -37,6 +37,16 @@ public interface MessageHistoryFactory extends StaticService, CamelContextAware
      */
     MessageHistory newMessageHistory(String routeId, NamedNode node, Exchange exchange);
 
+    /**
+     * Releases the {@link MessageHistory} which was created for the given exchange, when the exchange is done and about
+     * to be reused (such as when deep pooling is enabled).
+     *
+     * @param exchange the exchange which is done
+     */
+    default void releaseMessageHistory(Exchange exchange) {
+        // noop
+    }
+
     /**
      * Whether to make a copy of the message in the {@link MessageHistory}. By default this is turned off. Beware that
      * you should not mutate or change the content on the copied message, as its purpose is as a read-only view of the
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import java.util.function.Consumer;
+
+/**
+ * A specialized {@link org.apache.camel.spi.IdempotentRepository} which can scan all the keys it contains.
+ * <p/>
+ * This is used to warm up a local filter or cache in front of the repository on startup, such as the Bloom filter of
+ * the <tt>BloomFilterIdempotentRepository</tt>, so it knows about the keys which were added before it was started.
+ */
+public interface ScannableIdempotentRepository extends IdempotentRepository {
+
+    /**
+     * Scans all the keys in the repository.
+     * <p/>
+     * The keys which are added or removed concurrently with the scan may or may not be included.
+     *
+     * @param consumer the consumer which is called with every key in the repository
+     */
+    void scan(Consumer<String> consumer);
+
+}
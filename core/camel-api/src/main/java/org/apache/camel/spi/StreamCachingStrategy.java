@@ -64,6 +64,50 @@ public interface StreamCachingStrategy extends StaticService {
          */
         long getCacheSpoolAverageSize();
 
+        /**
+         * Gets the counter for number of spool files which has been memory mapped for reading.
+         *
+         * @see StreamCachingStrategy#isSpoolMemoryMapped()
+         */
+        default long getCacheSpoolMappedCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the total accumulated number of bytes of the spool files which has been memory mapped for reading.
+         *
+         * @see StreamCachingStrategy#isSpoolMemoryMapped()
+         */
+        default long getCacheSpoolMappedSize() {
+            return 0;
+        }
+
+        /**
+         * Gets the counter for number of times a spooled stream cache was read from a shared memory mapped view,
+         * instead of opening the spool file again.
+         *
+         * @see StreamCachingStrategy#isSpoolMemoryMapped()
+         */
+        default long getCacheSpoolMappedReadCounter() {
+            return 0;
+        }
+
+        /**
+         * Callback when a spool file has been memory mapped for reading.
+         *
+         * @param size the number of bytes mapped
+         */
+        default void onSpoolMapped(long size) {
+            // noop
+        }
+
+        /**
+         * Callback when a spooled stream cache is read from a shared memory mapped view.
+         */
+        default void onSpoolMappedRead() {
+            // noop
+        }
+
         /**
          * Reset the counters
          */
@@ -224,6 +268,23 @@ public interface StreamCachingStrategy extends StaticService {
 
     String getSpoolCipher();
 
+    /**
+     * Sets whether spool files should be memory mapped when they are read back.
+     * <p/>
+     * When enabled then the spool file is mapped once, and every reader of the stream cache (such as when the message
+     * is read again by a multicast, splitter or wire-tap) reads from its own view of the shared read-only mapping,
+     * instead of opening the file again and copying the data through a heap buffer. Memory mapping is not in use when
+     * {@link #setSpoolCipher(String)} is configured, or the spool file is larger than 2gb.
+     * <p/>
+     * The mapping is released by the JVM when it is garbage collected, which means on some operating systems (such as
+     * Windows) the spool file may not be deleted until then.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    void setSpoolMemoryMapped(boolean spoolMemoryMapped);
+
+    boolean isSpoolMemoryMapped();
+
     /**
      * Whether to remove the temporary directory when stopping.
      * <p/>
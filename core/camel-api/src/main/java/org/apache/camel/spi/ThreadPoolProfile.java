@@ -41,6 +41,7 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     private Integer maxQueueSize;
     private Boolean allowCoreThreadTimeOut;
     private ThreadPoolRejectedPolicy rejectedPolicy;
+    private Boolean virtualThreadPerTask;
 
     /**
      * Creates a new thread pool profile, with no id set.
@@ -235,6 +236,29 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         this.rejectedPolicy = rejectedPolicy;
     }
 
+    /**
+     * Whether to execute each task on its own virtual thread, instead of a pool of platform threads.
+     *
+     * @return <tt>true</tt> to use a virtual thread per task
+     */
+    public Boolean getVirtualThreadPerTask() {
+        return virtualThreadPerTask;
+    }
+
+    /**
+     * Sets whether to execute each task on its own virtual thread, instead of a pool of platform threads.
+     * <p/>
+     * Virtual threads are only in use when running on Java 21 (or newer), otherwise this option is ignored and a
+     * regular thread pool is created. This does not require the JVM system property
+     * <tt>camel.threads.virtual.enabled</tt>, which enables virtual threads for all the thread pools. When in use then
+     * the pool and queue sizes of this profile is not in use, as there is no pool.
+     *
+     * @param virtualThreadPerTask <tt>true</tt> to use a virtual thread per task
+     */
+    public void setVirtualThreadPerTask(Boolean virtualThreadPerTask) {
+        this.virtualThreadPerTask = virtualThreadPerTask;
+    }
+
     /**
      * Overwrites each attribute that is null with the attribute from defaultProfile
      *
@@ -265,11 +289,15 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         if (rejectedPolicy == null) {
             rejectedPolicy = defaultProfile.getRejectedPolicy();
         }
+        if (virtualThreadPerTask == null) {
+            virtualThreadPerTask = defaultProfile.getVirtualThreadPerTask();
+        }
     }
 
     public boolean isEmpty() {
         return poolSize == null && maxPoolSize == null && keepAliveTime == null && timeUnit == null
-                && maxQueueSize == null && allowCoreThreadTimeOut == null && rejectedPolicy == null;
+                && maxQueueSize == null && allowCoreThreadTimeOut == null && rejectedPolicy == null
+                && virtualThreadPerTask == null;
     }
 
     @Override
@@ -284,6 +312,7 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         cloned.setAllowCoreThreadTimeOut(allowCoreThreadTimeOut);
         cloned.setRejectedPolicy(rejectedPolicy);
         cloned.setTimeUnit(timeUnit);
+        cloned.setVirtualThreadPerTask(virtualThreadPerTask);
         return cloned;
     }
 
@@ -291,7 +320,8 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     public String toString() {
         return "ThreadPoolProfile[" + id + " (" + defaultProfile + ") size:" + poolSize + "-" + maxPoolSize
                + ", keepAlive:" + keepAliveTime + " " + timeUnit + ", maxQueue:" + maxQueueSize
-               + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", rejectedPolicy:" + rejectedPolicy + "]";
+               + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", rejectedPolicy:" + rejectedPolicy
+               + ", virtualThreadPerTask:" + virtualThreadPerTask + "]";
     }
 
 }
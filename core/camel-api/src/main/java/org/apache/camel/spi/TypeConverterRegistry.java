@@ -61,6 +61,28 @@ public interface TypeConverterRegistry extends StaticService, CamelContextAware
          */
         long getFailedCounter();
 
+        /**
+         * Number of attempts where the type converter was found in the lookup cache
+         */
+        default long getCacheHitCounter() {
+            return 0;
+        }
+
+        /**
+         * Number of attempts where the type converter was not found in the lookup cache and had to be resolved
+         */
+        default long getCacheMissCounter() {
+            return 0;
+        }
+
+        /**
+         * Number of attempts which was answered from the lookup cache as previously known to have no suitable type
+         * converter
+         */
+        default long getNegativeCacheHitCounter() {
+            return 0;
+        }
+
         /**
          * Reset the counters
          */
@@ -38,6 +38,16 @@ public interface UnitOfWorkFactory extends AfterPropertiesConfigured {
      */
     UnitOfWork createUnitOfWork(Exchange exchange);
 
+    /**
+     * Releases the {@link UnitOfWork} after it is done, which allows the factory to reuse the instance (such as when
+     * deep pooling is enabled).
+     *
+     * @param uow the unit of work which is done
+     */
+    default void releaseUnitOfWork(UnitOfWork uow) {
+        // noop
+    }
+
     @Override
     default void afterPropertiesConfigured(CamelContext camelContext) {
         // noop
@@ -115,6 +115,7 @@ import org.apache.camel.spi.EventNotifier;
 import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExchangeFactoryManager;
 import org.apache.camel.spi.ExecutorServiceManager;
+import org.apache.camel.spi.ExpressionCache;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.HeadersMapFactory;
@@ -367,6 +368,7 @@ public abstract class AbstractCamelContext extends BaseService
         camelContextExtension.lazyAddContextPlugin(BeanProxyFactory.class, this::createBeanProxyFactory);
         camelContextExtension.lazyAddContextPlugin(UnitOfWorkFactory.class, this::createUnitOfWorkFactory);
         camelContextExtension.lazyAddContextPlugin(BeanIntrospection.class, this::createBeanIntrospection);
+        camelContextExtension.lazyAddContextPlugin(ExpressionCache.class, this::createExpressionCache);
         camelContextExtension.lazyAddContextPlugin(ResourceLoader.class, this::createResourceLoader);
         camelContextExtension.lazyAddContextPlugin(BeanProcessorFactory.class, this::createBeanProcessorFactory);
         camelContextExtension.lazyAddContextPlugin(ModelToXMLDumper.class, this::createModelToXMLDumper);
@@ -4039,6 +4041,8 @@ public abstract class AbstractCamelContext extends BaseService
 
     protected abstract BeanIntrospection createBeanIntrospection();
 
+    protected abstract ExpressionCache createExpressionCache();
+
     protected abstract RoutesLoader createRoutesLoader();
 
     protected abstract ResourceLoader createResourceLoader();
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.impl.engine;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelContextAware;
@@ -35,6 +37,7 @@ import org.apache.camel.NamedNode;
 import org.apache.camel.StaticService;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.LifecycleStrategy;
+import org.apache.camel.spi.RouteIdAware;
 import org.apache.camel.spi.ThreadPoolFactory;
 import org.apache.camel.spi.ThreadPoolProfile;
 import org.apache.camel.support.CamelContextHelper;
@@ -50,7 +53,9 @@ import org.apache.camel.util.URISupport;
 import org.apache.camel.util.concurrent.CamelThreadFactory;
 import org.apache.camel.util.concurrent.SizedScheduledExecutorService;
 import org.apache.camel.util.concurrent.ThreadHelper;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
 import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
+import org.apache.camel.util.concurrent.ThreadType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +73,10 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
     private long shutdownAwaitTermination = 10000;
     private String defaultThreadPoolProfileId = "defaultThreadPoolProfile";
     private final ThreadPoolProfile defaultProfile;
+    private boolean virtualThreadPinnedDetection = true;
+    private long virtualThreadPinnedThreshold = 20;
+    private volatile VirtualThreadPinnedMonitor virtualThreadPinnedMonitor;
+    private final AtomicBoolean virtualThreadWarned = new AtomicBoolean();
 
     public BaseExecutorServiceManager(CamelContext camelContext) {
         this.camelContext = camelContext;
@@ -153,6 +162,34 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
         this.shutdownAwaitTermination = shutdownAwaitTermination;
     }
 
+    public boolean isVirtualThreadPinnedDetection() {
+        return virtualThreadPinnedDetection;
+    }
+
+    /**
+     * Whether to detect (using JFR) when virtual threads from thread pools using virtual thread per task, are pinned to
+     * their carrier thread. This is enabled by default.
+     */
+    public void setVirtualThreadPinnedDetection(boolean virtualThreadPinnedDetection) {
+        this.virtualThreadPinnedDetection = virtualThreadPinnedDetection;
+    }
+
+    public long getVirtualThreadPinnedThreshold() {
+        return virtualThreadPinnedThreshold;
+    }
+
+    /**
+     * The minimum duration (millis) a virtual thread must be pinned to its carrier thread before it is reported.
+     */
+    public void setVirtualThreadPinnedThreshold(long virtualThreadPinnedThreshold) {
+        this.virtualThreadPinnedThreshold = virtualThreadPinnedThreshold;
+    }
+
+    @Override
+    public List<ExecutorService> getExecutorServices() {
+        return Collections.unmodifiableList(executorServices);
+    }
+
     @Override
     public String resolveThreadName(String name) {
         return ThreadHelper.resolveThreadName(threadNamePattern, name);
@@ -193,8 +230,16 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
         ThreadPoolProfile defaultProfile = getDefaultThreadPoolProfile();
         profile.addDefaults(defaultProfile);
 
-        ThreadFactory threadFactory = createThreadFactory(sanitizedName, true);
+        boolean virtual = Boolean.TRUE.equals(profile.getVirtualThreadPerTask());
+        ThreadFactory threadFactory
+                = virtual ? createVirtualThreadFactory(sanitizedName) : createThreadFactory(sanitizedName, true);
         ExecutorService executorService = threadPoolFactory.newThreadPool(profile, threadFactory);
+        if (virtual && !(executorService instanceof ThreadPerTaskExecutorService)
+                && virtualThreadWarned.compareAndSet(false, true)) {
+            LOG.warn("ThreadPoolProfile: {} is configured to use a virtual thread per task, which requires Java 21 or newer."
+                     + " Using a regular thread pool instead.",
+                    profile.getId());
+        }
         onThreadPoolCreated(executorService, source, profile.getId());
         if (LOG.isDebugEnabled()) {
             LOG.debug("Created new ThreadPool for source: {} with name: {}. -> {}", source, sanitizedName, executorService);
@@ -367,6 +412,10 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
             }
         }
 
+        if (executorService instanceof ThreadPerTaskExecutorService && virtualThreadPinnedMonitor != null) {
+            virtualThreadPinnedMonitor.removeExecutorService((ThreadPerTaskExecutorService) executorService);
+        }
+
         // remove reference as its shutdown (do not remove if fail-safe)
         if (!failSafe) {
             executorServices.remove(executorService);
@@ -503,7 +552,8 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
             }
         }
 
-        ServiceHelper.stopAndShutdownServices(threadPoolFactory);
+        ServiceHelper.stopAndShutdownServices(virtualThreadPinnedMonitor, threadPoolFactory);
+        virtualThreadPinnedMonitor = null;
     }
 
     /**
@@ -562,6 +612,21 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
             for (LifecycleStrategy lifecycle : camelContext.getLifecycleStrategies()) {
                 lifecycle.onThreadPoolAdd(camelContext, threadPool, id, sourceId, routeId, threadPoolProfileId);
             }
+        } else if (executorService instanceof ThreadPerTaskExecutorService) {
+            ThreadPerTaskExecutorService tpt = (ThreadPerTaskExecutorService) executorService;
+            tpt.setId(id);
+            tpt.setSourceId(sourceId);
+            if (routeId == null && source instanceof RouteIdAware) {
+                // such as consumers
+                routeId = ((RouteIdAware) source).getRouteId();
+            }
+            tpt.setRouteId(routeId);
+            if (tpt.isVirtual() && virtualThreadPinnedDetection) {
+                VirtualThreadPinnedMonitor monitor = getOrCreateVirtualThreadPinnedMonitor();
+                if (monitor != null) {
+                    monitor.addExecutorService(tpt);
+                }
+            }
         }
 
         // now call strategy to allow custom logic
@@ -572,4 +637,32 @@ public class BaseExecutorServiceManager extends ServiceSupport implements Execut
         return new CamelThreadFactory(threadNamePattern, name, isDaemon);
     }
 
+    protected ThreadFactory createVirtualThreadFactory(String name) {
+        return new CamelThreadFactory(threadNamePattern, name, true, ThreadType.VIRTUAL);
+    }
+
+    private VirtualThreadPinnedMonitor getOrCreateVirtualThreadPinnedMonitor() {
+        VirtualThreadPinnedMonitor answer = virtualThreadPinnedMonitor;
+        if (answer == null) {
+            synchronized (lock) {
+                answer = virtualThreadPinnedMonitor;
+                if (answer == null) {
+                    try {
+                        answer = new VirtualThreadPinnedMonitor();
+                        answer.setThreshold(virtualThreadPinnedThreshold);
+                        ServiceHelper.startService(answer);
+                    } catch (LinkageError e) {
+                        // jdk.jfr module is not available
+                        LOG.debug("Cannot detect pinned virtual threads as JFR is not available due to: {}",
+                                e.getMessage());
+                        virtualThreadPinnedDetection = false;
+                        return null;
+                    }
+                    virtualThreadPinnedMonitor = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
 }
@@ -35,6 +35,7 @@ import org.apache.camel.NamedNode;
 import org.apache.camel.NamedRoute;
 import org.apache.camel.NonManagedService;
 import org.apache.camel.Ordered;
+import org.apache.camel.PooledExchange;
 import org.apache.camel.Processor;
 import org.apache.camel.Route;
 import org.apache.camel.StatefulService;
@@ -888,6 +889,12 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor implements In
             if (route != null && existing != null) {
                 existing.popRoute();
             }
+
+            // the uow is no longer in use (pooled exchanges keeps their uow for reuse)
+            if (uow != null && uowFactory != null && exchange.getUnitOfWork() == null
+                    && !(exchange instanceof PooledExchange)) {
+                uowFactory.releaseUnitOfWork(uow);
+            }
         }
 
         protected UnitOfWork createUnitOfWork(Exchange exchange) {
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import org.apache.camel.NonManagedService;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.ExchangeFactoryManager;
+import org.apache.camel.support.PooledObjectFactorySupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool for reusing objects that are used during routing (such as {@link org.apache.camel.spi.UnitOfWork} and
+ * {@link org.apache.camel.MessageHistory}) when deep pooling is enabled.
+ * <p/>
+ * The pool is managed by the {@link ExchangeFactoryManager} which exposes the pool hit (acquired) and miss (created)
+ * counters, and when the pool is stopped, then any objects which has been acquired but not released back are reported
+ * as leaks.
+ */
+final class DeepPooledObjectFactory<T> extends PooledObjectFactorySupport<T> implements NonManagedService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeepPooledObjectFactory.class);
+
+    private final String name;
+    private ExchangeFactoryManager exchangeFactoryManager;
+
+    DeepPooledObjectFactory(String name, ExchangeFactory exchangeFactory) {
+        super(name);
+        this.name = name;
+        setCapacity(exchangeFactory.getCapacity());
+        setStatisticsEnabled(exchangeFactory.isStatisticsEnabled());
+    }
+
+    @Override
+    protected void doBuild() throws Exception {
+        super.doBuild();
+        this.exchangeFactoryManager = camelContext.getCamelContextExtension().getExchangeFactoryManager();
+    }
+
+    @Override
+    public T acquire() {
+        T answer = pool.poll();
+        if (statisticsEnabled) {
+            if (answer == null) {
+                // a miss as the caller must create a new object
+                statistics.created.increment();
+            } else {
+                statistics.acquired.increment();
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean release(T t) {
+        boolean inserted = pool.offer(t);
+        if (statisticsEnabled) {
+            if (inserted) {
+                statistics.released.increment();
+            } else {
+                statistics.discarded.increment();
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Discards the object, which has been acquired but cannot be released back into the pool
+     */
+    void discard(T t) {
+        if (statisticsEnabled) {
+            statistics.discarded.increment();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (exchangeFactoryManager != null) {
+            exchangeFactoryManager.addPooledObjectFactory(this);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (exchangeFactoryManager != null) {
+            exchangeFactoryManager.removePooledObjectFactory(this);
+        }
+        logUsageSummary(pool != null ? pool.size() : 0);
+    }
+
+    private void logUsageSummary(int pooled) {
+        if (statisticsEnabled && statistics != null) {
+            long created = statistics.getCreatedCounter();
+            long acquired = statistics.getAcquiredCounter();
+            long released = statistics.getReleasedCounter();
+            long discarded = statistics.getDiscardedCounter();
+            // are there any leaks?
+            boolean leak = created + acquired > released + discarded;
+            if (leak) {
+                long leaks = (created + acquired) - (released + discarded);
+                LOG.warn("{} pool usage (leaks detected: {}) [pooled: {}, created: {}, acquired: {}, released: {}, discarded: {}]",
+                        name, leaks, pooled, created, acquired, released, discarded);
+            } else if (created > 0 || acquired > 0) {
+                LOG.info("{} pool usage [pooled: {}, created: {}, acquired: {}, released: {}, discarded: {}]",
+                        name, pooled, created, acquired, released, discarded);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DeepPooledObjectFactory[" + name + ", capacity: " + getCapacity() + "]";
+    }
+
+}
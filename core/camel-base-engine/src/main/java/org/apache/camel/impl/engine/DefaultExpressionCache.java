@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.spi.ExpressionCache;
+import org.apache.camel.spi.Language;
+import org.apache.camel.support.CamelContextHelper;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * Default {@link ExpressionCache} which is bounded using the W-TinyLFU eviction policy.
+ *
+ * New expressions are added to a small LRU window. The expressions leaving the window compete with the least recently
+ * used expression of the main segmented LRU, and the one estimated to be used the most often stays in the cache. The
+ * frequencies are estimated by a count-min sketch which is aged periodically, so the expressions which were popular in
+ * the past do not stay forever. This keeps the frequently used expressions in the cache, even when a lot of different
+ * expressions are created once per message.
+ *
+ * The expressions are looked up without locking, while the eviction policy is updated under a lock. The cache hits are
+ * not recorded when the lock is contended, which only makes the eviction policy slightly less accurate.
+ */
+public class DefaultExpressionCache extends ServiceSupport implements ExpressionCache, CamelContextAware {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = 3;
+
+    private final Map<Key, Node> data = new ConcurrentHashMap<>();
+    private final Map<String, LanguageStatistics> statistics = new ConcurrentHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private CamelContext camelContext;
+    private volatile int maximumCacheSize = -1;
+
+    // the eviction policy (guarded by lock)
+    private final LinkedHashSet<Node> window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node> protectedSegment = new LinkedHashSet<>();
+    private FrequencySketch sketch;
+    private int windowMaximum;
+    private int mainMaximum;
+    private int protectedMaximum;
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    public int getMaximumCacheSize() {
+        int answer = maximumCacheSize;
+        if (answer == -1) {
+            answer = CamelContextHelper.getMaximumExpressionCacheSize(camelContext);
+            setMaximumCacheSize(answer);
+        }
+        return answer;
+    }
+
+    @Override
+    public void setMaximumCacheSize(int maximumCacheSize) {
+        lock.lock();
+        try {
+            clear();
+            this.maximumCacheSize = Math.max(0, maximumCacheSize);
+            // the window is 1% of the cache, and the protected segment is 80% of the main region
+            this.windowMaximum = Math.max(1, this.maximumCacheSize / 100);
+            this.mainMaximum = Math.max(0, this.maximumCacheSize - windowMaximum);
+            this.protectedMaximum = (int) (mainMaximum * 0.8);
+            this.sketch = this.maximumCacheSize > 0 ? new FrequencySketch(this.maximumCacheSize) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Expression computeExpressionIfAbsent(
+            String language, Language owner, String expression, Object[] properties, Supplier<Expression> factory) {
+        return (Expression) computeIfAbsent(false, language, owner, expression, properties, factory);
+    }
+
+    @Override
+    public Predicate computePredicateIfAbsent(
+            String language, Language owner, String expression, Object[] properties, Supplier<Predicate> factory) {
+        return (Predicate) computeIfAbsent(true, language, owner, expression, properties, factory);
+    }
+
+    private Object computeIfAbsent(
+            boolean predicate, String language, Language owner, String expression, Object[] properties,
+            Supplier<?> factory) {
+        if (getMaximumCacheSize() <= 0) {
+            return factory.get();
+        }
+
+        LanguageStatistics stats = statistics.computeIfAbsent(language, LanguageStatistics::new);
+        Key key = new Key(predicate, language, owner, expression, properties);
+        Node node = data.get(key);
+        if (node != null) {
+            stats.hits.increment();
+            if (lock.tryLock()) {
+                try {
+                    onAccess(node);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return node.value;
+        }
+
+        // create the expression outside the lock, as it may be slow, or use the cache for nested expressions
+        stats.misses.increment();
+        Object value = factory.get();
+        if (value == null) {
+            return null;
+        }
+
+        lock.lock();
+        try {
+            Node existing = data.get(key);
+            if (existing != null) {
+                // created concurrently by another thread
+                onAccess(existing);
+                return existing.value;
+            }
+            if (sketch == null) {
+                // the cache was disabled concurrently
+                return value;
+            }
+            node = new Node(key, value, stats);
+            data.put(key, node);
+            stats.size.increment();
+            sketch.increment(key.hash);
+            window.add(node);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    private void onAccess(Node node) {
+        if (node.region == REMOVED) {
+            return;
+        }
+        sketch.increment(node.key.hash);
+        if (node.region == WINDOW) {
+            moveToTail(window, node);
+        } else if (node.region == PROTECTED) {
+            moveToTail(protectedSegment, node);
+        } else {
+            // promote to the protected segment, which may demote its least recently used node
+            probation.remove(node);
+            node.region = PROTECTED;
+            protectedSegment.add(node);
+            if (protectedSegment.size() > protectedMaximum) {
+                Node demoted = removeFirst(protectedSegment);
+                demoted.region = PROBATION;
+                probation.add(demoted);
+            }
+        }
+    }
+
+    private void evict() {
+        while (window.size() > windowMaximum) {
+            // the node leaving the window is a candidate to the main region
+            Node candidate = removeFirst(window);
+            candidate.region = PROBATION;
+            probation.add(candidate);
+            if (probation.size() + protectedSegment.size() <= mainMaximum) {
+                continue;
+            }
+
+            Node victim = probation.iterator().next();
+            if (victim == candidate) {
+                victim = protectedSegment.isEmpty() ? null : protectedSegment.iterator().next();
+            }
+            // keep the node which is used the most often
+            if (victim != null && sketch.frequency(candidate.key.hash) > sketch.frequency(victim.key.hash)) {
+                remove(victim);
+            } else {
+                remove(candidate);
+            }
+        }
+    }
+
+    private void remove(Node node) {
+        if (node.region == PROBATION) {
+            probation.remove(node);
+        } else if (node.region == PROTECTED) {
+            protectedSegment.remove(node);
+        } else {
+            window.remove(node);
+        }
+        node.region = REMOVED;
+        data.remove(node.key);
+        node.stats.size.decrement();
+        node.stats.evicted.increment();
+    }
+
+    private static void moveToTail(LinkedHashSet<Node> segment, Node node) {
+        segment.remove(node);
+        segment.add(node);
+    }
+
+    private static Node removeFirst(LinkedHashSet<Node> segment) {
+        Iterator<Node> it = segment.iterator();
+        Node answer = it.next();
+        it.remove();
+        return answer;
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node node : data.values()) {
+                node.region = REMOVED;
+                node.stats.size.decrement();
+            }
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<Statistics> getStatistics() {
+        List<Statistics> answer = new ArrayList<>(statistics.values());
+        answer.sort(Comparator.comparing(Statistics::getLanguage));
+        return answer;
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (LanguageStatistics stats : statistics.values()) {
+            stats.hits.reset();
+            stats.misses.reset();
+            stats.evicted.reset();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        clear();
+    }
+
+    private static final class Key {
+        private final boolean predicate;
+        private final String language;
+        private final Language owner;
+        private final String expression;
+        private final Object[] properties;
+        private final int hash;
+
+        Key(boolean predicate, String language, Language owner, String expression, Object[] properties) {
+            this.predicate = predicate;
+            this.language = language;
+            this.owner = owner;
+            this.expression = expression;
+            this.properties = properties != null ? properties.clone() : null;
+            this.hash = Objects.hash(predicate, language, System.identityHashCode(owner), expression,
+                    Arrays.deepHashCode(properties));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return predicate == key.predicate && owner == key.owner && hash == key.hash
+                    && language.equals(key.language) && Objects.equals(expression, key.expression)
+                    && Arrays.deepEquals(properties, key.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Node {
+        private final Key key;
+        private final Object value;
+        private final LanguageStatistics stats;
+        // guarded by lock
+        private int region = WINDOW;
+
+        Node(Key key, Object value, LanguageStatistics stats) {
+            this.key = key;
+            this.value = value;
+            this.stats = stats;
+        }
+    }
+
+    private static final class LanguageStatistics implements Statistics {
+        private final String language;
+        private final LongAdder size = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evicted = new LongAdder();
+
+        LanguageStatistics(String language) {
+            this.language = language;
+        }
+
+        @Override
+        public String getLanguage() {
+            return language;
+        }
+
+        @Override
+        public int getSize() {
+            return size.intValue();
+        }
+
+        @Override
+        public long getHits() {
+            return hits.sum();
+        }
+
+        @Override
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        @Override
+        public long getEvicted() {
+            return evicted.sum();
+        }
+    }
+
+    /**
+     * A count-min sketch estimating how often the expressions are used, with 4-bit counters which are halved once the
+     * number of increments reaches ten times the maximum size of the cache.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS
+                = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int size;
+
+        FrequencySketch(int maximumSize) {
+            int length = Integer.highestOneBit(Math.min(Math.max(16, maximumSize), 1 << 29) - 1) << 1;
+            this.table = new long[length];
+            this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+        }
+
+        int frequency(int hash) {
+            hash = spread(hash);
+            int start = (hash & 3) << 2;
+            int answer = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int offset = (start + i) << 2;
+                int count = (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL);
+                answer = Math.min(answer, count);
+            }
+            return answer;
+        }
+
+        void increment(int hash) {
+            hash = spread(hash);
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && ++size >= sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int) h) & (table.length - 1);
+        }
+
+        private void reset() {
+            int odd = 0;
+            for (int i = 0; i < table.length; i++) {
+                odd += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (odd >>> 2);
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -16,12 +16,19 @@
  */
 package org.apache.camel.impl.engine;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -37,22 +44,51 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Default {@link org.apache.camel.spi.InflightRepository}.
+ * <p/>
+ * By default only the number of inflight exchanges is counted. When inflight browsing is enabled then the exchanges are
+ * tracked in shards (selected by the exchange id) to reduce contention. Each shard keeps the exchanges in the order they
+ * were added, which allows finding the oldest inflight exchanges by only looking at the head of each shard, and the
+ * time the exchanges were inflight in each route is recorded per route in a histogram, which allows estimating
+ * percentiles.
  */
 public class DefaultInflightRepository extends ServiceSupport implements InflightRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultInflightRepository.class);
 
     private final LongAdder size = new LongAdder();
-    private final ConcurrentMap<String, Exchange> inflight = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, LongAdder> routeCount = new ConcurrentHashMap<>();
+    private final Shard[] shards;
+    private final int mask;
+    private final ConcurrentMap<String, RouteInflight> routeCount = new ConcurrentHashMap<>();
     private boolean inflightExchangeEnabled;
 
+    public DefaultInflightRepository() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the repository
+     *
+     * @param shards the number of shards to use for tracking the inflight exchanges when browsing is enabled (is rounded
+     *               up to a power of two)
+     */
+    public DefaultInflightRepository(int shards) {
+        int n = 1;
+        while (n < Math.min(Math.max(shards, 1), 64)) {
+            n <<= 1;
+        }
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.mask = n - 1;
+    }
+
     @Override
     public void add(Exchange exchange) {
         size.increment();
 
         if (inflightExchangeEnabled) {
-            inflight.put(exchange.getExchangeId(), exchange);
+            shardFor(exchange).add(exchange);
         }
     }
 
@@ -61,23 +97,33 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         size.decrement();
 
         if (inflightExchangeEnabled) {
-            inflight.remove(exchange.getExchangeId());
+            shardFor(exchange).remove(exchange);
         }
     }
 
     @Override
     public void add(Exchange exchange, String routeId) {
-        LongAdder existing = routeCount.get(routeId);
+        RouteInflight existing = routeCount.get(routeId);
         if (existing != null) {
-            existing.increment();
+            existing.count.increment();
+            if (inflightExchangeEnabled) {
+                existing.started.putIfAbsent(exchange.getExchangeId(), System.nanoTime());
+            }
         }
     }
 
     @Override
     public void remove(Exchange exchange, String routeId) {
-        LongAdder existing = routeCount.get(routeId);
+        RouteInflight existing = routeCount.get(routeId);
         if (existing != null) {
-            existing.decrement();
+            existing.count.decrement();
+            if (inflightExchangeEnabled) {
+                // the time the exchange was inflight in this route
+                Long started = existing.started.remove(exchange.getExchangeId());
+                if (started != null) {
+                    existing.histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                }
+            }
         }
     }
 
@@ -88,7 +134,7 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public void addRoute(String routeId) {
-        routeCount.putIfAbsent(routeId, new LongAdder());
+        routeCount.putIfAbsent(routeId, new RouteInflight());
     }
 
     @Override
@@ -98,8 +144,8 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public int size(String routeId) {
-        LongAdder existing = routeCount.get(routeId);
-        return existing != null ? existing.intValue() : 0;
+        RouteInflight existing = routeCount.get(routeId);
+        return existing != null ? existing.count.intValue() : 0;
     }
 
     @Override
@@ -110,6 +156,9 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
     @Override
     public void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
         this.inflightExchangeEnabled = inflightBrowseEnabled;
+        if (!inflightBrowseEnabled) {
+            routeCount.values().forEach(r -> r.started.clear());
+        }
     }
 
     @Override
@@ -133,18 +182,20 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
             return Collections.emptyList();
         }
 
-        Stream<Exchange> values;
-        if (fromRouteId == null) {
-            // all values
-            values = inflight.values().stream();
-        } else {
+        if (sortByLongestDuration && limit > 0) {
+            // only need to look at the oldest from each shard
+            return oldest(fromRouteId, limit).stream()
+                    .map(InflightExchangeEntry::new).collect(Collectors.toUnmodifiableList());
+        }
+
+        Stream<Exchange> values = Stream.of(shards).flatMap(s -> s.entries.values().stream()).map(e -> e.exchange);
+        if (fromRouteId != null) {
             // only if route match
-            values = inflight.values().stream()
-                    .filter(e -> fromRouteId.equals(e.getFromRouteId()));
+            values = values.filter(e -> fromRouteId.equals(e.getFromRouteId()));
         }
 
         if (sortByLongestDuration) {
-            // sort by duration and grab the first
+            // sort by duration
             values = values.sorted((e1, e2) -> {
                 long d1 = getExchangeDuration(e1);
                 long d2 = getExchangeDuration(e2);
@@ -169,30 +220,57 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
             return null;
         }
 
-        Stream<Exchange> values;
-
-        if (fromRouteId == null) {
-            // all values
-            values = inflight.values().stream();
+        List<Exchange> oldest = oldest(fromRouteId, 1);
+        if (!oldest.isEmpty()) {
+            return new InflightExchangeEntry(oldest.get(0));
         } else {
-            // only if route match
-            values = inflight.values().stream()
-                    .filter(e -> fromRouteId.equals(e.getFromRouteId()));
+            return null;
         }
+    }
 
-        // sort by duration and grab the first
-        Exchange first = values.sorted((e1, e2) -> {
-            long d1 = getExchangeDuration(e1);
-            long d2 = getExchangeDuration(e2);
-            // need the biggest number first
-            return -1 * Long.compare(d1, d2);
-        }).findFirst().orElse(null);
+    @Override
+    public long durationPercentile(String routeId, double percentile) {
+        RouteInflight existing = routeCount.get(routeId);
+        if (!inflightExchangeEnabled || existing == null) {
+            return -1;
+        }
+        return existing.histogram.percentile(percentile);
+    }
 
-        if (first != null) {
-            return new InflightExchangeEntry(first);
-        } else {
-            return null;
+    @Override
+    public void resetStatistics() {
+        routeCount.values().forEach(r -> r.histogram.reset());
+    }
+
+    /**
+     * Finds the oldest exchanges by merging the shards, which are each in the order the exchanges were added, so only
+     * the first exchanges of each shard are visited (and the exchanges from other routes that are in between).
+     */
+    private List<Exchange> oldest(String fromRouteId, int limit) {
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(shards.length);
+        for (Shard shard : shards) {
+            ShardCursor cursor = new ShardCursor(shard.order.iterator(), fromRouteId);
+            if (cursor.next()) {
+                heads.add(cursor);
+            }
         }
+
+        List<Exchange> answer = new ArrayList<>(Math.min(limit, 16));
+        while (answer.size() < limit && !heads.isEmpty()) {
+            ShardCursor cursor = heads.poll();
+            answer.add(cursor.current.exchange);
+            if (cursor.next()) {
+                heads.add(cursor);
+            }
+        }
+        // sort by the actual duration, as the exchanges may have been created a bit earlier than added
+        answer.sort((e1, e2) -> -1 * Long.compare(getExchangeDuration(e1), getExchangeDuration(e2)));
+        return answer;
+    }
+
+    private Shard shardFor(Exchange exchange) {
+        int h = exchange.getExchangeId().hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
     }
 
     @Override
@@ -210,6 +288,170 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         return exchange.getClock().elapsed();
     }
 
+    /**
+     * A shard of the inflight exchanges, which keeps the exchanges in the order they were added. Removing an exchange
+     * marks its entry as removed, and the removed entries are purged from the head of the shard, or when there are too
+     * many removed entries.
+     */
+    private static final class Shard {
+
+        private final ConcurrentMap<String, ShardEntry> entries = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<ShardEntry> order = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger removed = new AtomicInteger();
+        private final AtomicBoolean purging = new AtomicBoolean();
+
+        void add(Exchange exchange) {
+            ShardEntry entry = new ShardEntry(exchange, System.nanoTime());
+            ShardEntry old = entries.put(exchange.getExchangeId(), entry);
+            if (old != null) {
+                // the same exchange added again (should not happen) so replace it
+                markRemoved(old);
+            }
+            order.offer(entry);
+        }
+
+        void remove(Exchange exchange) {
+            ShardEntry entry = entries.remove(exchange.getExchangeId());
+            if (entry != null) {
+                markRemoved(entry);
+            }
+        }
+
+        private void markRemoved(ShardEntry entry) {
+            entry.removed = true;
+            int count = removed.incrementAndGet();
+
+            // purge the removed entries from the head which is the common case
+            ShardEntry head;
+            while ((head = order.peek()) != null && head.removed) {
+                if (order.remove(head)) {
+                    count = removed.decrementAndGet();
+                }
+            }
+
+            // purge all the removed entries if there are too many, such as when an old exchange is stuck
+            if (count > 64 && count > entries.size() && purging.compareAndSet(false, true)) {
+                try {
+                    Iterator<ShardEntry> it = order.iterator();
+                    while (it.hasNext()) {
+                        if (it.next().removed) {
+                            it.remove();
+                            removed.decrementAndGet();
+                        }
+                    }
+                } finally {
+                    purging.set(false);
+                }
+            }
+        }
+    }
+
+    private static final class ShardEntry {
+
+        private final Exchange exchange;
+        private final long added;
+        private volatile boolean removed;
+
+        private ShardEntry(Exchange exchange, long added) {
+            this.exchange = exchange;
+            this.added = added;
+        }
+    }
+
+    /**
+     * Iterates the entries of a shard (in the order they were added) skipping removed entries.
+     */
+    private static final class ShardCursor implements Comparable<ShardCursor> {
+
+        private final Iterator<ShardEntry> it;
+        private final String fromRouteId;
+        private ShardEntry current;
+
+        private ShardCursor(Iterator<ShardEntry> it, String fromRouteId) {
+            this.it = it;
+            this.fromRouteId = fromRouteId;
+        }
+
+        boolean next() {
+            while (it.hasNext()) {
+                ShardEntry entry = it.next();
+                if (!entry.removed && (fromRouteId == null || fromRouteId.equals(entry.exchange.getFromRouteId()))) {
+                    current = entry;
+                    return true;
+                }
+            }
+            current = null;
+            return false;
+        }
+
+        @Override
+        public int compareTo(ShardCursor o) {
+            // the oldest (added first) first
+            return Long.compare(current.added - o.current.added, 0);
+        }
+    }
+
+    /**
+     * The inflight counter and the histogram of the durations for a route, and when the exchanges inflight in the route
+     * were added to it (by exchange id).
+     */
+    private static final class RouteInflight {
+
+        private final LongAdder count = new LongAdder();
+        private final DurationHistogram histogram = new DurationHistogram();
+        private final ConcurrentMap<String, Long> started = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A histogram of durations in millis with power of two buckets, which is cheap to record into, and can estimate
+     * percentiles (as the upper bound of the bucket).
+     */
+    static final class DurationHistogram {
+
+        // bucket 0 is 0 millis, and bucket n is below 2^n millis (the last bucket is everything above)
+        private static final int BUCKETS = 32;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        DurationHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long duration) {
+            int index = duration <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(duration);
+            buckets[Math.min(index, BUCKETS - 1)].increment();
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+
+        long percentile(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100d);
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                sum += counts[i];
+                if (sum >= rank && counts[i] > 0) {
+                    return i == 0 ? 0 : (1L << i) - 1;
+                }
+            }
+            return (1L << (BUCKETS - 1)) - 1;
+        }
+    }
+
     private static final class InflightExchangeEntry implements InflightExchange {
 
         private final Exchange exchange;
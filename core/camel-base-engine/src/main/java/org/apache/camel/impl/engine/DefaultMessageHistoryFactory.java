@@ -16,16 +16,22 @@
  */
 package org.apache.camel.impl.engine;
 
+import java.util.List;
+
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePropertyKey;
 import org.apache.camel.Message;
 import org.apache.camel.MessageHistory;
 import org.apache.camel.NamedNode;
+import org.apache.camel.PooledExchange;
 import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.MessageHistoryFactory;
 import org.apache.camel.support.DefaultMessageHistory;
 import org.apache.camel.support.PatternHelper;
+import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.support.service.ServiceSupport;
 
 @ManagedResource(description = "Managed MessageHistoryFactory")
@@ -35,6 +41,7 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
     private boolean copyMessage;
     private String nodePattern;
     private volatile String[] nodePatternParts;
+    private DeepPooledObjectFactory<PooledMessageHistory> pool;
 
     @Override
     public CamelContext getCamelContext() {
@@ -58,6 +65,18 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
             }
         }
 
+        // only pooled exchanges are reused, and therefore can release the message history when done
+        if (pool != null && !copyMessage && exchange instanceof PooledExchange) {
+            PooledMessageHistory answer = pool.acquire();
+            if (answer != null) {
+                answer.reuse(routeId, node, exchange);
+            } else {
+                answer = new PooledMessageHistory(routeId, node, exchange);
+            }
+            answer.setAcceptDebugger(node.acceptDebugger(exchange));
+            return answer;
+        }
+
         Message msg = null;
         if (copyMessage) {
             msg = exchange.getMessage().copy();
@@ -68,6 +87,49 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
         return answer;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void releaseMessageHistory(Exchange exchange) {
+        if (pool == null) {
+            return;
+        }
+        List<MessageHistory> list = exchange.getProperty(ExchangePropertyKey.MESSAGE_HISTORY, List.class);
+        if (list != null) {
+            for (MessageHistory history : list) {
+                // the list may contain message history from the parent exchange (copied) which we must not release
+                if (history instanceof PooledMessageHistory pmh && pmh.isOwner(exchange)) {
+                    pmh.release();
+                    if (pmh.isShared()) {
+                        // a copy of the exchange may still be in use so the message history cannot be reused
+                        pool.discard(pmh);
+                    } else {
+                        pool.release(pmh);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (camelContext != null && pool == null && !copyMessage) {
+            ExchangeFactory ef = camelContext.getCamelContextExtension().getExchangeFactory();
+            if (ef.isDeepPooling()) {
+                pool = new DeepPooledObjectFactory<>("MessageHistory", ef);
+                pool.setCamelContext(camelContext);
+                ServiceHelper.startService(pool);
+            }
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        ServiceHelper.stopService(pool);
+        pool = null;
+    }
+
     @ManagedAttribute(description = "Whether message history is enabled")
     public boolean isEnabled() {
         return camelContext != null ? camelContext.isMessageHistory() : false;
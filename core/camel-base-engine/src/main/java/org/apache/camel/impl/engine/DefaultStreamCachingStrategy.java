@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelContextAware;
@@ -58,6 +59,7 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
     private int spoolUsedHeapMemoryThreshold;
     private SpoolUsedHeapMemoryLimit spoolUsedHeapMemoryLimit;
     private String spoolCipher;
+    private boolean spoolMemoryMapped;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
     private boolean removeSpoolDirectoryWhenStopping = true;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
@@ -177,6 +179,16 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
         this.spoolCipher = spoolCipher;
     }
 
+    @Override
+    public boolean isSpoolMemoryMapped() {
+        return spoolMemoryMapped;
+    }
+
+    @Override
+    public void setSpoolMemoryMapped(boolean spoolMemoryMapped) {
+        this.spoolMemoryMapped = spoolMemoryMapped;
+    }
+
     @Override
     public int getBufferSize() {
         return bufferSize;
@@ -480,6 +492,7 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
                + "spoolDirectoryEnabled=" + spoolEnabled
                + ", spoolDirectory=" + spoolDirectory
                + ", spoolCipher=" + spoolCipher
+               + ", spoolMemoryMapped=" + spoolMemoryMapped
                + ", spoolThreshold=" + spoolThreshold
                + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
                + ", bufferSize=" + bufferSize
@@ -561,6 +574,9 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
         private volatile long spoolCounter;
         private volatile long spoolSize;
         private volatile long spoolAverageSize;
+        private volatile long spoolMappedCounter;
+        private volatile long spoolMappedSize;
+        private final LongAdder spoolMappedReadCounter = new LongAdder();
 
         synchronized void updateMemory(long size) {
             memoryCounter++;
@@ -574,6 +590,17 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
             spoolAverageSize = spoolSize / spoolCounter;
         }
 
+        @Override
+        public synchronized void onSpoolMapped(long size) {
+            spoolMappedCounter++;
+            spoolMappedSize += size;
+        }
+
+        @Override
+        public void onSpoolMappedRead() {
+            spoolMappedReadCounter.increment();
+        }
+
         @Override
         public long getCacheMemoryCounter() {
             return memoryCounter;
@@ -604,6 +631,21 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
             return spoolAverageSize;
         }
 
+        @Override
+        public long getCacheSpoolMappedCounter() {
+            return spoolMappedCounter;
+        }
+
+        @Override
+        public long getCacheSpoolMappedSize() {
+            return spoolMappedSize;
+        }
+
+        @Override
+        public long getCacheSpoolMappedReadCounter() {
+            return spoolMappedReadCounter.sum();
+        }
+
         @Override
         public synchronized void reset() {
             memoryCounter = 0;
@@ -612,6 +654,9 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
             spoolCounter = 0;
             spoolSize = 0;
             spoolAverageSize = 0;
+            spoolMappedCounter = 0;
+            spoolMappedSize = 0;
+            spoolMappedReadCounter.reset();
         }
 
         @Override
@@ -627,8 +672,10 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
         @Override
         public String toString() {
             return String.format(
-                    "[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s]",
-                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize);
+                    "[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s"
+                    + ", spoolMappedCounter=%s, spoolMappedSize=%s, spoolMappedReadCounter=%s]",
+                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize,
+                    spoolMappedCounter, spoolMappedSize, spoolMappedReadCounter.sum());
         }
     }
 
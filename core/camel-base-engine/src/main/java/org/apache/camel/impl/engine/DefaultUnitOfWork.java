@@ -62,6 +62,7 @@ public class DefaultUnitOfWork implements UnitOfWork {
     private List<Synchronization> synchronizations;
     private Message originalInMessage;
     private Set<Object> transactedBy;
+    private boolean deepPooling;
 
     public DefaultUnitOfWork(Exchange exchange) {
         this(exchange, exchange.getContext().getInflightRepository(), exchange.getContext().isAllowUseOriginalMessage(),
@@ -158,6 +159,17 @@ public class DefaultUnitOfWork implements UnitOfWork {
         inflightRepository.add(exchange);
     }
 
+    /**
+     * Whether this unit of work is pooled and reused (deep pooling).
+     */
+    public boolean isDeepPooling() {
+        return deepPooling;
+    }
+
+    void setDeepPooling(boolean deepPooling) {
+        this.deepPooling = deepPooling;
+    }
+
     @Override
     public void reset() {
         this.exchange = null;
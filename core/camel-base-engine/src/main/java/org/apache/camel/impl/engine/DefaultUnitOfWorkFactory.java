@@ -18,6 +18,9 @@ package org.apache.camel.impl.engine;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.PooledExchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.spi.UnitOfWorkFactory;
@@ -32,6 +35,7 @@ public class DefaultUnitOfWorkFactory implements UnitOfWorkFactory {
     private String mdcLoggingKeysPattern;
     private boolean allowUseOriginalMessage;
     private boolean useBreadcrumb;
+    private volatile DeepPooledObjectFactory<DefaultUnitOfWork> pool;
 
     @Override
     public UnitOfWork createUnitOfWork(Exchange exchange) {
@@ -39,12 +43,35 @@ public class DefaultUnitOfWorkFactory implements UnitOfWorkFactory {
         if (usedMDCLogging) {
             answer = new MDCUnitOfWork(
                     exchange, inflightRepository, mdcLoggingKeysPattern, allowUseOriginalMessage, useBreadcrumb);
+        } else if (pool != null && !(exchange instanceof PooledExchange)) {
+            // pooled exchanges keeps their unit of work for reuse, so only pool for other exchanges
+            DefaultUnitOfWork uow = pool.acquire();
+            if (uow != null) {
+                // reuse unit of work from the pool
+                uow.onPrepare(exchange);
+            } else {
+                uow = new DefaultUnitOfWork(exchange, inflightRepository, allowUseOriginalMessage, useBreadcrumb);
+                uow.setDeepPooling(true);
+            }
+            answer = uow;
         } else {
-            answer = new DefaultUnitOfWork(exchange, inflightRepository, allowUseOriginalMessage, useBreadcrumb);
+            DefaultUnitOfWork uow
+                    = new DefaultUnitOfWork(exchange, inflightRepository, allowUseOriginalMessage, useBreadcrumb);
+            uow.setDeepPooling(pool != null);
+            answer = uow;
         }
         return answer;
     }
 
+    @Override
+    public void releaseUnitOfWork(UnitOfWork uow) {
+        // only reuse the unit of works created by this factory
+        if (pool != null && uow.getClass() == DefaultUnitOfWork.class && ((DefaultUnitOfWork) uow).isDeepPooling()) {
+            uow.reset();
+            pool.release((DefaultUnitOfWork) uow);
+        }
+    }
+
     @Override
     public void afterPropertiesConfigured(CamelContext camelContext) {
         // optimize to read configuration once
@@ -54,6 +81,23 @@ public class DefaultUnitOfWorkFactory implements UnitOfWorkFactory {
         allowUseOriginalMessage
                 = camelContext.isAllowUseOriginalMessage() != null ? camelContext.isAllowUseOriginalMessage() : false;
         useBreadcrumb = camelContext.isUseBreadcrumb() != null ? camelContext.isUseBreadcrumb() : false;
+
+        ExchangeFactory ef = camelContext.getCamelContextExtension().getExchangeFactory();
+        if (pool == null && ef.isDeepPooling() && !usedMDCLogging) {
+            synchronized (this) {
+                if (pool == null) {
+                    DeepPooledObjectFactory<DefaultUnitOfWork> answer = new DeepPooledObjectFactory<>("UnitOfWork", ef);
+                    answer.setCamelContext(camelContext);
+                    try {
+                        // the pool is stopped together with camel
+                        camelContext.addService(answer, true, true);
+                    } catch (Exception e) {
+                        throw RuntimeCamelException.wrapRuntimeCamelException(e);
+                    }
+                    pool = answer;
+                }
+            }
+        }
     }
 
 }
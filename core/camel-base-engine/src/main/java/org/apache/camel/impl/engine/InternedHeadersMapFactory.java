@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.Map;
+
+import org.apache.camel.spi.HeadersMapFactory;
+import org.apache.camel.support.InternedHeadersMap;
+
+/**
+ * {@link HeadersMapFactory} which uses the {@link InternedHeadersMap}, which is a case insensitive map where well known
+ * header names are interned to integer ids, and the headers are stored in flat arrays. This reduces the per message
+ * overhead of looking up headers for the typical message with a few dozen headers.
+ * <p/>
+ * This factory can be configured by {@link org.apache.camel.ExtendedCamelContext#setHeadersMapFactory(HeadersMapFactory)}.
+ */
+public class InternedHeadersMapFactory implements HeadersMapFactory {
+
+    @Override
+    public Map<String, Object> newMap() {
+        return new InternedHeadersMap();
+    }
+
+    @Override
+    public Map<String, Object> newMap(Map<String, Object> map) {
+        return new InternedHeadersMap(map);
+    }
+
+    @Override
+    public boolean isInstanceOf(Map<String, Object> map) {
+        return map instanceof InternedHeadersMap;
+    }
+
+    @Override
+    public boolean isCaseInsensitive() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "interned-headers-map";
+    }
+}
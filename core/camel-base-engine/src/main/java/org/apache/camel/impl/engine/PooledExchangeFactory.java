@@ -34,6 +34,7 @@ public final class PooledExchangeFactory extends PrototypeExchangeFactory {
     private static final Logger LOG = LoggerFactory.getLogger(PooledExchangeFactory.class);
 
     private final ReleaseOnDoneTask onDone = new ReleaseOnDoneTask();
+    private boolean deepPooling;
 
     public PooledExchangeFactory() {
     }
@@ -48,9 +49,23 @@ public final class PooledExchangeFactory extends PrototypeExchangeFactory {
         answer.setCamelContext(camelContext);
         answer.setCapacity(capacity);
         answer.setStatisticsEnabled(statisticsEnabled);
+        answer.setDeepPooling(deepPooling);
         return answer;
     }
 
+    @Override
+    public boolean isDeepPooling() {
+        return deepPooling;
+    }
+
+    /**
+     * Whether deep pooling is enabled. When enabled then not only the exchanges are pooled, but also the unit of work,
+     * message history and the tasks used by the EIPs during routing are pooled and reused.
+     */
+    public void setDeepPooling(boolean deepPooling) {
+        this.deepPooling = deepPooling;
+    }
+
     @Override
     public Exchange create(boolean autoRelease) {
         Exchange exchange = pool.poll();
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.NamedNode;
+import org.apache.camel.support.DefaultMessageHistory;
+
+/**
+ * A {@link DefaultMessageHistory} that is pooled and reused when deep pooling is enabled.
+ * <p/>
+ * The message history keeps track of the exchange that created it, as the message history is shared with copies of the
+ * exchange (such as from the Splitter EIP), and only the exchange that created the message history may release it back
+ * into the pool.
+ */
+final class PooledMessageHistory extends DefaultMessageHistory {
+
+    private Exchange owner;
+
+    PooledMessageHistory(String routeId, NamedNode node, Exchange owner) {
+        super(routeId, node);
+        this.owner = owner;
+    }
+
+    void reuse(String routeId, NamedNode node, Exchange owner) {
+        reset(routeId, node, null);
+        this.owner = owner;
+    }
+
+    boolean isOwner(Exchange exchange) {
+        return owner == exchange;
+    }
+
+    void release() {
+        this.owner = null;
+    }
+
+}
@@ -53,6 +53,7 @@ import org.apache.camel.spi.EndpointServiceRegistry;
 import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExchangeFactoryManager;
 import org.apache.camel.spi.ExecutorServiceManager;
+import org.apache.camel.spi.ExpressionCache;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.HeadersMapFactory;
@@ -548,6 +549,11 @@ public class SimpleCamelContext extends AbstractCamelContext {
         return new DefaultBeanIntrospection();
     }
 
+    @Override
+    protected ExpressionCache createExpressionCache() {
+        return new DefaultExpressionCache();
+    }
+
     @Override
     protected RoutesLoader createRoutesLoader() {
         Optional<RoutesLoader> result = ResolverHelper.resolveService(
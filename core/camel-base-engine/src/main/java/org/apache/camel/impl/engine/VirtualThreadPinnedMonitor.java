@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects when virtual threads from thread-per-task executors are pinned to their carrier thread (for example when
+ * blocking inside a synchronized block), by listening for the JFR <tt>jdk.VirtualThreadPinned</tt> event.
+ * <p/>
+ * The first time a thread from a given executor is pinned, then a WARN is logged with the stack trace, and the
+ * following occurrences are only counted on the executor.
+ */
+public class VirtualThreadPinnedMonitor extends ServiceSupport {
+
+    static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinnedMonitor.class);
+
+    // JFR events are emitted in batches (default every second) so keep finished threads around for a while
+    private static final long FINISHED_THREAD_RETENTION = TimeUnit.SECONDS.toNanos(10);
+    private static final int STACK_TRACE_DEPTH = 10;
+
+    private final List<ThreadPerTaskExecutorService> executors = new CopyOnWriteArrayList<>();
+    private final Set<ThreadPerTaskExecutorService> warned = ConcurrentHashMap.newKeySet();
+    private long threshold = 20;
+    private RecordingStream stream;
+
+    /**
+     * The minimum duration (millis) a virtual thread must be pinned before it is reported.
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    public void addExecutorService(ThreadPerTaskExecutorService executorService) {
+        executorService.setTrackFinishedThreads(true);
+        executors.add(executorService);
+    }
+
+    public void removeExecutorService(ThreadPerTaskExecutorService executorService) {
+        executors.remove(executorService);
+        warned.remove(executorService);
+        executorService.setTrackFinishedThreads(false);
+    }
+
+    /**
+     * Whether the JFR recording stream is active
+     */
+    public boolean isActive() {
+        return stream != null;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        try {
+            RecordingStream rs = new RecordingStream();
+            rs.enable(EVENT_NAME).withThreshold(Duration.ofMillis(threshold)).withStackTrace();
+            rs.onEvent(EVENT_NAME, this::onPinned);
+            rs.onFlush(this::onFlush);
+            rs.startAsync();
+            stream = rs;
+            LOG.debug("Detecting pinned virtual threads using JFR event: {} with threshold: {} millis", EVENT_NAME,
+                    threshold);
+        } catch (Exception | LinkageError e) {
+            LOG.warn("Cannot start JFR recording stream to detect pinned virtual threads due to: {}", e.getMessage());
+            LOG.debug("Error starting JFR recording stream", e);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+        for (ThreadPerTaskExecutorService executor : executors) {
+            executor.setTrackFinishedThreads(false);
+        }
+        executors.clear();
+        warned.clear();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null) {
+            return;
+        }
+        long tid = thread.getJavaThreadId();
+        long duration = event.getDuration().toNanos();
+        for (ThreadPerTaskExecutorService executor : executors) {
+            if (executor.isExecutorThread(tid)) {
+                executor.onPinned(tid, duration);
+                if (warned.add(executor)) {
+                    LOG.warn("Virtual thread: {} from thread pool: {} (route: {}) was pinned to its carrier thread for {} millis."
+                             + " Avoid blocking inside synchronized blocks or native calls. Stacktrace:{}",
+                            thread.getJavaName(), executor.getId(), executor.getRouteId(),
+                            TimeUnit.NANOSECONDS.toMillis(duration), formatStackTrace(event.getStackTrace()));
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug("Virtual thread: {} from thread pool: {} (route: {}) was pinned to its carrier thread for {} millis",
+                            thread.getJavaName(), executor.getId(), executor.getRouteId(),
+                            TimeUnit.NANOSECONDS.toMillis(duration));
+                }
+                return;
+            }
+        }
+    }
+
+    private void onFlush() {
+        long time = System.nanoTime() - FINISHED_THREAD_RETENTION;
+        for (ThreadPerTaskExecutorService executor : executors) {
+            executor.purgeFinishedThreads(time);
+        }
+    }
+
+    private static String formatStackTrace(RecordedStackTrace st) {
+        if (st == null) {
+            return " n/a";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = st.getFrames();
+        int max = Math.min(STACK_TRACE_DEPTH, frames.size());
+        for (int i = 0; i < max; i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(" (line: ").append(frame.getLineNumber()).append(')');
+        }
+        if (frames.size() > max) {
+            sb.append("\n\t...");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.StaticService;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.ReactiveExecutor;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.concurrent.NamedThreadLocal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ReactiveExecutor} that uses bounded per-core lanes with work stealing.
+ * <p/>
+ * Tasks scheduled via {@link #scheduleMain(Runnable)}, {@link #scheduleSync(Runnable)} and
+ * {@link #scheduleQueue(Runnable)} are always executed on the calling thread, in the same order as the
+ * {@link DefaultReactiveExecutor}. When a thread running reactive work has a backlog of pending tasks, then before
+ * running its next task, the oldest task of the backlog is offloaded to the lane of the thread, where it can be picked
+ * up by the lane threads (one per lane) or stolen by other lanes when idle. This allows a burst of work on a single
+ * thread to be drained by idle cores. Tasks are never offloaded while the task that scheduled them is still running, as
+ * they are continuations which may use the same exchange, and must not run concurrently with the scheduling task.
+ * <p/>
+ * When a lane is full then the task stays queued on the calling thread as the default reactive executor would do. Threads
+ * that are routing transacted exchanges (using {@link #scheduleQueue(Runnable)}) are never offloaded, as transactions
+ * are bound to the thread.
+ */
+@ManagedResource(description = "Managed WorkStealingReactiveExecutor")
+public class WorkStealingReactiveExecutor extends ServiceSupport implements ReactiveExecutor, StaticService, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkStealingReactiveExecutor.class);
+
+    private CamelContext camelContext;
+    private int lanes;
+    private int laneCapacity = 1024;
+    private long idleTimeout = 100;
+    private volatile Lane[] activeLanes;
+
+    // use for statistics so we have insights at runtime
+    private boolean statisticsEnabled;
+    private final AtomicInteger createdWorkers = new AtomicInteger();
+    private final LongAdder runningWorkers = new LongAdder();
+    private final LongAdder pendingTasks = new LongAdder();
+    private final LongAdder offloadedTasks = new LongAdder();
+    private final LongAdder rejectedOffloads = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder laneTasks = new LongAdder();
+    private final LongAdder totalQueueLatency = new LongAdder();
+    private final AtomicLong maxQueueLatency = new AtomicLong();
+
+    private final NamedThreadLocal<Worker> workers = new NamedThreadLocal<>("CamelReactiveWorker", () -> {
+        int number = createdWorkers.incrementAndGet();
+        return new Worker(number, WorkStealingReactiveExecutor.this);
+    });
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @ManagedAttribute(description = "Number of lanes")
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Number of lanes (and lane threads) to use. The default is the number of available processors.
+     */
+    public void setLanes(int lanes) {
+        this.lanes = lanes;
+    }
+
+    @ManagedAttribute(description = "Maximum number of tasks per lane")
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    /**
+     * Maximum number of tasks that can be queued per lane. When a lane is full, then tasks are executed by the
+     * calling thread. The default is 1024.
+     */
+    public void setLaneCapacity(int laneCapacity) {
+        this.laneCapacity = laneCapacity;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Time in millis an idle lane thread parks before looking for work to steal. The default is 100.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void schedule(Runnable runnable) {
+        workers.get().schedule(runnable, false, false, false);
+    }
+
+    @Override
+    public void scheduleMain(Runnable runnable) {
+        workers.get().schedule(runnable, true, true, false);
+    }
+
+    @Override
+    public void scheduleSync(Runnable runnable) {
+        workers.get().schedule(runnable, false, true, true);
+    }
+
+    @Override
+    public void scheduleQueue(Runnable runnable) {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("ScheduleQueue: {}", runnable);
+        }
+        Worker worker = workers.get();
+        // transacted work is bound to this thread
+        worker.pinned = true;
+        worker.queue.add(runnable);
+    }
+
+    @Override
+    public boolean executeFromQueue() {
+        return workers.get().executeFromQueue();
+    }
+
+    @Override
+    @ManagedAttribute(description = "Whether statistics is enabled")
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    @ManagedAttribute(description = "Number of created workers")
+    public int getCreatedWorkers() {
+        return createdWorkers.get();
+    }
+
+    @ManagedAttribute(description = "Number of running workers")
+    public int getRunningWorkers() {
+        return runningWorkers.intValue();
+    }
+
+    @ManagedAttribute(description = "Number of pending tasks")
+    public int getPendingTasks() {
+        return pendingTasks.intValue();
+    }
+
+    @ManagedAttribute(description = "Number of tasks currently queued in the lanes")
+    public int getLaneDepth() {
+        Lane[] arr = activeLanes;
+        int answer = 0;
+        if (arr != null) {
+            for (Lane lane : arr) {
+                answer += lane.depth.get();
+            }
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Number of tasks queued in the most loaded lane")
+    public int getMaxLaneDepth() {
+        Lane[] arr = activeLanes;
+        int answer = 0;
+        if (arr != null) {
+            for (Lane lane : arr) {
+                answer = Math.max(answer, lane.depth.get());
+            }
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Number of tasks offloaded to lanes")
+    public long getOffloadedTasks() {
+        return offloadedTasks.sum();
+    }
+
+    @ManagedAttribute(description = "Number of tasks executed by the calling thread because the lane was full")
+    public long getRejectedOffloads() {
+        return rejectedOffloads.sum();
+    }
+
+    @ManagedAttribute(description = "Number of tasks stolen from another lane")
+    public long getSteals() {
+        return steals.sum();
+    }
+
+    @ManagedAttribute(description = "Mean time (micro seconds) tasks are waiting in the lanes before being executed")
+    public long getMeanQueueLatency() {
+        long count = laneTasks.sum();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(totalQueueLatency.sum() / count) : 0;
+    }
+
+    @ManagedAttribute(description = "Maximum time (micro seconds) a task has been waiting in the lanes before being executed")
+    public long getMaxQueueLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxQueueLatency.get());
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        int size = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        Lane[] arr = new Lane[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = new Lane(i);
+        }
+        for (Lane lane : arr) {
+            String name = "CamelReactiveLane #" + lane.index;
+            Runnable task = () -> runLane(lane);
+            lane.thread = camelContext != null
+                    ? camelContext.getExecutorServiceManager().newThread(name, task) : new Thread(task, name);
+            lane.thread.setDaemon(true);
+        }
+        activeLanes = arr;
+        for (Lane lane : arr) {
+            lane.thread.start();
+        }
+        LOG.debug("Started WorkStealingReactiveExecutor with {} lanes (capacity: {})", size, laneCapacity);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        Lane[] arr = activeLanes;
+        activeLanes = null;
+        if (arr != null) {
+            for (Lane lane : arr) {
+                LockSupport.unpark(lane.thread);
+            }
+            // the tasks still queued in the lanes are run by this thread, as their callbacks must be called
+            Worker worker = workers.get();
+            for (Lane lane : arr) {
+                Runnable task;
+                while ((task = lane.tasks.poll()) != null) {
+                    lane.depth.decrementAndGet();
+                    worker.schedule(unwrap(task), false, false, false);
+                }
+            }
+        }
+        if (LOG.isDebugEnabled() && statisticsEnabled) {
+            LOG.debug(
+                    "Stopping WorkStealingReactiveExecutor [createdWorkers: {}, runningWorkers: {}, pendingTasks: {}, offloadedTasks: {}, steals: {}]",
+                    getCreatedWorkers(), getRunningWorkers(), getPendingTasks(), getOffloadedTasks(), getSteals());
+        }
+    }
+
+    @Override
+    protected void doShutdown() throws Exception {
+        workers.remove();
+    }
+
+    @Override
+    public String toString() {
+        return "WorkStealingReactiveExecutor";
+    }
+
+    /**
+     * Offloads the task to the given lane
+     *
+     * @return true if offloaded, false if the lane is full
+     */
+    boolean offload(Lane[] arr, int home, Runnable runnable) {
+        Lane lane = arr[home % arr.length];
+        if (lane.depth.incrementAndGet() > laneCapacity) {
+            lane.depth.decrementAndGet();
+            if (statisticsEnabled) {
+                rejectedOffloads.increment();
+            }
+            return false;
+        }
+        Runnable task = statisticsEnabled ? new LaneTask(runnable, System.nanoTime()) : runnable;
+        lane.tasks.offer(task);
+        if (activeLanes != arr && lane.tasks.remove(task)) {
+            // stopped concurrently, and the task was not drained, so the caller must run it
+            lane.depth.decrementAndGet();
+            return false;
+        }
+        if (statisticsEnabled) {
+            offloadedTasks.increment();
+        }
+        signal(arr, lane);
+        return true;
+    }
+
+    /**
+     * Polls the next task from the home lane, or steals from another lane
+     */
+    Runnable poll(Lane[] arr, int home) {
+        int size = arr.length;
+        int start = home % size;
+        for (int i = 0; i < size; i++) {
+            Lane lane = arr[(start + i) % size];
+            Runnable task = lane.tasks.poll();
+            if (task != null) {
+                lane.depth.decrementAndGet();
+                if (i > 0 && statisticsEnabled) {
+                    steals.increment();
+                }
+                return unwrap(task);
+            }
+        }
+        return null;
+    }
+
+    private Runnable unwrap(Runnable task) {
+        if (task instanceof LaneTask lt) {
+            long delta = System.nanoTime() - lt.queued;
+            laneTasks.increment();
+            totalQueueLatency.add(delta);
+            maxQueueLatency.accumulateAndGet(delta, Math::max);
+            return lt.task;
+        }
+        return task;
+    }
+
+    private void signal(Lane[] arr, Lane lane) {
+        if (lane.idle) {
+            LockSupport.unpark(lane.thread);
+            return;
+        }
+        // the lane thread is busy so wake up another idle lane to steal the work
+        for (Lane other : arr) {
+            if (other.idle) {
+                LockSupport.unpark(other.thread);
+                return;
+            }
+        }
+    }
+
+    private void runLane(Lane lane) {
+        Worker worker = workers.get();
+        worker.home = lane.index;
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        for (;;) {
+            Lane[] arr = activeLanes;
+            if (arr == null) {
+                break;
+            }
+            Runnable task = poll(arr, lane.index);
+            if (task != null) {
+                worker.schedule(task, false, false, false);
+            } else {
+                lane.idle = true;
+                // double check after flagging as idle to not miss a signal
+                if (lane.depth.get() == 0) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+                lane.idle = false;
+            }
+        }
+        workers.remove();
+    }
+
+    private static final class Lane {
+
+        private final int index;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private volatile boolean idle;
+        private Thread thread;
+
+        Lane(int index) {
+            this.index = index;
+        }
+    }
+
+    private record LaneTask(Runnable task, long queued) implements Runnable {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private static class Worker {
+
+        private final int number;
+        private final WorkStealingReactiveExecutor executor;
+        private final boolean stats;
+        private volatile Deque<Runnable> queue = new ArrayDeque<>();
+        private volatile Deque<Deque<Runnable>> back;
+        private volatile boolean running;
+        private volatile boolean pinned;
+        private int home;
+        private int depth;
+
+        public Worker(int number, WorkStealingReactiveExecutor executor) {
+            this.number = number;
+            this.executor = executor;
+            this.stats = executor != null && executor.isStatisticsEnabled();
+            this.home = number;
+        }
+
+        void schedule(Runnable runnable, boolean first, boolean main, boolean sync) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Schedule [first={}, main={}, sync={}]: {}", first, main, sync, runnable);
+            }
+            if (main) {
+                executeMainFlow();
+            }
+            if (first) {
+                queue.addFirst(runnable);
+            } else {
+                queue.addLast(runnable);
+            }
+
+            incrementPendingTasks();
+            tryExecuteReactiveWork(runnable, sync);
+        }
+
+        private void offloadBacklog() {
+            Lane[] arr = executor.activeLanes;
+            if (arr != null) {
+                Runnable task = queue.pollFirst();
+                if (executor.offload(arr, home, task)) {
+                    decrementPendingTasks();
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Offloaded reactive work to lane: {}", task);
+                    }
+                } else {
+                    queue.addFirst(task);
+                }
+            }
+        }
+
+        private void executeMainFlow() {
+            if (!queue.isEmpty()) {
+                if (back == null) {
+                    back = new ArrayDeque<>();
+                }
+                back.push(queue);
+                queue = new ArrayDeque<>();
+            }
+        }
+
+        private void tryExecuteReactiveWork(Runnable runnable, boolean sync) {
+            if (!running || sync) {
+                running = true;
+                depth++;
+                incrementRunningWorkers();
+                try {
+                    executeReactiveWork();
+                } finally {
+                    depth--;
+                    running = false;
+                    decrementRunningWorkers();
+                }
+            } else {
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Queuing reactive work: {}", runnable);
+                }
+            }
+        }
+
+        private void executeReactiveWork() {
+            for (;;) {
+                final Runnable polled = queue.pollFirst();
+                if (polled == null) {
+                    if (back != null && !back.isEmpty()) {
+                        queue = back.pollFirst();
+                        continue;
+                    } else {
+                        // help draining our lane before we are done
+                        Runnable task = pollLane();
+                        if (task != null) {
+                            doRun(task, false);
+                            continue;
+                        }
+                        break;
+                    }
+                }
+                if (depth == 1 && !pinned && !queue.isEmpty()) {
+                    // we have a backlog so offload its oldest task to our lane, so idle lanes can steal the work;
+                    // the tasks that scheduled the backlog have completed (which is not the case in a nested run)
+                    offloadBacklog();
+                }
+                doRun(polled, true);
+            }
+        }
+
+        private Runnable pollLane() {
+            Lane[] arr = executor.activeLanes;
+            if (arr == null || pinned) {
+                return null;
+            }
+            Lane lane = arr[home % arr.length];
+            Runnable task = lane.tasks.poll();
+            if (task != null) {
+                lane.depth.decrementAndGet();
+                return executor.unwrap(task);
+            }
+            return null;
+        }
+
+        private void doRun(Runnable polled, boolean pending) {
+            try {
+                if (pending) {
+                    decrementPendingTasks();
+                }
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Worker #{} running: {}", number, polled);
+                }
+                polled.run();
+            } catch (Exception t) {
+                LOG.warn("Error executing reactive work due to {}. This exception is ignored.",
+                        t.getMessage(), t);
+            }
+        }
+
+        private void decrementRunningWorkers() {
+            if (stats) {
+                executor.runningWorkers.decrement();
+            }
+        }
+
+        private void incrementRunningWorkers() {
+            if (stats) {
+                executor.runningWorkers.increment();
+            }
+        }
+
+        private void incrementPendingTasks() {
+            if (stats) {
+                executor.pendingTasks.increment();
+            }
+        }
+
+        private void decrementPendingTasks() {
+            if (stats) {
+                executor.pendingTasks.decrement();
+            }
+        }
+
+        boolean executeFromQueue() {
+            final Runnable polled = queue != null ? queue.pollFirst() : null;
+            if (polled == null) {
+                // no more transacted work on this thread
+                pinned = false;
+                Runnable task = pollLane();
+                if (task != null) {
+                    doRun(task, false);
+                    return true;
+                }
+                return false;
+            }
+            try {
+                decrementPendingTasks();
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Running: {}", polled);
+                }
+                polled.run();
+            } catch (Exception t) {
+                // should not happen
+                LOG.warn("Error executing reactive work due to {}. This exception is ignored.", t.getMessage(), t);
+            }
+            return true;
+        }
+
+    }
+
+}
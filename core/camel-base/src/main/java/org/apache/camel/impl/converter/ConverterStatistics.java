@@ -54,6 +54,21 @@ interface ConverterStatistics extends TypeConverterRegistry.Statistics {
      */
     void incrementAttempt();
 
+    /**
+     * Increment the count of conversions where the converter was found in the lookup cache
+     */
+    void incrementCacheHit();
+
+    /**
+     * Increment the count of conversions where the converter was not found in the lookup cache
+     */
+    void incrementCacheMiss();
+
+    /**
+     * Increment the count of conversions answered from the lookup cache as a known miss
+     */
+    void incrementNegativeCacheHit();
+
     /**
      * Compute the total number of cached missed conversions
      *
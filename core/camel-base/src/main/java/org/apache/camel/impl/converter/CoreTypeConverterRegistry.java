@@ -71,6 +71,8 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
     // Why 256: as of Camel 4, we have about 230 type converters. Therefore, set the capacity to a few more to provide
     // space for others added during runtime
     private final Map<TypeConvertible<?, ?>, TypeConverter> converters = new ConcurrentHashMap<>(256);
+    // allocation free lookup of the resolved converters (including misses) by class pair
+    private final TypeConverterLookupCache lookupCache = new TypeConverterLookupCache();
 
     @Override
     public boolean allowNull() {
@@ -363,9 +365,32 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
 
         // attempt bulk first which is the fastest (also taking into account primitives)
         final Class<?> aClass = type.isPrimitive() ? ObjectHelper.convertPrimitiveTypeToWrapperType(type) : type;
-        final TypeConvertible<?, ?> typeConvertible = new TypeConvertible<>(value.getClass(), aClass);
+        final Class<?> fromClass = value.getClass();
 
-        final Object ret = tryCachedConverters(type, exchange, value, typeConvertible);
+        // lookup the resolved converter without allocating a key
+        TypeConverter cached = lookupCache.get(fromClass, aClass);
+        if (cached == MISS_CONVERTER) {
+            if (!tryConvert) {
+                statistics.incrementCacheHit();
+                statistics.incrementNegativeCacheHit();
+            }
+            // we have previously attempted to convert but missed
+            return TypeConverter.MISS_VALUE;
+        } else if (cached != null) {
+            if (!tryConvert) {
+                statistics.incrementCacheHit();
+            }
+            final Object ret = cached.convertTo(type, exchange, value);
+            if (ret != null) {
+                return ret;
+            }
+        } else if (!tryConvert) {
+            statistics.incrementCacheMiss();
+        }
+
+        final TypeConvertible<?, ?> typeConvertible = new TypeConvertible<>(fromClass, aClass);
+
+        final Object ret = tryCachedConverters(type, exchange, value, typeConvertible, cached);
         if (ret != null) {
             return ret;
         }
@@ -378,29 +403,34 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
 
         final TypeConverter assignableConverter = tryAssignableFrom(typeConvertible, converters);
         if (assignableConverter != null) {
-            converters.put(typeConvertible, assignableConverter);
+            putResolved(typeConvertible, assignableConverter);
             return assignableConverter.convertTo(type, exchange, value);
         }
 
         // This is the last resort: if nothing else works, try to find something that converts from an Object to the target type
         final TypeConverter objConverter = converters.get(new TypeConvertible<>(Object.class, type));
         if (objConverter != null) {
-            converters.put(typeConvertible, objConverter);
+            putResolved(typeConvertible, objConverter);
             return objConverter.convertTo(type, exchange, value);
         }
 
-        converters.put(typeConvertible, MISS_CONVERTER);
+        putResolved(typeConvertible, MISS_CONVERTER);
 
         // Could not find suitable conversion, so return Void to indicate not found
         return TypeConverter.MISS_VALUE;
     }
 
-    private Object tryCachedConverters(Class<?> type, Exchange exchange, Object value, TypeConvertible<?, ?> typeConvertible) {
-        final TypeConverter typeConverter = converters.get(typeConvertible);
-        if (typeConverter != null) {
-            final Object ret = typeConverter.convertTo(type, exchange, value);
-            if (ret != null) {
-                return ret;
+    private Object tryCachedConverters(
+            Class<?> type, Exchange exchange, Object value, TypeConvertible<?, ?> typeConvertible, TypeConverter cached) {
+        // the cached converter has already been tried
+        if (cached == null) {
+            final TypeConverter typeConverter = converters.get(typeConvertible);
+            if (typeConverter != null) {
+                lookupCache.put(typeConvertible.getFrom(), typeConvertible.getTo(), typeConverter);
+                final Object ret = typeConverter.convertTo(type, exchange, value);
+                if (ret != null) {
+                    return ret;
+                }
             }
         }
 
@@ -408,7 +438,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
         if (superConverterTc != null) {
             final Object ret = superConverterTc.convertTo(type, exchange, value);
             if (ret != null) {
-                converters.put(typeConvertible, superConverterTc);
+                putResolved(typeConvertible, superConverterTc);
                 return ret;
             }
         }
@@ -433,7 +463,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
             }
 
             if (rc != null) {
-                converters.put(typeConvertible, tc);
+                putResolved(typeConvertible, tc);
                 // if fallback can promote then let it be promoted to a first class type converter
                 if (fallback.isCanPromote()) {
                     // add it as a known type converter since we found a fallback that could do it
@@ -447,6 +477,14 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
         return null;
     }
 
+    /**
+     * Stores the converter resolved for the given type pair
+     */
+    private void putResolved(TypeConvertible<?, ?> typeConvertible, TypeConverter typeConverter) {
+        converters.put(typeConvertible, typeConverter);
+        lookupCache.put(typeConvertible.getFrom(), typeConvertible.getTo(), typeConverter);
+    }
+
     private static Object doConvert(
             Class<?> type, Exchange exchange, Object value, boolean tryConvert, TypeConverter converter) {
 
@@ -464,6 +502,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
     @Override
     public void addConverter(TypeConvertible<?, ?> typeConvertible, TypeConverter typeConverter) {
         converters.put(typeConvertible, typeConverter);
+        lookupCache.clear();
     }
 
     @Override
@@ -484,6 +523,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
         if (converter == MISS_CONVERTER) {
             // we have previously attempted to convert but missed, so add this converter
             converters.put(typeConvertible, typeConverter);
+            lookupCache.clear();
             return;
         }
 
@@ -501,6 +541,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
 
             if (add) {
                 converters.put(typeConvertible, typeConverter);
+                lookupCache.clear();
             }
         }
     }
@@ -525,6 +566,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
     public boolean removeTypeConverter(Class<?> toType, Class<?> fromType) {
         LOG.trace("Removing type converter from: {} to: {}", fromType, toType);
         final TypeConverter removed = converters.remove(new TypeConvertible<>(fromType, toType));
+        lookupCache.clear();
         return removed != null;
     }
 
@@ -539,6 +581,7 @@ public abstract class CoreTypeConverterRegistry extends ServiceSupport implement
         // add in top of fallback as the toString() fallback will nearly always be able to convert
         // the last one which is add to the FallbackTypeConverter will be called at the first place
         fallbackConverters.add(0, new FallbackTypeConverter(typeConverter, canPromote));
+        lookupCache.clear();
     }
 
     public TypeConverter lookup(Class<?> toType, Class<?> fromType) {
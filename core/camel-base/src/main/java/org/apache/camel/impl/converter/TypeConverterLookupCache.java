@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import org.apache.camel.TypeConverter;
+
+/**
+ * A lookup cache of resolved type converters keyed by the identity of the (from, to) class pair.
+ * <p/>
+ * The cache is an open-addressing hash table with linear probing, so a lookup does not allocate a
+ * {@link org.apache.camel.spi.TypeConvertible} key. Lookups are lock-free and may race with updates, in which case the
+ * lookup may miss and the caller falls back to resolving the converter the slow way. Entries are immutable which
+ * ensures a reader never sees a partially constructed entry. Updates and resizing are synchronized.
+ * <p/>
+ * The cache holds no other state than what is in the registry, and must be cleared when the registry is changed.
+ */
+final class TypeConverterLookupCache {
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Gets the cached converter for the given class pair
+     *
+     * @return the converter, or <tt>null</tt> if not cached
+     */
+    TypeConverter get(Class<?> from, Class<?> to) {
+        final Entry[] tab = table;
+        final int mask = tab.length - 1;
+        int i = hash(from, to) & mask;
+        Entry e;
+        while ((e = tab[i]) != null) {
+            if (e.from == from && e.to == to) {
+                return e.converter;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the converter for the given class pair (replacing any existing)
+     */
+    synchronized void put(Class<?> from, Class<?> to, TypeConverter converter) {
+        Entry[] tab = table;
+        if ((size + 1) * 2 > tab.length) {
+            tab = resize(tab);
+        }
+        final int mask = tab.length - 1;
+        int i = hash(from, to) & mask;
+        Entry e;
+        while ((e = tab[i]) != null) {
+            if (e.from == from && e.to == to) {
+                tab[i] = new Entry(from, to, converter);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[i] = new Entry(from, to, converter);
+        size++;
+    }
+
+    synchronized void clear() {
+        table = new Entry[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Entry[] resize(Entry[] tab) {
+        final Entry[] answer = new Entry[tab.length * 2];
+        final int mask = answer.length - 1;
+        for (Entry e : tab) {
+            if (e != null) {
+                int i = hash(e.from, e.to) & mask;
+                while (answer[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                answer[i] = e;
+            }
+        }
+        // publish the new table
+        table = answer;
+        return answer;
+    }
+
+    private static int hash(Class<?> from, Class<?> to) {
+        int h = System.identityHashCode(from) * 31 + System.identityHashCode(to);
+        // spread the bits as identity hash codes tend to be clustered
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry {
+        private final Class<?> from;
+        private final Class<?> to;
+        private final TypeConverter converter;
+
+        private Entry(Class<?> from, Class<?> to, TypeConverter converter) {
+            this.from = from;
+            this.to = to;
+            this.converter = converter;
+        }
+    }
+}
@@ -30,6 +30,9 @@ final class TypeConverterStatistics implements ConverterStatistics {
     private final LongAdder missCounter = new LongAdder();
     private final LongAdder hitCounter = new LongAdder();
     private final LongAdder failedCounter = new LongAdder();
+    private final LongAdder cacheHitCounter = new LongAdder();
+    private final LongAdder cacheMissCounter = new LongAdder();
+    private final LongAdder negativeCacheHitCounter = new LongAdder();
 
     @Override
     public long getNoopCounter() {
@@ -56,6 +59,21 @@ final class TypeConverterStatistics implements ConverterStatistics {
         return failedCounter.longValue();
     }
 
+    @Override
+    public long getCacheHitCounter() {
+        return cacheHitCounter.longValue();
+    }
+
+    @Override
+    public long getCacheMissCounter() {
+        return cacheMissCounter.longValue();
+    }
+
+    @Override
+    public long getNegativeCacheHitCounter() {
+        return negativeCacheHitCounter.longValue();
+    }
+
     @Override
     public void incrementFailed() {
         if (statisticsEnabled) {
@@ -91,6 +109,27 @@ final class TypeConverterStatistics implements ConverterStatistics {
         }
     }
 
+    @Override
+    public void incrementCacheHit() {
+        if (statisticsEnabled) {
+            cacheHitCounter.increment();
+        }
+    }
+
+    @Override
+    public void incrementCacheMiss() {
+        if (statisticsEnabled) {
+            cacheMissCounter.increment();
+        }
+    }
+
+    @Override
+    public void incrementNegativeCacheHit() {
+        if (statisticsEnabled) {
+            negativeCacheHitCounter.increment();
+        }
+    }
+
     @Override
     public void reset() {
         noopCounter.reset();
@@ -98,6 +137,9 @@ final class TypeConverterStatistics implements ConverterStatistics {
         hitCounter.reset();
         missCounter.reset();
         failedCounter.reset();
+        cacheHitCounter.reset();
+        cacheMissCounter.reset();
+        negativeCacheHitCounter.reset();
     }
 
     @Override
@@ -112,7 +154,9 @@ final class TypeConverterStatistics implements ConverterStatistics {
 
     @Override
     public String toString() {
-        return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s]",
-                getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter());
+        return String.format(
+                "TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s, cacheHits=%s, cacheMisses=%s, negativeCacheHits=%s]",
+                getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter(),
+                getCacheHitCounter(), getCacheMissCounter(), getNegativeCacheHitCounter());
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.spi.ExpressionCache;
+import org.apache.camel.spi.annotations.DevConsole;
+import org.apache.camel.support.PluginHelper;
+import org.apache.camel.support.console.AbstractDevConsole;
+import org.apache.camel.util.json.JsonObject;
+
+@DevConsole(name = "expression-cache", description = "Display statistics of the cache of expressions shared by languages")
+public class ExpressionCacheDevConsole extends AbstractDevConsole {
+
+    public ExpressionCacheDevConsole() {
+        super("camel", "expression-cache", "Expression Cache",
+              "Display statistics of the cache of expressions shared by languages");
+    }
+
+    @Override
+    protected String doCallText(Map<String, Object> options) {
+        StringBuilder sb = new StringBuilder();
+
+        ExpressionCache cache = PluginHelper.getExpressionCache(getCamelContext());
+        sb.append(String.format("    Size: %d/%d\n", cache.size(), cache.getMaximumCacheSize()));
+        for (ExpressionCache.Statistics stats : cache.getStatistics()) {
+            sb.append(String.format("    %s (size: %d hits: %d misses: %d evicted: %d)\n", stats.getLanguage(),
+                    stats.getSize(), stats.getHits(), stats.getMisses(), stats.getEvicted()));
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    protected Map<String, Object> doCallJson(Map<String, Object> options) {
+        JsonObject root = new JsonObject();
+
+        ExpressionCache cache = PluginHelper.getExpressionCache(getCamelContext());
+        root.put("size", cache.size());
+        root.put("maxSize", cache.getMaximumCacheSize());
+
+        final List<JsonObject> list = new ArrayList<>();
+        for (ExpressionCache.Statistics stats : cache.getStatistics()) {
+            JsonObject jo = new JsonObject();
+            jo.put("language", stats.getLanguage());
+            jo.put("size", stats.getSize());
+            jo.put("hits", stats.getHits());
+            jo.put("misses", stats.getMisses());
+            jo.put("evicted", stats.getEvicted());
+            list.add(jo);
+        }
+        root.put("languages", list);
+
+        return root;
+    }
+}
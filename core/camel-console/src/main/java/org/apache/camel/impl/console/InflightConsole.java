@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.camel.Route;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.annotations.DevConsole;
 import org.apache.camel.support.console.AbstractDevConsole;
@@ -55,6 +56,14 @@ public class InflightConsole extends AbstractDevConsole {
         sb.append(String.format("\n    Inflight: %s", repo.size()));
         sb.append(String.format("\n    InflightBrowseEnabled: %s", repo.isInflightBrowseEnabled()));
         if (repo.isInflightBrowseEnabled()) {
+            for (Route route : getCamelContext().getRoutes()) {
+                String id = route.getRouteId();
+                if (filter == null || filter.equals(id)) {
+                    sb.append(String.format("\n    Route: %s (inflight: %d p50: %dms p90: %dms p99: %dms)", id, repo.size(id),
+                            repo.durationPercentile(id, 50), repo.durationPercentile(id, 90),
+                            repo.durationPercentile(id, 99)));
+                }
+            }
             for (InflightRepository.InflightExchange ie : repo.browse(filter, max, false)) {
                 String age = TimeUtils.printDuration(ie.getDuration(), true);
                 sb.append(String.format("\n    %s (from: %s at: %s/%s remote: %b age: %s)",
@@ -91,6 +100,21 @@ public class InflightConsole extends AbstractDevConsole {
                 list.add(props);
             }
             root.put("exchanges", list);
+
+            final List<JsonObject> routes = new ArrayList<>();
+            for (Route route : getCamelContext().getRoutes()) {
+                String id = route.getRouteId();
+                if (filter == null || filter.equals(id)) {
+                    JsonObject props = new JsonObject();
+                    props.put("routeId", id);
+                    props.put("inflight", repo.size(id));
+                    props.put("p50", repo.durationPercentile(id, 50));
+                    props.put("p90", repo.durationPercentile(id, 90));
+                    props.put("p99", repo.durationPercentile(id, 99));
+                    routes.add(props);
+                }
+            }
+            root.put("routes", routes);
         }
 
         return root;
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.console;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Route;
+import org.apache.camel.api.management.ManagedCamelContext;
+import org.apache.camel.api.management.mbean.ManagedProcessorMBean;
+import org.apache.camel.api.management.mbean.ManagedRouteMBean;
+import org.apache.camel.api.management.mbean.ManagedThrottlerMBean;
+import org.apache.camel.spi.annotations.DevConsole;
+import org.apache.camel.support.console.AbstractDevConsole;
+import org.apache.camel.util.json.JsonObject;
+
+@DevConsole(name = "throttle", description = "Display throttle information")
+public class ThrottleDevConsole extends AbstractDevConsole {
+
+    private static final String ADAPTIVE_CONCURRENCY = "AdaptiveConcurrency";
+
+    public ThrottleDevConsole() {
+        super("camel", "throttle", "Throttle", "Display throttle information");
+    }
+
+    @Override
+    protected String doCallText(Map<String, Object> options) {
+        StringBuilder sb = new StringBuilder();
+
+        for (ManagedThrottlerMBean mt : findThrottlers()) {
+            String mode = mt.getMode();
+            sb.append(String.format("    %s/%s: %s (maximum: %d delayed: %d rejected: %d)\n", mt.getRouteId(),
+                    mt.getProcessorId(), mode, mt.getMaximumRequests(), mt.getDelayedCount(), mt.getRejectedCount()));
+            if (ADAPTIVE_CONCURRENCY.equals(mode)) {
+                sb.append(String.format(
+                        "        %s (inflight: %d rtt: %.2fms min-rtt: %.2fms dropped: %d keys: %d)\n",
+                        mt.getLimitAlgorithm(), mt.getInflight(), mt.getRttMillis(), mt.getMinRttMillis(),
+                        mt.getDroppedCount(), mt.getKeyCount()));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    protected Map<String, Object> doCallJson(Map<String, Object> options) {
+        JsonObject root = new JsonObject();
+
+        final List<JsonObject> list = new ArrayList<>();
+        for (ManagedThrottlerMBean mt : findThrottlers()) {
+            JsonObject jo = new JsonObject();
+            jo.put("routeId", mt.getRouteId());
+            jo.put("id", mt.getProcessorId());
+            jo.put("mode", mt.getMode());
+            jo.put("maximumRequests", mt.getMaximumRequests());
+            jo.put("delayed", mt.getDelayedCount());
+            jo.put("rejected", mt.getRejectedCount());
+            if (ADAPTIVE_CONCURRENCY.equals(mt.getMode())) {
+                jo.put("limitAlgorithm", mt.getLimitAlgorithm());
+                jo.put("inflight", mt.getInflight());
+                jo.put("rttMillis", mt.getRttMillis());
+                jo.put("minRttMillis", mt.getMinRttMillis());
+                jo.put("dropped", mt.getDroppedCount());
+                jo.put("keys", mt.getKeyCount());
+            }
+            list.add(jo);
+        }
+        root.put("throttles", list);
+
+        return root;
+    }
+
+    private List<ManagedThrottlerMBean> findThrottlers() {
+        List<ManagedThrottlerMBean> answer = new ArrayList<>();
+
+        ManagedCamelContext mcc = getCamelContext().getCamelContextExtension().getContextPlugin(ManagedCamelContext.class);
+        if (mcc == null) {
+            // JMX is disabled
+            return answer;
+        }
+
+        for (Route route : getCamelContext().getRoutes()) {
+            ManagedRouteMBean mrb = mcc.getManagedRoute(route.getRouteId());
+            if (mrb == null) {
+                continue;
+            }
+            Collection<String> ids;
+            try {
+                ids = mrb.processorIds();
+            } catch (Exception e) {
+                continue;
+            }
+            for (String id : ids) {
+                ManagedProcessorMBean mp = mcc.getManagedProcessor(id);
+                // the processor must be a throttler before it can be proxied as such
+                if (mp != null && "throttle".equals(mp.getProcessorName())) {
+                    ManagedThrottlerMBean mt = mcc.getManagedProcessor(id, ManagedThrottlerMBean.class);
+                    if (mt != null) {
+                        answer.add(mt);
+                    }
+                }
+            }
+        }
+
+        return answer;
+    }
+}
@@ -44,6 +44,9 @@ public class TypeConverterConsole extends AbstractDevConsole {
             sb.append(String.format("\n    Miss: %s", reg.getStatistics().getMissCounter()));
             sb.append(String.format("\n    Failed: %s", reg.getStatistics().getFailedCounter()));
             sb.append(String.format("\n    Noop: %s", reg.getStatistics().getNoopCounter()));
+            sb.append(String.format("\n    Cache Hit: %s", reg.getStatistics().getCacheHitCounter()));
+            sb.append(String.format("\n    Cache Miss: %s", reg.getStatistics().getCacheMissCounter()));
+            sb.append(String.format("\n    Negative Cache Hit: %s", reg.getStatistics().getNegativeCacheHitCounter()));
         }
 
         return sb.toString();
@@ -62,9 +65,12 @@ public class TypeConverterConsole extends AbstractDevConsole {
             root.put("statistics", props);
             props.put("attemptCounter", reg.getStatistics().getAttemptCounter());
             props.put("hitCounter", reg.getStatistics().getHitCounter());
-            props.put("missCounter", reg.getStatistics().getAttemptCounter());
+            props.put("missCounter", reg.getStatistics().getMissCounter());
             props.put("failedCounter", reg.getStatistics().getFailedCounter());
             props.put("noopCounter", reg.getStatistics().getNoopCounter());
+            props.put("cacheHitCounter", reg.getStatistics().getCacheHitCounter());
+            props.put("cacheMissCounter", reg.getStatistics().getCacheMissCounter());
+            props.put("negativeCacheHitCounter", reg.getStatistics().getNegativeCacheHitCounter());
         }
 
         return root;
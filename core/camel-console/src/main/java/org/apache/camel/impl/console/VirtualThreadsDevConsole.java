@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.console;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.spi.annotations.DevConsole;
+import org.apache.camel.support.PatternHelper;
+import org.apache.camel.support.console.AbstractDevConsole;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
+import org.apache.camel.util.json.JsonArray;
+import org.apache.camel.util.json.JsonObject;
+
+@DevConsole(name = "virtual-threads", displayName = "Virtual Threads",
+            description = "Displays thread pools using a virtual thread per task grouped by route")
+public class VirtualThreadsDevConsole extends AbstractDevConsole {
+
+    /**
+     * Filters the thread pools matching by route id
+     */
+    public static final String FILTER = "filter";
+
+    public VirtualThreadsDevConsole() {
+        super("camel", "virtual-threads", "Virtual Threads",
+              "Displays thread pools using a virtual thread per task grouped by route");
+    }
+
+    @Override
+    protected String doCallText(Map<String, Object> options) {
+        StringBuilder sb = new StringBuilder();
+
+        Map<String, List<ThreadPerTaskExecutorService>> routes = collect((String) options.get(FILTER));
+        for (Map.Entry<String, List<ThreadPerTaskExecutorService>> entry : routes.entrySet()) {
+            sb.append(String.format("\n    Route: %s", entry.getKey()));
+            for (ThreadPerTaskExecutorService tpt : entry.getValue()) {
+                sb.append(String.format("\n        %s (source: %s virtual: %s)", tpt.getId(), tpt.getSourceId(),
+                        tpt.isVirtual()));
+                sb.append(String.format("\n            Active: %s", tpt.getActiveTasks()));
+                sb.append(String.format("\n            Peak Active: %s", tpt.getPeakActiveTasks()));
+                sb.append(String.format("\n            Submitted: %s", tpt.getSubmittedTasks()));
+                sb.append(String.format("\n            Completed: %s", tpt.getCompletedTasks()));
+                sb.append(String.format("\n            Failed: %s", tpt.getFailedTasks()));
+                sb.append(String.format("\n            Pinned: %s", tpt.getPinnedCount()));
+                sb.append(String.format("\n            Max Pinned Time: %s ms",
+                        TimeUnit.NANOSECONDS.toMillis(tpt.getMaxPinnedTime())));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    protected JsonObject doCallJson(Map<String, Object> options) {
+        JsonObject root = new JsonObject();
+
+        JsonArray arr = new JsonArray();
+        Map<String, List<ThreadPerTaskExecutorService>> routes = collect((String) options.get(FILTER));
+        for (Map.Entry<String, List<ThreadPerTaskExecutorService>> entry : routes.entrySet()) {
+            JsonObject jo = new JsonObject();
+            jo.put("routeId", entry.getKey());
+            long active = 0;
+            long submitted = 0;
+            long completed = 0;
+            long failed = 0;
+            long pinned = 0;
+            JsonArray pools = new JsonArray();
+            for (ThreadPerTaskExecutorService tpt : entry.getValue()) {
+                JsonObject jp = new JsonObject();
+                jp.put("id", tpt.getId());
+                if (tpt.getSourceId() != null) {
+                    jp.put("sourceId", tpt.getSourceId());
+                }
+                jp.put("virtual", tpt.isVirtual());
+                jp.put("active", tpt.getActiveTasks());
+                jp.put("peakActive", tpt.getPeakActiveTasks());
+                jp.put("submitted", tpt.getSubmittedTasks());
+                jp.put("completed", tpt.getCompletedTasks());
+                jp.put("failed", tpt.getFailedTasks());
+                jp.put("pinned", tpt.getPinnedCount());
+                jp.put("totalPinnedTime", TimeUnit.NANOSECONDS.toMillis(tpt.getTotalPinnedTime()));
+                jp.put("maxPinnedTime", TimeUnit.NANOSECONDS.toMillis(tpt.getMaxPinnedTime()));
+                pools.add(jp);
+                active += tpt.getActiveTasks();
+                submitted += tpt.getSubmittedTasks();
+                completed += tpt.getCompletedTasks();
+                failed += tpt.getFailedTasks();
+                pinned += tpt.getPinnedCount();
+            }
+            jo.put("active", active);
+            jo.put("submitted", submitted);
+            jo.put("completed", completed);
+            jo.put("failed", failed);
+            jo.put("pinned", pinned);
+            jo.put("threadPools", pools);
+            arr.add(jo);
+        }
+        root.put("routes", arr);
+
+        return root;
+    }
+
+    private Map<String, List<ThreadPerTaskExecutorService>> collect(String filter) {
+        Map<String, List<ThreadPerTaskExecutorService>> answer = new LinkedHashMap<>();
+        for (ExecutorService es : getCamelContext().getExecutorServiceManager().getExecutorServices()) {
+            if (es instanceof ThreadPerTaskExecutorService) {
+                ThreadPerTaskExecutorService tpt = (ThreadPerTaskExecutorService) es;
+                String routeId = tpt.getRouteId() != null ? tpt.getRouteId() : "";
+                if (filter == null || PatternHelper.matchPattern(routeId, filter)) {
+                    answer.computeIfAbsent(routeId, k -> new ArrayList<>()).add(tpt);
+                }
+            }
+        }
+        return answer;
+    }
+
+}
@@ -29,6 +29,7 @@ import org.apache.camel.language.simple.ast.SimpleFunctionEnd;
 import org.apache.camel.language.simple.ast.SimpleFunctionStart;
 import org.apache.camel.language.simple.ast.SimpleNode;
 import org.apache.camel.language.simple.ast.UnaryExpression;
+import org.apache.camel.language.simple.compiler.SimpleBytecodeCompiler;
 import org.apache.camel.language.simple.types.SimpleIllegalSyntaxException;
 import org.apache.camel.language.simple.types.SimpleParserException;
 import org.apache.camel.language.simple.types.SimpleToken;
@@ -64,6 +65,28 @@ public class SimpleExpressionParser extends BaseSimpleParser {
         }
     }
 
+    /**
+     * Parses the expression and compiles it to bytecode.
+     *
+     * @param  compiler the compiler
+     * @return          the compiled expression, or the interpreted expression if it could not be compiled
+     */
+    public Expression parseAndCompileExpression(SimpleBytecodeCompiler compiler) {
+        try {
+            List<SimpleNode> tokens = parseTokens();
+            // the interpreted expression is created first, which validates the syntax
+            Expression answer = doParseExpression();
+            Expression compiled = compiler.compileExpression(camelContext, expression, tokens);
+            return compiled != null ? compiled : answer;
+        } catch (SimpleParserException e) {
+            // catch parser exception and turn that into a syntax exceptions
+            throw new SimpleIllegalSyntaxException(expression, e.getIndex(), e.getMessage(), e);
+        } catch (Exception e) {
+            // include exception in rethrown exception
+            throw new SimpleIllegalSyntaxException(expression, -1, e.getMessage(), e);
+        }
+    }
+
     public String parseCode() {
         try {
             parseTokens();
@@ -22,6 +22,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.StaticService;
+import org.apache.camel.language.simple.compiler.SimpleBytecodeCompiler;
 import org.apache.camel.spi.annotations.Language;
 import org.apache.camel.support.CamelContextHelper;
 import org.apache.camel.support.LRUCache;
@@ -54,12 +55,41 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
     private Map<String, Expression> cacheExpression;
     private Map<String, Predicate> cachePredicate;
 
+    // compiles the expressions to bytecode, when enabled
+    private SimpleBytecodeCompiler compiler;
+
     /**
      * Default constructor.
      */
     public SimpleLanguage() {
     }
 
+    public boolean isCompiled() {
+        return compiler != null;
+    }
+
+    /**
+     * Whether to compile the expressions and predicates to bytecode at runtime, which avoids walking the nodes of the
+     * parsed expressions on each evaluation. Any part of an expression which cannot be compiled is interpreted as
+     * usual.
+     */
+    public void setCompiled(boolean compiled) {
+        if (!compiled) {
+            this.compiler = null;
+        } else if (this.compiler == null) {
+            this.compiler = new SimpleBytecodeCompiler();
+        }
+    }
+
+    /**
+     * Gets the compiler used when the expressions are compiled
+     *
+     * @return the compiler, or <tt>null</tt> if the expressions are interpreted
+     */
+    public SimpleBytecodeCompiler getCompiler() {
+        return compiler;
+    }
+
     @Override
     public void init() {
         // setup cache which requires CamelContext to be set first
@@ -137,7 +167,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
             // using the expression cache here with the predicate parser is okay
             SimplePredicateParser parser
                     = new SimplePredicateParser(getCamelContext(), expression, allowEscape, cacheExpression);
-            answer = parser.parsePredicate();
+            answer = compiler != null ? parser.parseAndCompilePredicate(compiler) : parser.parsePredicate();
 
             if (cachePredicate != null && answer != null) {
                 cachePredicate.put(key, answer);
@@ -209,7 +239,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
             // only parse if there are simple functions
             SimpleExpressionParser parser
                     = new SimpleExpressionParser(getCamelContext(), expression, allowEscape, cacheExpression);
-            answer = parser.parseExpression();
+            answer = compiler != null ? parser.parseAndCompileExpression(compiler) : parser.parseExpression();
 
             if (cacheExpression != null && answer != null) {
                 cacheExpression.put(key, answer);
@@ -43,6 +43,7 @@ import org.apache.camel.language.simple.ast.SimpleNode;
 import org.apache.camel.language.simple.ast.SingleQuoteEnd;
 import org.apache.camel.language.simple.ast.SingleQuoteStart;
 import org.apache.camel.language.simple.ast.UnaryExpression;
+import org.apache.camel.language.simple.compiler.SimpleBytecodeCompiler;
 import org.apache.camel.language.simple.types.BinaryOperatorType;
 import org.apache.camel.language.simple.types.LogicalOperatorType;
 import org.apache.camel.language.simple.types.SimpleIllegalSyntaxException;
@@ -84,6 +85,28 @@ public class SimplePredicateParser extends BaseSimpleParser {
         }
     }
 
+    /**
+     * Parses the predicate and compiles it to bytecode.
+     *
+     * @param  compiler the compiler
+     * @return          the compiled predicate, or the interpreted predicate if it could not be compiled
+     */
+    public Predicate parseAndCompilePredicate(SimpleBytecodeCompiler compiler) {
+        try {
+            List<SimpleNode> tokens = parseTokens();
+            // the interpreted predicate is created first, which validates the syntax
+            Predicate answer = doParsePredicate();
+            Predicate compiled = compiler.compilePredicate(camelContext, expression, tokens);
+            return compiled != null ? compiled : answer;
+        } catch (SimpleParserException e) {
+            // catch parser exception and turn that into a syntax exceptions
+            throw new SimpleIllegalSyntaxException(expression, e.getIndex(), e.getMessage(), e);
+        } catch (Exception e) {
+            // include exception in rethrown exception
+            throw new SimpleIllegalSyntaxException(expression, -1, e.getMessage(), e);
+        }
+    }
+
     public String parseCode() {
         try {
             parseTokens();
@@ -0,0 +1,559 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal writer of class files, which supports just what is needed to compile simple expressions: a class with a
+ * constructor calling the super constructor, and methods made of straight line code with forward branches.
+ *
+ * The class files are written with the Java 8 format, so the stack map frames are written for the branch targets. As
+ * the compiled code does not use local variables, the frames only differ by whether there is an int on the operand
+ * stack.
+ */
+final class ClassFileWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    // the opcodes used by the compiler
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int ALOAD_2 = 0x2c;
+    static final int AALOAD = 0x32;
+    static final int DUP = 0x59;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int GOTO = 0xa7;
+    static final int IRETURN = 0xac;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETSTATIC = 0xb2;
+    static final int GETFIELD = 0xb4;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int INVOKEINTERFACE = 0xb9;
+    static final int NEW = 0xbb;
+    static final int CHECKCAST = 0xc0;
+
+    private static final int JAVA_8 = 52;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int FULL_FRAME = 255;
+    private static final int ITEM_INTEGER = 1;
+    private static final int ITEM_OBJECT = 7;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final List<byte[]> methods = new ArrayList<>();
+    private final String className;
+    private final String superName;
+
+    ClassFileWriter(String className, String superName) {
+        this.className = className;
+        this.superName = superName;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * Adds a constructor which calls the super constructor with the same parameters
+     *
+     * @param descriptor the descriptor of the constructor, which may have up to two reference parameters
+     */
+    void addConstructor(String descriptor) {
+        int params = Type.parameterSlots(descriptor);
+        // the types of the parameters only matter for the stack map frames, and a constructor has no branches
+        String[] parameterTypes = new String[params];
+        Arrays.fill(parameterTypes, "java/lang/Object");
+        Code code = new Code(parameterTypes);
+        code.op(ALOAD_0, 1);
+        for (int i = 1; i <= params; i++) {
+            code.op(ALOAD_0 + i, 1);
+        }
+        code.invoke(INVOKESPECIAL, superName, "<init>", descriptor);
+        code.op(RETURN, 0);
+        addMethod(ACC_PUBLIC, "<init>", descriptor, code);
+    }
+
+    /**
+     * Creates the code of a method with the given parameter types
+     *
+     * @param parameterTypes the internal names of the parameter types, which are the local variables next to this
+     */
+    Code newCode(String... parameterTypes) {
+        return new Code(parameterTypes);
+    }
+
+    void addMethod(int access, String name, String descriptor, Code code) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(access);
+            out.writeShort(pool.utf8(name));
+            out.writeShort(pool.utf8(descriptor));
+            // the code attribute
+            out.writeShort(1);
+            byte[] attribute = code.toAttribute();
+            out.writeShort(pool.utf8("Code"));
+            out.writeInt(attribute.length);
+            out.write(attribute);
+            methods.add(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    byte[] toByteArray() {
+        try {
+            // the pool must be complete before it is written
+            int thisClass = pool.classRef(className);
+            int superClass = pool.classRef(superName);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(JAVA_8);
+            pool.write(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            // no interfaces and no fields
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            // no class attributes
+            out.writeShort(0);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A branch target
+     */
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> branches = new ArrayList<>();
+    }
+
+    /**
+     * The code of a method, which keeps track of the depth of the operand stack
+     */
+    final class Code {
+        private final Buffer code = new Buffer();
+        private final Map<Integer, Boolean> frames = new HashMap<>();
+        private final String[] locals;
+        private int stack;
+        private int maxStack;
+
+        private Code(String[] parameterTypes) {
+            locals = new String[parameterTypes.length + 1];
+            locals[0] = className;
+            System.arraycopy(parameterTypes, 0, locals, 1, parameterTypes.length);
+        }
+
+        /**
+         * Writes an instruction with no operand
+         *
+         * @param opcode the opcode
+         * @param delta  the change of the depth of the operand stack
+         */
+        void op(int opcode, int delta) {
+            code.u1(opcode);
+            adjust(delta);
+        }
+
+        void typeOp(int opcode, String internalName) {
+            code.u1(opcode);
+            code.u2(pool.classRef(internalName));
+            adjust(opcode == NEW ? 1 : 0);
+        }
+
+        void field(int opcode, String owner, String name, String descriptor) {
+            code.u1(opcode);
+            code.u2(pool.fieldRef(owner, name, descriptor));
+            int size = Type.slots(descriptor);
+            adjust(opcode == GETSTATIC ? size : size - 1);
+        }
+
+        void invoke(int opcode, String owner, String name, String descriptor) {
+            boolean itf = opcode == INVOKEINTERFACE;
+            code.u1(opcode);
+            code.u2(itf ? pool.interfaceMethodRef(owner, name, descriptor) : pool.methodRef(owner, name, descriptor));
+            int params = Type.parameterSlots(descriptor);
+            if (itf) {
+                code.u1(params + 1);
+                code.u1(0);
+            }
+            int receiver = opcode == INVOKESTATIC ? 0 : 1;
+            adjust(Type.slots(descriptor.substring(descriptor.indexOf(')') + 1)) - params - receiver);
+        }
+
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                code.u1(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                code.u1(BIPUSH);
+                code.u1(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                code.u1(SIPUSH);
+                code.u2(value);
+            } else {
+                ldc(pool.integer(value));
+            }
+            adjust(1);
+        }
+
+        void pushLong(long value) {
+            code.u1(LDC2_W);
+            code.u2(pool.longValue(value));
+            adjust(2);
+        }
+
+        void pushDouble(double value) {
+            code.u1(LDC2_W);
+            code.u2(pool.doubleValue(value));
+            adjust(2);
+        }
+
+        void pushString(String value) {
+            ldc(pool.string(value));
+            adjust(1);
+        }
+
+        void pushClass(String internalName) {
+            ldc(pool.classRef(internalName));
+            adjust(1);
+        }
+
+        private void ldc(int index) {
+            if (index <= 0xff) {
+                code.u1(LDC);
+                code.u1(index);
+            } else {
+                code.u1(LDC_W);
+                code.u2(index);
+            }
+        }
+
+        /**
+         * Writes a forward branch to the label
+         *
+         * @param opcode either a conditional branch, which pops an int, or a goto
+         */
+        void branch(int opcode, Label label) {
+            int position = code.size();
+            code.u1(opcode);
+            label.branches.add(position);
+            code.u2(0);
+            adjust(opcode == GOTO ? 0 : -1);
+        }
+
+        /**
+         * Binds the label to the current position, which is a branch target with the given operand stack
+         *
+         * @param label    the label
+         * @param intStack whether there is an int on the operand stack, which is otherwise empty
+         */
+        void bind(Label label, boolean intStack) {
+            label.position = code.size();
+            for (int branch : label.branches) {
+                int offset = label.position - branch;
+                if (offset > Short.MAX_VALUE) {
+                    throw new IllegalStateException("The branch offset is too large: " + offset);
+                }
+                code.putU2(branch + 1, offset);
+            }
+            frames.put(label.position, intStack);
+            stack = intStack ? 1 : 0;
+        }
+
+        private void adjust(int delta) {
+            stack += delta;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private byte[] toAttribute() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(maxStack);
+            out.writeShort(locals.length);
+            out.writeInt(code.size());
+            out.write(code.toByteArray());
+            // no exception table
+            out.writeShort(0);
+            if (frames.isEmpty()) {
+                out.writeShort(0);
+            } else {
+                out.writeShort(1);
+                byte[] table = stackMapTable();
+                out.writeShort(pool.utf8("StackMapTable"));
+                out.writeInt(table.length);
+                out.write(table);
+            }
+            return bytes.toByteArray();
+        }
+
+        private byte[] stackMapTable() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(frames.size());
+            int previous = -1;
+            for (int offset : frames.keySet().stream().sorted().toList()) {
+                out.writeByte(FULL_FRAME);
+                out.writeShort(offset - previous - 1);
+                previous = offset;
+                out.writeShort(locals.length);
+                for (String local : locals) {
+                    out.writeByte(ITEM_OBJECT);
+                    out.writeShort(pool.classRef(local));
+                }
+                if (frames.get(offset)) {
+                    out.writeShort(1);
+                    out.writeByte(ITEM_INTEGER);
+                } else {
+                    out.writeShort(0);
+                }
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Helpers for type descriptors
+     */
+    static final class Type {
+
+        private Type() {
+        }
+
+        static int slots(String descriptor) {
+            char c = descriptor.charAt(0);
+            return c == 'V' ? 0 : c == 'J' || c == 'D' ? 2 : 1;
+        }
+
+        static int parameterSlots(String methodDescriptor) {
+            int slots = 0;
+            int i = 1;
+            while (methodDescriptor.charAt(i) != ')') {
+                char c = methodDescriptor.charAt(i);
+                if (c == 'L') {
+                    i = methodDescriptor.indexOf(';', i) + 1;
+                    slots++;
+                } else if (c == '[') {
+                    // the array is a single slot whatever its component type
+                    while (methodDescriptor.charAt(i) == '[') {
+                        i++;
+                    }
+                    i = methodDescriptor.charAt(i) == 'L' ? methodDescriptor.indexOf(';', i) + 1 : i + 1;
+                    slots++;
+                } else {
+                    slots += c == 'J' || c == 'D' ? 2 : 1;
+                    i++;
+                }
+            }
+            return slots;
+        }
+    }
+
+    /**
+     * The constant pool, where the constants are shared
+     */
+    private static final class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int INTEGER = 3;
+        private static final int LONG = 5;
+        private static final int DOUBLE = 6;
+        private static final int CLASS = 7;
+        private static final int STRING = 8;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("u" + value, 1, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int integer(int value) {
+            return entry("i" + value, 1, () -> {
+                out.writeByte(INTEGER);
+                out.writeInt(value);
+            });
+        }
+
+        int longValue(long value) {
+            return entry("l" + value, 2, () -> {
+                out.writeByte(LONG);
+                out.writeLong(value);
+            });
+        }
+
+        int doubleValue(double value) {
+            return entry("d" + Double.doubleToRawLongBits(value), 2, () -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("c" + internalName, 1, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(name);
+            });
+        }
+
+        int string(String value) {
+            int utf8 = utf8(value);
+            return entry("s" + value, 1, () -> {
+                out.writeByte(STRING);
+                out.writeShort(utf8);
+            });
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(FIELD_REF, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(METHOD_REF, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return memberRef(INTERFACE_METHOD_REF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("n" + name + ' ' + descriptor, 1, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("m" + tag + owner + '.' + name + descriptor, 1, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, int slots, Writer writer) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                try {
+                    writer.write();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                index = count;
+                indexes.put(key, index);
+                count += slots;
+                if (count > 0xffff) {
+                    throw new IllegalStateException("Too many constants in the class: " + count);
+                }
+            }
+            return index;
+        }
+
+        void write(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+
+        @FunctionalInterface
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+
+    /**
+     * A growable byte array, which allows patching the branch offsets
+     */
+    private static final class Buffer {
+        private byte[] data = new byte[256];
+        private int size;
+
+        void u1(int value) {
+            ensure(1);
+            data[size++] = (byte) value;
+        }
+
+        void u2(int value) {
+            ensure(2);
+            data[size++] = (byte) (value >> 8);
+            data[size++] = (byte) value;
+        }
+
+        void putU2(int position, int value) {
+            data[position] = (byte) (value >> 8);
+            data[position + 1] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            byte[] answer = new byte[size];
+            System.arraycopy(data, 0, answer, 0, size);
+            return answer;
+        }
+
+        private void ensure(int length) {
+            if (size + length > data.length) {
+                byte[] grown = new byte[Math.max(data.length * 2, size + length)];
+                System.arraycopy(data, 0, grown, 0, size);
+                data = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.support.ExpressionAdapter;
+
+/**
+ * Base class for the simple expressions and predicates compiled to bytecode by {@link SimpleBytecodeCompiler}.
+ *
+ * The compiled class overrides either {@link #evaluate(Exchange)} for an expression, or {@link #matches(Exchange)} for
+ * a predicate. The parts of the expression which are not compiled are evaluated by the interpreted expressions, which
+ * are kept in the constants together with the other objects used by the compiled code.
+ */
+public abstract class CompiledSimpleExpression extends ExpressionAdapter {
+
+    protected final String text;
+    protected final Object[] constants;
+
+    protected CompiledSimpleExpression(String text, Object[] constants) {
+        this.text = text;
+        this.constants = constants;
+    }
+
+    /**
+     * Number of parts of the expression which are interpreted, as they could not be compiled
+     */
+    public int getInterpretedCount() {
+        int answer = 0;
+        for (Object constant : constants) {
+            if (constant instanceof Expression || constant instanceof Predicate) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public void init(CamelContext context) {
+        super.init(context);
+        for (Object constant : constants) {
+            if (constant instanceof Expression expression) {
+                expression.init(context);
+            } else if (constant instanceof Predicate predicate) {
+                predicate.init(context);
+            } else if (constant instanceof OgnlPropertySite site) {
+                site.init(context);
+            }
+        }
+    }
+
+    @Override
+    public Object evaluate(Exchange exchange) {
+        // a compiled predicate
+        return matches(exchange);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
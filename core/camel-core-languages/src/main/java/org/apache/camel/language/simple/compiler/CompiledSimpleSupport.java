@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.LanguageHelper;
+import org.apache.camel.support.ObjectHelper;
+
+/**
+ * The helpers called by the compiled simple expressions, which have the same semantics as the operators of the
+ * interpreted simple language.
+ *
+ * The comparisons with a numeric or text literal are specialised, so the common cases of comparing a number with a
+ * number, or a text with a text, do not need the type coercion.
+ */
+final class CompiledSimpleSupport {
+
+    private CompiledSimpleSupport() {
+    }
+
+    static Object header(Exchange exchange, String name) {
+        Object answer = exchange.getIn().getHeader(name);
+        if (answer == null) {
+            // fall back on a property
+            answer = exchange.getProperty(name);
+        }
+        return answer;
+    }
+
+    static StringBuilder append(StringBuilder sb, Exchange exchange, Object value) {
+        if (value != null) {
+            String text = value instanceof String s
+                    ? s : exchange.getContext().getTypeConverter().convertTo(String.class, exchange, value);
+            if (text != null) {
+                sb.append(text);
+            }
+        }
+        return sb;
+    }
+
+    static boolean isEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), left, right);
+    }
+
+    static boolean isNotEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left != right;
+        }
+        return ObjectHelper.typeCoerceNotEquals(exchange.getContext().getTypeConverter(), left, right);
+    }
+
+    static boolean isEqualToIgnoreCase(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceEquals(exchange.getContext().getTypeConverter(), left, right, true);
+    }
+
+    static boolean isNotEqualToIgnoreCase(Exchange exchange, Object left, Object right) {
+        return !isEqualToIgnoreCase(exchange, left, right);
+    }
+
+    static boolean isGreaterThan(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        return ObjectHelper.typeCoerceCompare(exchange.getContext().getTypeConverter(), left, right) > 0;
+    }
+
+    static boolean isGreaterThanOrEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceCompare(exchange.getContext().getTypeConverter(), left, right) >= 0;
+    }
+
+    static boolean isLessThan(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceCompare(exchange.getContext().getTypeConverter(), left, right) < 0;
+    }
+
+    static boolean isLessThanOrEqualTo(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceCompare(exchange.getContext().getTypeConverter(), left, right) <= 0;
+    }
+
+    static boolean contains(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceContains(exchange.getContext().getTypeConverter(), left, right, false);
+    }
+
+    static boolean notContains(Exchange exchange, Object left, Object right) {
+        return !contains(exchange, left, right);
+    }
+
+    static boolean containsIgnoreCase(Exchange exchange, Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return ObjectHelper.typeCoerceContains(exchange.getContext().getTypeConverter(), left, right, true);
+    }
+
+    static boolean notContainsIgnoreCase(Exchange exchange, Object left, Object right) {
+        return !containsIgnoreCase(exchange, left, right);
+    }
+
+    static boolean startsWith(Exchange exchange, Object left, Object right) {
+        return LanguageHelper.startsWith(exchange, left, right);
+    }
+
+    static boolean endsWith(Exchange exchange, Object left, Object right) {
+        return LanguageHelper.endsWith(exchange, left, right);
+    }
+
+    // comparing with an integer literal, where the literal is also given boxed for the type coercion
+
+    static boolean isEqualTo(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() == right;
+        }
+        return isEqualTo(exchange, left, number);
+    }
+
+    static boolean isNotEqualTo(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() != right;
+        }
+        return isNotEqualTo(exchange, left, number);
+    }
+
+    static boolean isGreaterThan(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() > right;
+        }
+        return isGreaterThan(exchange, left, number);
+    }
+
+    static boolean isGreaterThanOrEqualTo(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() >= right;
+        }
+        return isGreaterThanOrEqualTo(exchange, left, number);
+    }
+
+    static boolean isLessThan(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() < right;
+        }
+        return isLessThan(exchange, left, number);
+    }
+
+    static boolean isLessThanOrEqualTo(Exchange exchange, Object left, long right, Object number) {
+        if (left instanceof Integer || left instanceof Long) {
+            return ((Number) left).longValue() <= right;
+        }
+        return isLessThanOrEqualTo(exchange, left, number);
+    }
+
+    // comparing with a text literal, which is not a number, so two texts are equal when they are the same
+
+    static boolean isEqualToText(Exchange exchange, Object left, String right) {
+        if (left instanceof String s) {
+            return s.equals(right);
+        }
+        return isEqualTo(exchange, left, right);
+    }
+
+    static boolean isNotEqualToText(Exchange exchange, Object left, String right) {
+        if (left instanceof String s) {
+            return !s.equals(right);
+        }
+        return isNotEqualTo(exchange, left, right);
+    }
+}
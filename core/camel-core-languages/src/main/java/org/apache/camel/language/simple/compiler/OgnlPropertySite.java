@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.RuntimeCamelException;
+
+/**
+ * Invokes a chain of OGNL properties (such as {@code ${body.address?.city}}) on the message body, which is compiled as
+ * a call to this site.
+ *
+ * Each property of the chain caches the method handle of the getter for the last class it was invoked on, so the
+ * getters are looked up only when the class of the objects changes. When a property cannot be invoked by a public
+ * getter (such as a map key, or a method of a class which is not public), the whole chain is evaluated by the
+ * interpreted expression instead, which is also used to report the errors the same way the interpreted simple language
+ * does.
+ */
+final class OgnlPropertySite {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String[] names;
+    private final boolean[] nullSafe;
+    private final Expression fallback;
+    // the links are immutable, so they are safe to race on
+    private final Link[] links;
+
+    OgnlPropertySite(List<String> names, List<Boolean> nullSafe, Expression fallback) {
+        this.names = names.toArray(new String[0]);
+        this.nullSafe = new boolean[names.size()];
+        for (int i = 0; i < this.nullSafe.length; i++) {
+            this.nullSafe[i] = nullSafe.get(i);
+        }
+        this.fallback = fallback;
+        this.links = new Link[names.size()];
+    }
+
+    void init(CamelContext context) {
+        fallback.init(context);
+    }
+
+    Object evaluate(Exchange exchange) {
+        Object value = exchange.getIn().getBody();
+        if (value == null) {
+            return null;
+        }
+        for (int i = 0; i < names.length; i++) {
+            MethodHandle getter = getter(i, value.getClass());
+            if (getter == null) {
+                return fallback.evaluate(exchange, Object.class);
+            }
+            try {
+                value = (Object) getter.invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw RuntimeCamelException.wrapRuntimeCamelException(e);
+            }
+            if (value == null) {
+                if (nullSafe[i] || i == names.length - 1) {
+                    return null;
+                }
+                // cannot continue on a null
+                return fallback.evaluate(exchange, Object.class);
+            }
+        }
+        return value;
+    }
+
+    private MethodHandle getter(int index, Class<?> type) {
+        Link link = links[index];
+        if (link == null || link.type != type) {
+            link = new Link(type, lookup(type, names[index]));
+            links[index] = link;
+        }
+        return link.getter;
+    }
+
+    private static MethodHandle lookup(Class<?> type, String name) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[] { name, "get" + suffix, "is" + suffix }) {
+            try {
+                Method method = type.getMethod(candidate);
+                if (method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())
+                        || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    continue;
+                }
+                return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // try the next candidate
+            }
+        }
+        return null;
+    }
+
+    private record Link(Class<?> type, MethodHandle getter) {
+    }
+}
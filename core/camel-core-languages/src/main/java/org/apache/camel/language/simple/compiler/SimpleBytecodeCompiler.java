@@ -0,0 +1,533 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.compiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.language.simple.ast.BinaryExpression;
+import org.apache.camel.language.simple.ast.BlockEnd;
+import org.apache.camel.language.simple.ast.BooleanExpression;
+import org.apache.camel.language.simple.ast.DoubleQuoteStart;
+import org.apache.camel.language.simple.ast.LiteralNode;
+import org.apache.camel.language.simple.ast.LogicalExpression;
+import org.apache.camel.language.simple.ast.NullExpression;
+import org.apache.camel.language.simple.ast.NumericExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionStart;
+import org.apache.camel.language.simple.ast.SimpleNode;
+import org.apache.camel.language.simple.ast.SingleQuoteStart;
+import org.apache.camel.language.simple.types.BinaryOperatorType;
+import org.apache.camel.language.simple.types.LogicalOperatorType;
+import org.apache.camel.support.ExpressionToPredicateAdapter;
+import org.apache.camel.support.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.AALOAD;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.ACC_PUBLIC;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.ACONST_NULL;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.ALOAD_0;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.ALOAD_1;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.ARETURN;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.CHECKCAST;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.DUP;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.GETFIELD;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.GETSTATIC;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.GOTO;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.IFEQ;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.IFNE;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.INVOKEINTERFACE;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.INVOKESPECIAL;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.INVOKESTATIC;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.INVOKEVIRTUAL;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.IRETURN;
+import static org.apache.camel.language.simple.compiler.ClassFileWriter.NEW;
+
+/**
+ * Compiles the AST of simple expressions and predicates to bytecode at runtime, without a Java source compiler.
+ *
+ * Each expression is compiled to a hidden class extending {@link CompiledSimpleExpression}. The common functions
+ * (body, headers, exchange properties, variables and OGNL properties of the body), the literals and the operators are
+ * compiled to direct calls, where comparisons with numeric or text literals are specialised to avoid type coercion.
+ * Any other node of the AST is evaluated by its interpreted expression, which is called from the compiled code, so
+ * everything the simple language supports can be compiled.
+ */
+public final class SimpleBytecodeCompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleBytecodeCompiler.class);
+
+    private static final String CLASS_NAME = "org/apache/camel/language/simple/compiler/CompiledSimple";
+    private static final String BASE = "org/apache/camel/language/simple/compiler/CompiledSimpleExpression";
+    private static final String SUPPORT = "org/apache/camel/language/simple/compiler/CompiledSimpleSupport";
+    private static final String SITE = "org/apache/camel/language/simple/compiler/OgnlPropertySite";
+    private static final String EXCHANGE = "org/apache/camel/Exchange";
+    private static final String MESSAGE = "org/apache/camel/Message";
+    private static final String EXPRESSION = "org/apache/camel/Expression";
+    private static final String PREDICATE = "org/apache/camel/Predicate";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String STRING_BUILDER = "java/lang/StringBuilder";
+    private static final String CONSTRUCTOR = "(Ljava/lang/String;[Ljava/lang/Object;)V";
+    private static final String BINARY = "(Lorg/apache/camel/Exchange;Ljava/lang/Object;Ljava/lang/Object;)Z";
+    private static final String BINARY_LONG = "(Lorg/apache/camel/Exchange;Ljava/lang/Object;JLjava/lang/Object;)Z";
+    private static final String BINARY_TEXT = "(Lorg/apache/camel/Exchange;Ljava/lang/Object;Ljava/lang/String;)Z";
+    // literal texts longer than this are kept as constants, as the class file limits the size of strings
+    private static final int MAX_STRING_LENGTH = 16 * 1024;
+
+    private static final String KEY = "(?:[.:]([\\w-]+)|\\[([\\w-]+)])";
+    private static final Pattern HEADER = Pattern.compile("(?:in\\.headers|in\\.header|headers|header)" + KEY);
+    private static final Pattern PROPERTY = Pattern.compile("exchangeProperty" + KEY);
+    private static final Pattern VARIABLE = Pattern.compile("(?:variables|variable)" + KEY);
+    private static final Pattern BODY_OGNL = Pattern.compile("(?:in\\.)?body((?:\\??\\.[A-Za-z_$][\\w$]*)+)");
+    private static final Pattern OGNL_PROPERTY = Pattern.compile("(\\?)?\\.([A-Za-z_$][\\w$]*)");
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private final LongAdder compiledCounter = new LongAdder();
+    private final LongAdder failedCounter = new LongAdder();
+
+    /**
+     * Compiles the nodes of a parsed simple expression
+     *
+     * @param  camelContext the camel context
+     * @param  expression   the text of the expression
+     * @param  nodes        the nodes of the parsed expression
+     * @return              the compiled expression, or <tt>null</tt> if the expression could not be compiled
+     */
+    public Expression compileExpression(CamelContext camelContext, String expression, List<SimpleNode> nodes) {
+        return compile(camelContext, expression, nodes, false);
+    }
+
+    /**
+     * Compiles the nodes of a parsed simple predicate
+     *
+     * @param  camelContext the camel context
+     * @param  expression   the text of the predicate
+     * @param  nodes        the nodes of the parsed predicate
+     * @return              the compiled predicate, or <tt>null</tt> if the predicate could not be compiled
+     */
+    public Predicate compilePredicate(CamelContext camelContext, String expression, List<SimpleNode> nodes) {
+        return compile(camelContext, expression, nodes, true);
+    }
+
+    /**
+     * Number of expressions and predicates compiled
+     */
+    public long getCompiledCount() {
+        return compiledCounter.sum();
+    }
+
+    /**
+     * Number of expressions and predicates which could not be compiled, and are interpreted
+     */
+    public long getFailedCount() {
+        return failedCounter.sum();
+    }
+
+    private CompiledSimpleExpression compile(
+            CamelContext camelContext, String expression, List<SimpleNode> nodes, boolean predicate) {
+        try {
+            Compilation compilation = new Compilation(camelContext, expression);
+            byte[] bytes = compilation.compile(nodes, predicate);
+
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(),
+                    MethodType.methodType(void.class, String.class, Object[].class));
+            CompiledSimpleExpression answer
+                    = (CompiledSimpleExpression) constructor.invoke(expression, compilation.constants.toArray());
+            compiledCounter.increment();
+            return answer;
+        } catch (Throwable e) {
+            // the interpreted expression is used instead
+            failedCounter.increment();
+            LOG.debug("Cannot compile simple expression: {} due to: {}. This exception is ignored.", expression,
+                    e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * The state of compiling one expression
+     */
+    private static final class Compilation {
+        private final CamelContext camelContext;
+        private final String expression;
+        private final List<Object> constants = new ArrayList<>();
+        private final ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, BASE);
+        private ClassFileWriter.Code code;
+
+        Compilation(CamelContext camelContext, String expression) {
+            this.camelContext = camelContext;
+            this.expression = expression;
+        }
+
+        byte[] compile(List<SimpleNode> nodes, boolean predicate) {
+            List<SimpleNode> list = new ArrayList<>();
+            for (SimpleNode node : nodes) {
+                if (!(node instanceof BlockEnd)) {
+                    list.add(node);
+                }
+            }
+
+            writer.addConstructor(CONSTRUCTOR);
+            code = writer.newCode(EXCHANGE);
+            if (predicate) {
+                // the nodes are and'ed together
+                if (list.isEmpty()) {
+                    code.pushInt(0);
+                } else if (list.size() == 1) {
+                    predicate(list.get(0));
+                } else {
+                    ClassFileWriter.Label matchesNot = new ClassFileWriter.Label();
+                    ClassFileWriter.Label end = new ClassFileWriter.Label();
+                    for (int i = 0; i < list.size() - 1; i++) {
+                        predicate(list.get(i));
+                        code.branch(IFEQ, matchesNot);
+                    }
+                    predicate(list.get(list.size() - 1));
+                    code.branch(GOTO, end);
+                    code.bind(matchesNot, false);
+                    code.pushInt(0);
+                    code.bind(end, true);
+                }
+                code.op(IRETURN, -1);
+                writer.addMethod(ACC_PUBLIC, "matches", "(Lorg/apache/camel/Exchange;)Z", code);
+            } else {
+                if (list.isEmpty()) {
+                    code.pushString("");
+                } else if (list.size() == 1) {
+                    value(list.get(0));
+                } else {
+                    concat(list);
+                }
+                code.op(ARETURN, -1);
+                writer.addMethod(ACC_PUBLIC, "evaluate", "(Lorg/apache/camel/Exchange;)Ljava/lang/Object;", code);
+            }
+            return writer.toByteArray();
+        }
+
+        // --------------------------------------------------------------
+        // predicates, which push an int
+        // --------------------------------------------------------------
+
+        private void predicate(SimpleNode node) {
+            if (node instanceof LogicalExpression logical) {
+                logical(logical);
+            } else if (node instanceof BinaryExpression binary) {
+                binary(binary);
+            } else if (node instanceof BooleanExpression) {
+                code.pushInt("true".equals(node.getToken().getText()) ? 1 : 0);
+            } else if (compiledValue(node)) {
+                code.invoke(INVOKESTATIC, "org/apache/camel/util/ObjectHelper", "evaluateValuePredicate",
+                        "(Ljava/lang/Object;)Z");
+            } else {
+                Expression exp = node.createExpression(camelContext, expression);
+                constant(ExpressionToPredicateAdapter.toPredicate(exp), PREDICATE);
+                code.op(ALOAD_1, 1);
+                code.invoke(INVOKEINTERFACE, PREDICATE, "matches", "(Lorg/apache/camel/Exchange;)Z");
+            }
+        }
+
+        private void logical(LogicalExpression node) {
+            boolean and = node.getOperator() == LogicalOperatorType.AND;
+            ClassFileWriter.Label shortCircuit = new ClassFileWriter.Label();
+            ClassFileWriter.Label end = new ClassFileWriter.Label();
+            predicate(node.getLeft());
+            code.branch(and ? IFEQ : IFNE, shortCircuit);
+            predicate(node.getRight());
+            code.branch(GOTO, end);
+            code.bind(shortCircuit, false);
+            code.pushInt(and ? 0 : 1);
+            code.bind(end, true);
+        }
+
+        private void binary(BinaryExpression node) {
+            BinaryOperatorType operator = node.getOperator();
+            String name = switch (operator) {
+                case EQ -> "isEqualTo";
+                case NOT_EQ -> "isNotEqualTo";
+                case EQ_IGNORE -> "isEqualToIgnoreCase";
+                case NOT_EQ_IGNORE -> "isNotEqualToIgnoreCase";
+                case GT -> "isGreaterThan";
+                case GTE -> "isGreaterThanOrEqualTo";
+                case LT -> "isLessThan";
+                case LTE -> "isLessThanOrEqualTo";
+                case CONTAINS -> "contains";
+                case NOT_CONTAINS -> "notContains";
+                case CONTAINS_IGNORECASE -> "containsIgnoreCase";
+                case NOT_CONTAINS_IGNORECASE -> "notContainsIgnoreCase";
+                case STARTS_WITH -> "startsWith";
+                case ENDS_WITH -> "endsWith";
+                // the other operators are interpreted
+                default -> null;
+            };
+            if (name == null) {
+                Expression exp = node.createExpression(camelContext, expression);
+                constant(ExpressionToPredicateAdapter.toPredicate(exp), PREDICATE);
+                code.op(ALOAD_1, 1);
+                code.invoke(INVOKEINTERFACE, PREDICATE, "matches", "(Lorg/apache/camel/Exchange;)Z");
+                return;
+            }
+
+            boolean comparison = switch (operator) {
+                case EQ, NOT_EQ, GT, GTE, LT, LTE -> true;
+                default -> false;
+            };
+            boolean equality = operator == BinaryOperatorType.EQ || operator == BinaryOperatorType.NOT_EQ;
+            String text = textLiteral(node.getRight());
+
+            code.op(ALOAD_1, 1);
+            value(node.getLeft());
+            if (comparison && node.getRight() instanceof NumericExpression numeric
+                    && (numeric.getNumber() instanceof Integer || numeric.getNumber() instanceof Long)) {
+                code.pushLong(((Number) numeric.getNumber()).longValue());
+                constant(numeric.getNumber(), null);
+                code.invoke(INVOKESTATIC, SUPPORT, name, BINARY_LONG);
+            } else if (equality && text != null && !ObjectHelper.isNumber(text)) {
+                string(text);
+                code.invoke(INVOKESTATIC, SUPPORT, name + "Text", BINARY_TEXT);
+            } else {
+                value(node.getRight());
+                code.invoke(INVOKESTATIC, SUPPORT, name, BINARY);
+            }
+        }
+
+        /**
+         * Gets the text of a quoted literal with no functions
+         */
+        private static String textLiteral(SimpleNode node) {
+            List<SimpleNode> children = null;
+            if (node instanceof SingleQuoteStart quote) {
+                children = quote.getBlock().getChildren();
+            } else if (node instanceof DoubleQuoteStart quote) {
+                children = quote.getBlock().getChildren();
+            }
+            if (children == null) {
+                return null;
+            } else if (children.isEmpty()) {
+                return "";
+            } else if (children.size() == 1 && children.get(0) instanceof LiteralNode literal) {
+                return literal.getText();
+            }
+            return null;
+        }
+
+        // --------------------------------------------------------------
+        // values, which push an object
+        // --------------------------------------------------------------
+
+        private void value(SimpleNode node) {
+            if (!compiledValue(node)) {
+                Expression exp = node.createExpression(camelContext, expression);
+                if (exp == null) {
+                    code.op(ACONST_NULL, 1);
+                    return;
+                }
+                constant(exp, EXPRESSION);
+                code.op(ALOAD_1, 1);
+                code.pushClass(OBJECT);
+                code.invoke(INVOKEINTERFACE, EXPRESSION, "evaluate",
+                        "(Lorg/apache/camel/Exchange;Ljava/lang/Class;)Ljava/lang/Object;");
+            }
+        }
+
+        /**
+         * Compiles the value of the node, if supported
+         *
+         * @return <tt>false</tt> if the node is not supported, in which case no code was written
+         */
+        private boolean compiledValue(SimpleNode node) {
+            if (node instanceof LiteralNode literal) {
+                string(literal.getText());
+            } else if (node instanceof NullExpression) {
+                code.op(ACONST_NULL, 1);
+            } else if (node instanceof BooleanExpression) {
+                String name = "true".equals(node.getToken().getText()) ? "TRUE" : "FALSE";
+                code.field(GETSTATIC, "java/lang/Boolean", name, "Ljava/lang/Boolean;");
+            } else if (node instanceof NumericExpression numeric) {
+                constant(numeric.getNumber(), null);
+            } else if (node instanceof SingleQuoteStart quote) {
+                block(quote.getBlock().getChildren());
+            } else if (node instanceof DoubleQuoteStart quote) {
+                block(quote.getBlock().getChildren());
+            } else if (node instanceof SimpleFunctionStart function) {
+                List<SimpleNode> children = function.getBlock().getChildren();
+                // functions with nested functions are interpreted
+                return children.size() == 1 && children.get(0) instanceof LiteralNode literal
+                        && function(function, literal.getText());
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void block(List<SimpleNode> children) {
+            if (children.isEmpty()) {
+                code.pushString("");
+            } else if (children.size() == 1) {
+                value(children.get(0));
+            } else {
+                concat(children);
+            }
+        }
+
+        private void concat(List<SimpleNode> nodes) {
+            code.typeOp(NEW, STRING_BUILDER);
+            code.op(DUP, 1);
+            code.invoke(INVOKESPECIAL, STRING_BUILDER, "<init>", "()V");
+            for (SimpleNode node : nodes) {
+                if (node instanceof LiteralNode literal) {
+                    string(literal.getText());
+                    code.invoke(INVOKEVIRTUAL, STRING_BUILDER, "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;");
+                } else {
+                    code.op(ALOAD_1, 1);
+                    value(node);
+                    code.invoke(INVOKESTATIC, SUPPORT, "append",
+                            "(Ljava/lang/StringBuilder;Lorg/apache/camel/Exchange;Ljava/lang/Object;)Ljava/lang/StringBuilder;");
+                }
+            }
+            code.invoke(INVOKEVIRTUAL, STRING_BUILDER, "toString", "()Ljava/lang/String;");
+        }
+
+        private boolean function(SimpleFunctionStart node, String function) {
+            switch (function) {
+                case "body", "in.body" -> {
+                    message();
+                    code.invoke(INVOKEINTERFACE, MESSAGE, "getBody", "()Ljava/lang/Object;");
+                    return true;
+                }
+                case "headers", "in.headers" -> {
+                    message();
+                    code.invoke(INVOKEINTERFACE, MESSAGE, "getHeaders", "()Ljava/util/Map;");
+                    return true;
+                }
+                case "id" -> {
+                    message();
+                    code.invoke(INVOKEINTERFACE, MESSAGE, "getMessageId", "()Ljava/lang/String;");
+                    return true;
+                }
+                case "exchangeId" -> {
+                    code.op(ALOAD_1, 1);
+                    code.invoke(INVOKEINTERFACE, EXCHANGE, "getExchangeId", "()Ljava/lang/String;");
+                    return true;
+                }
+                case "exchange" -> {
+                    code.op(ALOAD_1, 1);
+                    return true;
+                }
+                case "camelId" -> {
+                    code.op(ALOAD_1, 1);
+                    code.invoke(INVOKEINTERFACE, EXCHANGE, "getContext", "()Lorg/apache/camel/CamelContext;");
+                    code.invoke(INVOKEINTERFACE, "org/apache/camel/CamelContext", "getName", "()Ljava/lang/String;");
+                    return true;
+                }
+                default -> {
+                    return keyFunction(function) || bodyOgnl(node, function);
+                }
+            }
+        }
+
+        private boolean keyFunction(String function) {
+            Matcher matcher = HEADER.matcher(function);
+            if (matcher.matches()) {
+                code.op(ALOAD_1, 1);
+                code.pushString(key(matcher));
+                code.invoke(INVOKESTATIC, SUPPORT, "header",
+                        "(Lorg/apache/camel/Exchange;Ljava/lang/String;)Ljava/lang/Object;");
+                return true;
+            }
+            matcher = PROPERTY.matcher(function);
+            if (matcher.matches()) {
+                code.op(ALOAD_1, 1);
+                code.pushString(key(matcher));
+                code.invoke(INVOKEINTERFACE, EXCHANGE, "getProperty", "(Ljava/lang/String;)Ljava/lang/Object;");
+                return true;
+            }
+            matcher = VARIABLE.matcher(function);
+            if (matcher.matches()) {
+                code.op(ALOAD_1, 1);
+                code.pushString(key(matcher));
+                code.invoke(INVOKESTATIC, "org/apache/camel/support/ExchangeHelper", "getVariable",
+                        "(Lorg/apache/camel/Exchange;Ljava/lang/String;)Ljava/lang/Object;");
+                return true;
+            }
+            return false;
+        }
+
+        private static String key(Matcher matcher) {
+            return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+        }
+
+        private boolean bodyOgnl(SimpleFunctionStart node, String function) {
+            Matcher matcher = BODY_OGNL.matcher(function);
+            if (!matcher.matches()) {
+                return false;
+            }
+            List<String> names = new ArrayList<>();
+            List<Boolean> nullSafe = new ArrayList<>();
+            Matcher property = OGNL_PROPERTY.matcher(matcher.group(1));
+            while (property.find()) {
+                nullSafe.add(property.group(1) != null);
+                names.add(property.group(2));
+            }
+            // the interpreted expression handles what the site cannot
+            Expression fallback = node.createExpression(camelContext, expression);
+            constant(new OgnlPropertySite(names, nullSafe, fallback), SITE);
+            code.op(ALOAD_1, 1);
+            code.invoke(INVOKEVIRTUAL, SITE, "evaluate", "(Lorg/apache/camel/Exchange;)Ljava/lang/Object;");
+            return true;
+        }
+
+        private void message() {
+            code.op(ALOAD_1, 1);
+            code.invoke(INVOKEINTERFACE, EXCHANGE, "getIn", "()Lorg/apache/camel/Message;");
+        }
+
+        private void string(String text) {
+            if (text.length() > MAX_STRING_LENGTH) {
+                constant(text, "java/lang/String");
+            } else {
+                code.pushString(text);
+            }
+        }
+
+        /**
+         * Pushes an object from the constants of the compiled expression
+         *
+         * @param value the object
+         * @param type  the type to cast the object to, or <tt>null</tt> to keep it as an object
+         */
+        private void constant(Object value, String type) {
+            int index = constants.size();
+            constants.add(value);
+            code.op(ALOAD_0, 1);
+            code.field(GETFIELD, BASE, "constants", "[Ljava/lang/Object;");
+            code.pushInt(index);
+            code.op(AALOAD, -1);
+            if (type != null) {
+                code.typeOp(CHECKCAST, type);
+            }
+        }
+    }
+}
@@ -47,6 +47,11 @@ public class TokenizeLanguage extends SingleInputTypedLanguageSupport {
         return false;
     }
 
+    @Override
+    protected boolean supportExpressionCache() {
+        return true;
+    }
+
     @Override
     public Expression createExpression(Expression source, String expression, Object[] properties) {
         Class<?> type = property(Class.class, properties, 0, null);
@@ -97,6 +97,13 @@ public class ThreadPoolProfileBuilder {
         return this;
     }
 
+    public ThreadPoolProfileBuilder virtualThreadPerTask(Boolean virtualThreadPerTask) {
+        if (virtualThreadPerTask != null) {
+            profile.setVirtualThreadPerTask(virtualThreadPerTask);
+        }
+        return this;
+    }
+
     /**
      * Builds the thread pool profile
      *
@@ -149,6 +149,12 @@ public class AggregateDefinition extends OutputDefinition<AggregateDefinition>
     @XmlAttribute
     @Metadata(label = "advanced", javaType = "java.lang.Boolean")
     private String completeAllOnStop;
+    @XmlAttribute
+    @Metadata(label = "advanced", javaType = "java.lang.Integer")
+    private String shards;
+    @XmlAttribute
+    @Metadata(label = "advanced", javaType = "java.time.Duration")
+    private String groupCommitInterval;
 
     public AggregateDefinition() {
     }
@@ -193,6 +199,8 @@ public class AggregateDefinition extends OutputDefinition<AggregateDefinition>
         this.discardOnAggregationFailure = source.discardOnAggregationFailure;
         this.forceCompletionOnStop = source.forceCompletionOnStop;
         this.completeAllOnStop = source.completeAllOnStop;
+        this.shards = source.shards;
+        this.groupCommitInterval = source.groupCommitInterval;
     }
 
     public AggregateDefinition(@AsPredicate Predicate predicate) {
@@ -582,6 +590,22 @@ public class AggregateDefinition extends OutputDefinition<AggregateDefinition>
         this.completeAllOnStop = completeAllOnStop;
     }
 
+    public String getShards() {
+        return shards;
+    }
+
+    public void setShards(String shards) {
+        this.shards = shards;
+    }
+
+    public String getGroupCommitInterval() {
+        return groupCommitInterval;
+    }
+
+    public void setGroupCommitInterval(String groupCommitInterval) {
+        this.groupCommitInterval = groupCommitInterval;
+    }
+
     public String getAggregateController() {
         return aggregateController;
     }
@@ -972,6 +996,64 @@ public class AggregateDefinition extends OutputDefinition<AggregateDefinition>
         return this;
     }
 
+    /**
+     * Sets the number of shards the correlation groups are partitioned into, which is rounded up to a power of two.
+     * Each shard has its own lock and completion timeout index, so correlation groups in different shards can be
+     * aggregated concurrently, which improves throughput when there are many active correlation groups. The default is
+     * to use a single lock for all the correlation groups. Sharding cannot be used together with optimistic locking,
+     * completionFromBatchConsumer or completionOnNewCorrelationGroup.
+     *
+     * @param  shards the number of shards
+     * @return        builder
+     */
+    public AggregateDefinition shards(int shards) {
+        return shards(Integer.toString(shards));
+    }
+
+    /**
+     * Sets the number of shards the correlation groups are partitioned into, which is rounded up to a power of two.
+     * Each shard has its own lock and completion timeout index, so correlation groups in different shards can be
+     * aggregated concurrently, which improves throughput when there are many active correlation groups. The default is
+     * to use a single lock for all the correlation groups. Sharding cannot be used together with optimistic locking,
+     * completionFromBatchConsumer or completionOnNewCorrelationGroup.
+     *
+     * @param  shards the number of shards
+     * @return        builder
+     */
+    public AggregateDefinition shards(String shards) {
+        setShards(shards);
+        return this;
+    }
+
+    /**
+     * Sets the interval in millis to coalesce the writes to the aggregation repository and commit them together (group
+     * commit), which uses the batch operations if the repository is a BatchAggregationRepository. Each incoming
+     * exchange continues routing when the repository writes of its aggregation have been committed, which improves
+     * throughput with persistent repositories at the cost of latency. The default is 0 which writes to the repository
+     * for each exchange. Group commit cannot be used together with optimistic locking.
+     *
+     * @param  groupCommitInterval the interval in millis
+     * @return                     builder
+     */
+    public AggregateDefinition groupCommitInterval(long groupCommitInterval) {
+        return groupCommitInterval(Long.toString(groupCommitInterval));
+    }
+
+    /**
+     * Sets the interval in millis to coalesce the writes to the aggregation repository and commit them together (group
+     * commit), which uses the batch operations if the repository is a BatchAggregationRepository. Each incoming
+     * exchange continues routing when the repository writes of its aggregation have been committed, which improves
+     * throughput with persistent repositories at the cost of latency. The default is 0 which writes to the repository
+     * for each exchange. Group commit cannot be used together with optimistic locking.
+     *
+     * @param  groupCommitInterval the interval in millis
+     * @return                     builder
+     */
+    public AggregateDefinition groupCommitInterval(String groupCommitInterval) {
+        setGroupCommitInterval(groupCommitInterval);
+        return this;
+    }
+
     /**
      * When aggregated are completed they are being send out of the aggregator. This option indicates whether or not
      * Camel should use a thread pool with multiple threads for concurrency. If no custom thread pool has been specified
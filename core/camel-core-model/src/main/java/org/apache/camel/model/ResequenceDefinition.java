@@ -201,6 +201,20 @@ public class ResequenceDefinition extends OutputDefinition<ResequenceDefinition>
         return this;
     }
 
+    /**
+     * Holds the messages in a ring buffer indexed by the sequence number (must be a long), instead of a sorted set.
+     * This is faster for dense numeric sequences, such as offsets.
+     *
+     * @return the builder
+     */
+    public ResequenceDefinition ringBuffer() {
+        if (streamConfig == null) {
+            throw new IllegalStateException("ringBuffer() only supported for stream resequencer");
+        }
+        streamConfig.setRingBuffer(Boolean.toString(true));
+        return this;
+    }
+
     /**
      * Sets the in batch size for number of exchanges received
      *
@@ -84,6 +84,9 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
     @XmlAttribute
     @Metadata(label = "advanced", javaType = "java.lang.Boolean")
     private String shareUnitOfWork;
+    @XmlAttribute
+    @Metadata(label = "advanced", javaType = "java.lang.Integer", defaultValue = "0")
+    private String maxInFlight;
 
     public SplitDefinition() {
     }
@@ -106,6 +109,7 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         this.executorService = source.executorService;
         this.onPrepare = source.onPrepare;
         this.shareUnitOfWork = source.shareUnitOfWork;
+        this.maxInFlight = source.maxInFlight;
     }
 
     public SplitDefinition(Expression expression) {
@@ -549,6 +553,35 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         return this;
     }
 
+    /**
+     * Sets the maximum number of split messages which can be in-flight at the same time, when using parallel
+     * processing. The splitter does not split the next message until the number of split messages which has not yet
+     * been aggregated is below this limit. This bounds the memory used when splitting big streams in parallel. When
+     * this option is set then the replies are aggregated in the same order as the messages was split, even in
+     * streaming mode. The default is 0 which means no limit.
+     *
+     * @param  maxInFlight the maximum number of in-flight split messages
+     * @return             the builder
+     */
+    public SplitDefinition maxInFlight(int maxInFlight) {
+        return maxInFlight(Integer.toString(maxInFlight));
+    }
+
+    /**
+     * Sets the maximum number of split messages which can be in-flight at the same time, when using parallel
+     * processing. The splitter does not split the next message until the number of split messages which has not yet
+     * been aggregated is below this limit. This bounds the memory used when splitting big streams in parallel. When
+     * this option is set then the replies are aggregated in the same order as the messages was split, even in
+     * streaming mode. The default is 0 which means no limit.
+     *
+     * @param  maxInFlight the maximum number of in-flight split messages
+     * @return             the builder
+     */
+    public SplitDefinition maxInFlight(String maxInFlight) {
+        setMaxInFlight(maxInFlight);
+        return this;
+    }
+
     // Properties
     // -------------------------------------------------------------------------
 
@@ -697,6 +730,14 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         this.shareUnitOfWork = shareUnitOfWork;
     }
 
+    public String getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(String maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
     public String getExecutorService() {
         return executorService;
     }
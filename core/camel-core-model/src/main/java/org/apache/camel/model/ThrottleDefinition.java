@@ -45,7 +45,7 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
 
     @XmlAttribute
     @Metadata(javaType = "org.apache.camel.model.ThrottlingMode", defaultValue = "TotalRequests",
-              enums = "TotalRequests,ConcurrentRequests")
+              enums = "TotalRequests,ConcurrentRequests,TokenBucket,AdaptiveConcurrency")
     private String mode;
     @XmlElement(name = "correlationExpression")
     private ExpressionSubElementDefinition correlationExpression;
@@ -64,6 +64,9 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     @XmlAttribute
     @Metadata(defaultValue = "1000", javaType = "java.time.Duration")
     private String timePeriodMillis;
+    @XmlAttribute
+    @Metadata(label = "advanced", defaultValue = "Gradient", enums = "Aimd,Gradient,Vegas")
+    private String limitAlgorithm;
 
     public ThrottleDefinition() {
         totalRequestsMode();
@@ -80,6 +83,7 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         this.callerRunsWhenRejected = source.callerRunsWhenRejected;
         this.rejectExecution = source.rejectExecution;
         this.timePeriodMillis = source.timePeriodMillis;
+        this.limitAlgorithm = source.limitAlgorithm;
     }
 
     public ThrottleDefinition(Expression maximumRequestsPerPeriod) {
@@ -117,19 +121,34 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    public ThrottleDefinition tokenBucketMode() {
+        this.mode = ThrottlingMode.TokenBucket.name();
+        return this;
+    }
+
+    public ThrottleDefinition adaptiveConcurrencyMode() {
+        this.mode = ThrottlingMode.AdaptiveConcurrency.name();
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Throttle[" + description() + "]";
     }
 
     protected String description() {
-        if (mode.equals(ThrottlingMode.TotalRequests.name())) {
+        if (hasTimePeriod()) {
             return getExpression() + " request per " + getTimePeriodMillis() + " millis";
         } else {
             return getExpression() + " maximum concurrent requests";
         }
     }
 
+    private boolean hasTimePeriod() {
+        ThrottlingMode throttlingMode = ThrottlingMode.toMode(mode);
+        return throttlingMode != ThrottlingMode.ConcurrentRequests && throttlingMode != ThrottlingMode.AdaptiveConcurrency;
+    }
+
     @Override
     public String getShortName() {
         return "throttle";
@@ -358,8 +377,8 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     /**
      * Sets the throttling mode to one of the available modes enumerated in ThrottlingMode
      *
-     * @param  mode The throttling mode as a string parameter. It currently accepts one of 'TotalRequests' or
-     *              `ConcurrentRequests`
+     * @param  mode The throttling mode as a string parameter. It currently accepts one of 'TotalRequests',
+     *              `ConcurrentRequests`, `TokenBucket` or `AdaptiveConcurrency`
      * @see         ThrottlingMode
      * @return      the builder
      */
@@ -369,6 +388,18 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Sets the algorithm to adjust the concurrency limit with, when using the adaptive concurrency mode. It currently
+     * accepts one of `Aimd`, `Gradient` or `Vegas`
+     *
+     * @param  limitAlgorithm the algorithm to adjust the concurrency limit with
+     * @return                the builder
+     */
+    public ThrottleDefinition limitAlgorithm(String limitAlgorithm) {
+        setLimitAlgorithm(limitAlgorithm);
+        return this;
+    }
+
     // Properties
     // -------------------------------------------------------------------------
 
@@ -392,18 +423,20 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     }
 
     public String getTimePeriodMillis() {
-        if (ThrottlingMode.toMode(mode) == ThrottlingMode.TotalRequests) {
+        if (hasTimePeriod()) {
             return timePeriodMillis;
         }
 
-        throw new IllegalArgumentException("Time period in millis can only be obtained when using total requests mode");
+        throw new IllegalArgumentException(
+                "Time period in millis can only be obtained when using total requests or token bucket mode");
     }
 
     public void setTimePeriodMillis(String timePeriodMillis) {
-        if (ThrottlingMode.toMode(mode) == ThrottlingMode.TotalRequests) {
+        if (hasTimePeriod()) {
             this.timePeriodMillis = timePeriodMillis;
         } else {
-            throw new IllegalArgumentException("Time period in millis can only be set when using total requests mode");
+            throw new IllegalArgumentException(
+                    "Time period in millis can only be set when using total requests or token bucket mode");
         }
     }
 
@@ -458,11 +491,26 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     /**
      * Sets the throttling mode to one of the available modes enumerated in ThrottlingMode
      *
-     * @param mode The throttling mode as a string parameter. It currently accepts one of 'TotalRequests' or
-     *             `ConcurrentRequests`
+     * @param mode The throttling mode as a string parameter. It currently accepts one of 'TotalRequests',
+     *             `ConcurrentRequests`, `TokenBucket` or `AdaptiveConcurrency`
      * @see        ThrottlingMode
      */
     public void setMode(String mode) {
         this.mode = mode;
     }
+
+    public String getLimitAlgorithm() {
+        return limitAlgorithm;
+    }
+
+    /**
+     * The algorithm to adjust the concurrency limit with from the observed latency, when using the adaptive concurrency
+     * mode. Aimd increases the limit by one while exchanges complete, and decreases it by a ratio when an exchange times
+     * out. Gradient decreases the limit as soon as the latency increases compared to the long term average latency.
+     * Vegas estimates the number of exchanges queued downstream from the latency compared to the minimum latency, and
+     * keeps this number small.
+     */
+    public void setLimitAlgorithm(String limitAlgorithm) {
+        this.limitAlgorithm = limitAlgorithm;
+    }
 }
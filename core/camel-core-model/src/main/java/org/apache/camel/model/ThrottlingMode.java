@@ -32,12 +32,31 @@ public enum ThrottlingMode {
      * Uses a throttling mode that uses a leaky-bucket algorithm to limit the outflow based on a maximum number of
      * concurrent requests
      */
-    ConcurrentRequests;
+    ConcurrentRequests,
+
+    /**
+     * Uses a throttling mode that uses a token-bucket algorithm to limit the total number of requests over defined
+     * period of time, by spreading the requests evenly when the bucket is empty. Delayed requests do not occupy any
+     * thread when async delayed is enabled.
+     */
+    TokenBucket,
+
+    /**
+     * Uses a throttling mode that limits the number of concurrent requests, where the limit is adjusted automatically
+     * from the observed latency, up to the maximum number of concurrent requests
+     */
+    AdaptiveConcurrency;
 
     public static ThrottlingMode toMode(String mode) {
         if (mode.equals(ThrottlingMode.TotalRequests.name())) {
             return ThrottlingMode.TotalRequests;
         }
+        if (mode.equals(ThrottlingMode.TokenBucket.name())) {
+            return ThrottlingMode.TokenBucket;
+        }
+        if (mode.equals(ThrottlingMode.AdaptiveConcurrency.name())) {
+            return ThrottlingMode.AdaptiveConcurrency;
+        }
 
         return ThrottlingMode.ConcurrentRequests;
     }
@@ -52,6 +52,9 @@ public class StreamResequencerConfig extends ResequencerConfig {
     @Metadata(label = "advanced", javaType = "java.lang.Boolean")
     private String rejectOld;
     @XmlAttribute
+    @Metadata(label = "advanced", javaType = "java.lang.Boolean")
+    private String ringBuffer;
+    @XmlAttribute
     @Metadata(label = "advanced", javaType = "org.apache.camel.processor.resequencer.ExpressionResultComparator")
     private String comparator;
 
@@ -122,6 +125,7 @@ public class StreamResequencerConfig extends ResequencerConfig {
         this.deliveryAttemptInterval = source.deliveryAttemptInterval;
         this.ignoreInvalidExchanges = source.ignoreInvalidExchanges;
         this.rejectOld = source.rejectOld;
+        this.ringBuffer = source.ringBuffer;
         this.comparator = source.comparator;
     }
 
@@ -219,4 +223,19 @@ public class StreamResequencerConfig extends ResequencerConfig {
         return rejectOld;
     }
 
+    /**
+     * Whether to hold the messages in a ring buffer indexed by the sequence number, instead of a sorted set. This is
+     * faster for dense numeric sequences (such as offsets) as inserting and delivering a message is a constant time
+     * operation. The sequence expression must evaluate to a long, and the custom comparator is not used. Gaps in the
+     * sequence occupy capacity until they time out, and when the buffer is full the caller is blocked until older
+     * messages have been delivered.
+     */
+    public void setRingBuffer(String ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    public String getRingBuffer() {
+        return ringBuffer;
+    }
+
 }
@@ -0,0 +1,828 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePropertyKey;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.Expression;
+import org.apache.camel.RuntimeExchangeException;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A <a href="http://camel.apache.org/throttler.html">Throttler</a> which sets a limit on the number of message
+ * exchanges which can be sent to a processor concurrently, where the limit is adjusted automatically from the observed
+ * latency.
+ * <p/>
+ * The time from when an exchange is let through until it is completed is the round trip time (RTT) of the exchange.
+ * When the downstream systems become slower, and the RTT increases, then the limit is decreased so less exchanges are
+ * processed concurrently, and when the RTT goes down again, then the limit is increased, up to the maximum given by
+ * the maximum requests expression. An exchange which failed with a timeout (or was rejected) is a strong signal that
+ * the downstream is overloaded, which decreases the limit right away. This is how TCP congestion control finds the
+ * bandwidth of a connection, and the following algorithms can be used:
+ * <ul>
+ * <li>{@link LimitAlgorithm#Aimd} - additive increase, multiplicative decrease: the limit is increased by one for every
+ * exchange, and decreased by a ratio when an exchange fails with a timeout.</li>
+ * <li>{@link LimitAlgorithm#Gradient} - the limit is adjusted by the ratio between the long term average RTT and the
+ * current RTT, so it is decreased as soon as the RTT increases (queueing occurs).</li>
+ * <li>{@link LimitAlgorithm#Vegas} - the number of exchanges queued downstream is estimated from the RTT compared to
+ * the minimum RTT (with no load), and the limit is adjusted to keep this number small.</li>
+ * </ul>
+ * <p/>
+ * The exchanges which exceed the limit wait in line (without occupying a thread when async delayed is enabled), or are
+ * rejected right away with rejectExecution enabled, which sheds the load when the downstream slows down.
+ * <p/>
+ * Each correlation key has its own limit, so when the correlation key is the downstream endpoint, then each endpoint
+ * gets its own limit. A key with no exchanges in flight or waiting, which has not been used for a while, is evicted from
+ * memory, and starts over from the initial limit when used again.
+ */
+public class AdaptiveConcurrencyThrottler extends AbstractThrottler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyThrottler.class);
+
+    private static final long EVICT_PERIOD = 1000L * 10;
+    private static final int EVICTED = Integer.MIN_VALUE;
+
+    /**
+     * The algorithms to adjust the limit with.
+     */
+    public enum LimitAlgorithm {
+        Aimd,
+        Gradient,
+        Vegas
+    }
+
+    private final Map<String, ThrottlingState> states = new ConcurrentHashMap<>();
+    private final LongAdder delayedCounter = new LongAdder();
+    private final LongAdder rejectedCounter = new LongAdder();
+    private final LongAdder droppedCounter = new LongAdder();
+    private final LongAdder evictedCounter = new LongAdder();
+    private ScheduledFuture<?> evictionTask;
+    private LimitAlgorithm limitAlgorithm = LimitAlgorithm.Gradient;
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private double backoffRatio = 0.9;
+
+    public AdaptiveConcurrencyThrottler(final CamelContext camelContext, final Expression maxRequestsExpression,
+                                        final ScheduledExecutorService asyncExecutor, final boolean shutdownAsyncExecutor,
+                                        final boolean rejectExecution, Expression correlation) {
+        super(asyncExecutor, shutdownAsyncExecutor, camelContext, rejectExecution, correlation, maxRequestsExpression);
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            String key = DEFAULT_KEY;
+            if (correlationExpression != null) {
+                key = correlationExpression.evaluate(exchange, String.class);
+            }
+            int max = evaluateMaximumRequests(exchange);
+            ThrottlingState state;
+            boolean acquired;
+            while (true) {
+                state = states.computeIfAbsent(key, ThrottlingState::new);
+                if (!state.used) {
+                    state.used = true;
+                }
+                state.setMaxLimit(max);
+                acquired = state.tryAcquire();
+                if (acquired || !state.isEvicted()) {
+                    break;
+                }
+                // the state was evicted concurrently so try again with a new state
+                states.remove(key, state);
+            }
+
+            if (acquired) {
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                }
+                state.onAcquired(exchange);
+                callback.done(true);
+                return true;
+            }
+
+            if (isRejectExecution()) {
+                state.rejected.increment();
+                rejectedCounter.increment();
+                throw new ThrottlerRejectedExecutionException(
+                        "Exceeded the adaptive concurrency limit of " + state.getLimit());
+            }
+
+            delayedCounter.increment();
+            state.delayed.increment();
+            if (isAsyncDelayed() && !exchange.isTransacted()) {
+                Waiter waiter = new Waiter(exchange, callback, state);
+                if (state.enqueue(waiter)) {
+                    // the waiter is continued by the exchange releasing its permit
+                    return false;
+                }
+                // a permit was released in the meantime
+                state.onAcquired(exchange);
+                callback.done(true);
+                return true;
+            }
+
+            // block the current thread until a permit is released
+            long start = System.nanoTime();
+            state.acquire();
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        exchange.getExchangeId());
+            }
+            state.onAcquired(exchange);
+            callback.done(true);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return handleInterrupt(exchange, callback, e, true);
+        } catch (Exception e) {
+            return handleException(exchange, callback, e, true);
+        }
+    }
+
+    private int evaluateMaximumRequests(Exchange exchange) {
+        Integer max = getMaximumRequestsExpression().evaluate(exchange, Integer.class);
+        if (max == null) {
+            throw new RuntimeExchangeException(
+                    "The maxConcurrentRequestsExpression was evaluated as null: " + getMaximumRequestsExpression(),
+                    exchange);
+        }
+        if (max <= 0) {
+            throw new IllegalStateException("The maximumConcurrentRequests must be a positive number, was: " + max);
+        }
+        return max;
+    }
+
+    /**
+     * Whether the exchange failed because the downstream is overloaded, which decreases the limit right away
+     */
+    protected boolean isDropped(Exchange exchange) {
+        Exception cause = exchange.getException();
+        if (cause == null) {
+            // the exception may have been handled by an error handler
+            cause = exchange.getProperty(ExchangePropertyKey.EXCEPTION_CAUGHT, Exception.class);
+        }
+        return cause != null
+                && (ObjectHelper.getException(ExchangeTimedOutException.class, cause) != null
+                        || ObjectHelper.getException(TimeoutException.class, cause) != null
+                        || ObjectHelper.getException(RejectedExecutionException.class, cause) != null);
+    }
+
+    private void continueRouting(Waiter waiter) {
+        waiter.state.onAcquired(waiter.exchange);
+        try {
+            asyncExecutor.execute(() -> waiter.callback.done(false));
+        } catch (RejectedExecutionException e) {
+            if (!isCallerRunsWhenRejected()) {
+                waiter.exchange.setException(e);
+            } else if (LOG.isDebugEnabled()) {
+                LOG.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}",
+                        waiter.exchange.getExchangeId());
+            }
+            waiter.callback.done(false);
+        }
+    }
+
+    /**
+     * Evicts the states of the keys that are idle, which is when no exchanges are in flight or waiting, and the key has
+     * not been used since the previous eviction.
+     *
+     * @return the number of evicted keys
+     */
+    public int evictIdle() {
+        int evicted = 0;
+        for (ThrottlingState state : states.values()) {
+            if (state.evict()) {
+                states.remove(state.getKey(), state);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictedCounter.add(evicted);
+            LOG.trace("Evicted {} idle throttling keys", evicted);
+        }
+        return evicted;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (isAsyncDelayed()) {
+            ObjectHelper.notNull(asyncExecutor, "executorService", this);
+        }
+        if (initialLimit < minLimit) {
+            throw new IllegalArgumentException(
+                    "InitialLimit must not be lower than minLimit, was: " + initialLimit + " < " + minLimit);
+        }
+        if (asyncExecutor != null) {
+            evictionTask = asyncExecutor.scheduleWithFixedDelay(this::evictIdle, EVICT_PERIOD, EVICT_PERIOD,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+            evictionTask = null;
+        }
+    }
+
+    @Override
+    protected void doShutdown() throws Exception {
+        if (shutdownAsyncExecutor && asyncExecutor != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(asyncExecutor);
+        }
+        states.clear();
+        super.doShutdown();
+    }
+
+    private record Waiter(Exchange exchange, AsyncCallback callback, ThrottlingState state) {
+    }
+
+    private static final class Blocked {
+        // whether a permit has been handed over to the blocked thread (guarded by the lock of the state)
+        private boolean granted;
+    }
+
+    /**
+     * The throttling state of a key, which is the current limit, the exchanges in flight and waiting, and the RTT
+     * estimates.
+     */
+    public final class ThrottlingState {
+        private final String key;
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        // the exchanges waiting in line for a permit, either a waiter or a blocked thread (guarded by lock)
+        private final Deque<Object> waiting = new ArrayDeque<>();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private volatile int waitingCount;
+        // whether the key has been used since the previous eviction
+        private volatile boolean used;
+        private volatile int maxLimit;
+        private volatile double limit;
+        // the RTT estimates in nanos (guarded by this)
+        private double rtt;
+        private double longRtt;
+        private long minRtt;
+        private long samples;
+
+        ThrottlingState(String key) {
+            this.key = key;
+        }
+
+        void setMaxLimit(int max) {
+            if (max != maxLimit) {
+                synchronized (this) {
+                    if (maxLimit == 0) {
+                        limit = Math.max(minLimit, Math.min(initialLimit, max));
+                    } else if (limit > max) {
+                        limit = max;
+                    }
+                    maxLimit = max;
+                }
+                // more exchanges may be allowed
+                release(false);
+            }
+        }
+
+        boolean tryAcquire() {
+            if (waitingCount > 0) {
+                // do not overtake the exchanges waiting in line
+                return false;
+            }
+            return tryIncrement();
+        }
+
+        private boolean tryIncrement() {
+            while (true) {
+                int current = inflight.get();
+                if (current == EVICTED || current >= (int) limit) {
+                    return false;
+                }
+                if (inflight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Puts the waiter in line for a permit
+         *
+         * @return false if a permit was acquired right away, and the waiter was not put in line
+         */
+        boolean enqueue(Waiter waiter) {
+            List<Waiter> granted;
+            lock.lock();
+            try {
+                revive();
+                waiting.add(waiter);
+                waitingCount++;
+                granted = grant();
+            } finally {
+                lock.unlock();
+            }
+            return continueGranted(granted, waiter);
+        }
+
+        /**
+         * Blocks until a permit is acquired
+         */
+        void acquire() throws InterruptedException {
+            Blocked blocked = new Blocked();
+            List<Waiter> granted;
+            InterruptedException interrupted = null;
+            lock.lock();
+            try {
+                revive();
+                waiting.add(blocked);
+                waitingCount++;
+                granted = grant();
+                try {
+                    while (!blocked.granted) {
+                        released.await();
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = e;
+                    if (blocked.granted) {
+                        // a permit was handed over already so give it back
+                        inflight.decrementAndGet();
+                        granted.addAll(grant());
+                    } else {
+                        waiting.remove(blocked);
+                        waitingCount--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            continueGranted(granted, null);
+            if (interrupted != null) {
+                throw interrupted;
+            }
+        }
+
+        /**
+         * Evicts this state if no exchanges are in flight or waiting, and it has not been used since the previous
+         * eviction
+         *
+         * @return true if evicted
+         */
+        boolean evict() {
+            if (used) {
+                used = false;
+                return false;
+            }
+            lock.lock();
+            try {
+                return waitingCount == 0 && inflight.compareAndSet(0, EVICTED);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isEvicted() {
+            return inflight.get() == EVICTED;
+        }
+
+        /**
+         * Makes this state usable again, if it was evicted after refusing a permit to an exchange which is now put in
+         * line (must hold the lock). The state is then used on its own, until its exchanges are done.
+         */
+        private void revive() {
+            inflight.compareAndSet(EVICTED, 0);
+        }
+
+        /**
+         * Hands over the permits available to the exchanges waiting in line, in order (must hold the lock)
+         */
+        private List<Waiter> grant() {
+            List<Waiter> granted = null;
+            boolean signal = false;
+            while (!waiting.isEmpty() && tryIncrement()) {
+                Object next = waiting.poll();
+                waitingCount--;
+                if (next instanceof Waiter waiter) {
+                    if (granted == null) {
+                        granted = new ArrayList<>();
+                    }
+                    granted.add(waiter);
+                } else {
+                    ((Blocked) next).granted = true;
+                    signal = true;
+                }
+            }
+            if (signal) {
+                released.signalAll();
+            }
+            return granted != null ? granted : new ArrayList<>(0);
+        }
+
+        /**
+         * Continues routing the waiters which were handed over a permit (outside the lock)
+         *
+         * @return false if the given waiter was one of them, so the caller continues routing it
+         */
+        private boolean continueGranted(List<Waiter> granted, Waiter self) {
+            boolean answer = true;
+            for (Waiter waiter : granted) {
+                if (waiter == self) {
+                    answer = false;
+                } else {
+                    continueRouting(waiter);
+                }
+            }
+            return answer;
+        }
+
+        void onAcquired(Exchange exchange) {
+            passed.increment();
+            final long start = System.nanoTime();
+            exchange.getExchangeExtension().addOnCompletion(new Synchronization() {
+                @Override
+                public void onComplete(Exchange exchange) {
+                    onSample(System.nanoTime() - start, isDropped(exchange));
+                    release(true);
+                }
+
+                @Override
+                public void onFailure(Exchange exchange) {
+                    onSample(System.nanoTime() - start, isDropped(exchange));
+                    release(true);
+                }
+            });
+        }
+
+        private void release(boolean permit) {
+            if (permit) {
+                inflight.decrementAndGet();
+            }
+            if (waitingCount > 0) {
+                List<Waiter> granted;
+                lock.lock();
+                try {
+                    granted = grant();
+                } finally {
+                    lock.unlock();
+                }
+                continueGranted(granted, null);
+            }
+        }
+
+        synchronized void onSample(long sample, boolean drop) {
+            sample = Math.max(1, sample);
+            samples++;
+            rtt = rtt == 0 ? sample : rtt * 0.9 + sample * 0.1;
+            if (minRtt == 0 || sample < minRtt) {
+                minRtt = sample;
+            }
+            if (drop) {
+                dropped.increment();
+                droppedCounter.increment();
+            }
+
+            // the exchange completing still counts as in flight when the limit is adjusted
+            int current = inflight.get();
+            double old = limit;
+            double updated = switch (limitAlgorithm) {
+                case Aimd -> aimd(current, drop);
+                case Gradient -> gradient(sample, current, drop);
+                case Vegas -> vegas(sample, current, drop);
+            };
+            limit = Math.max(minLimit, Math.min(maxLimit, updated));
+            if (LOG.isTraceEnabled() && (int) old != (int) limit) {
+                LOG.trace("Adaptive concurrency limit of key {} changed from {} to {} (rtt: {}ms)", key, (int) old,
+                        (int) limit, TimeUnit.NANOSECONDS.toMillis(sample));
+            }
+        }
+
+        private double aimd(int current, boolean drop) {
+            if (drop) {
+                return limit * backoffRatio;
+            }
+            // only increase the limit when it is actually used
+            if (current * 2 >= limit) {
+                return limit + 1;
+            }
+            return limit;
+        }
+
+        private double gradient(long sample, int current, boolean drop) {
+            // the long term average RTT, which is the baseline the current RTT is compared with
+            longRtt = longRtt == 0 ? sample : longRtt * 0.99 + sample * 0.01;
+            if (longRtt / rtt > 2) {
+                // the RTT has gone down a lot, so let the baseline recover faster
+                longRtt = longRtt * 0.95;
+            }
+            if (drop) {
+                return limit * 0.5;
+            }
+            // allow some queueing, so the limit can probe higher
+            double queueSize = Math.sqrt(limit);
+            double gradient = Math.max(0.5, Math.min(1.0, 1.5 * longRtt / rtt));
+            double updated = limit * gradient + queueSize;
+            if (updated > limit && current * 2 < limit) {
+                // do not increase the limit when it is not used
+                return limit;
+            }
+            // smooth the changes, as a single slow exchange should not drop the limit
+            return limit * 0.8 + updated * 0.2;
+        }
+
+        private double vegas(long sample, int current, boolean drop) {
+            if (samples % (1000L * Math.max(1, (int) limit)) == 0) {
+                // probe the RTT with no load from time to time, as the downstream may have become slower for good
+                minRtt = sample;
+            }
+            double log = Math.max(1, Math.log10(limit));
+            if (drop) {
+                return limit - log;
+            }
+            if (current * 2 < limit) {
+                return limit;
+            }
+            // the number of exchanges queued downstream, estimated from the RTT compared to the RTT with no load
+            double queueSize = Math.ceil(limit * (1 - (double) minRtt / sample));
+            if (queueSize <= log) {
+                return limit + 6 * log;
+            } else if (queueSize < 3 * log) {
+                return limit + log;
+            } else if (queueSize > 6 * log) {
+                return limit - log;
+            }
+            return limit;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * The current concurrency limit
+         */
+        public int getLimit() {
+            return (int) limit;
+        }
+
+        /**
+         * The maximum concurrency limit
+         */
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        /**
+         * Number of exchanges in flight
+         */
+        public int getInflight() {
+            return Math.max(0, inflight.get());
+        }
+
+        /**
+         * Number of exchanges waiting for a permit
+         */
+        public int getWaiting() {
+            return waitingCount;
+        }
+
+        /**
+         * The smoothed round trip time in millis
+         */
+        public synchronized double getRttMillis() {
+            return rtt / 1_000_000;
+        }
+
+        /**
+         * The minimum round trip time in millis
+         */
+        public synchronized double getMinRttMillis() {
+            return minRtt / 1_000_000d;
+        }
+
+        /**
+         * Number of exchanges that passed
+         */
+        public long getPassedCount() {
+            return passed.sum();
+        }
+
+        /**
+         * Number of exchanges that was delayed
+         */
+        public long getDelayedCount() {
+            return delayed.sum();
+        }
+
+        /**
+         * Number of exchanges that was rejected
+         */
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+
+        /**
+         * Number of exchanges that failed with a timeout, which decreases the limit right away
+         */
+        public long getDroppedCount() {
+            return dropped.sum();
+        }
+
+        void reset() {
+            passed.reset();
+            delayed.reset();
+            rejected.reset();
+            dropped.reset();
+        }
+    }
+
+    @Override
+    public String getMode() {
+        return "AdaptiveConcurrency";
+    }
+
+    /**
+     * Gets the current concurrency limit. If it is grouped throttling applied with correlationExpression then the
+     * highest limit within the group will return
+     */
+    @Override
+    public int getCurrentMaximumRequests() {
+        return states.values().stream().mapToInt(ThrottlingState::getLimit).max().orElse(0);
+    }
+
+    public LimitAlgorithm getLimitAlgorithm() {
+        return limitAlgorithm;
+    }
+
+    /**
+     * The algorithm to adjust the concurrency limit with
+     */
+    public void setLimitAlgorithm(LimitAlgorithm limitAlgorithm) {
+        this.limitAlgorithm = limitAlgorithm;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * The concurrency limit to start with, before any latency has been observed. Is by default 20, or the maximum
+     * requests if lower.
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * The minimum concurrency limit. Is by default 1.
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * The ratio the limit is multiplied by when an exchange failed with a timeout, when using the AIMD algorithm. Is by
+     * default 0.9.
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * The throttling states of the keys currently in use
+     */
+    public Collection<ThrottlingState> getThrottlingStates() {
+        return Collections.unmodifiableCollection(states.values());
+    }
+
+    /**
+     * Number of keys currently in use
+     */
+    public int getKeyCount() {
+        return states.size();
+    }
+
+    /**
+     * Number of exchanges currently in flight
+     */
+    public int getInflight() {
+        return states.values().stream().mapToInt(ThrottlingState::getInflight).sum();
+    }
+
+    /**
+     * The smoothed round trip time in millis. If it is grouped throttling applied with correlationExpression then the
+     * highest within the group will return
+     */
+    public double getRttMillis() {
+        return states.values().stream().mapToDouble(ThrottlingState::getRttMillis).max().orElse(0);
+    }
+
+    /**
+     * The minimum round trip time in millis. If it is grouped throttling applied with correlationExpression then the
+     * highest within the group will return
+     */
+    public double getMinRttMillis() {
+        return states.values().stream().mapToDouble(ThrottlingState::getMinRttMillis).max().orElse(0);
+    }
+
+    /**
+     * Number of exchanges that was delayed
+     */
+    public long getDelayedCount() {
+        return delayedCounter.sum();
+    }
+
+    /**
+     * Number of exchanges that was rejected
+     */
+    public long getRejectedCount() {
+        return rejectedCounter.sum();
+    }
+
+    /**
+     * Number of exchanges that failed with a timeout, which decreases the limit right away
+     */
+    public long getDroppedCount() {
+        return droppedCounter.sum();
+    }
+
+    /**
+     * Number of idle keys that has been evicted
+     */
+    public long getEvictedCount() {
+        return evictedCounter.sum();
+    }
+
+    /**
+     * Reset the statistics
+     */
+    public void reset() {
+        delayedCounter.reset();
+        rejectedCounter.reset();
+        droppedCounter.reset();
+        evictedCounter.reset();
+        states.values().forEach(ThrottlingState::reset);
+    }
+
+    @Override
+    public String getTraceLabel() {
+        return "throttle[adaptive " + getMaximumRequestsExpression() + "]";
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
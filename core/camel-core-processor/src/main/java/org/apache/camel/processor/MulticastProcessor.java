@@ -75,6 +75,7 @@ import org.apache.camel.util.CastUtils;
 import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.StopWatch;
 import org.apache.camel.util.concurrent.AsyncCompletionService;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -163,11 +164,13 @@ public class MulticastProcessor extends AsyncProcessorSupport
     private final AggregationStrategy aggregationStrategy;
     private final boolean parallelProcessing;
     private boolean synchronous;
+    private int maxInFlight;
     private final boolean streaming;
     private final boolean parallelAggregate;
     private final boolean stopOnException;
     private final ExecutorService executorService;
     private final boolean shutdownExecutorService;
+    private final boolean threadPerTask;
     private final Scheduler scheduler = new Scheduler();
     private ExecutorService aggregateExecutorService;
     private boolean shutdownAggregateExecutorService;
@@ -203,6 +206,7 @@ public class MulticastProcessor extends AsyncProcessorSupport
         this.aggregationStrategy = aggregationStrategy;
         this.executorService = executorService;
         this.shutdownExecutorService = shutdownExecutorService;
+        this.threadPerTask = executorService instanceof ThreadPerTaskExecutorService;
         this.streaming = streaming;
         this.stopOnException = stopOnException;
         // must enable parallel if executor service is provided
@@ -274,6 +278,24 @@ public class MulticastProcessor extends AsyncProcessorSupport
         this.synchronous = synchronous;
     }
 
+    /**
+     * The maximum number of exchanges which are in-flight (sent but not yet aggregated) when using parallel processing,
+     * or 0 for no limit.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Sets the maximum number of exchanges which are in-flight (sent but not yet aggregated) when using parallel
+     * processing. When the limit is reached then no more exchanges are taken from the iterator, until an in-flight
+     * exchange has been aggregated. The replies are aggregated in the original order (also in streaming mode), so
+     * together with streaming mode this bounds the memory used regardless of the number of exchanges.
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
     @Override
     protected void doBuild() throws Exception {
         if (processorExchangeFactory != null) {
@@ -347,7 +369,7 @@ public class MulticastProcessor extends AsyncProcessorSupport
                 ? new MulticastTransactedTask(exchange, pairs, callback, size)
                 : new MulticastReactiveTask(exchange, pairs, callback, size);
         if (isParallelProcessing()) {
-            executorService.submit(() -> reactiveExecutor.schedule(state));
+            submitParallelTask(() -> reactiveExecutor.schedule(state));
         } else {
             if (exchange.isTransacted()) {
                 reactiveExecutor.scheduleQueue(state);
@@ -365,12 +387,21 @@ public class MulticastProcessor extends AsyncProcessorSupport
     protected void schedule(Runnable runnable) {
         if (isParallelProcessing()) {
             Runnable task = prepareParallelTask(runnable);
-            executorService.submit(() -> reactiveExecutor.schedule(task));
+            submitParallelTask(() -> reactiveExecutor.schedule(task));
         } else {
             reactiveExecutor.schedule(runnable);
         }
     }
 
+    private void submitParallelTask(Runnable task) {
+        if (threadPerTask) {
+            // each task runs on its own (virtual) thread so there is no need for a future
+            executorService.execute(task);
+        } else {
+            executorService.submit(task);
+        }
+    }
+
     private Runnable prepareParallelTask(Runnable runnable) {
         Runnable answer = runnable;
 
@@ -415,6 +446,7 @@ public class MulticastProcessor extends AsyncProcessorSupport
         final AtomicInteger nbAggregated = new AtomicInteger();
         final AtomicBoolean allSent = new AtomicBoolean();
         final AtomicBoolean done = new AtomicBoolean();
+        final AtomicBoolean paused = new AtomicBoolean();
         final Map<String, String> mdc;
         final ScheduledFuture<?> timeoutTask;
 
@@ -436,10 +468,15 @@ public class MulticastProcessor extends AsyncProcessorSupport
             } else {
                 this.mdc = null;
             }
+            // when the in-flight exchanges are bounded, then the replies are always aggregated in order
+            // as the completion service is then a reorder buffer of at most max in-flight exchanges
+            boolean ordered = !isStreaming() || isInFlightBounded();
             if (capacity > 0) {
-                this.completion = new AsyncCompletionService<>(scheduler, !isStreaming(), lock, capacity);
+                this.completion = new AsyncCompletionService<>(scheduler, ordered, lock, capacity);
+            } else if (isInFlightBounded()) {
+                this.completion = new AsyncCompletionService<>(scheduler, ordered, lock, maxInFlight);
             } else {
-                this.completion = new AsyncCompletionService<>(scheduler, !isStreaming(), lock);
+                this.completion = new AsyncCompletionService<>(scheduler, ordered, lock);
             }
         }
 
@@ -600,6 +637,11 @@ public class MulticastProcessor extends AsyncProcessorSupport
                         // aggregate exchanges if any
                         aggregate();
 
+                        // continue taking exchanges from the iterator if the window was full
+                        if (isInFlightBounded()) {
+                            resume();
+                        }
+
                         // next step
                         if (hasNext && !isParallelProcessing()) {
                             schedule(this);
@@ -608,7 +650,14 @@ public class MulticastProcessor extends AsyncProcessorSupport
                 });
                 // after submitting this pair then move on to the next pair (if in parallel mode)
                 if (hasNext && isParallelProcessing()) {
-                    schedule(this);
+                    if (isInFlightBounded() && nbExchangeSent.get() - nbAggregated.get() >= maxInFlight) {
+                        // the window is full so pause until an in-flight exchange has been aggregated,
+                        // and check again in case it has been aggregated in the meantime
+                        paused.set(true);
+                        resume();
+                    } else {
+                        schedule(this);
+                    }
                 }
             } catch (Exception e) {
                 original.setException(e);
@@ -616,6 +665,13 @@ public class MulticastProcessor extends AsyncProcessorSupport
             }
         }
 
+        private void resume() {
+            if (paused.get() && !done.get() && nbExchangeSent.get() - nbAggregated.get() < maxInFlight
+                    && paused.compareAndSet(true, false)) {
+                schedule(this);
+            }
+        }
+
         private ProcessorExchangePair getNextProcessorExchangePair() {
             ProcessorExchangePair tpair = null;
             while (tpair == null && iterator.hasNext()) {
@@ -1285,6 +1341,17 @@ public class MulticastProcessor extends AsyncProcessorSupport
         return parallelProcessing;
     }
 
+    private boolean isInFlightBounded() {
+        return maxInFlight > 0 && parallelProcessing;
+    }
+
+    /**
+     * Whether parallel tasks runs on a new thread (such as a virtual thread) per task, instead of a thread pool.
+     */
+    public boolean isThreadPerTask() {
+        return threadPerTask;
+    }
+
     public boolean isParallelAggregate() {
         return parallelAggregate;
     }
@@ -182,6 +182,7 @@ public class Pipeline extends AsyncProcessorSupport implements Navigate<Processo
             };
             int capacity = camelContext.getCamelContextExtension().getExchangeFactory().getCapacity();
             taskFactory.setCapacity(capacity);
+            taskFactory.setCamelContext(camelContext);
         } else {
             taskFactory = new PrototypeTaskFactory() {
                 @Override
@@ -18,11 +18,15 @@ package org.apache.camel.processor;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.ExchangeFactoryManager;
 import org.apache.camel.support.PooledObjectFactorySupport;
 
 public abstract class PooledTaskFactory extends PooledObjectFactorySupport<PooledExchangeTask>
         implements PooledExchangeTaskFactory {
 
+    private ExchangeFactoryManager exchangeFactoryManager;
+
     public PooledTaskFactory() {
     }
 
@@ -30,6 +34,35 @@ public abstract class PooledTaskFactory extends PooledObjectFactorySupport<Poole
         super(source);
     }
 
+    @Override
+    protected void doBuild() throws Exception {
+        if (camelContext != null) {
+            ExchangeFactory ef = camelContext.getCamelContextExtension().getExchangeFactory();
+            if (ef.isDeepPooling()) {
+                // when deep pooling then the tasks are managed (and with statistics) together with the exchange factories
+                setStatisticsEnabled(ef.isStatisticsEnabled());
+                exchangeFactoryManager = camelContext.getCamelContextExtension().getExchangeFactoryManager();
+            }
+        }
+        super.doBuild();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (exchangeFactoryManager != null) {
+            exchangeFactoryManager.addPooledObjectFactory(this);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (exchangeFactoryManager != null) {
+            exchangeFactoryManager.removePooledObjectFactory(this);
+        }
+    }
+
     @Override
     public PooledExchangeTask acquire() {
         return pool.poll();
@@ -32,6 +32,7 @@ import org.apache.camel.Navigate;
 import org.apache.camel.Processor;
 import org.apache.camel.Traceable;
 import org.apache.camel.processor.resequencer.ResequencerEngine;
+import org.apache.camel.processor.resequencer.RingBufferResequencerEngine;
 import org.apache.camel.processor.resequencer.SequenceElementComparator;
 import org.apache.camel.processor.resequencer.SequenceSender;
 import org.apache.camel.spi.ExceptionHandler;
@@ -77,6 +78,8 @@ public class StreamResequencer extends AsyncProcessorSupport
     private int capacity;
     private boolean ignoreInvalidExchanges;
     private long deliveryAttemptInterval = 1000L;
+    private boolean ringBuffer;
+    private RingBufferResequencerEngine<Exchange> ringEngine;
 
     /**
      * Creates a new {@link StreamResequencer} instance.
@@ -153,6 +156,25 @@ public class StreamResequencer extends AsyncProcessorSupport
         return ignoreInvalidExchanges;
     }
 
+    public boolean isRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Sets whether to use a ring buffer indexed by the sequence number instead of a sorted set. This requires the
+     * sequence numbers to be dense <code>long</code> values (gaps occupy capacity until they time out), but inserting
+     * and delivering exchanges are constant time operations. When the ring buffer is full the caller is blocked until
+     * the window has moved far enough to hold the exchange. An exchange with a sequence number behind the window is
+     * invalid, and is ignored when {@link #setIgnoreInvalidExchanges(boolean)} is enabled.
+     * <p/>
+     * The ring buffer uses the <code>expression</code> to obtain the sequence number, and does not use the comparator.
+     *
+     * @see RingBufferResequencerEngine
+     */
+    public void setRingBuffer(boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
     public void setRejectOld(Boolean rejectOld) {
         engine.setRejectOld(rejectOld);
     }
@@ -215,7 +237,15 @@ public class StreamResequencer extends AsyncProcessorSupport
     protected void doStart() throws Exception {
         ServiceHelper.startService(processor);
         delivery = new Delivery();
-        engine.start();
+        if (ringBuffer) {
+            ringEngine = new RingBufferResequencerEngine<>(this::sequenceNumber, capacity);
+            ringEngine.setTimeout(engine.getTimeout());
+            ringEngine.setRejectOld(engine.getRejectOld());
+            ringEngine.setSequenceSender(this);
+            ringEngine.start();
+        } else {
+            engine.start();
+        }
         delivery.start();
     }
 
@@ -223,7 +253,11 @@ public class StreamResequencer extends AsyncProcessorSupport
     protected void doStop() throws Exception {
         // let's stop everything in the reverse order
         // no need to stop the worker thread -- it will stop automatically when this service is stopped
-        engine.stop();
+        if (ringEngine != null) {
+            ringEngine.stop();
+        } else {
+            engine.stop();
+        }
         ServiceHelper.stopService(processor);
     }
 
@@ -237,8 +271,19 @@ public class StreamResequencer extends AsyncProcessorSupport
         processor.process(exchange);
     }
 
+    private long sequenceNumber(Exchange exchange) {
+        Long answer = expression.evaluate(exchange, Long.class);
+        if (answer == null) {
+            throw new IllegalArgumentException("Exchange has no sequence number: " + exchange);
+        }
+        return answer;
+    }
+
     @Override
     public boolean process(Exchange exchange, AsyncCallback callback) {
+        if (ringEngine != null) {
+            return processRingBuffer(exchange, callback);
+        }
         try {
             engine.waitUntil(s -> s.size() < capacity);
         } catch (InterruptedException e) {
@@ -267,6 +312,30 @@ public class StreamResequencer extends AsyncProcessorSupport
         return true;
     }
 
+    private boolean processRingBuffer(Exchange exchange, AsyncCallback callback) {
+        try {
+            // need to make defensive copy that are put on the sequencer queue
+            Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, true);
+            // blocks while the ring buffer is full
+            ringEngine.insert(copy);
+            delivery.request();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // we were interrupted so break out
+            exchange.setException(e);
+        } catch (Exception e) {
+            if (isIgnoreInvalidExchanges()) {
+                LOG.debug("Invalid Exchange. This Exchange will be ignored: {}", exchange);
+            } else {
+                exchange.setException(
+                        new CamelExchangeException("Error processing Exchange in StreamResequencer", exchange, e));
+            }
+        }
+
+        callback.done(true);
+        return true;
+    }
+
     @Override
     public boolean hasNext() {
         return processor != null;
@@ -306,7 +375,11 @@ public class StreamResequencer extends AsyncProcessorSupport
                     break;
                 }
                 try {
-                    engine.deliver();
+                    if (ringEngine != null) {
+                        ringEngine.deliver();
+                    } else {
+                        engine.deliver();
+                    }
                 } catch (Exception t) {
                     // a fail-safe to handle all exceptions being thrown
                     getExceptionHandler().handleException(t);
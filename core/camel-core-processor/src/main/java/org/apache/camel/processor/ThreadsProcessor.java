@@ -29,6 +29,7 @@ import org.apache.camel.spi.RouteIdAware;
 import org.apache.camel.support.AsyncProcessorSupport;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.concurrent.Rejectable;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
 import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,7 @@ public class ThreadsProcessor extends AsyncProcessorSupport implements IdAware,
     private final ExecutorService executorService;
     private final ThreadPoolRejectedPolicy rejectedPolicy;
     private final boolean shutdownExecutorService;
+    private final boolean threadPerTask;
     private final AtomicBoolean shutdown = new AtomicBoolean(true);
 
     private final class ProcessCall implements Runnable, Rejectable {
@@ -108,6 +110,7 @@ public class ThreadsProcessor extends AsyncProcessorSupport implements IdAware,
         this.executorService = executorService;
         this.shutdownExecutorService = shutdownExecutorService;
         this.rejectedPolicy = rejectedPolicy;
+        this.threadPerTask = executorService instanceof ThreadPerTaskExecutorService;
     }
 
     @Override
@@ -129,7 +132,12 @@ public class ThreadsProcessor extends AsyncProcessorSupport implements IdAware,
             // process the call in asynchronous mode
             ProcessCall call = new ProcessCall(exchange, callback, false);
             LOG.trace("Submitting task {}", call);
-            executorService.submit(call);
+            if (threadPerTask) {
+                // each exchange continues on its own (virtual) thread so there is no need for a future
+                executorService.execute(call);
+            } else {
+                executorService.submit(call);
+            }
             // tell Camel routing engine we continue routing asynchronous
             return false;
         } catch (Exception e) {
@@ -176,6 +184,13 @@ public class ThreadsProcessor extends AsyncProcessorSupport implements IdAware,
         this.routeId = routeId;
     }
 
+    /**
+     * Whether each exchange is continued routed on a new thread (such as a virtual thread), instead of a thread pool.
+     */
+    public boolean isThreadPerTask() {
+        return threadPerTask;
+    }
+
     public ThreadPoolRejectedPolicy getRejectedPolicy() {
         return rejectedPolicy;
     }
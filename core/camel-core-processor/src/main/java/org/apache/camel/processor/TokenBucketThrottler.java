@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.RuntimeExchangeException;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A <a href="http://camel.apache.org/throttler.html">Throttler</a> will set a limit on the maximum number of message
+ * exchanges which can be sent to a processor within a specific time period.
+ * <p/>
+ * This implementation uses a token bucket in the form of the generic cell rate algorithm (GCRA). Each throttling key
+ * only keeps the theoretical arrival time of the next request, from which the time the next request is allowed is
+ * computed arithmetically. A request that arrives too early is given a reserved slot in the future, and is delayed
+ * until then. With async delayed enabled, the delayed exchange is scheduled on the async executor and no thread is
+ * occupied while waiting. Up to maximumRequests can be sent at once (the bucket is full), and after that they are
+ * spread evenly over the time period.
+ * <p/>
+ * A key whose bucket is full again holds no information, and is therefore evicted from memory when idle, which allows
+ * throttling by many correlation keys with bounded memory.
+ */
+public class TokenBucketThrottler extends AbstractThrottler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenBucketThrottler.class);
+
+    private static final long EVICTED = Long.MIN_VALUE;
+    private static final long REJECTED = -1;
+    private static final long RETRY = -2;
+
+    private volatile long timePeriodMillis;
+    private final Map<String, ThrottlingState> states = new ConcurrentHashMap<>();
+    private final LongAdder delayedCounter = new LongAdder();
+    private final LongAdder rejectedCounter = new LongAdder();
+    private final LongAdder evictedCounter = new LongAdder();
+    private ScheduledFuture<?> evictionTask;
+
+    public TokenBucketThrottler(final CamelContext camelContext, final Expression maxRequestsExpression,
+                                final long timePeriodMillis,
+                                final ScheduledExecutorService asyncExecutor, final boolean shutdownAsyncExecutor,
+                                final boolean rejectExecution, Expression correlation) {
+        super(asyncExecutor, shutdownAsyncExecutor, camelContext, rejectExecution, correlation, maxRequestsExpression);
+
+        if (timePeriodMillis <= 0) {
+            throw new IllegalArgumentException("TimePeriodMillis should be a positive number, was: " + timePeriodMillis);
+        }
+        this.timePeriodMillis = timePeriodMillis;
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            String key = DEFAULT_KEY;
+            if (correlationExpression != null) {
+                key = correlationExpression.evaluate(exchange, String.class);
+            }
+            int max = evaluateMaximumRequests(exchange);
+
+            final long now = System.nanoTime();
+            ThrottlingState state;
+            long delay;
+            while (true) {
+                state = states.computeIfAbsent(key, k -> new ThrottlingState(k, now));
+                delay = state.acquire(max, now);
+                if (delay != RETRY) {
+                    break;
+                }
+                // the state was evicted concurrently so try again with a new state
+                states.remove(key, state);
+            }
+
+            if (delay == REJECTED) {
+                rejectedCounter.increment();
+                throw new ThrottlerRejectedExecutionException(
+                        "Exceeded the max throttle rate of " + max + " within " + timePeriodMillis + "ms");
+            }
+            if (delay == 0) {
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                }
+                callback.done(true);
+                return true;
+            }
+
+            delayedCounter.increment();
+            if (isAsyncDelayed() && !exchange.isTransacted()) {
+                try {
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Throttled for {}ms (async), exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay),
+                                exchange.getExchangeId());
+                    }
+                    // the slot is already reserved so we only need to continue routing when it is due
+                    asyncExecutor.schedule(() -> callback.done(false), delay, TimeUnit.NANOSECONDS);
+                    return false;
+                } catch (final RejectedExecutionException e) {
+                    if (!isCallerRunsWhenRejected()) {
+                        throw e;
+                    }
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}",
+                                exchange.getExchangeId());
+                    }
+                }
+            }
+
+            // block the current thread until the slot is due
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay),
+                        exchange.getExchangeId());
+            }
+            TimeUnit.NANOSECONDS.sleep(delay);
+            callback.done(true);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return handleInterrupt(exchange, callback, e, true);
+        } catch (Exception e) {
+            return handleException(exchange, callback, e, true);
+        }
+    }
+
+    private int evaluateMaximumRequests(Exchange exchange) {
+        Integer max = getMaximumRequestsExpression().evaluate(exchange, Integer.class);
+        if (max == null) {
+            throw new RuntimeExchangeException(
+                    "The maxRequestsPerPeriodExpression was evaluated as null: " + getMaximumRequestsExpression(),
+                    exchange);
+        }
+        if (max <= 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + max);
+        }
+        return max;
+    }
+
+    /**
+     * Evicts the states of the keys that are idle, which is when the bucket is full again.
+     *
+     * @return the number of evicted keys
+     */
+    public int evictIdle() {
+        final long now = System.nanoTime();
+        int evicted = 0;
+        for (ThrottlingState state : states.values()) {
+            if (state.evict(now)) {
+                states.remove(state.getKey(), state);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictedCounter.add(evicted);
+            LOG.trace("Evicted {} idle throttling keys", evicted);
+        }
+        return evicted;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (isAsyncDelayed()) {
+            ObjectHelper.notNull(asyncExecutor, "executorService", this);
+        }
+        if (asyncExecutor != null) {
+            long period = Math.max(1000, timePeriodMillis);
+            evictionTask = asyncExecutor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+            evictionTask = null;
+        }
+    }
+
+    @Override
+    protected void doShutdown() throws Exception {
+        if (shutdownAsyncExecutor && asyncExecutor != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(asyncExecutor);
+        }
+        states.clear();
+        super.doShutdown();
+    }
+
+    /**
+     * The throttling state of a key, which is the theoretical arrival time (TAT) of the next request.
+     */
+    public final class ThrottlingState {
+        private final String key;
+        private final AtomicLong tat;
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private volatile int throttleRate;
+
+        ThrottlingState(String key, long now) {
+            this.key = key;
+            this.tat = new AtomicLong(now);
+        }
+
+        /**
+         * Reserves the next slot.
+         *
+         * @return the delay in nanos until the slot is due, {@link #REJECTED} if rejected, or {@link #RETRY} if this
+         *         state has been evicted
+         */
+        long acquire(int max, long now) {
+            final long period = TimeUnit.MILLISECONDS.toNanos(timePeriodMillis);
+            final long interval = Math.max(1, period / max);
+            // the burst tolerance allows max requests at once when the bucket is full
+            final long tolerance = period - interval;
+            throttleRate = max;
+            while (true) {
+                long current = tat.get();
+                if (current == EVICTED) {
+                    return RETRY;
+                }
+                long base = current - now > 0 ? current : now;
+                long delay = base - tolerance - now;
+                if (delay > 0 && isRejectExecution()) {
+                    rejected.increment();
+                    return REJECTED;
+                }
+                if (tat.compareAndSet(current, base + interval)) {
+                    if (delay > 0) {
+                        delayed.increment();
+                        return delay;
+                    }
+                    passed.increment();
+                    return 0;
+                }
+            }
+        }
+
+        boolean evict(long now) {
+            long current = tat.get();
+            return current != EVICTED && current - now <= 0 && tat.compareAndSet(current, EVICTED);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getThrottleRate() {
+            return throttleRate;
+        }
+
+        /**
+         * Number of exchanges that passed without being delayed
+         */
+        public long getPassedCount() {
+            return passed.sum();
+        }
+
+        /**
+         * Number of exchanges that was delayed
+         */
+        public long getDelayedCount() {
+            return delayed.sum();
+        }
+
+        /**
+         * Number of exchanges that was rejected
+         */
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+
+        /**
+         * The time in millis until a new exchange is allowed without being delayed
+         */
+        public long getNextAllowedMillis() {
+            int rate = throttleRate;
+            long current = tat.get();
+            if (rate <= 0 || current == EVICTED) {
+                return 0;
+            }
+            long period = TimeUnit.MILLISECONDS.toNanos(timePeriodMillis);
+            long delay = current - (period - Math.max(1, period / rate)) - System.nanoTime();
+            return delay > 0 ? TimeUnit.NANOSECONDS.toMillis(delay) : 0;
+        }
+
+        void reset() {
+            passed.reset();
+            delayed.reset();
+            rejected.reset();
+        }
+    }
+
+    @Override
+    public String getMode() {
+        return "TokenBucket";
+    }
+
+    /**
+     * Gets the current maximum request per period value. If it is grouped throttling applied with correlationExpression
+     * than the max per period within the group will return
+     */
+    @Override
+    public int getCurrentMaximumRequests() {
+        return states.values().stream().mapToInt(ThrottlingState::getThrottleRate).max().orElse(0);
+    }
+
+    /**
+     * Sets the time period during which the maximum number of requests apply
+     */
+    public void setTimePeriodMillis(final long timePeriodMillis) {
+        this.timePeriodMillis = timePeriodMillis;
+    }
+
+    public long getTimePeriodMillis() {
+        return timePeriodMillis;
+    }
+
+    /**
+     * The throttling states of the keys currently in use
+     */
+    public Collection<ThrottlingState> getThrottlingStates() {
+        return Collections.unmodifiableCollection(states.values());
+    }
+
+    /**
+     * Number of keys currently in use
+     */
+    public int getKeyCount() {
+        return states.size();
+    }
+
+    /**
+     * Number of exchanges that was delayed
+     */
+    public long getDelayedCount() {
+        return delayedCounter.sum();
+    }
+
+    /**
+     * Number of exchanges that was rejected
+     */
+    public long getRejectedCount() {
+        return rejectedCounter.sum();
+    }
+
+    /**
+     * Number of idle keys that has been evicted
+     */
+    public long getEvictedCount() {
+        return evictedCounter.sum();
+    }
+
+    /**
+     * Reset the statistics
+     */
+    public void reset() {
+        delayedCounter.reset();
+        rejectedCounter.reset();
+        evictedCounter.reset();
+        states.values().forEach(ThrottlingState::reset);
+    }
+
+    @Override
+    public String getTraceLabel() {
+        return "throttle[" + this.getMaximumRequestsExpression() + " per: " + timePeriodMillis + "]";
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
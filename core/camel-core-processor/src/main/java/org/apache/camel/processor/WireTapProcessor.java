@@ -330,6 +330,7 @@ public class WireTapProcessor extends AsyncProcessorSupport
             };
             int capacity = camelContext.getCamelContextExtension().getExchangeFactory().getCapacity();
             taskFactory.setCapacity(capacity);
+            taskFactory.setCamelContext(camelContext);
         } else {
             taskFactory = new PrototypeTaskFactory() {
                 @Override
@@ -17,6 +17,9 @@
 package org.apache.camel.processor.aggregate;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -51,6 +55,7 @@ import org.apache.camel.ShutdownRunningTask;
 import org.apache.camel.TimeoutMap;
 import org.apache.camel.Traceable;
 import org.apache.camel.spi.AggregationRepository;
+import org.apache.camel.spi.BatchAggregationRepository;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
@@ -61,11 +66,11 @@ import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.AsyncProcessorSupport;
-import org.apache.camel.support.DefaultTimeoutMap;
 import org.apache.camel.support.ExchangeHelper;
 import org.apache.camel.support.LRUCacheFactory;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.NoLock;
+import org.apache.camel.support.TimingWheelTimeoutMap;
 import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.StopWatch;
@@ -89,6 +94,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
 
     public static final String AGGREGATE_TIMEOUT_CHECKER = "AggregateTimeoutChecker";
     public static final String AGGREGATE_OPTIMISTIC_LOCKING_EXECUTOR = "AggregateOptimisticLockingExecutor";
+    public static final String AGGREGATE_GROUP_COMMIT = "AggregateGroupCommit";
 
     public static final String COMPLETED_BY_SIZE = "size";
     public static final String COMPLETED_BY_PREDICATE = "predicate";
@@ -99,7 +105,9 @@ public class AggregateProcessor extends AsyncProcessorSupport
     public static final String COMPLETED_BY_FORCE = "force";
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
-    private volatile Lock lock;
+    private static final int MAX_SHARDS = 1024;
+    // the correlation groups partitioned into shards each with their own lock (a single shard unless sharding is enabled)
+    private volatile AggregationShard[] aggregationShards;
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final ReactiveExecutor reactiveExecutor;
@@ -118,10 +126,12 @@ public class AggregateProcessor extends AsyncProcessorSupport
     private ScheduledExecutorService optimisticLockingExecutorService;
     private boolean shutdownOptimisticLockingExecutorService;
     private ScheduledExecutorService recoverService;
-    // store correlation key -> exchange id in timeout map
-    private TimeoutMap<String, String> timeoutMap;
     private ExceptionHandler exceptionHandler;
     private AggregationRepository aggregationRepository;
+    private volatile AggregationGroupCommit groupCommit;
+    private ScheduledExecutorService groupCommitExecutorService;
+    // the batches holding the removal of the correlation groups of the completed exchanges (by exchange id)
+    private final Map<String, AggregationGroupCommit.Batch> pendingRemovals = new ConcurrentHashMap<>();
     private Map<String, String> closedCorrelationKeys;
     private final Set<String> batchConsumerCorrelationKeys = new ConcurrentSkipListSet<>();
     private final Set<String> inProgressCompleteExchanges = ConcurrentHashMap.newKeySet();
@@ -202,8 +212,26 @@ public class AggregateProcessor extends AsyncProcessorSupport
             return discarded.get();
         }
 
+        @Override
+        public int getShardCount() {
+            AggregationShard[] shards = aggregationShards;
+            return shards != null ? shards.length : 0;
+        }
+
+        @Override
+        public List<ShardStatistics> getShardStatistics() {
+            AggregationShard[] shards = aggregationShards;
+            return shards != null ? List.<ShardStatistics> of(shards) : Collections.emptyList();
+        }
+
         @Override
         public void reset() {
+            AggregationShard[] shards = aggregationShards;
+            if (shards != null) {
+                for (AggregationShard shard : shards) {
+                    shard.reset();
+                }
+            }
             totalIn.set(0);
             totalCompleted.set(0);
             completedBySize.set(0);
@@ -231,6 +259,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int shards;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -248,6 +277,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
     private boolean forceCompletionOnStop;
     private boolean completeAllOnStop;
     private long completionTimeoutCheckerInterval = 1000;
+    private long groupCommitInterval;
 
     private ProducerTemplate deadLetterProducerTemplate;
     private boolean isRecoverableRepository;
@@ -403,14 +433,22 @@ public class AggregateProcessor extends AsyncProcessorSupport
         removeFlagCompleteAllGroups(copy);
         removeFlagCompleteAllGroupsInclusive(copy);
 
+        AggregationShard shard = shardFor(key);
         List<Exchange> aggregated = null;
-        lock.lock();
+        boolean completeAllGroups;
+        AggregationGroupCommit.Batch commitBatch;
+        shard.lock();
         try {
+            shard.commitBatch = null;
             aggregated = doAggregation(key, copy);
         } catch (CamelExchangeException e) {
             exchange.setException(e);
         } finally {
-            lock.unlock();
+            completeAllGroups = shard.completeAllGroups;
+            shard.completeAllGroups = false;
+            commitBatch = shard.commitBatch;
+            shard.commitBatch = null;
+            shard.unlock();
         }
 
         // we are completed so do that work outside the lock
@@ -419,12 +457,23 @@ public class AggregateProcessor extends AsyncProcessorSupport
             aggregated.forEach(agg -> onSubmitCompletion(key, agg));
         }
 
+        // the aggregation strategy requested to complete all the groups while holding the lock of the shard, where the
+        // group of this key has been completed already
+        if (completeAllGroups) {
+            doForceCompletionOfAllGroups(key);
+        }
+
         // check for the special header to force completion of all groups (inclusive of the message)
         if (isCompleteAllGroupsInclusive(exchange)) {
             removeFlagCompleteAllGroupsInclusive(exchange);
             forceCompletionOfAllGroups();
         }
 
+        if (commitBatch != null) {
+            // the exchange is done when the repository writes of its aggregation have been committed
+            return commitBatch.await(exchange, callback);
+        }
+
         callback.done(sync);
         return sync;
     }
@@ -483,7 +532,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
         String complete = null;
 
         Exchange answer;
-        Exchange originalExchange = aggregationRepository.get(newExchange.getContext(), key);
+        Exchange originalExchange = repositoryGet(key);
         Exchange oldExchange = originalExchange;
 
         Integer size = 1;
@@ -576,7 +625,15 @@ public class AggregateProcessor extends AsyncProcessorSupport
         // check for the special exchange property to force completion of all groups
         if (isCompleteAllGroups(answer)) {
             removeFlagCompleteAllGroups(answer);
-            forceCompletionOfAllGroups();
+            if (aggregationShards.length > 1) {
+                // the group of this key is completed right away (as with a single shard), but the locks of the other
+                // shards cannot be acquired while holding this lock (could deadlock), so the other groups are
+                // completed after the lock has been released
+                forceCompletionOfGroup(key);
+                shardFor(key).completeAllGroups = true;
+            } else {
+                forceCompletionOfAllGroups();
+            }
         } else if (isCompletionOnNewCorrelationGroup() && originalExchange == null) {
             // its a new group so force complete of all existing groups
             forceCompletionOfAllGroups();
@@ -628,7 +685,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
                     batchAnswer = answer;
                     batchOriginalExchange = originalExchange;
                 } else {
-                    batchAnswer = aggregationRepository.get(camelContext, batchKey);
+                    batchAnswer = repositoryGet(batchKey);
                     batchOriginalExchange = batchAnswer;
                 }
 
@@ -664,6 +721,8 @@ public class AggregateProcessor extends AsyncProcessorSupport
                 onOptimisticLockingFailure(oldExchange, newExchange);
                 throw e;
             }
+        } else if (groupCommit != null) {
+            shardFor(key).commitBatch = groupCommit.add(key, newExchange);
         } else {
             aggregationRepository.add(camelContext, key, newExchange);
         }
@@ -781,11 +840,18 @@ public class AggregateProcessor extends AsyncProcessorSupport
 
         // only remove if we have previous added (as we could potentially complete with only 1 exchange)
         // (if we have previous added then we have that as the original exchange)
+        AggregationGroupCommit.Batch removal = null;
         if (original != null) {
             // remove from repository as its completed, we do this first as to trigger any OptimisticLockingException's
-            aggregationRepository.remove(aggregated.getContext(), key, original);
+            if (groupCommit != null) {
+                removal = groupCommit.remove(key, original);
+                shardFor(key).commitBatch = removal;
+            } else {
+                aggregationRepository.remove(aggregated.getContext(), key, original);
+            }
         }
 
+        TimeoutMap<String, String> timeoutMap = shardFor(key).timeoutMap;
         if (!fromTimeout && timeoutMap != null) {
             // cleanup timeout map if it was a incoming exchange which triggered the timeout (and not the timeout checker)
             LOG.trace("Removing correlation key {} from timeout", key);
@@ -810,7 +876,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
             // discard due timeout
             LOG.debug("Aggregation for correlation key {} discarding aggregated exchange: {}", key, aggregated);
             // must confirm the discarded exchange
-            aggregationRepository.confirm(aggregated.getContext(), aggregated.getExchangeId());
+            repositoryConfirm(aggregated.getExchangeId());
             // and remove redelivery state as well
             redeliveryState.remove(aggregated.getExchangeId());
             // the completion was from timeout and we should just discard it
@@ -821,7 +887,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
             // discard due aggregation failed (or by force)
             LOG.debug("Aggregation for correlation key {} discarding aggregated exchange: {}", key, aggregated);
             // must confirm the discarded exchange
-            aggregationRepository.confirm(aggregated.getContext(), aggregated.getExchangeId());
+            repositoryConfirm(aggregated.getExchangeId());
             // and remove redelivery state as well
             redeliveryState.remove(aggregated.getExchangeId());
             // the completion was failed during aggregation and we should just discard it
@@ -829,12 +895,37 @@ public class AggregateProcessor extends AsyncProcessorSupport
         } else {
             // the aggregated exchange should be published (sent out)
             answer = aggregated;
+            if (removal != null) {
+                pendingRemovals.put(answer.getExchangeId(), removal);
+            }
         }
 
         return answer;
     }
 
     private void onSubmitCompletion(final String key, final Exchange exchange) {
+        AggregationGroupCommit.Batch removal = pendingRemovals.remove(exchange.getExchangeId());
+        if (removal == null) {
+            doSubmitCompletion(key, exchange);
+            return;
+        }
+
+        // the removal of the correlation group has not been committed yet, and if the commit fails (or we crash) then
+        // the group is still in the repository and will be completed again, so only send the exchange after the commit
+        removal.whenCommitted(failure -> {
+            if (failure == null) {
+                doSubmitCompletion(key, exchange);
+            } else {
+                getExceptionHandler().handleException(
+                        "Error removing the completed correlation group with key: " + key
+                                                      + " from the AggregationRepository. The aggregated exchange is not sent,"
+                                                      + " as the correlation group is still in the repository.",
+                        exchange, failure);
+            }
+        });
+    }
+
+    private void doSubmitCompletion(final String key, final Exchange exchange) {
         LOG.debug("Aggregation complete for correlation key {} sending aggregated exchange: {}", key, exchange);
 
         // add this as in progress before we submit the task
@@ -910,7 +1001,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
      */
     protected void restoreTimeoutMapFromAggregationRepository() throws Exception {
         // grab the timeout value for each partly aggregated exchange
-        Set<String> keys = aggregationRepository.getKeys();
+        Set<String> keys = repositoryKeys();
         if (keys == null || keys.isEmpty()) {
             return;
         }
@@ -919,8 +1010,10 @@ public class AggregateProcessor extends AsyncProcessorSupport
         LOG.trace("Starting restoring CompletionTimeout for {} existing exchanges from the aggregation repository...",
                 keys.size());
 
-        for (String key : keys) {
-            Exchange exchange = aggregationRepository.get(camelContext, key);
+        Map<String, Exchange> exchanges = repositoryGetAll(keys);
+        for (Map.Entry<String, Exchange> entry : exchanges.entrySet()) {
+            String key = entry.getKey();
+            Exchange exchange = entry.getValue();
             if (exchange != null) {
                 // grab the timeout value
                 long timeout = exchange.getProperty(ExchangePropertyKey.AGGREGATED_TIMEOUT, 0L, long.class);
@@ -934,9 +1027,13 @@ public class AggregateProcessor extends AsyncProcessorSupport
             }
         }
 
+        int restored = 0;
+        for (AggregationShard shard : aggregationShards) {
+            restored += shard.getPendingTimeouts();
+        }
         // log duration of this task so end user can see how long it takes to pre-check this upon starting
         LOG.info("Restored {} CompletionTimeout conditions in the AggregationTimeoutChecker in {}",
-                timeoutMap.size(), TimeUtils.printDuration(watch.taken(), true));
+                restored, TimeUtils.printDuration(watch.taken(), true));
     }
 
     /**
@@ -949,7 +1046,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
     private void addExchangeToTimeoutMap(String key, Exchange exchange, long timeout) {
         // store the timeout value on the exchange as well, in case we need it later
         exchange.setProperty(ExchangePropertyKey.AGGREGATED_TIMEOUT, timeout);
-        timeoutMap.put(key, exchange.getExchangeId(), timeout);
+        shardFor(key).timeoutMap.put(key, exchange.getExchangeId(), timeout);
     }
 
     /**
@@ -1104,6 +1201,33 @@ public class AggregateProcessor extends AsyncProcessorSupport
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Sets the number of shards the correlation groups are partitioned into (is rounded up to a power of two). Each
+     * shard has its own lock and completion timeout index, so correlation groups in different shards can be aggregated
+     * concurrently. The default is 0 (or 1) which uses a single lock for all the correlation groups.
+     */
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public long getGroupCommitInterval() {
+        return groupCommitInterval;
+    }
+
+    /**
+     * Sets the interval in millis to coalesce the writes to the aggregation repository and commit them together (group
+     * commit), using the batch operations if the repository is a {@link BatchAggregationRepository}. Each incoming
+     * exchange continues routing when the writes of its aggregation have been committed. The default is 0 which writes
+     * to the repository for each exchange.
+     */
+    public void setGroupCommitInterval(long groupCommitInterval) {
+        this.groupCommitInterval = groupCommitInterval;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1233,7 +1357,11 @@ public class AggregateProcessor extends AsyncProcessorSupport
             // only confirm if we processed without a problem
             try {
                 boolean confirmed;
-                if (isRecoverableRepository()) {
+                if (groupCommit != null) {
+                    // confirmations which fail to commit are retried by the recover task
+                    groupCommit.confirm(exchangeId);
+                    confirmed = true;
+                } else if (isRecoverableRepository()) {
                     confirmed = ((RecoverableAggregationRepository) aggregationRepository)
                             .confirmWithResult(exchange.getContext(), exchangeId);
                 } else {
@@ -1261,25 +1389,26 @@ public class AggregateProcessor extends AsyncProcessorSupport
     /**
      * Background task that looks for aggregated exchanges which is triggered by completion timeouts.
      */
-    private final class AggregationTimeoutMap extends DefaultTimeoutMap<String, String> {
+    private final class AggregationTimeoutMap extends TimingWheelTimeoutMap<String, String> {
 
-        private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        private final AggregationShard shard;
+
+        private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis,
+                                      AggregationShard shard) {
             // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
             super(executor, requestMapPollTimeMillis, optimisticLocking);
+            this.shard = shard;
             addListener(this::onEviction);
         }
 
         @Override
         protected void purge() {
-            // wait for lock to be created
-            if (lock != null) {
-                // must acquire the shared aggregation lock to be able to purge
-                lock.lock();
-                try {
-                    super.purge();
-                } finally {
-                    lock.unlock();
-                }
+            // must acquire the aggregation lock of the shard to be able to purge
+            shard.lock();
+            try {
+                super.purge();
+            } finally {
+                shard.unlock();
             }
         }
 
@@ -1297,7 +1426,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
 
             // get the aggregated exchange
             boolean evictionStolen = false;
-            Exchange answer = aggregationRepository.get(camelContext, key);
+            Exchange answer = repositoryGet(key);
             if (answer == null) {
                 evictionStolen = true;
             } else {
@@ -1338,42 +1467,49 @@ public class AggregateProcessor extends AsyncProcessorSupport
             LOG.trace("Starting completion interval task");
 
             // trigger completion for all in the repository
-            Set<String> keys = aggregationRepository.getKeys();
+            Set<String> keys = repositoryKeys();
 
             if (keys != null && !keys.isEmpty()) {
-                // must acquire the shared aggregation lock to be able to trigger interval completion
-                lock.lock();
-                try {
-                    for (String key : keys) {
-                        boolean stolenInterval = false;
-                        Exchange exchange = aggregationRepository.get(camelContext, key);
-                        if (exchange == null) {
-                            stolenInterval = true;
-                        } else {
-                            LOG.trace("Completion interval triggered for correlation key: {}", key);
-                            // indicate it was completed by interval
-                            exchange.setProperty(ExchangePropertyKey.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
-                            try {
-                                Exchange answer = onCompletion(key, exchange, exchange, false, false);
-                                if (answer != null) {
-                                    onSubmitCompletion(key, answer);
-                                }
-                            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                                stolenInterval = true;
+                for (ShardKeys shardKeys : keysByShard(keys)) {
+                    completeShard(shardKeys);
+                }
+            }
+
+            LOG.trace("Completion interval task complete");
+        }
+
+        private void completeShard(ShardKeys shardKeys) {
+            // must acquire the aggregation lock of the shard to be able to trigger interval completion
+            shardKeys.shard.lock();
+            try {
+                Map<String, Exchange> exchanges = repositoryGetAll(shardKeys.keys);
+                for (String key : shardKeys.keys) {
+                    boolean stolenInterval = false;
+                    Exchange exchange = exchanges.get(key);
+                    if (exchange == null) {
+                        stolenInterval = true;
+                    } else {
+                        LOG.trace("Completion interval triggered for correlation key: {}", key);
+                        // indicate it was completed by interval
+                        exchange.setProperty(ExchangePropertyKey.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
+                        try {
+                            Exchange answer = onCompletion(key, exchange, exchange, false, false);
+                            if (answer != null) {
+                                onSubmitCompletion(key, answer);
                             }
-                        }
-                        if (optimisticLocking && stolenInterval) {
-                            LOG.debug(
-                                    "Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}",
-                                    key);
+                        } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                            stolenInterval = true;
                         }
                     }
-                } finally {
-                    lock.unlock();
+                    if (optimisticLocking && stolenInterval) {
+                        LOG.debug(
+                                "Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}",
+                                key);
+                    }
                 }
+            } finally {
+                shardKeys.shard.unlock();
             }
-
-            LOG.trace("Completion interval task complete");
         }
     }
 
@@ -1402,6 +1538,10 @@ public class AggregateProcessor extends AsyncProcessorSupport
                 inProgressCompleteExchangesForRecoveryTask.addAll(inProgressCompleteExchanges);
                 // These are delivered but still in complete repository!
                 inProgressCompleteExchangesForRecoveryTask.addAll(unconfirmedCompleteExchanges);
+                if (groupCommit != null) {
+                    // commit the pending removals and confirmations so they are not recovered
+                    groupCommit.run();
+                }
                 final Set<String> exchangeIds = recoverable.scan(camelContext);
                 for (String exchangeId : exchangeIds) {
 
@@ -1410,7 +1550,8 @@ public class AggregateProcessor extends AsyncProcessorSupport
                         LOG.info("We are shutting down so stop recovering");
                         return;
                     }
-                    lock.lock();
+                    // the correlation key is not known until recovered, so acquire the aggregation locks of all shards
+                    lockAllShards();
                     try {
                         // consider in progress if it was in progress before we did the scan, or currently after we did the scan
                         // its safer to consider it in progress than risk duplicates due both in progress + recovered
@@ -1487,7 +1628,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
                             }
                         }
                     } finally {
-                        lock.unlock();
+                        unlockAllShards();
                     }
                 }
             } finally {
@@ -1552,8 +1693,44 @@ public class AggregateProcessor extends AsyncProcessorSupport
             LOG.info("Optimistic locking is enabled");
         }
 
+        if (shards > 1) {
+            if (optimisticLocking) {
+                throw new IllegalArgumentException("Sharding cannot be used together with optimistic locking");
+            }
+            if (isCompletionFromBatchConsumer() || isCompletionOnNewCorrelationGroup()) {
+                throw new IllegalArgumentException(
+                        "Sharding cannot be used together with completionFromBatchConsumer or completionOnNewCorrelationGroup"
+                                                   + " as these complete correlation groups across all the shards");
+            }
+        }
+        if (groupCommitInterval > 0 && optimisticLocking) {
+            throw new IllegalArgumentException("Group commit cannot be used together with optimistic locking");
+        }
+        int count = 1;
+        while (count < Math.min(shards, MAX_SHARDS)) {
+            count <<= 1;
+        }
+        AggregationShard[] newShards = new AggregationShard[count];
+        for (int i = 0; i < count; i++) {
+            newShards[i] = new AggregationShard(i, optimisticLocking ? NoLock.INSTANCE : new ReentrantLock());
+        }
+        aggregationShards = newShards;
+        if (count > 1) {
+            LOG.info("Partitioning correlation groups into {} shards", count);
+        }
+
         ServiceHelper.startService(aggregationStrategy, processor, aggregationRepository);
 
+        if (groupCommitInterval > 0) {
+            LOG.info("Using group commit to write to the AggregationRepository every {} millis.", groupCommitInterval);
+            groupCommit = new AggregationGroupCommit(camelContext, aggregationRepository, unconfirmedCompleteExchanges::addAll);
+            groupCommitExecutorService
+                    = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, AGGREGATE_GROUP_COMMIT);
+            // use fixed delay so the batches grow while the repository is slow
+            groupCommitExecutorService.scheduleWithFixedDelay(groupCommit, groupCommitInterval, groupCommitInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+
         // should we use recover checker
         if (isRecoverableRepository()) {
             RecoverableAggregationRepository recoverable = (RecoverableAggregationRepository) aggregationRepository;
@@ -1616,11 +1793,16 @@ public class AggregateProcessor extends AsyncProcessorSupport
                 shutdownTimeoutCheckerExecutorService = true;
             }
             // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            for (AggregationShard shard : aggregationShards) {
+                shard.timeoutMap = new AggregationTimeoutMap(
+                        getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval(), shard);
+            }
             // fill in existing timeout values from the aggregation repository, for example if a restart occurred, then we
             // need to re-establish the timeout map so timeout can trigger
             restoreTimeoutMapFromAggregationRepository();
-            ServiceHelper.startService(timeoutMap);
+            for (AggregationShard shard : aggregationShards) {
+                ServiceHelper.startService(shard.timeoutMap);
+            }
         }
 
         if (aggregateController == null) {
@@ -1629,14 +1811,11 @@ public class AggregateProcessor extends AsyncProcessorSupport
         aggregateController.onStart(this);
 
         if (optimisticLocking) {
-            lock = NoLock.INSTANCE;
             if (getOptimisticLockingExecutorService() == null) {
                 setOptimisticLockingExecutorService(camelContext.getExecutorServiceManager()
                         .newSingleThreadScheduledExecutor(this, AGGREGATE_OPTIMISTIC_LOCKING_EXECUTOR));
                 shutdownOptimisticLockingExecutorService = true;
             }
-        } else {
-            lock = new ReentrantLock();
         }
     }
 
@@ -1660,7 +1839,23 @@ public class AggregateProcessor extends AsyncProcessorSupport
             shutdownTimeoutCheckerExecutorService = false;
         }
 
-        ServiceHelper.stopService(timeoutMap, processor, deadLetterProducerTemplate);
+        AggregationShard[] shards = aggregationShards;
+        if (shards != null) {
+            for (AggregationShard shard : shards) {
+                ServiceHelper.stopService(shard.timeoutMap);
+            }
+        }
+
+        if (groupCommitExecutorService != null) {
+            camelContext.getExecutorServiceManager().shutdown(groupCommitExecutorService);
+            groupCommitExecutorService = null;
+        }
+        if (groupCommit != null) {
+            // commit the pending writes so the waiting exchanges can continue
+            groupCommit.run();
+            groupCommit = null;
+        }
+        ServiceHelper.stopService(processor, deadLetterProducerTemplate);
 
         if (closedCorrelationKeys != null) {
             // it may be a service so stop it as well
@@ -1692,7 +1887,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
     public int getPendingExchangesSize() {
         if (completeAllOnStop) {
             // we want to regard all pending exchanges in the repo as inflight
-            Set<String> keys = getAggregationRepository().getKeys();
+            Set<String> keys = repositoryKeys();
             return keys != null ? keys.size() : 0;
         } else {
             return 0;
@@ -1702,6 +1897,12 @@ public class AggregateProcessor extends AsyncProcessorSupport
     private void doForceCompletionOnStop() {
         int expected = forceCompletionOfAllGroups();
 
+        AggregationGroupCommit commit = groupCommit;
+        if (commit != null) {
+            // the completed exchanges are sent when the removal of their correlation groups has been committed
+            commit.run();
+        }
+
         StopWatch watch = new StopWatch();
         if (!inProgressCompleteExchanges.isEmpty()) {
             LOG.trace("Waiting for {} inflight exchanges to complete", getInProgressCompleteExchanges());
@@ -1745,12 +1946,13 @@ public class AggregateProcessor extends AsyncProcessorSupport
     }
 
     public int forceCompletionOfGroup(String key) {
-        // must acquire the shared aggregation lock to be able to trigger force completion
+        // must acquire the aggregation lock of the shard to be able to trigger force completion
         int total = 0;
 
-        lock.lock();
+        AggregationShard shard = shardFor(key);
+        shard.lock();
         try {
-            Exchange exchange = aggregationRepository.get(camelContext, key);
+            Exchange exchange = repositoryGet(key);
             if (exchange != null) {
                 total = 1;
                 LOG.trace("Force completion triggered for correlation key: {}", key);
@@ -1762,7 +1964,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
                 }
             }
         } finally {
-            lock.unlock();
+            shard.unlock();
         }
         LOG.trace("Completed force completion of group {}", key);
 
@@ -1773,7 +1975,10 @@ public class AggregateProcessor extends AsyncProcessorSupport
     }
 
     public int forceCompletionOfAllGroups() {
+        return doForceCompletionOfAllGroups(null);
+    }
 
+    private int doForceCompletionOfAllGroups(String excludeKey) {
         // only run if CamelContext has been fully started or is stopping
         boolean allow = camelContext.getStatus().isStarted() || camelContext.getStatus().isStopping();
         if (!allow) {
@@ -1785,28 +1990,33 @@ public class AggregateProcessor extends AsyncProcessorSupport
         LOG.trace("Starting force completion of all groups task");
 
         // trigger completion for all in the repository
-        Set<String> keys = aggregationRepository.getKeys();
+        Set<String> keys = repositoryKeys();
 
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            lock.lock();
             total = keys.size();
-            try {
-                for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        LOG.trace("Force completion triggered for correlation key: {}", key);
-                        // indicate it was completed by a force completion request
-                        exchange.setProperty(ExchangePropertyKey.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
-                        Exchange answer = onCompletion(key, exchange, exchange, false, false);
-                        if (answer != null) {
-                            onSubmitCompletion(key, answer);
+            for (ShardKeys shardKeys : keysByShard(keys)) {
+                // must acquire the aggregation lock of the shard to be able to trigger force completion
+                shardKeys.shard.lock();
+                try {
+                    for (String key : shardKeys.keys) {
+                        if (key.equals(excludeKey)) {
+                            continue;
+                        }
+                        Exchange exchange = repositoryGet(key);
+                        if (exchange != null) {
+                            LOG.trace("Force completion triggered for correlation key: {}", key);
+                            // indicate it was completed by a force completion request
+                            exchange.setProperty(ExchangePropertyKey.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
+                            Exchange answer = onCompletion(key, exchange, exchange, false, false);
+                            if (answer != null) {
+                                onSubmitCompletion(key, answer);
+                            }
                         }
                     }
+                } finally {
+                    shardKeys.shard.unlock();
                 }
-            } finally {
-                lock.unlock();
             }
         }
         LOG.trace("Completed force completion of all groups task");
@@ -1818,12 +2028,13 @@ public class AggregateProcessor extends AsyncProcessorSupport
     }
 
     public int forceDiscardingOfGroup(String key) {
-        // must acquire the shared aggregation lock to be able to trigger force completion
+        // must acquire the aggregation lock of the shard to be able to trigger force completion
         int total = 0;
 
-        lock.lock();
+        AggregationShard shard = shardFor(key);
+        shard.lock();
         try {
-            Exchange exchange = aggregationRepository.get(camelContext, key);
+            Exchange exchange = repositoryGet(key);
             if (exchange != null) {
                 total = 1;
                 LOG.trace("Force discarded triggered for correlation key: {}", key);
@@ -1831,7 +2042,7 @@ public class AggregateProcessor extends AsyncProcessorSupport
                 onCompletion(key, exchange, exchange, false, true);
             }
         } finally {
-            lock.unlock();
+            shard.unlock();
         }
         LOG.trace("Completed force discarded of group {}", key);
 
@@ -1854,24 +2065,26 @@ public class AggregateProcessor extends AsyncProcessorSupport
         LOG.trace("Starting force discarding of all groups task");
 
         // trigger completion for all in the repository
-        Set<String> keys = aggregationRepository.getKeys();
+        Set<String> keys = repositoryKeys();
 
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            lock.lock();
             total = keys.size();
-            try {
-                for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        LOG.trace("Force discarded triggered for correlation key: {}", key);
-                        // force discarding by setting aggregate failed as true
-                        onCompletion(key, exchange, exchange, false, true);
+            for (ShardKeys shardKeys : keysByShard(keys)) {
+                // must acquire the aggregation lock of the shard to be able to trigger force completion
+                shardKeys.shard.lock();
+                try {
+                    for (String key : shardKeys.keys) {
+                        Exchange exchange = repositoryGet(key);
+                        if (exchange != null) {
+                            LOG.trace("Force discarded triggered for correlation key: {}", key);
+                            // force discarding by setting aggregate failed as true
+                            onCompletion(key, exchange, exchange, false, true);
+                        }
                     }
+                } finally {
+                    shardKeys.shard.unlock();
                 }
-            } finally {
-                lock.unlock();
             }
         }
         LOG.trace("Completed force discarding of all groups task");
@@ -1882,6 +2095,171 @@ public class AggregateProcessor extends AsyncProcessorSupport
         return total;
     }
 
+    private AggregationShard shardFor(String key) {
+        AggregationShard[] shards = aggregationShards;
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & (shards.length - 1)];
+    }
+
+    /**
+     * Groups the correlation keys by their shard, so the lock of each shard is only acquired once
+     */
+    @SuppressWarnings("unchecked")
+    private List<ShardKeys> keysByShard(Set<String> keys) {
+        AggregationShard[] shards = aggregationShards;
+        if (shards.length == 1) {
+            return List.of(new ShardKeys(shards[0], keys));
+        }
+        List<String>[] grouped = new List[shards.length];
+        for (String key : keys) {
+            int index = shardFor(key).index;
+            if (grouped[index] == null) {
+                grouped[index] = new ArrayList<>();
+            }
+            grouped[index].add(key);
+        }
+        List<ShardKeys> answer = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            if (grouped[i] != null) {
+                answer.add(new ShardKeys(shards[i], grouped[i]));
+            }
+        }
+        return answer;
+    }
+
+    private void lockAllShards() {
+        // always lock in the same order
+        for (AggregationShard shard : aggregationShards) {
+            shard.lock();
+        }
+    }
+
+    private void unlockAllShards() {
+        AggregationShard[] shards = aggregationShards;
+        for (int i = shards.length - 1; i >= 0; i--) {
+            shards[i].unlock();
+        }
+    }
+
+    private Exchange repositoryGet(String key) {
+        return groupCommit != null ? groupCommit.get(key) : aggregationRepository.get(camelContext, key);
+    }
+
+    private Map<String, Exchange> repositoryGetAll(Collection<String> keys) {
+        if (groupCommit != null) {
+            return groupCommit.getAll(keys);
+        } else if (aggregationRepository instanceof BatchAggregationRepository batchRepository) {
+            return batchRepository.getAll(camelContext, keys);
+        }
+        Map<String, Exchange> answer = new HashMap<>();
+        for (String key : keys) {
+            Exchange exchange = aggregationRepository.get(camelContext, key);
+            if (exchange != null) {
+                answer.put(key, exchange);
+            }
+        }
+        return answer;
+    }
+
+    private Set<String> repositoryKeys() {
+        return groupCommit != null ? groupCommit.getKeys() : aggregationRepository.getKeys();
+    }
+
+    private void repositoryConfirm(String exchangeId) {
+        if (groupCommit != null) {
+            groupCommit.confirm(exchangeId);
+        } else {
+            aggregationRepository.confirm(camelContext, exchangeId);
+        }
+    }
+
+    private record ShardKeys(AggregationShard shard, Collection<String> keys) {
+    }
+
+    /**
+     * A shard of the correlation groups, which has its own lock and completion timeout index, so correlation groups in
+     * different shards can be aggregated concurrently.
+     */
+    private final class AggregationShard implements AggregateProcessorStatistics.ShardStatistics {
+
+        private final int index;
+        private final Lock lock;
+        private final LongAdder lockCount = new LongAdder();
+        private final LongAdder contendedCount = new LongAdder();
+        private final LongAdder lockWaitTime = new LongAdder();
+        // store correlation key -> exchange id in timeout map
+        private volatile TimeoutMap<String, String> timeoutMap;
+        // whether the groups of all shards should be completed when the lock is released (guarded by the lock)
+        private boolean completeAllGroups;
+        // the group commit batch holding the repository writes made while holding the lock (guarded by the lock)
+        private AggregationGroupCommit.Batch commitBatch;
+
+        private AggregationShard(int index, Lock lock) {
+            this.index = index;
+            this.lock = lock;
+        }
+
+        void lock() {
+            if (lock.tryLock()) {
+                if (statistics.isStatisticsEnabled()) {
+                    lockCount.increment();
+                }
+                return;
+            }
+            long start = System.nanoTime();
+            lock.lock();
+            if (statistics.isStatisticsEnabled()) {
+                lockCount.increment();
+                contendedCount.increment();
+                lockWaitTime.add(System.nanoTime() - start);
+            }
+        }
+
+        void unlock() {
+            lock.unlock();
+        }
+
+        void reset() {
+            lockCount.reset();
+            contendedCount.reset();
+            lockWaitTime.reset();
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public long getLockCount() {
+            return lockCount.sum();
+        }
+
+        @Override
+        public long getContendedCount() {
+            return contendedCount.sum();
+        }
+
+        @Override
+        public long getLockWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(lockWaitTime.sum());
+        }
+
+        @Override
+        public int getPendingTimeouts() {
+            TimeoutMap<String, String> map = timeoutMap;
+            return map != null ? map.size() : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "AggregationShard[" + index + "]";
+        }
+    }
+
     /**
      * Synchronization class to avoid busy-loop when waiting for exchanges to be processed during shutdown.
      */
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.processor.aggregate;
 
+import java.util.List;
+
 /**
  * Various statistics of the aggregator
  */
@@ -71,6 +73,16 @@ public interface AggregateProcessorStatistics {
      */
     long getDiscarded();
 
+    /**
+     * Number of shards the correlation groups are partitioned into
+     */
+    int getShardCount();
+
+    /**
+     * Statistics of each shard of the correlation groups
+     */
+    List<ShardStatistics> getShardStatistics();
+
     /**
      * Reset the counters
      */
@@ -88,4 +100,35 @@ public interface AggregateProcessorStatistics {
      */
     void setStatisticsEnabled(boolean statisticsEnabled);
 
+    /**
+     * Statistics of a shard of the correlation groups, which has its own lock.
+     */
+    interface ShardStatistics {
+
+        /**
+         * The index of the shard
+         */
+        int getIndex();
+
+        /**
+         * Total number of times the lock of the shard has been acquired
+         */
+        long getLockCount();
+
+        /**
+         * Total number of times the lock of the shard was held by another thread and had to be waited for
+         */
+        long getContendedCount();
+
+        /**
+         * Total time in millis waited for the lock of the shard
+         */
+        long getLockWaitTime();
+
+        /**
+         * Number of correlation groups in the shard waiting for their completion timeout
+         */
+        int getPendingTimeouts();
+    }
+
 }
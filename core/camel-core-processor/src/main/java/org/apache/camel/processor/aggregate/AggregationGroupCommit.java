@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.AggregationRepository;
+import org.apache.camel.spi.BatchAggregationRepository;
+import org.apache.camel.support.ExchangeHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces the writes of the {@link AggregateProcessor} to its {@link AggregationRepository} and commits them
+ * together (group commit), using the batch operations if the repository is a {@link BatchAggregationRepository}.
+ * <p/>
+ * The writes which have not been committed yet are visible to {@link #get(String)} and {@link #getKeys()}, and the
+ * producers can await the commit of the batch holding their writes, so an exchange is only acknowledged after the
+ * aggregated state it contributed to has been stored. Likewise a completed exchange is only sent after the removal of
+ * its correlation group has been committed, so the group is not completed twice if the commit fails.
+ */
+final class AggregationGroupCommit implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AggregationGroupCommit.class);
+
+    private final CamelContext camelContext;
+    private final AggregationRepository repository;
+    private final Consumer<Collection<String>> onConfirmFailure;
+    // the state of the correlation groups which has not been committed yet (a null exchange is a removed group)
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<>();
+    // only one batch is committed at any time so the batches are stored in order
+    private final Lock commitLock = new ReentrantLock();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private Batch batch = new Batch();
+
+    AggregationGroupCommit(CamelContext camelContext, AggregationRepository repository,
+                           Consumer<Collection<String>> onConfirmFailure) {
+        this.camelContext = camelContext;
+        this.repository = repository;
+        this.onConfirmFailure = onConfirmFailure;
+    }
+
+    /**
+     * Gets the exchange with the correlation key, which is the pending exchange if it has not been committed yet.
+     */
+    Exchange get(String key) {
+        Pending state = pending.get(key);
+        if (state != null) {
+            // the pending exchange may be written to the repository while the caller aggregates into it
+            return state.exchange != null ? ExchangeHelper.createCopy(state.exchange, true) : null;
+        }
+        return repository.get(camelContext, key);
+    }
+
+    /**
+     * Gets the exchanges with the correlation keys, including the pending exchanges which have not been committed yet.
+     */
+    Map<String, Exchange> getAll(Collection<String> keys) {
+        Map<String, Exchange> answer = new LinkedHashMap<>();
+        List<String> stored = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Pending state = pending.get(key);
+            if (state == null) {
+                stored.add(key);
+            } else if (state.exchange != null) {
+                answer.put(key, ExchangeHelper.createCopy(state.exchange, true));
+            }
+        }
+        if (!stored.isEmpty()) {
+            if (repository instanceof BatchAggregationRepository batchRepository) {
+                answer.putAll(batchRepository.getAll(camelContext, stored));
+            } else {
+                for (String key : stored) {
+                    Exchange exchange = repository.get(camelContext, key);
+                    if (exchange != null) {
+                        answer.put(key, exchange);
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the correlation keys, including the pending correlation groups which have not been committed yet.
+     */
+    Set<String> getKeys() {
+        Set<String> answer = new LinkedHashSet<>(repository.getKeys());
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            if (entry.getValue().exchange != null) {
+                answer.add(entry.getKey());
+            } else {
+                answer.remove(entry.getKey());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the exchange under the correlation key to the current batch
+     *
+     * @return the batch the write belongs to
+     */
+    synchronized Batch add(String key, Exchange exchange) {
+        batch.operations.add(new Operation(key, exchange, false));
+        pending.put(key, new Pending(exchange, batch));
+        return batch;
+    }
+
+    /**
+     * Removes the exchange with the correlation key in the current batch
+     *
+     * @return the batch the write belongs to
+     */
+    synchronized Batch remove(String key, Exchange exchange) {
+        // the completed exchange is routed while the batch is being committed, so the batch must use a copy
+        batch.operations.add(new Operation(key, ExchangeHelper.createCopy(exchange, true), true));
+        pending.put(key, new Pending(null, batch));
+        return batch;
+    }
+
+    /**
+     * Confirms the exchange in the current batch, which is committed after the removals of the batch
+     */
+    synchronized void confirm(String exchangeId) {
+        batch.confirms.add(exchangeId);
+    }
+
+    /**
+     * Number of batches which have been committed
+     */
+    long getCommitCount() {
+        return commits.sum();
+    }
+
+    /**
+     * Number of repository writes which have been committed
+     */
+    long getWriteCount() {
+        return writes.sum();
+    }
+
+    /**
+     * Commits the current batch, and waits for any batch which is being committed by another thread.
+     */
+    @Override
+    public void run() {
+        commitLock.lock();
+        try {
+            Batch current;
+            synchronized (this) {
+                current = batch;
+                batch = new Batch();
+            }
+            if (!current.isEmpty()) {
+                commit(current);
+            } else {
+                current.committed(null);
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void commit(Batch current) {
+        Exception failure = null;
+        try {
+            for (Round round : current.rounds()) {
+                if (!round.removes.isEmpty()) {
+                    doRemove(round.removes);
+                }
+                if (!round.adds.isEmpty()) {
+                    doAdd(round.adds);
+                }
+            }
+            commits.increment();
+            writes.add(current.operations.size());
+        } catch (Exception e) {
+            LOG.warn("Error committing {} aggregation repository writes. This exception is ignored.",
+                    current.operations.size(), e);
+            failure = e;
+        }
+        // the writes of the batch are either stored, or discarded on failure (and the producers are failed),
+        // unless the correlation group has been written again in a later batch
+        for (Operation operation : current.operations) {
+            Pending state = pending.get(operation.key);
+            if (state != null && state.batch == current) {
+                pending.remove(operation.key, state);
+            }
+        }
+        if (!current.confirms.isEmpty()) {
+            if (failure == null) {
+                try {
+                    doConfirm(current.confirms);
+                } catch (Exception e) {
+                    LOG.warn("Error confirming {} aggregated exchanges. This exception is ignored.", current.confirms.size(),
+                            e);
+                    onConfirmFailure.accept(current.confirms);
+                }
+            } else {
+                onConfirmFailure.accept(current.confirms);
+            }
+        }
+        current.committed(failure);
+    }
+
+    private void doAdd(Map<String, Exchange> exchanges) {
+        if (repository instanceof BatchAggregationRepository batchRepository) {
+            batchRepository.addAll(camelContext, exchanges);
+        } else {
+            exchanges.forEach((key, exchange) -> repository.add(camelContext, key, exchange));
+        }
+    }
+
+    private void doRemove(Map<String, Exchange> exchanges) {
+        if (repository instanceof BatchAggregationRepository batchRepository) {
+            batchRepository.removeAll(camelContext, exchanges);
+        } else {
+            exchanges.forEach((key, exchange) -> repository.remove(camelContext, key, exchange));
+        }
+    }
+
+    private void doConfirm(List<String> exchangeIds) {
+        if (repository instanceof BatchAggregationRepository batchRepository) {
+            batchRepository.confirmAll(camelContext, exchangeIds);
+        } else {
+            exchangeIds.forEach(exchangeId -> repository.confirm(camelContext, exchangeId));
+        }
+    }
+
+    /**
+     * The writes which are committed together, and the producers which await the commit.
+     */
+    static final class Batch {
+        private final List<Operation> operations = new ArrayList<>();
+        private final List<String> confirms = new ArrayList<>();
+        private final List<Consumer<Exception>> waiters = new ArrayList<>();
+        private boolean committed;
+        private Exception failure;
+
+        private boolean isEmpty() {
+            return operations.isEmpty() && confirms.isEmpty();
+        }
+
+        /**
+         * Continues routing the exchange when this batch has been committed, or fails the exchange if the commit
+         * failed.
+         *
+         * @return <tt>true</tt> if the batch was already committed and the callback has been called synchronously
+         */
+        boolean await(Exchange exchange, AsyncCallback callback) {
+            synchronized (this) {
+                if (!committed) {
+                    waiters.add(failure -> {
+                        if (failure != null) {
+                            exchange.setException(failure);
+                        }
+                        callback.done(false);
+                    });
+                    return false;
+                }
+            }
+            if (failure != null) {
+                exchange.setException(failure);
+            }
+            callback.done(true);
+            return true;
+        }
+
+        /**
+         * Runs the task when this batch has been committed, with the exception if the commit failed. The task is run
+         * by the caller if the batch was already committed, or otherwise by the thread committing the batch.
+         */
+        void whenCommitted(Consumer<Exception> task) {
+            synchronized (this) {
+                if (!committed) {
+                    waiters.add(task);
+                    return;
+                }
+            }
+            task.accept(failure);
+        }
+
+        private void committed(Exception failure) {
+            List<Consumer<Exception>> done;
+            synchronized (this) {
+                this.committed = true;
+                this.failure = failure;
+                done = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            done.forEach(waiter -> waiter.accept(failure));
+        }
+
+        /**
+         * Splits the writes into rounds where each correlation key is either added or removed, and the adds of the
+         * same correlation key are coalesced into the latest exchange.
+         */
+        private List<Round> rounds() {
+            List<Round> rounds = new ArrayList<>();
+            Round round = new Round();
+            rounds.add(round);
+            for (Operation operation : operations) {
+                Map<String, Exchange> target = operation.remove ? round.removes : round.adds;
+                Map<String, Exchange> other = operation.remove ? round.adds : round.removes;
+                if (other.containsKey(operation.key) || operation.remove && target.containsKey(operation.key)) {
+                    round = new Round();
+                    rounds.add(round);
+                    target = operation.remove ? round.removes : round.adds;
+                }
+                target.put(operation.key, operation.exchange);
+            }
+            return rounds;
+        }
+    }
+
+    private static final class Round {
+        private final Map<String, Exchange> removes = new LinkedHashMap<>();
+        private final Map<String, Exchange> adds = new LinkedHashMap<>();
+    }
+
+    private record Operation(String key, Exchange exchange, boolean remove) {
+    }
+
+    private static final class Pending {
+        private final Exchange exchange;
+        private final Batch batch;
+
+        private Pending(Exchange exchange, Batch batch) {
+            this.exchange = exchange;
+            this.batch = batch;
+        }
+    }
+}
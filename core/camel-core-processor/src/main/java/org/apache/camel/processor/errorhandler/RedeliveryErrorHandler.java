@@ -1655,6 +1655,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport
             };
             int capacity = camelContext.getCamelContextExtension().getExchangeFactory().getCapacity();
             taskFactory.setCapacity(capacity);
+            taskFactory.setCamelContext(camelContext);
         } else {
             taskFactory = new PrototypeTaskFactory() {
                 @Override
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.Timer;
+import java.util.function.ToLongFunction;
+
+import org.apache.camel.util.concurrent.ThreadHelper;
+
+/**
+ * Resequences elements with dense <code>long</code> sequence numbers, such as offsets or sequence ids, using a ring
+ * buffer indexed by the sequence number instead of a sorted {@link Sequence}. This makes inserting and delivering an
+ * element an <code>O(1)</code> operation, where the {@link ResequencerEngine} is <code>O(log n)</code>.
+ * <p>
+ * The resequencing semantics are the same as {@link ResequencerEngine}: an out-of-sequence element is only
+ * <i>ready-for-delivery</i> when its immediate predecessor has arrived or it has timed out, by the same
+ * {@link Timeout} mechanism. Delivery of elements must be explicitly triggered by applications using the
+ * {@link #deliver()} or {@link #deliverNext()} methods.
+ * <p>
+ * The ring buffer holds the elements within a window of <code>capacity</code> sequence numbers. An element with a
+ * sequence number ahead of the window blocks in {@link #insert(Object)} until enough elements have been delivered for
+ * the window to cover it, which provides back-pressure to the caller. An element with a sequence number behind the
+ * window (such as a very old element, or when the sequence numbers have been reset) cannot be ordered with the elements
+ * held, and is rejected with an {@link IllegalArgumentException}. Gaps in the sequence numbers occupy slots in the
+ * window until they time out, which is why this engine is intended for dense sequences.
+ */
+public class RingBufferResequencerEngine<E> {
+
+    /**
+     * Function returning the sequence number of an element.
+     */
+    private final ToLongFunction<E> sequenceNumber;
+
+    /**
+     * The slots of the ring buffer indexed by the sequence number.
+     */
+    private final Element<E>[] slots;
+
+    /**
+     * The sequence numbers of the elements in the slots.
+     */
+    private final long[] numbers;
+
+    private final int mask;
+
+    /**
+     * The maximum distance between the lowest and highest sequence number held.
+     */
+    private final int capacity;
+
+    /**
+     * Number of elements currently held.
+     */
+    private int size;
+
+    /**
+     * The lowest sequence number currently held.
+     */
+    private long head;
+
+    /**
+     * The highest sequence number currently held.
+     */
+    private long tail;
+
+    /**
+     * Whether an element has been delivered.
+     */
+    private boolean delivered;
+
+    /**
+     * The sequence number of the element that most recently has been delivered.
+     */
+    private long lastDelivered;
+
+    /**
+     * Minimum amount of time to wait for out-of-sequence elements.
+     */
+    private long timeout = 2000L;
+
+    /**
+     * A timer for scheduling timeout notifications.
+     */
+    private Timer timer;
+
+    /**
+     * A strategy for sending sequence elements.
+     */
+    private SequenceSender<E> sequenceSender;
+
+    /**
+     * Indicates whether an error should be thrown if message older than the last delivered message is received.
+     */
+    private Boolean rejectOld;
+
+    /**
+     * Creates a new resequencer instance with a default timeout of 2000 milliseconds.
+     *
+     * @param sequenceNumber function returning the sequence number of an element, which must throw
+     *                       {@link IllegalArgumentException} if the element has no valid sequence number.
+     * @param capacity       the maximum distance between the lowest and highest sequence number held.
+     */
+    @SuppressWarnings("unchecked")
+    public RingBufferResequencerEngine(ToLongFunction<E> sequenceNumber, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive number, was: " + capacity);
+        }
+        this.sequenceNumber = sequenceNumber;
+        this.capacity = capacity;
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) {
+            length <<= 1;
+        }
+        this.slots = new Element[length];
+        this.numbers = new long[length];
+        this.mask = length - 1;
+    }
+
+    public void start() {
+        timer = new Timer(
+                ThreadHelper.resolveThreadName("Camel Thread ${counter} - ${name}", "Stream Resequencer Timer"), true);
+    }
+
+    /**
+     * Stops this resequencer (i.e. this resequencer's {@link Timer} instance).
+     */
+    public void stop() {
+        timer.cancel();
+    }
+
+    /**
+     * Returns the number of elements currently maintained by this resequencer.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum distance between the lowest and highest sequence number held.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public Boolean getRejectOld() {
+        return rejectOld;
+    }
+
+    public void setRejectOld(Boolean rejectOld) {
+        this.rejectOld = rejectOld;
+    }
+
+    public SequenceSender<E> getSequenceSender() {
+        return sequenceSender;
+    }
+
+    public void setSequenceSender(SequenceSender<E> sequenceSender) {
+        this.sequenceSender = sequenceSender;
+    }
+
+    /**
+     * Sets the sequence number of the last delivered element. This is for testing only.
+     *
+     * @param n a sequence number.
+     */
+    synchronized void setLastDelivered(long n) {
+        delivered = true;
+        lastDelivered = n;
+    }
+
+    /**
+     * Inserts the given element into this resequencer. If the element is not ready for immediate delivery and has no
+     * immediate predecessor then it is scheduled for timing out. After being timed out it is ready for delivery.
+     * <p/>
+     * If the sequence number of the element is ahead of the window of the ring buffer, then this method blocks until
+     * enough elements have been delivered. If the sequence number is behind the window, then the element is rejected.
+     *
+     * @param  o                        an element.
+     * @throws IllegalArgumentException if the element cannot be used with this resequencer engine, or its sequence
+     *                                  number is behind the window of the ring buffer
+     * @throws InterruptedException     if interrupted while waiting for the window to cover the element
+     */
+    public synchronized void insert(E o) throws InterruptedException {
+        long n = sequenceNumber.applyAsLong(o);
+
+        // validate the exchange shouldn't be 'rejected' (if applicable)
+        if (rejectOld != null && rejectOld && delivered && n < lastDelivered) {
+            throw new MessageRejectedException(
+                    "rejecting message [" + o + "], it should have been sent before the last delivered message with"
+                                               + " sequence number [" + lastDelivered + "]");
+        }
+
+        // wait until the window covers the element
+        while (size > 0) {
+            if (tail - n >= capacity) {
+                // the window only moves forward so waiting would block until the buffer is empty
+                throw new IllegalArgumentException(
+                        "Sequence number " + n + " of element [" + o + "] is behind the window of the ring buffer "
+                                                   + "with the sequence numbers from " + head + " to " + tail);
+            }
+            if (n - head < capacity) {
+                break;
+            }
+            wait();
+        }
+
+        int index = (int) n & mask;
+        if (slots[index] != null) {
+            // an element with the same sequence number is already held (same as a sorted set)
+            return;
+        }
+
+        Element<E> element = new Element<>(o);
+        slots[index] = element;
+        numbers[index] = n;
+        if (size == 0) {
+            head = n;
+            tail = n;
+        } else {
+            head = Math.min(head, n);
+            tail = Math.max(tail, n);
+        }
+        size++;
+
+        // check if there is an immediate successor and cancel
+        // timer task (no need to wait any more for timeout)
+        Element<E> successor = get(n + 1);
+        if (successor != null) {
+            successor.cancel();
+        }
+
+        // start delivery if current element is successor of last delivered element
+        boolean successorOfLastDelivered = delivered && n == lastDelivered + 1;
+        if (!successorOfLastDelivered && get(n - 1) == null) {
+            element.schedule(new Timeout(timer, timeout));
+        }
+    }
+
+    /**
+     * Delivers all elements which are currently ready to deliver.
+     *
+     * @throws Exception thrown by {@link SequenceSender#sendElement(Object)}.
+     */
+    @SuppressWarnings("StatementWithEmptyBody")
+    public synchronized void deliver() throws Exception {
+        while (deliverNext()) {
+            // do nothing here
+        }
+    }
+
+    /**
+     * Attempts to deliver the element with the lowest sequence number. Only elements which have not been scheduled for
+     * timing out or which already timed out can be delivered. Elements are delivered via
+     * {@link SequenceSender#sendElement(Object)}.
+     *
+     * @return           <code>true</code> if the element has been delivered <code>false</code> otherwise.
+     * @throws Exception thrown by {@link SequenceSender#sendElement(Object)}.
+     */
+    public synchronized boolean deliverNext() throws Exception {
+        if (size == 0) {
+            return false;
+        }
+        int index = (int) head & mask;
+        Element<E> element = slots[index];
+
+        // if element is scheduled do not deliver and return
+        if (element.scheduled()) {
+            return false;
+        }
+
+        // remove deliverable element
+        slots[index] = null;
+        size--;
+        delivered = true;
+        lastDelivered = head;
+        if (size > 0) {
+            // advance to the next element (skips any gaps)
+            do {
+                head++;
+            } while (slots[(int) head & mask] == null);
+        }
+
+        // wakeup callers waiting for the window to move
+        notifyAll();
+
+        // deliver the sequence element
+        sequenceSender.sendElement(element.getObject());
+
+        // element has been delivered
+        return true;
+    }
+
+    private Element<E> get(long n) {
+        int index = (int) n & mask;
+        Element<E> element = slots[index];
+        if (element != null && numbers[index] == n) {
+            return element;
+        }
+        return null;
+    }
+
+}
@@ -194,6 +194,14 @@ public class AggregateReifier extends ProcessorReifier<AggregateDefinition> {
         if (completeAllOnStop != null) {
             answer.setCompleteAllOnStop(completeAllOnStop);
         }
+        Integer shards = parseInt(definition.getShards());
+        if (shards != null) {
+            answer.setShards(shards);
+        }
+        Long groupCommitInterval = parseDuration(definition.getGroupCommitInterval());
+        if (groupCommitInterval != null) {
+            answer.setGroupCommitInterval(groupCommitInterval);
+        }
         if (definition.getOptimisticLockRetryPolicy() == null) {
             if (definition.getOptimisticLockRetryPolicyDefinition() != null) {
                 answer.setOptimisticLockRetryPolicy(
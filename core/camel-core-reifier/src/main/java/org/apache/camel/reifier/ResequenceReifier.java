@@ -141,6 +141,7 @@ public class ResequenceReifier extends ProcessorReifier<ResequenceDefinition> {
             resequencer.setCapacity(num);
         }
         resequencer.setRejectOld(parseBoolean(config.getRejectOld(), false));
+        resequencer.setRingBuffer(parseBoolean(config.getRingBuffer(), false));
         if (config.getIgnoreInvalidExchanges() != null) {
             resequencer.setIgnoreInvalidExchanges(parseBoolean(config.getIgnoreInvalidExchanges(), false));
         }
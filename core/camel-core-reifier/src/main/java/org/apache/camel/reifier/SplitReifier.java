@@ -56,6 +56,10 @@ public class SplitReifier extends ExpressionReifier<SplitDefinition> {
         if (timeout > 0 && !isParallelProcessing) {
             throw new IllegalArgumentException("Timeout is used but ParallelProcessing has not been enabled.");
         }
+        int maxInFlight = parseInt(definition.getMaxInFlight(), 0);
+        if (maxInFlight > 0 && !isParallelProcessing) {
+            throw new IllegalArgumentException("MaxInFlight is used but ParallelProcessing has not been enabled.");
+        }
         Processor prepare = definition.getOnPrepareProcessor();
         if (prepare == null && definition.getOnPrepare() != null) {
             prepare = mandatoryLookup(definition.getOnPrepare(), Processor.class);
@@ -77,6 +81,7 @@ public class SplitReifier extends ExpressionReifier<SplitDefinition> {
                     isShareUnitOfWork, isParallelAggregate);
         }
         answer.setSynchronous(isSynchronous);
+        answer.setMaxInFlight(maxInFlight);
 
         return answer;
     }
@@ -24,7 +24,9 @@ import org.apache.camel.Route;
 import org.apache.camel.model.ProcessorDefinition;
 import org.apache.camel.model.ThrottleDefinition;
 import org.apache.camel.model.ThrottlingMode;
+import org.apache.camel.processor.AdaptiveConcurrencyThrottler;
 import org.apache.camel.processor.ConcurrentRequestsThrottler;
+import org.apache.camel.processor.TokenBucketThrottler;
 import org.apache.camel.processor.TotalRequestsThrottler;
 
 public class ThrottleReifier extends ExpressionReifier<ThrottleDefinition> {
@@ -52,7 +54,8 @@ public class ThrottleReifier extends ExpressionReifier<ThrottleDefinition> {
             throw new IllegalArgumentException("MaxRequestsPerPeriod expression must be provided on " + this);
         }
 
-        if (ThrottlingMode.toMode(parseString(definition.getMode())) == ThrottlingMode.ConcurrentRequests) {
+        ThrottlingMode mode = ThrottlingMode.toMode(parseString(definition.getMode()));
+        if (mode == ThrottlingMode.ConcurrentRequests) {
             ConcurrentRequestsThrottler answer = new ConcurrentRequestsThrottler(
                     camelContext, maxRequestsExpression, threadPool, shutdownThreadPool, reject, correlation);
 
@@ -60,6 +63,30 @@ public class ThrottleReifier extends ExpressionReifier<ThrottleDefinition> {
             // should be true by default
             answer.setCallerRunsWhenRejected(parseBoolean(definition.getCallerRunsWhenRejected(), true));
 
+            return answer;
+        } else if (mode == ThrottlingMode.AdaptiveConcurrency) {
+            AdaptiveConcurrencyThrottler answer = new AdaptiveConcurrencyThrottler(
+                    camelContext, maxRequestsExpression, threadPool, shutdownThreadPool, reject, correlation);
+
+            answer.setAsyncDelayed(async);
+            // should be true by default
+            answer.setCallerRunsWhenRejected(parseBoolean(definition.getCallerRunsWhenRejected(), true));
+            if (definition.getLimitAlgorithm() != null) {
+                answer.setLimitAlgorithm(
+                        parse(AdaptiveConcurrencyThrottler.LimitAlgorithm.class, definition.getLimitAlgorithm()));
+            }
+
+            return answer;
+        } else if (mode == ThrottlingMode.TokenBucket) {
+            long period = parseDuration(definition.getTimePeriodMillis(), 1000L);
+
+            TokenBucketThrottler answer = new TokenBucketThrottler(
+                    camelContext, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject, correlation);
+
+            answer.setAsyncDelayed(async);
+            // should be true by default
+            answer.setCallerRunsWhenRejected(parseBoolean(definition.getCallerRunsWhenRejected(), true));
+
             return answer;
         } else {
             long period = parseDuration(definition.getTimePeriodMillis(), 1000L);
@@ -35,6 +35,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.ExpectedBodyTypeException;
 import org.apache.camel.component.xslt.StreamResultHandlerFactory;
 import org.apache.camel.component.xslt.XsltBuilder;
+import org.apache.camel.converter.stream.InputStreamCache;
 import org.apache.camel.converter.jaxp.XmlConverter;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.DefaultExchange;
@@ -335,4 +336,57 @@ public class XsltBuilderTest extends ContextTestSupport {
         assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><goodbye/>", exchange.getMessage().getBody(String.class));
     }
 
+    @Test
+    public void testXsltTransformerCache() throws Exception {
+        URL styleSheet = getClass().getResource("example.xsl");
+
+        XsltBuilder builder = XsltBuilder.xslt(styleSheet).transformerCacheSize(2);
+
+        for (int i = 0; i < 5; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("<hello>world" + i + "</hello>");
+            builder.process(exchange);
+            assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><goodbye>world" + i + "</goodbye>",
+                    exchange.getMessage().getBody());
+        }
+
+        assertEquals(2, builder.getTransformerCacheSize());
+        assertEquals(1, builder.getTransformerCacheIdle());
+        assertEquals(1, builder.getTransformersCreated());
+        assertEquals(4, builder.getTransformersReused());
+        assertEquals(0, builder.getTransformersDiscarded());
+
+        // the cached transformers of the previous template are not reused
+        builder.setTransformerURL(styleSheet);
+        assertEquals(0, builder.getTransformerCacheIdle());
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("<hello>world!</hello>");
+        builder.process(exchange);
+        assertEquals(2, builder.getTransformersCreated());
+        assertEquals(1, builder.getTransformerCacheIdle());
+
+        builder.resetTransformerStatistics();
+        assertEquals(0, builder.getTransformersCreated());
+        assertEquals(0, builder.getTransformersReused());
+    }
+
+    @Test
+    public void testXsltStreamCacheBody() throws Exception {
+        URL styleSheet = getClass().getResource("example.xsl");
+
+        XsltBuilder builder = XsltBuilder.xslt(styleSheet);
+
+        InputStreamCache body = new InputStreamCache("<hello>world!</hello>".getBytes());
+        // the stream has already been read
+        body.readAllBytes();
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+
+        builder.process(exchange);
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><goodbye>world!</goodbye>", exchange.getMessage().getBody());
+    }
+
 }
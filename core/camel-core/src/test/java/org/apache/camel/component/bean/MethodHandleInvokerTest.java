@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MethodHandleInvokerTest {
+
+    private final MyBean bean = new MyBean();
+
+    @Test
+    public void testInvoke() throws Exception {
+        MethodHandleInvoker invoker = create("hello", String.class, int.class);
+
+        Object[] arguments = { "World", 3 };
+        assertTrue(invoker.isApplicable(bean, arguments));
+        assertEquals("Hello World 3", invoker.invoke(bean, arguments));
+    }
+
+    @Test
+    public void testInvokeStatic() throws Exception {
+        MethodHandleInvoker invoker = create("echo", String.class);
+
+        assertTrue(invoker.isApplicable(null, new Object[] { "foo" }));
+        assertEquals("foofoo", invoker.invoke(null, new Object[] { "foo" }));
+    }
+
+    @Test
+    public void testInvokeVoid() throws Exception {
+        MethodHandleInvoker invoker = create("doNothing");
+
+        assertTrue(invoker.isApplicable(bean, null));
+        assertNull(invoker.invoke(bean, null));
+        assertEquals(1, bean.invoked);
+    }
+
+    @Test
+    public void testNotApplicable() {
+        MethodHandleInvoker invoker = create("hello", String.class, int.class);
+
+        // null for a primitive parameter
+        assertFalse(invoker.isApplicable(bean, new Object[] { "World", null }));
+        // which reflection would widen
+        assertFalse(invoker.isApplicable(bean, new Object[] { "World", (short) 3 }));
+        assertFalse(invoker.isApplicable(bean, new Object[] { "World" }));
+        assertFalse(invoker.isApplicable("bean", new Object[] { "World", 3 }));
+        assertFalse(invoker.isApplicable(bean, null));
+        assertTrue(invoker.isApplicable(bean, new Object[] { null, 3 }));
+    }
+
+    @Test
+    public void testInvokeThrowsException() {
+        MethodHandleInvoker invoker = create("fail", String.class);
+
+        InvocationTargetException e
+                = assertThrows(InvocationTargetException.class, () -> invoker.invoke(bean, new Object[] { "Forced" }));
+        assertSame(IllegalStateException.class, e.getTargetException().getClass());
+        assertEquals("Forced", e.getTargetException().getMessage());
+    }
+
+    private static MethodHandleInvoker create(String name, Class<?>... parameterTypes) {
+        try {
+            Method method = MyBean.class.getDeclaredMethod(name, parameterTypes);
+            MethodHandleInvoker answer = MethodHandleInvoker.create(method);
+            assertNotNull(answer);
+            assertSame(method, answer.getMethod());
+            return answer;
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class MyBean {
+        private int invoked;
+
+        String hello(String name, int count) {
+            return "Hello " + name + " " + count;
+        }
+
+        static String echo(String text) {
+            return text + text;
+        }
+
+        void doNothing() {
+            invoked++;
+        }
+
+        String fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
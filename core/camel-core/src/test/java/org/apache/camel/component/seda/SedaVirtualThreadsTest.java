@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class SedaVirtualThreadsTest extends ContextTestSupport {
+
+    private final CountDownLatch latch = new CountDownLatch(200);
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        // all the consumers must be blocked at the same time to release the latch
+        for (int i = 0; i < 200; i++) {
+            template.sendBody("seda:foo", "Hello " + i);
+        }
+
+        assertTrue(latch.await(20, TimeUnit.SECONDS));
+
+        SedaEndpoint endpoint = context.getEndpoint("seda:foo", SedaEndpoint.class);
+        assertTrue(endpoint.isVirtualThreads());
+        assertTrue(context.getExecutorServiceManager().getExecutorServices().stream()
+                .anyMatch(ThreadPerTaskExecutorService.class::isInstance));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("seda:foo?virtualThreads=true&concurrentConsumers=200")
+                        .process(e -> {
+                            latch.countDown();
+                            latch.await(20, TimeUnit.SECONDS);
+                        });
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.engine.DefaultUnitOfWork;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class CachedOutputStreamMemoryMappedTest extends ContextTestSupport {
+    private static final String TEST_STRING = "This is a test string and it has enough"
+                                              + " aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa ";
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory(testDirectory().toFile());
+        context.getStreamCachingStrategy().setSpoolEnabled(true);
+        context.getStreamCachingStrategy().setSpoolThreshold(16);
+        context.getStreamCachingStrategy().setSpoolMemoryMapped(true);
+        context.getStreamCachingStrategy().getStatistics().setStatisticsEnabled(true);
+        return context;
+    }
+
+    @Override
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+
+        exchange = new DefaultExchange(context);
+        UnitOfWork uow = new DefaultUnitOfWork(exchange);
+        exchange.getExchangeExtension().setUnitOfWork(uow);
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    @Test
+    public void testReadMemoryMapped() throws Exception {
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes(StandardCharsets.UTF_8));
+
+        StreamCache cache = cos.newStreamCache();
+        assertInstanceOf(FileInputStreamCache.class, cache, "Should be spooled");
+        assertEquals(TEST_STRING, new String(((InputStream) cache).readAllBytes(), StandardCharsets.UTF_8));
+
+        // read again from a new view
+        cache.reset();
+        assertEquals(TEST_STRING, new String(((InputStream) cache).readAllBytes(), StandardCharsets.UTF_8));
+
+        // a copy shares the mapping
+        StreamCache copy = cache.copy(exchange);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        copy.writeTo(bos);
+        assertEquals(TEST_STRING, bos.toString(StandardCharsets.UTF_8));
+
+        StreamCachingStrategy.Statistics stats = context.getStreamCachingStrategy().getStatistics();
+        assertEquals(1, stats.getCacheSpoolMappedCounter());
+        assertEquals(TEST_STRING.length(), stats.getCacheSpoolMappedSize());
+        assertEquals(3, stats.getCacheSpoolMappedReadCounter());
+
+        exchange.getUnitOfWork().done(exchange);
+
+        File dir = testDirectory().toFile();
+        String[] files = dir.list();
+        assertNotNull(files, "There should be a list of files");
+        assertEquals(0, files.length, "The temporary file should be deleted");
+    }
+
+    @Test
+    public void testReadMemoryMappedPartial() throws Exception {
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes(StandardCharsets.UTF_8));
+
+        InputStream is = (InputStream) cos.newStreamCache();
+        assertEquals(TEST_STRING.length(), is.available());
+        assertEquals('T', is.read());
+        assertEquals(4, is.skip(4));
+        byte[] buf = new byte[2];
+        assertEquals(2, is.read(buf, 0, 2));
+        assertEquals("is", new String(buf, StandardCharsets.UTF_8));
+        assertEquals(TEST_STRING.substring(7), new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(-1, is.read());
+        assertEquals(-1, is.read(buf, 0, 2));
+
+        exchange.getUnitOfWork().done(exchange);
+    }
+
+    @Test
+    public void testNotMemoryMappedWithCipher() throws Exception {
+        context.getStreamCachingStrategy().setSpoolCipher("RC4");
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes(StandardCharsets.UTF_8));
+
+        InputStream is = (InputStream) cos.newStreamCache();
+        assertEquals(TEST_STRING, new String(is.readAllBytes(), StandardCharsets.UTF_8));
+
+        StreamCachingStrategy.Statistics stats = context.getStreamCachingStrategy().getStatistics();
+        assertEquals(0, stats.getCacheSpoolMappedCounter());
+        assertEquals(0, stats.getCacheSpoolMappedReadCounter());
+
+        exchange.getUnitOfWork().done(exchange);
+    }
+
+    @Test
+    public void testNotMemoryMappedByDefault() throws Exception {
+        context.getStreamCachingStrategy().setSpoolMemoryMapped(false);
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes(StandardCharsets.UTF_8));
+
+        InputStream is = (InputStream) cos.newStreamCache();
+        assertEquals(TEST_STRING, new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        assertFalse(context.getStreamCachingStrategy().getStatistics().getCacheSpoolMappedCounter() > 0);
+
+        exchange.getUnitOfWork().done(exchange);
+    }
+}
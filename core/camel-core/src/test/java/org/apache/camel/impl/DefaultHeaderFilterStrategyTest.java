@@ -175,4 +175,33 @@ public class DefaultHeaderFilterStrategyTest extends ContextTestSupport {
         assertTrue(comp.applyFilterToExternalHeaders("org.apache.camel.component.jetty.session", "true", exchange));
     }
 
+    @Test
+    public void testChangeFilterAfterUse() {
+        DefaultHeaderFilterStrategy comp = new DefaultHeaderFilterStrategy();
+        comp.getOutFilter().add("foo");
+
+        Exchange exchange = new DefaultExchange(context);
+
+        assertTrue(comp.applyFilterToCamelHeaders("foo", "cheese", exchange));
+        assertFalse(comp.applyFilterToCamelHeaders("bar", 123, exchange));
+
+        // changing the filters must be reflected
+        comp.getOutFilter().add("bar");
+        assertTrue(comp.applyFilterToCamelHeaders("bar", 123, exchange));
+        comp.getOutFilter().remove("foo");
+        assertFalse(comp.applyFilterToCamelHeaders("foo", "cheese", exchange));
+
+        comp.setOutFilterStartsWith(CAMEL_FILTER_STARTS_WITH);
+        assertTrue(comp.applyFilterToCamelHeaders("CamelVersion", "3.7", exchange));
+        comp.setOutFilterStartsWith((String[]) null);
+        assertFalse(comp.applyFilterToCamelHeaders("CamelVersion", "3.7", exchange));
+
+        assertFalse(comp.applyFilterToCamelHeaders("BAR", 123, exchange));
+        comp.setCaseInsensitive(true);
+        assertTrue(comp.applyFilterToCamelHeaders("BAR", 123, exchange));
+
+        // the filters of the other direction are not affected
+        assertFalse(comp.applyFilterToExternalHeaders("bar", 123, exchange));
+    }
+
 }
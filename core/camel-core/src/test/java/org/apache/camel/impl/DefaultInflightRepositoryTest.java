@@ -16,6 +16,14 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.engine.DefaultInflightRepository;
@@ -24,6 +32,8 @@ import org.apache.camel.support.DefaultExchange;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DefaultInflightRepositoryTest extends ContextTestSupport {
 
@@ -47,4 +57,136 @@ public class DefaultInflightRepositoryTest extends ContextTestSupport {
         repo.remove(e1);
         assertEquals(0, repo.size());
     }
+
+    @Test
+    public void testCountersOnly() {
+        InflightRepository repo = new DefaultInflightRepository(4);
+        repo.addRoute("foo");
+
+        Exchange e1 = new DefaultExchange(context);
+        repo.add(e1);
+        repo.add(e1, "foo");
+        assertEquals(1, repo.size());
+        assertEquals(1, repo.size("foo"));
+
+        // only counters so nothing to browse
+        assertTrue(repo.browse().isEmpty());
+        assertNull(repo.oldest(null));
+        assertEquals(-1, repo.durationPercentile("foo", 99));
+
+        repo.remove(e1, "foo");
+        repo.remove(e1);
+        assertEquals(0, repo.size());
+        assertEquals(0, repo.size("foo"));
+    }
+
+    @Test
+    public void testBrowseOldest() {
+        InflightRepository repo = new DefaultInflightRepository(4);
+        repo.setInflightBrowseEnabled(true);
+
+        List<Exchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Exchange e = new DefaultExchange(context);
+            exchanges.add(e);
+            repo.add(e);
+        }
+        assertEquals(10, repo.browse().size());
+
+        // remove the two oldest
+        repo.remove(exchanges.get(0));
+        repo.remove(exchanges.get(1));
+
+        Collection<InflightRepository.InflightExchange> oldest = repo.browse(3, true);
+        assertEquals(3, oldest.size());
+        Iterator<InflightRepository.InflightExchange> it = oldest.iterator();
+        assertEquals(exchanges.get(2), it.next().getExchange());
+        assertEquals(exchanges.get(3), it.next().getExchange());
+        assertEquals(exchanges.get(4), it.next().getExchange());
+
+        assertEquals(exchanges.get(2), repo.oldest(null).getExchange());
+
+        for (int i = 2; i < 10; i++) {
+            repo.remove(exchanges.get(i));
+        }
+        assertEquals(0, repo.size());
+        assertTrue(repo.browse().isEmpty());
+        assertNull(repo.oldest(null));
+    }
+
+    @Test
+    public void testDurationPercentile() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository(4);
+        repo.setInflightBrowseEnabled(true);
+        repo.addRoute("foo");
+
+        assertEquals(0, repo.durationPercentile("foo", 99));
+        assertEquals(-1, repo.durationPercentile("unknown", 99));
+
+        Exchange slow = new DefaultExchange(context);
+        repo.add(slow, "foo");
+        for (int i = 0; i < 99; i++) {
+            Exchange e = new DefaultExchange(context);
+            repo.add(e, "foo");
+            repo.remove(e, "foo");
+        }
+        Thread.sleep(100);
+        repo.remove(slow, "foo");
+
+        assertTrue(repo.durationPercentile("foo", 50) < 100);
+        assertTrue(repo.durationPercentile("foo", 100) >= 100);
+    }
+
+    @Test
+    public void testDurationInRoute() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository(4);
+        repo.setInflightBrowseEnabled(true);
+        repo.addRoute("foo");
+        repo.addRoute("bar");
+
+        // the exchange is older than the time it is inflight in the route bar
+        Exchange e1 = new DefaultExchange(context);
+        repo.add(e1, "foo");
+        Thread.sleep(100);
+        repo.add(e1, "bar");
+        repo.remove(e1, "bar");
+        repo.remove(e1, "foo");
+
+        assertTrue(repo.durationPercentile("bar", 100) < 100);
+        assertTrue(repo.durationPercentile("foo", 100) >= 100);
+
+        // the durations can be reset
+        repo.resetStatistics();
+        assertEquals(0, repo.durationPercentile("foo", 100));
+        assertEquals(0, repo.durationPercentile("bar", 100));
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository(4);
+        repo.setInflightBrowseEnabled(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Exchange e = new DefaultExchange(context);
+                        repo.add(e);
+                        repo.browse(5, true);
+                        repo.remove(e);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, repo.size());
+        assertTrue(repo.browse().isEmpty());
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.engine.InternedHeadersMapFactory;
+import org.apache.camel.support.InternedHeadersMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class InternedHeadersMapFactoryRouteTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getCamelContextExtension().setHeadersMapFactory(new InternedHeadersMapFactory());
+        return context;
+    }
+
+    @Test
+    public void testInternedHeaders() throws Exception {
+        getMockEndpoint("mock:result").expectedHeaderReceived("foo", 123);
+        getMockEndpoint("mock:result").expectedHeaderReceived("content-type", "text/plain");
+        getMockEndpoint("mock:result").expectedHeaderReceived("Bar", "yes");
+        getMockEndpoint("mock:result").expectedHeaderReceived(Exchange.FILE_NAME, "hello.txt");
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("FOO", 123);
+        headers.put("Content-Type", "text/plain");
+        headers.put("bar", "no");
+
+        template.sendBodyAndHeaders("direct:start", "Hello World", headers);
+
+        assertMockEndpointsSatisfied();
+
+        Map<String, Object> received
+                = getMockEndpoint("mock:result").getReceivedExchanges().get(0).getMessage().getHeaders();
+        assertInstanceOf(InternedHeadersMap.class, received);
+        assertEquals(4, received.size());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .setHeader("BAR", constant("yes"))
+                        .setHeader("camelfilename", constant("hello.txt"))
+                        .to("mock:result");
+            }
+        };
+    }
+
+}
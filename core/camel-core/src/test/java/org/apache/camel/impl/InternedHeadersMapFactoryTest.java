@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.engine.InternedHeadersMapFactory;
+import org.apache.camel.support.InternedHeadersMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternedHeadersMapFactoryTest {
+
+    @Test
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+        map.put("Content-Type", "text/plain");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals("text/plain", map.get("Content-Type"));
+        assertEquals("text/plain", map.get("content-type"));
+        assertEquals("text/plain", map.get("CONTENT-TYPE"));
+        assertNull(map.get("Content-Length"));
+        assertNull(map.get(123));
+
+        // keeps the original key
+        map.put("FOO", "beer");
+        map.put("CONTENT-type", "text/xml");
+        assertEquals(2, map.size());
+        assertEquals(List.of("foo", "Content-Type"), new ArrayList<>(map.keySet()));
+        assertEquals("beer", map.get("foo"));
+        assertEquals("text/xml", map.get("content-type"));
+    }
+
+    @Test
+    public void testWellKnown() {
+        assertTrue(InternedHeadersMap.isWellKnown(Exchange.HTTP_METHOD));
+        assertTrue(InternedHeadersMap.isWellKnown("camelhttpmethod"));
+        assertTrue(InternedHeadersMap.isWellKnown("JMSCorrelationID"));
+        assertTrue(InternedHeadersMap.isWellKnown("kafka.KEY"));
+        assertTrue(InternedHeadersMap.isWellKnown("user-agent"));
+        assertFalse(InternedHeadersMap.isWellKnown("foo"));
+        assertFalse(InternedHeadersMap.isWellKnown(null));
+    }
+
+    @Test
+    public void testConstructFromOther() {
+        Map<String, Object> other = new InternedHeadersMapFactory().newMap();
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+        other.put(Exchange.FILE_NAME, "hello.txt");
+
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap(other);
+
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+
+        assertEquals(123, map.get("BAR"));
+        assertEquals(123, map.get("bar"));
+        assertEquals(123, map.get("BaR"));
+
+        assertEquals("hello.txt", map.get("camelfilename"));
+        assertEquals(other, map);
+    }
+
+    @Test
+    public void testRemoveAndIterate() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        for (int i = 0; i < 50; i++) {
+            map.put("header" + i, i);
+        }
+        map.put(Exchange.HTTP_URI, "/foo");
+        map.put("JMSMessageID", "ID:1");
+        assertEquals(52, map.size());
+
+        assertEquals(10, map.remove("HEADER10"));
+        assertNull(map.remove("HEADER10"));
+        assertEquals("/foo", map.remove("camelhttpuri"));
+        assertEquals(50, map.size());
+        assertFalse(map.containsKey("header10"));
+        assertTrue(map.containsKey("header11"));
+        assertEquals(49, map.get("Header49"));
+
+        // remove the odd headers using the iterator
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if (entry.getValue() instanceof Integer && (Integer) entry.getValue() % 2 == 1) {
+                it.remove();
+            } else if ("JMSMessageID".equals(entry.getKey())) {
+                entry.setValue("ID:2");
+            }
+        }
+        assertEquals(25, map.size());
+        assertEquals("ID:2", map.get("jmsmessageid"));
+        assertEquals(0, map.get("header0"));
+        assertNull(map.get("header1"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("header0"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialize() throws Exception {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        map.put("Foo", "cheese");
+        map.put(Exchange.FILE_NAME, "hello.txt");
+        map.put("Content-Type", "text/plain");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(map);
+        }
+        Map<String, Object> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            copy = (Map<String, Object>) in.readObject();
+        }
+
+        assertInstanceOf(InternedHeadersMap.class, copy);
+        assertEquals(map, copy);
+        assertEquals("cheese", copy.get("FOO"));
+        assertEquals("hello.txt", copy.get("camelfilename"));
+        assertEquals("text/plain", copy.get("content-type"));
+
+        // the well known headers are still found by their id
+        copy.put("CONTENT-TYPE", "text/xml");
+        assertEquals(3, copy.size());
+        assertEquals("text/xml", copy.get("Content-Type"));
+        assertEquals("hello.txt", copy.remove(Exchange.FILE_NAME));
+        assertEquals(List.of("Foo", "Content-Type"), new ArrayList<>(copy.keySet()));
+    }
+
+    @Test
+    public void testIsInstance() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+
+        Map<String, Object> other = new InternedHeadersMapFactory().newMap(map);
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+
+        assertTrue(new InternedHeadersMapFactory().isInstanceOf(map));
+        assertTrue(new InternedHeadersMapFactory().isInstanceOf(other));
+        assertFalse(new InternedHeadersMapFactory().isInstanceOf(new HashMap<>()));
+    }
+
+}
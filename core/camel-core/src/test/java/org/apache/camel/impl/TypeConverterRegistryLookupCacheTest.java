@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.TypeConverterRegistry;
+import org.apache.camel.support.TypeConverterSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeConverterRegistryLookupCacheTest {
+
+    @Test
+    public void testNegativeCacheHit() {
+        DefaultCamelContext context = new DefaultCamelContext();
+        context.setTypeConverterStatisticsEnabled(true);
+        context.start();
+
+        TypeConverterRegistry.Statistics stat = context.getTypeConverterRegistry().getStatistics();
+        stat.reset();
+
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+        assertEquals(1, stat.getCacheMissCounter());
+        assertEquals(0, stat.getNegativeCacheHitCounter());
+
+        // the miss is now cached
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "456"));
+        assertEquals(1, stat.getCacheMissCounter());
+        assertEquals(2, stat.getCacheHitCounter());
+        assertEquals(2, stat.getNegativeCacheHitCounter());
+        assertEquals(3, stat.getMissCounter());
+
+        context.stop();
+    }
+
+    @Test
+    public void testCacheHit() {
+        DefaultCamelContext context = new DefaultCamelContext();
+        context.setTypeConverterStatisticsEnabled(true);
+        context.start();
+
+        TypeConverterRegistry.Statistics stat = context.getTypeConverterRegistry().getStatistics();
+        stat.reset();
+
+        // use a conversion which is not optimized before the registry is used
+        assertEquals(123L, context.getTypeConverter().convertTo(Long.class, "123"));
+        long misses = stat.getCacheMissCounter();
+        assertTrue(misses > 0);
+
+        assertEquals(456L, context.getTypeConverter().convertTo(Long.class, "456"));
+        assertEquals(789L, context.getTypeConverter().convertTo(Long.class, "789"));
+        assertEquals(misses, stat.getCacheMissCounter());
+        assertEquals(2, stat.getCacheHitCounter());
+        assertEquals(0, stat.getNegativeCacheHitCounter());
+
+        context.stop();
+    }
+
+    @Test
+    public void testCachedMissThenAddAndRemoveTypeConverter() {
+        DefaultCamelContext context = new DefaultCamelContext();
+
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+
+        // add missing type converter
+        context.getTypeConverterRegistry().addTypeConverter(MyOrder.class, String.class, new MyOrderTypeConverter());
+
+        MyOrder order = context.getTypeConverter().convertTo(MyOrder.class, "123");
+        assertNotNull(order);
+        assertEquals(123, order.getId());
+        order = context.getTypeConverter().convertTo(MyOrder.class, "456");
+        assertNotNull(order);
+        assertEquals(456, order.getId());
+
+        // and remove it again
+        assertTrue(context.getTypeConverterRegistry().removeTypeConverter(MyOrder.class, String.class));
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, "123"));
+    }
+
+    private static class MyOrder {
+        private final int id;
+
+        MyOrder(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+
+    private static class MyOrderTypeConverter extends TypeConverterSupport {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+            return (T) new MyOrder(Integer.parseInt(value.toString()));
+        }
+
+    }
+
+}
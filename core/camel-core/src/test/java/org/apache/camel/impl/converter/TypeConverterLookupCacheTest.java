@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.TypeConverter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeConverterLookupCacheTest {
+
+    private static final Class<?>[] TYPES = {
+            String.class, Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class, Boolean.class,
+            Character.class, byte[].class, char[].class, StringBuilder.class, List.class, ArrayList.class, Object.class,
+            Number.class, CharSequence.class, java.io.InputStream.class, java.io.Reader.class, java.io.File.class,
+            java.net.URI.class, java.net.URL.class, java.util.Map.class, java.util.Set.class, java.util.Date.class };
+
+    @Test
+    public void testPutGet() {
+        TypeConverterLookupCache cache = new TypeConverterLookupCache();
+        TypeConverter tc = new ToStringTypeConverter();
+
+        assertNull(cache.get(Integer.class, String.class));
+        cache.put(Integer.class, String.class, tc);
+        assertSame(tc, cache.get(Integer.class, String.class));
+        // the pair is ordered
+        assertNull(cache.get(String.class, Integer.class));
+        assertEquals(1, cache.size());
+
+        // replace
+        TypeConverter tc2 = new ToStringTypeConverter();
+        cache.put(Integer.class, String.class, tc2);
+        assertSame(tc2, cache.get(Integer.class, String.class));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertNull(cache.get(Integer.class, String.class));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testResize() {
+        TypeConverterLookupCache cache = new TypeConverterLookupCache();
+        List<TypeConverter> converters = new ArrayList<>();
+
+        // more pairs than the initial capacity
+        for (Class<?> from : TYPES) {
+            for (Class<?> to : TYPES) {
+                TypeConverter tc = new ToStringTypeConverter();
+                converters.add(tc);
+                cache.put(from, to, tc);
+            }
+        }
+        assertEquals(TYPES.length * TYPES.length, cache.size());
+
+        int i = 0;
+        for (Class<?> from : TYPES) {
+            for (Class<?> to : TYPES) {
+                assertSame(converters.get(i++), cache.get(from, to));
+            }
+        }
+    }
+}
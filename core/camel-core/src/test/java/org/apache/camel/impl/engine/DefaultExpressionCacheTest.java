@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.Iterator;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.spi.ExpressionCache;
+import org.apache.camel.spi.Language;
+import org.apache.camel.support.PluginHelper;
+import org.apache.camel.support.builder.ExpressionBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DefaultExpressionCacheTest extends ContextTestSupport {
+
+    @Test
+    public void testLanguageUsesCache() {
+        ExpressionCache cache = PluginHelper.getExpressionCache(context);
+        Language tokenize = context.resolveLanguage("tokenize");
+
+        Expression exp = tokenize.createExpression(",");
+        assertSame(exp, tokenize.createExpression(","));
+        assertNotSame(exp, tokenize.createExpression(";"));
+        // the properties are part of the key
+        assertNotSame(exp, tokenize.createExpression(",", new Object[] { null, "foo" }));
+        assertSame(tokenize.createExpression(",", new Object[] { null, "foo" }),
+                tokenize.createExpression(",", new Object[] { null, "foo" }));
+
+        // predicates are cached separately
+        Predicate predicate = tokenize.createPredicate(",");
+        assertSame(predicate, tokenize.createPredicate(","));
+
+        ExpressionCache.Statistics stats = statistics(cache, "tokenize");
+        assertEquals(4, stats.getSize());
+        assertEquals(4, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(0, stats.getEvicted());
+
+        cache.resetStatistics();
+        assertEquals(0, stats.getHits());
+        cache.clear();
+        assertEquals(0, stats.getSize());
+        assertNotSame(exp, tokenize.createExpression(","));
+    }
+
+    @Test
+    public void testResourceNotCached() {
+        ExpressionCache cache = PluginHelper.getExpressionCache(context);
+        Language tokenize = context.resolveLanguage("tokenize");
+
+        // the content of the resource may change, so expressions loaded from a resource are not cached
+        String text = "resource:classpath:org/apache/camel/component/language/hello.txt";
+        assertNotSame(tokenize.createExpression(text), tokenize.createExpression(text));
+        assertNotSame(tokenize.createPredicate(text), tokenize.createPredicate(text));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFrequentlyUsedExpressionsStay() {
+        ExpressionCache cache = PluginHelper.getExpressionCache(context);
+        cache.setMaximumCacheSize(10);
+
+        Expression[] hot = new Expression[5];
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < hot.length; j++) {
+                hot[j] = compute(cache, "hot" + j);
+            }
+        }
+
+        // many expressions used once, which would flush a LRU cache
+        for (int i = 0; i < 1000; i++) {
+            compute(cache, "cold" + i);
+            if (i % 20 == 0) {
+                for (int j = 0; j < hot.length; j++) {
+                    assertSame(hot[j], compute(cache, "hot" + j));
+                }
+            }
+        }
+
+        for (int j = 0; j < hot.length; j++) {
+            assertSame(hot[j], compute(cache, "hot" + j));
+        }
+        assertTrue(cache.size() <= 10, "Size was " + cache.size());
+
+        ExpressionCache.Statistics stats = statistics(cache, "test");
+        assertEquals(cache.size(), stats.getSize());
+        assertEquals(1005 - cache.size(), stats.getEvicted());
+    }
+
+    @Test
+    public void testDisabled() {
+        ExpressionCache cache = PluginHelper.getExpressionCache(context);
+        cache.setMaximumCacheSize(0);
+
+        assertNotSame(compute(cache, "foo"), compute(cache, "foo"));
+        assertEquals(0, cache.size());
+    }
+
+    private static Expression compute(ExpressionCache cache, String text) {
+        return cache.computeExpressionIfAbsent("test", null, text, null, () -> ExpressionBuilder.constantExpression(text));
+    }
+
+    private static ExpressionCache.Statistics statistics(ExpressionCache cache, String language) {
+        Iterator<ExpressionCache.Statistics> it = cache.getStatistics().iterator();
+        while (it.hasNext()) {
+            ExpressionCache.Statistics stats = it.next();
+            if (language.equals(stats.getLanguage())) {
+                return stats;
+            }
+        }
+        throw new AssertionError("No statistics for language: " + language);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.spi.ReactiveExecutor;
+import org.junit.jupiter.api.Test;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkStealingReactiveExecutorTest extends ContextTestSupport {
+
+    private final WorkStealingReactiveExecutor executor = new WorkStealingReactiveExecutor();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        executor.setLanes(4);
+        executor.setStatisticsEnabled(true);
+        context.getCamelContextExtension().setReactiveExecutor(executor);
+        return context;
+    }
+
+    @Test
+    public void testRouting() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+        getMockEndpoint("mock:line").expectedMessageCount(30);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "A,B,C");
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testBurstIsStolenByIdleLanes() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(100);
+
+        executor.scheduleMain(() -> {
+            for (int i = 0; i < 100; i++) {
+                executor.schedule(() -> {
+                    threads.add(Thread.currentThread());
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    latch.countDown();
+                });
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(threads.size() > 1, "Burst should be executed by more than one thread");
+        assertTrue(executor.getOffloadedTasks() > 0);
+        assertTrue(executor.getSteals() > 0);
+        assertEquals(0, executor.getLaneDepth());
+    }
+
+    @Test
+    public void testSameOrderAsDefaultReactiveExecutor() {
+        List<String> expected = scheduleNested(new DefaultReactiveExecutor());
+        List<String> actual = scheduleNested(executor);
+
+        assertEquals(List.of("A", "C", "B", "E", "D"), expected);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSameOrderWhenOffloadedToLanes() throws Exception {
+        int count = 20;
+        List<List<String>> orders = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(count);
+
+        executor.scheduleMain(() -> {
+            for (int i = 0; i < count; i++) {
+                executor.schedule(() -> {
+                    orders.add(scheduleNested(executor));
+                    latch.countDown();
+                });
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(executor.getOffloadedTasks() > 0);
+        assertEquals(count, orders.size());
+        // the nested tasks run after the task on the same thread, also when the task was offloaded to a lane
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            for (List<String> order : orders) {
+                assertEquals(List.of("A", "C", "B", "E", "D"), order);
+            }
+        });
+    }
+
+    @Test
+    public void testContinuationNotRunConcurrentlyWithScheduler() throws Exception {
+        int count = 20;
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(count);
+
+        executor.scheduleMain(() -> {
+            for (int i = 0; i < count; i++) {
+                executor.schedule(() -> {
+                    AtomicBoolean done = new AtomicBoolean();
+                    // the continuation must not run until this task is done, even when there is a backlog
+                    executor.schedule(() -> {
+                    });
+                    executor.schedule(() -> {
+                        if (!done.get()) {
+                            overlaps.incrementAndGet();
+                        }
+                        latch.countDown();
+                    });
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.set(true);
+                });
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(executor.getOffloadedTasks() > 0);
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    public void testStopRunsQueuedTasks() throws Exception {
+        WorkStealingReactiveExecutor re = new WorkStealingReactiveExecutor();
+        re.setLanes(1);
+        re.start();
+
+        int count = 10;
+        List<Integer> done = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        re.scheduleMain(() -> {
+            re.schedule(() -> {
+            });
+            // offloaded to the lane, to keep the lane thread busy so the next offloaded tasks stay queued in the lane
+            re.schedule(() -> {
+                started.countDown();
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            for (int i = 0; i < count; i++) {
+                int number = i;
+                re.schedule(() -> done.add(number));
+            }
+            re.schedule(() -> {
+                try {
+                    assertTrue(started.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // every other task has been offloaded
+                assertEquals(count / 2, re.getLaneDepth());
+
+                re.stop();
+                blocked.countDown();
+            });
+        });
+
+        assertEquals(count, done.size());
+    }
+
+    private static List<String> scheduleNested(ReactiveExecutor re) {
+        List<String> order = new CopyOnWriteArrayList<>();
+        re.scheduleMain(() -> {
+            order.add("A");
+            re.scheduleMain(() -> order.add("B"));
+            re.scheduleSync(() -> order.add("C"));
+            re.schedule(() -> order.add("E"));
+            order.add("D");
+        });
+        return order;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .split(body().tokenize(","))
+                            .to("mock:line")
+                        .end()
+                        .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.Expression;
+import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
+import org.apache.camel.language.simple.compiler.CompiledSimpleExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleCompiledTest extends LanguageTestSupport {
+
+    private SimpleLanguage simple;
+
+    @Override
+    protected void doPostSetup() {
+        simple = (SimpleLanguage) context.resolveLanguage("simple");
+        simple.setCompiled(true);
+    }
+
+    @Test
+    public void testCompiledPredicate() {
+        Predicate predicate = simple.createPredicate("${header.foo} == 'abc' && ${header.bar} > 100 || ${body} == null");
+        CompiledSimpleExpression compiled = assertInstanceOf(CompiledSimpleExpression.class, predicate);
+        assertEquals(0, compiled.getInterpretedCount());
+
+        assertTrue(predicate.matches(exchange));
+        exchange.getIn().setHeader("bar", 100);
+        assertFalse(predicate.matches(exchange));
+        exchange.getIn().setBody(null);
+        assertTrue(predicate.matches(exchange));
+    }
+
+    @Test
+    public void testCompiledExpression() {
+        Expression expression = simple.createExpression("Hello ${body} from ${header.foo} and ${exchangeProperty.baz}");
+        CompiledSimpleExpression compiled = assertInstanceOf(CompiledSimpleExpression.class, expression);
+        assertEquals(0, compiled.getInterpretedCount());
+
+        exchange.setProperty("baz", "Claus");
+        assertEquals("Hello <hello id='m123'>world!</hello> from abc and Claus", expression.evaluate(exchange, String.class));
+
+        // null values are skipped
+        exchange.removeProperty("baz");
+        assertEquals("Hello <hello id='m123'>world!</hello> from abc and ", expression.evaluate(exchange, String.class));
+
+        // a single function keeps its type
+        assertEquals(123, simple.createExpression("${header.bar}").evaluate(exchange, Object.class));
+        assertEquals("", simple.createExpression("").evaluate(exchange, Object.class));
+    }
+
+    @Test
+    public void testNumericLiteral() {
+        assertPredicate("${header.bar} == 123", true);
+        assertPredicate("${header.bar} != 123", false);
+        assertPredicate("${header.bar} >= 123", true);
+        assertPredicate("${header.bar} < 124", true);
+
+        // the header is converted to a number like the interpreted predicate
+        exchange.getIn().setHeader("bar", "123");
+        assertPredicate("${header.bar} == 123", true);
+        assertPredicate("${header.bar} > 99", true);
+        exchange.getIn().setHeader("bar", 123L);
+        assertPredicate("${header.bar} == 123", true);
+        exchange.getIn().setHeader("bar", null);
+        assertPredicate("${header.bar} == 123", false);
+        assertPredicate("${header.bar} != 123", true);
+    }
+
+    @Test
+    public void testBodyOgnl() {
+        exchange.getIn().setBody(new Order("123", new Customer("Camel", null)));
+
+        assertExpression("${body.id}", "123");
+        assertExpression("${body.customer.name}", "Camel");
+        assertExpression("${body.customer?.address?.city}", null);
+        assertPredicate("${body.customer.name} == 'Camel'", true);
+        assertPredicate("${body.customer?.address?.city} == null", true);
+
+        // the same expressions work for other types of body
+        exchange.getIn().setBody(new Customer("Donkey", new Address("Paris")));
+        assertExpression("${body.name}", "Donkey");
+        assertExpression("${body.address.city}", "Paris");
+
+        exchange.getIn().setBody(null);
+        assertNull(simple.createExpression("${body.name}").evaluate(exchange, Object.class));
+    }
+
+    @Test
+    public void testInterpretedFunction() {
+        exchange.getIn().setBody("Hello World");
+
+        Expression expression = simple.createExpression("${body.toUpperCase()} ${header.foo}");
+        CompiledSimpleExpression compiled = assertInstanceOf(CompiledSimpleExpression.class, expression);
+        assertEquals(1, compiled.getInterpretedCount());
+        assertEquals("HELLO WORLD abc", expression.evaluate(exchange, String.class));
+
+        assertPredicate("${body} regex '^Hello.*' && ${header.bar} in '100,123'", true);
+        assertPredicate("${body.length()} > 10", true);
+    }
+
+    @Override
+    protected String getLanguageName() {
+        return "simple";
+    }
+
+    public static final class Order {
+        private final String id;
+        private final Customer customer;
+
+        public Order(String id, Customer customer) {
+            this.id = id;
+            this.customer = customer;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    public static final class Customer {
+        private final String name;
+        private final Address address;
+
+        public Customer(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static final class Address {
+        private final String city;
+
+        public Address(String city) {
+            this.city = city;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.FailedToCreateRouteException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.StringAggregationStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SplitterParallelMaxInFlightTest extends ContextTestSupport {
+
+    private static final int COUNT = 200;
+    private static final int MAX_IN_FLIGHT = 5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger pulled = new AtomicInteger();
+    private final AtomicInteger maxAhead = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    @Test
+    public void testMaxInFlight() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < COUNT; i++) {
+            if (i > 0) {
+                expected.append(',');
+            }
+            expected.append(i);
+        }
+        getMockEndpoint("mock:result").expectedBodiesReceived(expected.toString());
+
+        template.sendBody("direct:start", new CountingIterator());
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(COUNT, completed.get());
+        assertTrue(maxInFlight.get() <= MAX_IN_FLIGHT, "Max in-flight should be bounded, was: " + maxInFlight.get());
+        // the iterator is never pulled further ahead than the window
+        assertTrue(maxAhead.get() <= MAX_IN_FLIGHT, "Iterator should not run ahead, was: " + maxAhead.get());
+
+        Splitter splitter = context.getProcessor("mysplitter", Splitter.class);
+        assertEquals(MAX_IN_FLIGHT, splitter.getMaxInFlight());
+    }
+
+    @Test
+    public void testMaxInFlightRequiresParallelProcessing() throws Exception {
+        RouteBuilder builder = new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:invalid").split(body()).maxInFlight(2).to("mock:invalid");
+            }
+        };
+        Exception e = assertThrows(FailedToCreateRouteException.class, () -> context.addRoutes(builder));
+        assertTrue(e.getCause().getMessage().startsWith("MaxInFlight is used but ParallelProcessing"));
+    }
+
+    private class CountingIterator implements Iterator<String> {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < COUNT;
+        }
+
+        @Override
+        public String next() {
+            int ahead = pulled.incrementAndGet() - completed.get();
+            maxAhead.accumulateAndGet(ahead, Math::max);
+            return Integer.toString(index++);
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .split(body(), new StringAggregationStrategy().delimiter(","))
+                        .streaming().parallelProcessing().maxInFlight(MAX_IN_FLIGHT).id("mysplitter")
+                            .process(e -> {
+                                int n = inFlight.incrementAndGet();
+                                maxInFlight.accumulateAndGet(n, Math::max);
+                                // random delay so the replies complete out of order
+                                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+                                inFlight.decrementAndGet();
+                            })
+                            .process(e -> completed.incrementAndGet())
+                        .end()
+                        .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamResequencerRingBufferTest extends ContextTestSupport {
+
+    @Test
+    public void testSendMessagesInWrongOrderButReceiveThemInCorrectOrder() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("msg1", "msg2", "msg3", "msg4");
+
+        template.sendBodyAndHeader("direct:start", "msg4", "seqnum", 4L);
+        template.sendBodyAndHeader("direct:start", "msg1", "seqnum", 1L);
+        template.sendBodyAndHeader("direct:start", "msg3", "seqnum", 3L);
+        template.sendBodyAndHeader("direct:start", "msg2", "seqnum", 2L);
+
+        assertMockEndpointsSatisfied();
+
+        StreamResequencer resequencer = context.getProcessor("ring", StreamResequencer.class);
+        assertTrue(resequencer.isRingBuffer());
+    }
+
+    @Test
+    public void testMultithreaded() throws Exception {
+        int numMessages = 100;
+
+        Object[] bodies = new Object[numMessages];
+        for (int i = 0; i < numMessages; i++) {
+            bodies[i] = "msg" + i;
+        }
+
+        getMockEndpoint("mock:result").expectedBodiesReceived(bodies);
+        getMockEndpoint("mock:result").setResultWaitTime(20000);
+
+        ExecutorService service = context.getExecutorServiceManager().newFixedThreadPool(this, getName(), 2);
+        service.execute(() -> {
+            for (long i = 0; i < numMessages; i += 2) {
+                template.sendBodyAndHeader("direct:start", "msg" + i, "seqnum", i);
+            }
+        });
+        service.execute(() -> {
+            for (long i = 1; i < numMessages; i += 2) {
+                template.sendBodyAndHeader("direct:start", "msg" + i, "seqnum", i);
+            }
+        });
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testInvalidSequenceNumber() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(0);
+
+        Exchange out = template.send("direct:start", e -> e.getMessage().setBody("msg"));
+        assertInstanceOf(CamelExchangeException.class, out.getException());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                // the capacity is smaller than the number of messages in the multithreaded test
+                from("direct:start").resequence(header("seqnum")).stream().capacity(16).timeout(1000)
+                        .deliveryAttemptInterval(10).ringBuffer().id("ring")
+                        .to("mock:result");
+            }
+        };
+    }
+}
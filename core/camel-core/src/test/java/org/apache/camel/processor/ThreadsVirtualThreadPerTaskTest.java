@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class ThreadsVirtualThreadPerTaskTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getExecutorServiceManager().registerThreadPoolProfile(
+                new ThreadPoolProfileBuilder("virtual").virtualThreadPerTask(true).build());
+        return context;
+    }
+
+    @Test
+    public void testThreadsVirtualThreadPerTask() throws Exception {
+        getMockEndpoint("mock:threads").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:threads", "Hello " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        ThreadPerTaskExecutorService tpt = findExecutorService("threads");
+        assertNotNull(tpt, "Should use a virtual thread per task");
+        assertTrue(tpt.isVirtual());
+        assertEquals(10, tpt.getSubmittedTasks());
+        // the task is counted as completed after the message has been routed
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(10, tpt.getCompletedTasks()));
+        assertEquals(0, tpt.getFailedTasks());
+    }
+
+    @Test
+    public void testMulticastVirtualThreadPerTask() throws Exception {
+        getMockEndpoint("mock:a").expectedMessageCount(5);
+        getMockEndpoint("mock:b").expectedMessageCount(5);
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:multicast", "Hello " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        ThreadPerTaskExecutorService tpt = findExecutorService("multicast");
+        assertNotNull(tpt, "Should use a virtual thread per task");
+        assertTrue(tpt.isVirtual());
+        assertTrue(tpt.getSubmittedTasks() >= 10);
+    }
+
+    private ThreadPerTaskExecutorService findExecutorService(String routeId) {
+        for (ExecutorService es : context.getExecutorServiceManager().getExecutorServices()) {
+            if (es instanceof ThreadPerTaskExecutorService tpt && routeId.equals(tpt.getRouteId())) {
+                return tpt;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:threads").routeId("threads")
+                        .threads().executorService("virtual")
+                        .to("mock:threads");
+
+                from("direct:multicast").routeId("multicast")
+                        .multicast().executorService("virtual")
+                        .to("mock:a", "mock:b");
+            }
+        };
+    }
+}
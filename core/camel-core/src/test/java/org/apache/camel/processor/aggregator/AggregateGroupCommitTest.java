@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.FailedToStartRouteException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.MemoryAggregationRepository;
+import org.apache.camel.spi.BatchAggregationRepository;
+import org.apache.camel.util.ObjectHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Isolated("Creates lots of threads")
+public class AggregateGroupCommitTest extends ContextTestSupport {
+
+    private final MyBatchRepository repository = new MyBatchRepository();
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final int id = i % 10;
+            final int count = i;
+            tasks.add(() -> {
+                template.sendBodyAndHeader("direct:start", Integer.toString(count), "id", id);
+                return null;
+            });
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(10);
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_SIZE).isEqualTo(20);
+
+        service.invokeAll(tasks);
+
+        assertMockEndpointsSatisfied();
+        service.shutdownNow();
+
+        // the writes are only done in batches
+        assertEquals(0, repository.singleWrites.get());
+        assertTrue(repository.batches.get() > 0);
+        assertTrue(repository.batches.get() < 190, "Writes should be coalesced, was: " + repository.batches.get());
+        // the completed groups have been removed and confirmed (the confirms are committed in a later batch)
+        assertEquals(10, repository.removed.get());
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(10, repository.confirmed.get()));
+        assertTrue(repository.getKeys().isEmpty());
+    }
+
+    @Test
+    public void testExchangeContinuesAfterCommit() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(0);
+
+        template.sendBodyAndHeader("direct:start", "A", "id", "1");
+
+        // the aggregated state has been stored when the producer continues
+        Exchange stored = repository.get(context, "1");
+        assertNotNull(stored);
+        assertEquals("A", stored.getMessage().getBody());
+        assertEquals(1, repository.batches.get());
+
+        template.sendBodyAndHeader("direct:start", "B", "id", "1");
+        stored = repository.get(context, "1");
+        assertEquals("AB", stored.getMessage().getBody());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompletedExchangeSentAfterRemovalCommitted() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:small");
+        mock.expectedBodiesReceived("AB");
+        // the correlation group has been removed from the repository before the completed exchange is sent
+        mock.allMessages().header("stored").isEqualTo(false);
+
+        template.sendBodyAndHeader("direct:small", "A", "id", "1");
+        template.sendBodyAndHeader("direct:small", "B", "id", "1");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompletedExchangeNotSentWhenRemovalFails() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:small");
+        mock.expectedMessageCount(0);
+        mock.setAssertPeriod(200);
+
+        template.sendBodyAndHeader("direct:small", "A", "id", "1");
+        repository.failRemove = true;
+        assertThrows(CamelExecutionException.class, () -> template.sendBodyAndHeader("direct:small", "B", "id", "1"));
+
+        // the correlation group is still in the repository, so it is completed again later
+        assertNotNull(repository.get(context, "1"));
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompletionTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedBodiesReceivedInAnyOrder("A+A", "B");
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("timeout");
+
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+        template.sendBodyAndHeader("direct:timeout", "B", "id", "B");
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testOptimisticLockingNotAllowed() throws Exception {
+        RouteBuilder builder = new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:invalid").aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .completionSize(2).optimisticLocking().groupCommitInterval(10)
+                        .to("mock:invalid");
+            }
+        };
+        Exception e = assertThrows(FailedToStartRouteException.class, () -> context.addRoutes(builder));
+        IllegalArgumentException cause = assertIsInstanceOf(IllegalArgumentException.class, ObjectHelper.getException(
+                IllegalArgumentException.class, e));
+        assertTrue(cause.getMessage().startsWith("Group commit cannot be used together with optimistic locking"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .aggregate(header("id"), new MyConcatStrategy()).completionSize(20)
+                        .aggregationRepository(repository).groupCommitInterval(20)
+                        .to("mock:result");
+
+                from("direct:small")
+                        .aggregate(header("id"), new MyConcatStrategy()).completionSize(2)
+                        .aggregationRepository(repository).groupCommitInterval(20)
+                        .process(e -> e.getMessage().setHeader("stored", repository.get(context, "1") != null))
+                        .to("mock:small");
+
+                from("direct:timeout")
+                        .aggregate(header("id"), new BodyInAggregatingStrategy()).completionTimeout(200)
+                        .completionTimeoutCheckerInterval(10).groupCommitInterval(20)
+                        .to("mock:timeout");
+            }
+        };
+    }
+
+    private static final class MyConcatStrategy extends BodyInAggregatingStrategy {
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            String body = oldExchange.getIn().getBody(String.class) + newExchange.getIn().getBody(String.class);
+            oldExchange.getIn().setBody(body);
+            return oldExchange;
+        }
+    }
+
+    private static final class MyBatchRepository extends MemoryAggregationRepository implements BatchAggregationRepository {
+
+        private final AtomicInteger singleWrites = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger removed = new AtomicInteger();
+        private final AtomicInteger confirmed = new AtomicInteger();
+        private volatile boolean failRemove;
+
+        @Override
+        public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+            singleWrites.incrementAndGet();
+            return super.add(camelContext, key, exchange);
+        }
+
+        @Override
+        public void addAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+            batches.incrementAndGet();
+            exchanges.forEach((key, exchange) -> super.add(camelContext, key, exchange));
+        }
+
+        @Override
+        public void removeAll(CamelContext camelContext, Map<String, Exchange> exchanges) {
+            if (failRemove) {
+                throw new IllegalStateException("Forced");
+            }
+            removed.addAndGet(exchanges.size());
+            exchanges.forEach((key, exchange) -> super.remove(camelContext, key, exchange));
+        }
+
+        @Override
+        public void confirmAll(CamelContext camelContext, Collection<String> exchangeIds) {
+            confirmed.addAndGet(exchangeIds.size());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.FailedToStartRouteException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.AggregateProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessorStatistics;
+import org.apache.camel.processor.aggregator.AggregateForceCompletionHeaderInAggregationStrategyTest.MyAggregationStrategy;
+import org.apache.camel.util.ObjectHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Isolated("Creates lots of threads")
+public class AggregateShardsTest extends ContextTestSupport {
+
+    @Test
+    public void testConcurrentGroups() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final int id = i % 50;
+            final int count = i;
+            tasks.add(() -> {
+                template.sendBodyAndHeader("direct:start", Integer.toString(count), "id", id);
+                return null;
+            });
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(50);
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_SIZE).isEqualTo(20);
+
+        service.invokeAll(tasks);
+
+        assertMockEndpointsSatisfied();
+        service.shutdownNow();
+
+        AggregateProcessor aggregator = context.getProcessor("myAggregator", AggregateProcessor.class);
+        AggregateProcessorStatistics stats = aggregator.getStatistics();
+        // is rounded up to a power of two
+        assertEquals(8, stats.getShardCount());
+        assertEquals(8, stats.getShardStatistics().size());
+        long locks = 0;
+        int used = 0;
+        for (AggregateProcessorStatistics.ShardStatistics shard : stats.getShardStatistics()) {
+            locks += shard.getLockCount();
+            if (shard.getLockCount() > 0) {
+                used++;
+            }
+            assertTrue(shard.getContendedCount() <= shard.getLockCount());
+        }
+        assertEquals(1000, locks);
+        assertTrue(used > 1, "Correlation groups should be spread over the shards");
+
+        stats.reset();
+        assertEquals(0, stats.getShardStatistics().get(0).getLockCount());
+    }
+
+    @Test
+    public void testCompletionTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedBodiesReceivedInAnyOrder("A+A", "B", "C+C+C", "D");
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("timeout");
+
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+        template.sendBodyAndHeader("direct:timeout", "B", "id", "B");
+        template.sendBodyAndHeader("direct:timeout", "C", "id", "C");
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+        template.sendBodyAndHeader("direct:timeout", "C", "id", "C");
+        template.sendBodyAndHeader("direct:timeout", "D", "id", "D");
+        template.sendBodyAndHeader("direct:timeout", "C", "id", "C");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testForceCompletionOfAllGroups() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedBodiesReceivedInAnyOrder("A+A", "B", "C");
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("force");
+
+        AggregateProcessor aggregator = context.getProcessor("timeoutAggregator", AggregateProcessor.class);
+        // use a long timeout so only the force completion completes the groups
+        aggregator.setCompletionTimeout(60000);
+
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+        template.sendBodyAndHeader("direct:timeout", "B", "id", "B");
+        template.sendBodyAndHeader("direct:timeout", "A", "id", "A");
+        template.sendBodyAndHeader("direct:timeout", "C", "id", "C");
+
+        assertEquals(3, aggregator.forceCompletionOfAllGroups());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompleteAllGroupsFromAggregationStrategy() throws Exception {
+        getMockEndpoint("mock:aggregated").expectedBodiesReceived("AAA", "BB");
+
+        template.sendBody("direct:all", "A,A,A,B,B");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompleteAllGroupsLikeSingleShard() throws Exception {
+        // the group of the current key is completed as well, the same as without shards
+        for (String uri : new String[] { "mock:single", "mock:sharded" }) {
+            MockEndpoint mock = getMockEndpoint(uri);
+            mock.expectedBodiesReceivedInAnyOrder("A1", "B1", "C1");
+            mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("force");
+        }
+
+        for (String uri : new String[] { "direct:single", "direct:sharded" }) {
+            template.sendBodyAndHeader(uri, "A1", "id", "A");
+            template.sendBodyAndHeader(uri, "B1", "id", "B");
+            template.sendBodyAndHeader(uri, "C1", "id", "C");
+            template.sendBodyAndHeader(uri, "A2", "id", "A");
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testCompletionOnNewCorrelationGroupNotAllowed() throws Exception {
+        RouteBuilder builder = new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:invalid").aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .completionSize(2).completionOnNewCorrelationGroup().shards(4)
+                        .to("mock:invalid");
+            }
+        };
+        Exception e = assertThrows(FailedToStartRouteException.class, () -> context.addRoutes(builder));
+        IllegalArgumentException cause = assertIsInstanceOf(IllegalArgumentException.class, ObjectHelper.getException(
+                IllegalArgumentException.class, e));
+        assertTrue(cause.getMessage().startsWith("Sharding cannot be used together with"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .aggregate(header("id"), new BodyInAggregatingStrategy()).completionSize(20).shards(6)
+                        .id("myAggregator")
+                        .to("mock:result");
+
+                from("direct:timeout")
+                        .aggregate(header("id"), new BodyInAggregatingStrategy()).completionTimeout(200).shards(4)
+                        .completionTimeoutCheckerInterval(10).id("timeoutAggregator")
+                        .to("mock:timeout");
+
+                from("direct:all").split(body())
+                        .aggregate(simple("${body}"), new MyAggregationStrategy()).shards(4)
+                        .completionPredicate(exchangeProperty(Exchange.SPLIT_COMPLETE))
+                        .to("mock:aggregated");
+
+                from("direct:single")
+                        .aggregate(header("id"), new CompleteAllGroupsStrategy()).completionSize(3)
+                        .to("mock:single");
+
+                from("direct:sharded")
+                        .aggregate(header("id"), new CompleteAllGroupsStrategy()).completionSize(3).shards(4)
+                        .to("mock:sharded");
+            }
+        };
+    }
+
+    private static class CompleteAllGroupsStrategy implements AggregationStrategy {
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange != null) {
+                // the second message of a group completes all the groups
+                String oldBody = oldExchange.getIn().getBody(String.class);
+                String newBody = newExchange.getIn().getBody(String.class);
+                newExchange.getIn().setBody(oldBody + "+" + newBody);
+                newExchange.setProperty(Exchange.AGGREGATION_COMPLETE_ALL_GROUPS, true);
+            }
+            return newExchange;
+        }
+    }
+}
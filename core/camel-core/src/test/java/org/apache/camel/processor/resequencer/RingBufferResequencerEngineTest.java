@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.TestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferResequencerEngineTest extends TestSupport {
+
+    private RingBufferResequencerEngine<Integer> engine;
+    private SequenceBuffer<Integer> buffer;
+
+    @Override
+    @AfterEach
+    public void tearDown() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void testDeliverInOrder() throws Exception {
+        initResequencer(8, 5000);
+        engine.setLastDelivered(-1);
+        engine.insert(1);
+        engine.insert(3);
+        engine.insert(2);
+        // 1 is waiting for its predecessor to time out, but 2 and 3 are not
+        assertFalse(engine.deliverNext());
+        assertEquals(3, engine.size());
+
+        engine.insert(0);
+        engine.deliver();
+        assertEquals(0, engine.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll(0));
+        }
+        // the successor of the last delivered element is delivered at once
+        engine.insert(4);
+        engine.deliver();
+        assertEquals(4, buffer.poll(0));
+    }
+
+    @Test
+    void testDuplicateIgnored() throws Exception {
+        initResequencer(8, 5000);
+        engine.insert(0);
+        engine.insert(0);
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    void testGapTimeout() throws Exception {
+        initResequencer(8, 500);
+        engine.setLastDelivered(-1);
+        engine.insert(0);
+        engine.deliver();
+        assertEquals(0, buffer.poll(0));
+
+        // 1 is missing
+        engine.insert(3);
+        engine.insert(2);
+        engine.deliver();
+        assertNull(buffer.poll(250));
+
+        Thread.sleep(500);
+        engine.deliver();
+        assertEquals(2, buffer.poll(0));
+        assertEquals(3, buffer.poll(0));
+    }
+
+    @Test
+    void testRejectOld() throws Exception {
+        initResequencer(8, 5000);
+        engine.setRejectOld(true);
+        engine.setLastDelivered(-1);
+        engine.insert(0);
+        engine.insert(1);
+        engine.deliver();
+        assertThrows(MessageRejectedException.class, () -> engine.insert(0));
+    }
+
+    @Test
+    void testBackPressure() throws Exception {
+        initResequencer(4, 5000);
+        engine.setLastDelivered(-1);
+        engine.insert(0);
+        engine.insert(1);
+        engine.insert(2);
+        engine.insert(3);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                engine.insert(4);
+                latch.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        // the window is full so the producer is blocked
+        assertFalse(latch.await(250, TimeUnit.MILLISECONDS));
+
+        // delivering moves the window
+        assertTrue(engine.deliverNext());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        engine.deliver();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, buffer.poll(0));
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testBehindWindowRejected() throws Exception {
+        initResequencer(4, 5000);
+        engine.setLastDelivered(-1);
+        engine.insert(10);
+        engine.insert(11);
+        engine.insert(12);
+
+        // behind the window, such as when the sequence numbers are reset, so the caller must not be blocked
+        assertThrows(IllegalArgumentException.class, () -> engine.insert(0));
+        assertThrows(IllegalArgumentException.class, () -> engine.insert(8));
+        assertEquals(3, engine.size());
+
+        // an older element within the window is accepted
+        engine.insert(9);
+        assertEquals(4, engine.size());
+    }
+
+    @Test
+    void testRandom() throws Exception {
+        int input = 1000;
+        initResequencer(input, 5000);
+        List<Integer> list = new ArrayList<>(input);
+        for (int i = 0; i < input; i++) {
+            list.add(i);
+        }
+        Collections.shuffle(list, new Random(System.currentTimeMillis()));
+
+        engine.setLastDelivered(-1);
+        for (Integer i : list) {
+            engine.insert(i);
+        }
+        engine.deliver();
+
+        assertEquals(input, buffer.size());
+        for (int i = 0; i < input; i++) {
+            assertEquals(i, buffer.poll(0));
+        }
+    }
+
+    private void initResequencer(int capacity, long timeout) {
+        buffer = new SequenceBuffer<>();
+        engine = new RingBufferResequencerEngine<>(Integer::longValue, capacity);
+        engine.setSequenceSender(buffer);
+        engine.setTimeout(timeout);
+        engine.start();
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.throttle.adaptive;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.AdaptiveConcurrencyThrottler;
+import org.apache.camel.processor.ThrottlerRejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// time-bound that does not run well in shared environments
+@DisabledOnOs(OS.WINDOWS)
+@DisabledIfSystemProperty(named = "ci.env.name", matches = "github.com", disabledReason = "Flaky on Github CI")
+public class AdaptiveConcurrencyThrottlerTest extends ContextTestSupport {
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @Test
+    public void testLimitConcurrency() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(20);
+
+        for (int i = 0; i < 20; i++) {
+            template.sendBody("seda:a", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+        assertTrue(maxConcurrent.get() <= 3, "Should not exceed 3 concurrent exchanges, was: " + maxConcurrent.get());
+
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleA", AdaptiveConcurrencyThrottler.class);
+        assertEquals("AdaptiveConcurrency", throttler.getMode());
+        assertEquals(AdaptiveConcurrencyThrottler.LimitAlgorithm.Gradient, throttler.getLimitAlgorithm());
+        assertEquals(3, throttler.getCurrentMaximumRequests());
+        assertTrue(throttler.getDelayedCount() > 0);
+        assertTrue(throttler.getRttMillis() > 0);
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(0, throttler.getInflight()));
+    }
+
+    @Test
+    public void testAsyncDelayed() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(20);
+
+        for (int i = 0; i < 20; i++) {
+            template.sendBody("seda:async", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+        assertTrue(maxConcurrent.get() <= 2, "Should not exceed 2 concurrent exchanges, was: " + maxConcurrent.get());
+
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleAsync", AdaptiveConcurrencyThrottler.class);
+        assertTrue(throttler.getDelayedCount() > 0);
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(0, throttler.getInflight()));
+    }
+
+    @Test
+    public void testTimeoutDecreasesLimit() {
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleAimd", AdaptiveConcurrencyThrottler.class);
+        assertEquals(AdaptiveConcurrencyThrottler.LimitAlgorithm.Aimd, throttler.getLimitAlgorithm());
+
+        template.sendBody("direct:aimd", "A");
+        AdaptiveConcurrencyThrottler.ThrottlingState state = throttler.getThrottlingStates().iterator().next();
+        assertEquals(10, state.getLimit());
+
+        Exchange out = template.send("direct:aimd", e -> e.getMessage().setHeader("timeout", true));
+        assertInstanceOf(ExchangeTimedOutException.class, out.getException());
+        // the limit is decreased multiplicatively by the backoff ratio
+        assertEquals(9, state.getLimit());
+        assertEquals(1, throttler.getDroppedCount());
+        assertEquals(2, state.getPassedCount());
+        assertEquals(0, state.getInflight());
+    }
+
+    @Test
+    public void testRejectExecution() throws Exception {
+        getMockEndpoint("mock:result").expectedMinimumMessageCount(1);
+        getMockEndpoint("mock:error").expectedMinimumMessageCount(1);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("seda:reject", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleReject", AdaptiveConcurrencyThrottler.class);
+        assertTrue(throttler.getRejectedCount() > 0);
+        assertEquals(0, throttler.getDelayedCount());
+    }
+
+    @Test
+    public void testGrouping() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceivedInAnyOrder("A1", "B1", "A2", "B2");
+
+        template.sendBodyAndHeader("direct:group", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B1", "key", "B");
+        template.sendBodyAndHeader("direct:group", "A2", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B2", "key", "B");
+
+        assertMockEndpointsSatisfied();
+
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleGroup", AdaptiveConcurrencyThrottler.class);
+        assertEquals(2, throttler.getKeyCount());
+        for (AdaptiveConcurrencyThrottler.ThrottlingState state : throttler.getThrottlingStates()) {
+            assertEquals(2, state.getPassedCount());
+            assertEquals(5, state.getMaxLimit());
+        }
+
+        // the statistics are reset, but the keys keep their limit
+        throttler.reset();
+        assertEquals(2, throttler.getKeyCount());
+        for (AdaptiveConcurrencyThrottler.ThrottlingState state : throttler.getThrottlingStates()) {
+            assertEquals(0, state.getPassedCount());
+        }
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceivedInAnyOrder("A1", "B1");
+
+        template.sendBodyAndHeader("direct:group", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B1", "key", "B");
+
+        assertMockEndpointsSatisfied();
+
+        AdaptiveConcurrencyThrottler throttler = context.getProcessor("throttleGroup", AdaptiveConcurrencyThrottler.class);
+        assertEquals(2, throttler.getKeyCount());
+
+        // the keys have been used since the previous eviction so they are kept
+        assertEquals(0, throttler.evictIdle());
+        assertEquals(2, throttler.getKeyCount());
+
+        // the key B is used again, so only the idle key A is evicted
+        template.sendBodyAndHeader("direct:group", "B2", "key", "B");
+        assertEquals(1, throttler.evictIdle());
+        assertEquals(1, throttler.getKeyCount());
+        assertEquals("B", throttler.getThrottlingStates().iterator().next().getKey());
+
+        assertEquals(1, throttler.evictIdle());
+        assertEquals(0, throttler.getKeyCount());
+        assertEquals(2, throttler.getEvictedCount());
+
+        // and the key starts over when used again
+        getMockEndpoint("mock:result").reset();
+        getMockEndpoint("mock:result").expectedBodiesReceived("A2");
+        template.sendBodyAndHeader("direct:group", "A2", "key", "A");
+        assertMockEndpointsSatisfied();
+        assertEquals(1, throttler.getKeyCount());
+        assertEquals(1, throttler.getThrottlingStates().iterator().next().getPassedCount());
+    }
+
+    private void slowDownstream(Exchange exchange) throws Exception {
+        int current = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(20);
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                onException(ThrottlerRejectedExecutionException.class).handled(true).to("mock:error");
+
+                from("seda:a?concurrentConsumers=10").throttle(3).adaptiveConcurrencyMode().id("throttleA")
+                        .process(AdaptiveConcurrencyThrottlerTest.this::slowDownstream)
+                        .to("log:result", "mock:result");
+
+                from("seda:async?concurrentConsumers=10").throttle(2).adaptiveConcurrencyMode().asyncDelayed()
+                        .id("throttleAsync")
+                        .process(AdaptiveConcurrencyThrottlerTest.this::slowDownstream)
+                        .to("log:result", "mock:result");
+
+                from("direct:aimd").throttle(10).adaptiveConcurrencyMode().limitAlgorithm("Aimd").id("throttleAimd")
+                        .process(e -> {
+                            if (e.getMessage().getHeader("timeout", false, Boolean.class)) {
+                                throw new ExchangeTimedOutException(e, 1000);
+                            }
+                        });
+
+                from("seda:reject?concurrentConsumers=10").throttle(1).adaptiveConcurrencyMode().rejectExecution(true)
+                        .id("throttleReject")
+                        .process(AdaptiveConcurrencyThrottlerTest.this::slowDownstream)
+                        .to("log:result", "mock:result");
+
+                from("direct:group").throttle(constant(5), header("key")).adaptiveConcurrencyMode().id("throttleGroup")
+                        .to("log:result", "mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.throttle.bucket;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.ThrottlerRejectedExecutionException;
+import org.apache.camel.processor.TokenBucketThrottler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// time-bound that does not run well in shared environments
+@DisabledOnOs(OS.WINDOWS)
+@DisabledIfSystemProperty(named = "ci.env.name", matches = "github.com", disabledReason = "Flaky on Github CI")
+public class TokenBucketThrottlerTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+
+    @Test
+    public void testBurstThenSpreadEvenly() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(10);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:a", "<message>" + i + "</message>");
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertMockEndpointsSatisfied();
+        // the first 5 go through at once, and the next 5 are spread by 100ms each
+        assertTrue(elapsed >= INTERVAL - 50, "Should take at least " + (INTERVAL - 50) + "ms, was: " + elapsed);
+        assertTrue(elapsed <= INTERVAL * 3, "Should take at most " + (INTERVAL * 3) + "ms, was: " + elapsed);
+
+        TokenBucketThrottler throttler = context.getProcessor("throttleA", TokenBucketThrottler.class);
+        assertEquals("TokenBucket", throttler.getMode());
+        assertEquals(5, throttler.getCurrentMaximumRequests());
+        assertEquals(5, throttler.getDelayedCount());
+        assertEquals(0, throttler.getRejectedCount());
+    }
+
+    @Test
+    public void testAsyncDelayed() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(4);
+
+        for (int i = 0; i < 4; i++) {
+            template.sendBody("direct:async", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+        // the delayed exchanges continue routing from the scheduler
+        String caller = Thread.currentThread().getName();
+        assertEquals(caller, resultEndpoint.getReceivedExchanges().get(0).getMessage().getHeader("thread"));
+        assertNotEquals(caller, resultEndpoint.getReceivedExchanges().get(3).getMessage().getHeader("thread"));
+
+        TokenBucketThrottler throttler = context.getProcessor("throttleAsync", TokenBucketThrottler.class);
+        assertEquals(2, throttler.getDelayedCount());
+    }
+
+    @Test
+    public void testRejectExecution() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        getMockEndpoint("mock:error").expectedMessageCount(4);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:reject", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        TokenBucketThrottler throttler = context.getProcessor("throttleReject", TokenBucketThrottler.class);
+        assertEquals(4, throttler.getRejectedCount());
+        assertEquals(0, throttler.getDelayedCount());
+    }
+
+    @Test
+    public void testGroupingAndEvictIdle() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceivedInAnyOrder("A1", "A2", "B1", "B2");
+        getMockEndpoint("mock:error").expectedBodiesReceivedInAnyOrder("A3", "B3");
+
+        template.sendBodyAndHeader("direct:group", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B1", "key", "B");
+        template.sendBodyAndHeader("direct:group", "A2", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B2", "key", "B");
+        template.sendBodyAndHeader("direct:group", "A3", "key", "A");
+        template.sendBodyAndHeader("direct:group", "B3", "key", "B");
+
+        assertMockEndpointsSatisfied();
+
+        TokenBucketThrottler throttler = context.getProcessor("throttleGroup", TokenBucketThrottler.class);
+        assertEquals(2, throttler.getKeyCount());
+        for (TokenBucketThrottler.ThrottlingState state : throttler.getThrottlingStates()) {
+            assertEquals(2, state.getPassedCount());
+            assertEquals(1, state.getRejectedCount());
+        }
+
+        // keys are evicted when their bucket is full again
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
+            throttler.evictIdle();
+            assertEquals(0, throttler.getKeyCount());
+        });
+        assertEquals(2, throttler.getEvictedCount());
+
+        // and the key starts with a full bucket again
+        getMockEndpoint("mock:result").reset();
+        getMockEndpoint("mock:result").expectedBodiesReceived("A4", "A5");
+        template.sendBodyAndHeader("direct:group", "A4", "key", "A");
+        template.sendBodyAndHeader("direct:group", "A5", "key", "A");
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                onException(ThrottlerRejectedExecutionException.class).handled(true).to("mock:error");
+
+                from("direct:a").throttle(5).tokenBucketMode().timePeriodMillis(INTERVAL).id("throttleA")
+                        .to("log:result", "mock:result");
+
+                from("direct:async").throttle(2).tokenBucketMode().timePeriodMillis(INTERVAL).asyncDelayed()
+                        .id("throttleAsync")
+                        .process(e -> e.getMessage().setHeader("thread", Thread.currentThread().getName()))
+                        .to("log:result", "mock:result");
+
+                from("direct:reject").throttle(2).tokenBucketMode().timePeriodMillis(1000).rejectExecution(true)
+                        .id("throttleReject")
+                        .to("log:result", "mock:result");
+
+                from("direct:group").throttle(constant(2), header("key")).tokenBucketMode().timePeriodMillis(INTERVAL)
+                        .rejectExecution(true).id("throttleGroup")
+                        .to("log:result", "mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.TimeoutMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Isolated("Depends on precise timing that may be hard to achieve if the system is under pressure")
+@DisabledIfSystemProperty(named = "ci.env.name", matches = "github.com", disabledReason = "Flaky on Github CI")
+public class TimingWheelTimeoutMapTest {
+
+    private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+
+    @Test
+    public void testTimingWheelTimeoutMapPurge() {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<>(executor, 100);
+        map.start();
+        assertEquals(512, map.getWheelSize());
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> assertEquals(0, map.size()));
+
+        map.stop();
+    }
+
+    @Test
+    public void testGetRemove() {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<>(executor, 100);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(123, (int) map.get("A"));
+        assertEquals(123, map.remove("A").intValue());
+        assertNull(map.get("A"));
+        assertNull(map.remove("A"));
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    @Test
+    public void testExpiredInCorrectOrder() {
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(10, 8);
+        final List<String> keys = new ArrayList<>();
+        map.addListener((type, key, value) -> {
+            if (type == TimeoutMap.Listener.Type.Evict) {
+                keys.add(key);
+            }
+        });
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 45);
+        // is not expired
+        map.put("F", 6, 800);
+
+        map.clock.addAndGet(100);
+        map.purge();
+
+        assertEquals(List.of("D", "B", "C", "E", "A"), keys);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testPurgeWithinTick() {
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(100, 8);
+
+        map.put("A", 1, 30);
+        map.clock.addAndGet(10);
+        map.purge();
+        assertEquals(1, map.size());
+
+        // still within the same tick but now expired
+        map.clock.addAndGet(40);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testLongerThanRevolution() {
+        // the wheel covers 80 millis so the entry must survive several revolutions
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(10, 8);
+
+        map.put("A", 1, 500);
+        for (int i = 0; i < 49; i++) {
+            map.clock.addAndGet(10);
+            map.purge();
+            assertEquals(1, map.size(), "Should not be expired at " + map.clock.get());
+        }
+        map.clock.addAndGet(20);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testGetRenewsExpireTime() {
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(10, 8);
+
+        map.put("A", 1, 50);
+        map.clock.addAndGet(40);
+        map.purge();
+        // renew so it now expires at 90
+        assertEquals(1, map.get("A").intValue());
+
+        map.clock.addAndGet(40);
+        map.purge();
+        assertEquals(1, map.size());
+
+        map.clock.addAndGet(20);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testNotValidForEviction() {
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(10, 8);
+        map.valid = false;
+
+        map.put("A", 1, 10);
+        map.clock.addAndGet(50);
+        map.purge();
+        assertEquals(1, map.size());
+
+        // should be tried again on next purge
+        map.valid = true;
+        map.clock.addAndGet(10);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testReplaceAndRemoveManyEntries() {
+        ManualClockTimeoutMap map = new ManualClockTimeoutMap(10, 8);
+        final List<String> keys = new ArrayList<>();
+        map.addListener((type, key, value) -> {
+            if (type == TimeoutMap.Listener.Type.Evict) {
+                keys.add(key);
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, i, 10 + i);
+        }
+        // replace with a longer timeout
+        map.put("K0", 0, 1000);
+        assertEquals(0, map.putIfAbsent("K0", 99, 10).intValue());
+        for (int i = 1; i < 100; i += 2) {
+            map.remove("K" + i);
+        }
+        assertEquals(50, map.size());
+
+        map.clock.addAndGet(200);
+        map.purge();
+
+        assertEquals(49, keys.size());
+        assertEquals("K2", keys.get(0));
+        assertEquals("K98", keys.get(48));
+        assertEquals(1, map.size());
+        assertEquals(0, map.get("K0").intValue());
+    }
+
+    @Test
+    public void testStopStart() {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<>(executor, 100);
+        map.start();
+        map.put("A", 1, 500);
+        assertEquals(1, map.size());
+        map.stop();
+        assertEquals(0, map.size());
+
+        map.put("A", 1, 50);
+        map.start();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertEquals(0, map.size()));
+        map.stop();
+    }
+
+    private final class ManualClockTimeoutMap extends TimingWheelTimeoutMap<String, Integer> {
+
+        private final AtomicLong clock = new AtomicLong(1000);
+        private boolean valid = true;
+
+        ManualClockTimeoutMap(long tick, int wheelSize) {
+            super(executor, tick, NoLock.INSTANCE, wheelSize);
+        }
+
+        @Override
+        protected long currentTime() {
+            return clock.get();
+        }
+
+        @Override
+        protected boolean isValidForEviction(TimeoutMapEntry<String, Integer> entry) {
+            return valid;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.TestSupport;
+import org.apache.camel.spi.ScannableIdempotentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterIdempotentRepositoryTest extends TestSupport {
+
+    private CountingIdempotentRepository delegate;
+    private BloomFilterIdempotentRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        delegate = new CountingIdempotentRepository();
+        repository = new BloomFilterIdempotentRepository(delegate);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repository.stop();
+    }
+
+    @Test
+    public void testAddContainsRemove() {
+        repository.start();
+
+        assertFalse(repository.contains("a"));
+        // the filter knows the key has not been added
+        assertEquals(0, delegate.lookups.get());
+        assertEquals(1, repository.getSkippedCount());
+
+        assertTrue(repository.add("a"));
+        assertFalse(repository.add("a"));
+        assertTrue(repository.contains("a"));
+        assertEquals(1, delegate.lookups.get());
+        assertEquals(1, repository.getFilterSize());
+
+        assertTrue(repository.remove("a"));
+        assertFalse(repository.remove("a"));
+        assertFalse(repository.contains("a"));
+        assertEquals(1, delegate.lookups.get());
+        assertEquals(0, repository.getFilterSize());
+
+        repository.add("b");
+        repository.clear();
+        assertFalse(repository.contains("b"));
+        assertEquals(0, repository.getFilterSize());
+    }
+
+    @Test
+    public void testFalsePositiveProbability() {
+        repository.setExpectedInsertions(10000);
+        repository.setFalsePositiveProbability(0.01);
+        repository.start();
+
+        for (int i = 0; i < 10000; i++) {
+            repository.add("key" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.contains("key" + i));
+        }
+        assertEquals(1, repository.getFilterCount());
+
+        repository.resetStatistics();
+        int lookups = delegate.lookups.get();
+        for (int i = 0; i < 100000; i++) {
+            assertFalse(repository.contains("other" + i));
+        }
+        // only the false positives of the filter call the repository
+        assertEquals(lookups + repository.getFalsePositiveCount(), delegate.lookups.get());
+        assertTrue(repository.getFalsePositiveRate() < 0.02, "False positive rate was " + repository.getFalsePositiveRate());
+        assertTrue(repository.getEstimatedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    public void testGrow() {
+        repository.setExpectedInsertions(1000);
+        repository.start();
+
+        for (int i = 0; i < 10000; i++) {
+            repository.add("key" + i);
+        }
+        assertTrue(repository.getFilterCount() > 1);
+        assertEquals(10000, repository.getFilterSize());
+
+        repository.resetStatistics();
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.contains("key" + i));
+        }
+        for (int i = 0; i < 100000; i++) {
+            assertFalse(repository.contains("other" + i));
+        }
+        // the false positive probability stays within the configured probability as the filter grows
+        assertTrue(repository.getFalsePositiveRate() < 0.02, "False positive rate was " + repository.getFalsePositiveRate());
+    }
+
+    @Test
+    public void testWarmUp() {
+        MemoryIdempotentRepository memory = new MemoryIdempotentRepository();
+        memory.start();
+        for (int i = 0; i < 100; i++) {
+            memory.add("key" + i);
+        }
+        repository = new BloomFilterIdempotentRepository(memory);
+        repository.start();
+        assertEquals(100, repository.getFilterSize());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repository.contains("key" + i));
+        }
+    }
+
+    @Test
+    public void testRepositoryMustBeScannable() {
+        // the filter cannot be warmed up, so it would report the keys already in the repository as new
+        repository = new BloomFilterIdempotentRepository(new FileIdempotentRepository());
+        Exception e = assertThrows(IllegalArgumentException.class, () -> repository.start());
+        assertTrue(e.getMessage().contains(ScannableIdempotentRepository.class.getName()), e.getMessage());
+    }
+
+    @Test
+    public void testRemoveWithSeveralFilters() {
+        // a small and dense filter which grows into several filters, so a key can be reported by several filters
+        repository.setExpectedInsertions(100);
+        repository.setFalsePositiveProbability(0.5);
+        repository.start();
+
+        for (int i = 0; i < 5000; i++) {
+            repository.add("key" + i);
+        }
+        assertTrue(repository.getFilterCount() > 1);
+        for (int i = 0; i < 2500; i++) {
+            assertTrue(repository.remove("key" + i));
+        }
+
+        // removing keys must never cause the other keys to be reported as not added
+        for (int i = 2500; i < 5000; i++) {
+            assertTrue(repository.contains("key" + i), "Should contain key" + i);
+        }
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        repository.setFalsePositiveProbability(1);
+        assertThrows(IllegalArgumentException.class, () -> repository.start());
+
+        repository = new BloomFilterIdempotentRepository();
+        assertThrows(IllegalArgumentException.class, () -> repository.start());
+    }
+
+    private static final class CountingIdempotentRepository extends MemoryIdempotentRepository {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        private CountingIdempotentRepository() {
+            super(new HashMap<>());
+        }
+
+        @Override
+        public boolean contains(String key) {
+            lookups.incrementAndGet();
+            return super.contains(key);
+        }
+
+        @Override
+        public boolean contains(Exchange exchange, String key) {
+            return contains(key);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.TestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalIdempotentRepositoryTest extends TestSupport {
+
+    private File directory;
+    private JournalIdempotentRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        directory = testDirectory().resolve("journal").toFile();
+        repository = new JournalIdempotentRepository(directory);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repository.stop();
+    }
+
+    @Test
+    public void testAddContainsRemove() {
+        repository.start();
+
+        assertTrue(repository.add("a"));
+        assertFalse(repository.add("a"));
+        assertTrue(repository.add("b"));
+        assertTrue(repository.contains("a"));
+        assertFalse(repository.contains("c"));
+        assertEquals(2, repository.getSize());
+
+        assertTrue(repository.remove("a"));
+        assertFalse(repository.remove("a"));
+        assertFalse(repository.contains("a"));
+        assertEquals(1, repository.getSize());
+        assertEquals(3, repository.getRecordCount());
+
+        repository.clear();
+        assertFalse(repository.contains("b"));
+        assertEquals(0, repository.getSize());
+        assertEquals(0, repository.getRecordCount());
+    }
+
+    @Test
+    public void testRestart() {
+        repository.start();
+        for (int i = 0; i < 100; i++) {
+            repository.add("key" + i);
+        }
+        repository.remove("key5");
+        repository.stop();
+
+        repository = new JournalIdempotentRepository(directory);
+        repository.start();
+        assertEquals(99, repository.getSize());
+        assertTrue(repository.contains("key0"));
+        assertTrue(repository.contains("key99"));
+        assertFalse(repository.contains("key5"));
+
+        // can continue to append to the journal
+        assertTrue(repository.add("key5"));
+        assertFalse(repository.add("key6"));
+    }
+
+    @Test
+    public void testSegmentsAndCompaction() {
+        repository.setSegmentSize(256);
+        repository.setCompactionThreshold(0);
+        repository.start();
+
+        for (int i = 0; i < 100; i++) {
+            repository.add("key" + i);
+        }
+        assertTrue(repository.getSegmentCount() > 1);
+        for (int i = 0; i < 100; i += 2) {
+            repository.remove("key" + i);
+        }
+        assertEquals(150, repository.getRecordCount());
+
+        repository.compact();
+        assertEquals(1, repository.getCompactionCount());
+        // the compacted segment and the active segment
+        assertEquals(2, repository.getSegmentCount());
+        assertEquals(50, repository.getRecordCount());
+        assertEquals(50, repository.getSize());
+
+        // compacting again keeps the keys
+        repository.add("key0");
+        repository.compact();
+        assertEquals(51, repository.getRecordCount());
+        repository.stop();
+
+        repository = new JournalIdempotentRepository(directory);
+        repository.start();
+        assertEquals(51, repository.getSize());
+        assertTrue(repository.contains("key0"));
+        assertTrue(repository.contains("key1"));
+        assertFalse(repository.contains("key2"));
+    }
+
+    @Test
+    public void testAutomaticCompaction() {
+        repository.setSegmentSize(256);
+        repository.start();
+
+        for (int i = 0; i < 100; i++) {
+            repository.add("key" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            repository.remove("key" + i);
+        }
+        assertTrue(repository.getCompactionCount() > 0);
+        assertEquals(0, repository.getSize());
+        assertTrue(repository.getRecordCount() < 200);
+    }
+
+    @Test
+    public void testTruncatedRecord() throws Exception {
+        repository.start();
+        repository.add("a");
+        repository.add("b");
+        repository.stop();
+
+        // simulate a crash while writing the last record
+        File[] files = directory.listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        try (RandomAccessFile raf = new RandomAccessFile(files[0], "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        repository = new JournalIdempotentRepository(directory);
+        repository.start();
+        assertTrue(repository.contains("a"));
+        assertFalse(repository.contains("b"));
+        assertTrue(repository.add("b"));
+        repository.stop();
+
+        repository = new JournalIdempotentRepository(directory);
+        repository.start();
+        assertTrue(repository.contains("a"));
+        assertTrue(repository.contains("b"));
+    }
+
+    @Test
+    public void testOffHeap() {
+        repository.setOffHeap(true);
+        repository.start();
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repository.add("key" + i));
+        }
+        for (int i = 0; i < 10000; i += 3) {
+            assertTrue(repository.remove("key" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 3 != 0, repository.contains("key" + i));
+        }
+        repository.stop();
+
+        repository = new JournalIdempotentRepository(directory);
+        repository.setOffHeap(true);
+        repository.start();
+        assertEquals(6666, repository.getSize());
+        assertFalse(repository.contains("key0"));
+        assertTrue(repository.contains("key1"));
+    }
+
+    @Test
+    public void testConcurrentAdds() throws Exception {
+        repository.setSegmentSize(4096);
+        repository.start();
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicInteger added = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                // all threads add the same keys, so only one of them wins for each key
+                for (int i = 0; i < 1000; i++) {
+                    if (repository.add("key" + i)) {
+                        added.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(20, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        assertEquals(1000, added.get());
+        assertEquals(1000, repository.getSize());
+        assertEquals(1000, repository.getRecordCount());
+    }
+}
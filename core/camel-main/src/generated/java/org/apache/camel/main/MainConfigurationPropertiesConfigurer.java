@@ -149,6 +149,14 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "producertemplatecachesize":
         case "producerTemplateCacheSize": target.setProducerTemplateCacheSize(property(camelContext, int.class, value)); return true;
         case "profile": target.setProfile(property(camelContext, java.lang.String.class, value)); return true;
+        case "reactiveexecutor":
+        case "reactiveExecutor": target.setReactiveExecutor(property(camelContext, java.lang.String.class, value)); return true;
+        case "reactiveexecutorlanecapacity":
+        case "reactiveExecutorLaneCapacity": target.setReactiveExecutorLaneCapacity(property(camelContext, int.class, value)); return true;
+        case "reactiveexecutorlanes":
+        case "reactiveExecutorLanes": target.setReactiveExecutorLanes(property(camelContext, int.class, value)); return true;
+        case "reactiveexecutorstatisticsenabled":
+        case "reactiveExecutorStatisticsEnabled": target.setReactiveExecutorStatisticsEnabled(property(camelContext, boolean.class, value)); return true;
         case "routefilterexcludepattern":
         case "routeFilterExcludePattern": target.setRouteFilterExcludePattern(property(camelContext, java.lang.String.class, value)); return true;
         case "routefilterincludepattern":
@@ -221,6 +229,8 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "streamCachingSpoolDirectory": target.setStreamCachingSpoolDirectory(property(camelContext, java.lang.String.class, value)); return true;
         case "streamcachingspoolenabled":
         case "streamCachingSpoolEnabled": target.setStreamCachingSpoolEnabled(property(camelContext, boolean.class, value)); return true;
+        case "streamcachingspoolmemorymapped":
+        case "streamCachingSpoolMemoryMapped": target.setStreamCachingSpoolMemoryMapped(property(camelContext, boolean.class, value)); return true;
         case "streamcachingspoolthreshold":
         case "streamCachingSpoolThreshold": target.setStreamCachingSpoolThreshold(property(camelContext, long.class, value)); return true;
         case "streamcachingspoolusedheapmemorylimit":
@@ -383,6 +393,14 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "producertemplatecachesize":
         case "producerTemplateCacheSize": return int.class;
         case "profile": return java.lang.String.class;
+        case "reactiveexecutor":
+        case "reactiveExecutor": return java.lang.String.class;
+        case "reactiveexecutorlanecapacity":
+        case "reactiveExecutorLaneCapacity": return int.class;
+        case "reactiveexecutorlanes":
+        case "reactiveExecutorLanes": return int.class;
+        case "reactiveexecutorstatisticsenabled":
+        case "reactiveExecutorStatisticsEnabled": return boolean.class;
         case "routefilterexcludepattern":
         case "routeFilterExcludePattern": return java.lang.String.class;
         case "routefilterincludepattern":
@@ -455,6 +473,8 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "streamCachingSpoolDirectory": return java.lang.String.class;
         case "streamcachingspoolenabled":
         case "streamCachingSpoolEnabled": return boolean.class;
+        case "streamcachingspoolmemorymapped":
+        case "streamCachingSpoolMemoryMapped": return boolean.class;
         case "streamcachingspoolthreshold":
         case "streamCachingSpoolThreshold": return long.class;
         case "streamcachingspoolusedheapmemorylimit":
@@ -618,6 +638,14 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "producertemplatecachesize":
         case "producerTemplateCacheSize": return target.getProducerTemplateCacheSize();
         case "profile": return target.getProfile();
+        case "reactiveexecutor":
+        case "reactiveExecutor": return target.getReactiveExecutor();
+        case "reactiveexecutorlanecapacity":
+        case "reactiveExecutorLaneCapacity": return target.getReactiveExecutorLaneCapacity();
+        case "reactiveexecutorlanes":
+        case "reactiveExecutorLanes": return target.getReactiveExecutorLanes();
+        case "reactiveexecutorstatisticsenabled":
+        case "reactiveExecutorStatisticsEnabled": return target.isReactiveExecutorStatisticsEnabled();
         case "routefilterexcludepattern":
         case "routeFilterExcludePattern": return target.getRouteFilterExcludePattern();
         case "routefilterincludepattern":
@@ -690,6 +718,8 @@ public class MainConfigurationPropertiesConfigurer extends org.apache.camel.supp
         case "streamCachingSpoolDirectory": return target.getStreamCachingSpoolDirectory();
         case "streamcachingspoolenabled":
         case "streamCachingSpoolEnabled": return target.isStreamCachingSpoolEnabled();
+        case "streamcachingspoolmemorymapped":
+        case "streamCachingSpoolMemoryMapped": return target.isStreamCachingSpoolMemoryMapped();
         case "streamcachingspoolthreshold":
         case "streamCachingSpoolThreshold": return target.getStreamCachingSpoolThreshold();
         case "streamcachingspoolusedheapmemorylimit":
@@ -41,6 +41,7 @@ import org.apache.camel.impl.engine.PooledExchangeFactory;
 import org.apache.camel.impl.engine.PooledProcessorExchangeFactory;
 import org.apache.camel.impl.engine.PrototypeExchangeFactory;
 import org.apache.camel.impl.engine.PrototypeProcessorExchangeFactory;
+import org.apache.camel.impl.engine.WorkStealingReactiveExecutor;
 import org.apache.camel.model.Model;
 import org.apache.camel.model.ModelCamelContext;
 import org.apache.camel.model.ModelLifecycleStrategy;
@@ -159,8 +160,10 @@ public final class DefaultConfigurationConfigurer {
         }
         beanIntrospection.afterPropertiesConfigured(camelContext);
 
-        if ("pooled".equals(config.getExchangeFactory())) {
-            ecc.setExchangeFactory(new PooledExchangeFactory());
+        if ("pooled".equals(config.getExchangeFactory()) || "deep-pooled".equals(config.getExchangeFactory())) {
+            PooledExchangeFactory pef = new PooledExchangeFactory();
+            pef.setDeepPooling("deep-pooled".equals(config.getExchangeFactory()));
+            ecc.setExchangeFactory(pef);
             ecc.setProcessorExchangeFactory(new PooledProcessorExchangeFactory());
         } else if ("prototype".equals(config.getExchangeFactory())) {
             ecc.setExchangeFactory(new PrototypeExchangeFactory());
@@ -171,6 +174,14 @@ public final class DefaultConfigurationConfigurer {
         ecc.getExchangeFactory().setStatisticsEnabled(config.isExchangeFactoryStatisticsEnabled());
         ecc.getProcessorExchangeFactory().setStatisticsEnabled(config.isExchangeFactoryStatisticsEnabled());
 
+        if ("work-stealing".equals(config.getReactiveExecutor())) {
+            WorkStealingReactiveExecutor wsre = new WorkStealingReactiveExecutor();
+            wsre.setLanes(config.getReactiveExecutorLanes());
+            wsre.setLaneCapacity(config.getReactiveExecutorLaneCapacity());
+            wsre.setStatisticsEnabled(config.isReactiveExecutorStatisticsEnabled());
+            ecc.setReactiveExecutor(wsre);
+        }
+
         if (!config.isJmxEnabled()) {
             camelContext.disableJMX();
         }
@@ -210,6 +221,7 @@ public final class DefaultConfigurationConfigurer {
         camelContext.getStreamCachingStrategy()
                 .setRemoveSpoolDirectoryWhenStopping(config.isStreamCachingRemoveSpoolDirectoryWhenStopping());
         camelContext.getStreamCachingStrategy().setSpoolCipher(config.getStreamCachingSpoolCipher());
+        camelContext.getStreamCachingStrategy().setSpoolMemoryMapped(config.isStreamCachingSpoolMemoryMapped());
         if (config.getStreamCachingSpoolDirectory() != null) {
             camelContext.getStreamCachingStrategy().setSpoolDirectory(config.getStreamCachingSpoolDirectory());
         }
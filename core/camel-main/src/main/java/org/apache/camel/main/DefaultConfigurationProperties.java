@@ -64,6 +64,7 @@ public abstract class DefaultConfigurationProperties<T> {
     private boolean streamCachingSpoolEnabled;
     private String streamCachingSpoolDirectory;
     private String streamCachingSpoolCipher;
+    private boolean streamCachingSpoolMemoryMapped;
     private long streamCachingSpoolThreshold;
     private int streamCachingSpoolUsedHeapMemoryThreshold;
     private String streamCachingSpoolUsedHeapMemoryLimit;
@@ -127,10 +128,15 @@ public abstract class DefaultConfigurationProperties<T> {
     private boolean routesReloadRemoveAllRoutes = true;
     private boolean routesReloadRestartDuration;
     private boolean lightweight;
-    @Metadata(defaultValue = "default", enums = "default,prototype,pooled")
+    @Metadata(defaultValue = "default", enums = "default,prototype,pooled,deep-pooled")
     private String exchangeFactory = "default";
     private int exchangeFactoryCapacity = 100;
     private boolean exchangeFactoryStatisticsEnabled;
+    @Metadata(defaultValue = "default", enums = "default,work-stealing")
+    private String reactiveExecutor = "default";
+    private int reactiveExecutorLanes;
+    private int reactiveExecutorLaneCapacity = 1024;
+    private boolean reactiveExecutorStatisticsEnabled;
     @Metadata(enums = "xml,yaml")
     private String dumpRoutes;
     private String dumpRoutesInclude = "routes";
@@ -524,6 +530,19 @@ public abstract class DefaultConfigurationProperties<T> {
         this.streamCachingSpoolCipher = streamCachingSpoolCipher;
     }
 
+    public boolean isStreamCachingSpoolMemoryMapped() {
+        return streamCachingSpoolMemoryMapped;
+    }
+
+    /**
+     * Sets whether stream caching spool files should be memory mapped when they are read back. The spool file is then
+     * mapped once and shared by all readers of the stream cache (such as multicast, splitter and wire-tap) instead of
+     * opening the file again. This is not in use when a spool cipher is configured.
+     */
+    public void setStreamCachingSpoolMemoryMapped(boolean streamCachingSpoolMemoryMapped) {
+        this.streamCachingSpoolMemoryMapped = streamCachingSpoolMemoryMapped;
+    }
+
     public long getStreamCachingSpoolThreshold() {
         return streamCachingSpoolThreshold;
     }
@@ -1352,8 +1371,9 @@ public abstract class DefaultConfigurationProperties<T> {
 
     /**
      * Controls whether to pool (reuse) exchanges or create new exchanges (prototype). Using pooled will reduce JVM
-     * garbage collection overhead by avoiding to re-create Exchange instances per message each consumer receives. The
-     * default is prototype mode.
+     * garbage collection overhead by avoiding to re-create Exchange instances per message each consumer receives. Using
+     * deep-pooled will in addition also pool the unit of work, message history and tasks used by the EIPs during
+     * routing. The default is prototype mode.
      */
     public void setExchangeFactory(String exchangeFactory) {
         this.exchangeFactory = exchangeFactory;
@@ -1384,6 +1404,55 @@ public abstract class DefaultConfigurationProperties<T> {
         this.exchangeFactoryStatisticsEnabled = exchangeFactoryStatisticsEnabled;
     }
 
+    public String getReactiveExecutor() {
+        return reactiveExecutor;
+    }
+
+    /**
+     * Controls which reactive executor to use for routing exchanges. The default executor runs the reactive work on the
+     * thread that scheduled it. The work-stealing executor uses bounded per-core lanes, where backlog of reactive work
+     * can be stolen by idle lanes, allowing bursts of work on a single thread to be drained by idle cores.
+     */
+    public void setReactiveExecutor(String reactiveExecutor) {
+        this.reactiveExecutor = reactiveExecutor;
+    }
+
+    public int getReactiveExecutorLanes() {
+        return reactiveExecutorLanes;
+    }
+
+    /**
+     * Number of lanes to use by the work-stealing reactive executor. The default is the number of available
+     * processors.
+     */
+    public void setReactiveExecutorLanes(int reactiveExecutorLanes) {
+        this.reactiveExecutorLanes = reactiveExecutorLanes;
+    }
+
+    public int getReactiveExecutorLaneCapacity() {
+        return reactiveExecutorLaneCapacity;
+    }
+
+    /**
+     * Maximum number of tasks that can be queued per lane by the work-stealing reactive executor. The default capacity
+     * is 1024.
+     */
+    public void setReactiveExecutorLaneCapacity(int reactiveExecutorLaneCapacity) {
+        this.reactiveExecutorLaneCapacity = reactiveExecutorLaneCapacity;
+    }
+
+    public boolean isReactiveExecutorStatisticsEnabled() {
+        return reactiveExecutorStatisticsEnabled;
+    }
+
+    /**
+     * Configures whether statistics is enabled on the work-stealing reactive executor, such as the number of offloaded
+     * and stolen tasks, and the time tasks are waiting in the lanes.
+     */
+    public void setReactiveExecutorStatisticsEnabled(boolean reactiveExecutorStatisticsEnabled) {
+        this.reactiveExecutorStatisticsEnabled = reactiveExecutorStatisticsEnabled;
+    }
+
     public String getDumpRoutes() {
         return dumpRoutes;
     }
@@ -1855,6 +1924,16 @@ public abstract class DefaultConfigurationProperties<T> {
         return (T) this;
     }
 
+    /**
+     * Sets whether stream caching spool files should be memory mapped when they are read back. The spool file is then
+     * mapped once and shared by all readers of the stream cache (such as multicast, splitter and wire-tap) instead of
+     * opening the file again. This is not in use when a spool cipher is configured.
+     */
+    public T withStreamCachingSpoolMemoryMapped(boolean streamCachingSpoolMemoryMapped) {
+        this.streamCachingSpoolMemoryMapped = streamCachingSpoolMemoryMapped;
+        return (T) this;
+    }
+
     /**
      * Stream caching threshold in bytes when overflow to disk is activated. The default threshold is 128kb. Use -1 to
      * disable overflow to disk.
@@ -2487,7 +2566,9 @@ public abstract class DefaultConfigurationProperties<T> {
 
     /**
      * Controls whether to pool (reuse) exchanges or create new fresh exchanges (default). Using pooled will reduce JVM
-     * garbage collection overhead by avoiding to re-create Exchange instances per message each consumer receives.
+     * garbage collection overhead by avoiding to re-create Exchange instances per message each consumer receives. Using
+     * deep-pooled will in addition also pool the unit of work, message history and tasks used by the EIPs during
+     * routing.
      */
     public T withExchangeFactory(String exchangeFactory) {
         this.exchangeFactory = exchangeFactory;
@@ -2510,6 +2591,43 @@ public abstract class DefaultConfigurationProperties<T> {
         return (T) this;
     }
 
+    /**
+     * Controls which reactive executor to use for routing exchanges. The default executor runs the reactive work on the
+     * thread that scheduled it. The work-stealing executor uses bounded per-core lanes, where backlog of reactive work
+     * can be stolen by idle lanes, allowing bursts of work on a single thread to be drained by idle cores.
+     */
+    public T withReactiveExecutor(String reactiveExecutor) {
+        this.reactiveExecutor = reactiveExecutor;
+        return (T) this;
+    }
+
+    /**
+     * Number of lanes to use by the work-stealing reactive executor. The default is the number of available
+     * processors.
+     */
+    public T withReactiveExecutorLanes(int reactiveExecutorLanes) {
+        this.reactiveExecutorLanes = reactiveExecutorLanes;
+        return (T) this;
+    }
+
+    /**
+     * Maximum number of tasks that can be queued per lane by the work-stealing reactive executor. The default capacity
+     * is 1024.
+     */
+    public T withReactiveExecutorLaneCapacity(int reactiveExecutorLaneCapacity) {
+        this.reactiveExecutorLaneCapacity = reactiveExecutorLaneCapacity;
+        return (T) this;
+    }
+
+    /**
+     * Configures whether statistics is enabled on the work-stealing reactive executor, such as the number of offloaded
+     * and stolen tasks, and the time tasks are waiting in the lanes.
+     */
+    public T withReactiveExecutorStatisticsEnabled(boolean reactiveExecutorStatisticsEnabled) {
+        this.reactiveExecutorStatisticsEnabled = reactiveExecutorStatisticsEnabled;
+        return (T) this;
+    }
+
     /**
      * If dumping is enabled then Camel will during startup dump all loaded routes (incl rests and route templates)
      * represented as XML/YAML DSL into the log. This is intended for trouble shooting or to assist during development.
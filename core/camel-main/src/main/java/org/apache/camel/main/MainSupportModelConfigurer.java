@@ -174,7 +174,8 @@ public final class MainSupportModelConfigurer {
                     .keepAliveTime(config.getKeepAliveTime(), config.getTimeUnit())
                     .maxQueueSize(config.getMaxQueueSize())
                     .allowCoreThreadTimeOut(config.getAllowCoreThreadTimeOut())
-                    .rejectedPolicy(config.getRejectedPolicy()).build();
+                    .rejectedPolicy(config.getRejectedPolicy())
+                    .virtualThreadPerTask(config.getVirtualThreadPerTask()).build();
             if (!tpp.isEmpty()) {
                 camelContext.getExecutorServiceManager().registerThreadPoolProfile(tpp);
             }
@@ -32,6 +32,7 @@ public class ThreadPoolProfileConfigurationProperties {
     private Integer maxQueueSize;
     private Boolean allowCoreThreadTimeOut;
     private ThreadPoolRejectedPolicy rejectedPolicy;
+    private Boolean virtualThreadPerTask;
 
     public String getId() {
         return id;
@@ -123,4 +124,16 @@ public class ThreadPoolProfileConfigurationProperties {
         this.rejectedPolicy = rejectedPolicy;
     }
 
+    public Boolean getVirtualThreadPerTask() {
+        return virtualThreadPerTask;
+    }
+
+    /**
+     * Sets whether to execute each task on its own virtual thread instead of using a pool of platform threads. This
+     * requires Java 21, but not the JVM system property camel.threads.virtual.enabled.
+     */
+    public void setVirtualThreadPerTask(Boolean virtualThreadPerTask) {
+        this.virtualThreadPerTask = virtualThreadPerTask;
+    }
+
 }
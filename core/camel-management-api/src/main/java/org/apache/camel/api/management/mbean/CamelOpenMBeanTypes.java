@@ -98,6 +98,23 @@ public final class CamelOpenMBeanTypes {
                         SimpleType.LONG, SimpleType.LONG, SimpleType.LONG });
     }
 
+    public static TabularType listPooledObjectFactoryTabularType() throws OpenDataException {
+        CompositeType ct = listPooledObjectFactoryCompositeType();
+        return new TabularType(
+                "listPooledObjectFactory", "Lists all the pooled object factories (deep pooling)", ct,
+                new String[] { "name" });
+    }
+
+    public static CompositeType listPooledObjectFactoryCompositeType() throws OpenDataException {
+        return new CompositeType(
+                "pools", "Pools",
+                new String[] { "name", "capacity", "pooled", "created", "acquired", "released", "discarded" },
+                new String[] { "Name", "Capacity", "Pooled", "Created", "Acquired", "Released", "Discarded" },
+                new OpenType[] {
+                        SimpleType.STRING, SimpleType.INTEGER, SimpleType.INTEGER, SimpleType.LONG, SimpleType.LONG,
+                        SimpleType.LONG, SimpleType.LONG });
+    }
+
     public static TabularType listRuntimeEndpointsTabularType() throws OpenDataException {
         CompositeType ct = listRuntimeEndpointsCompositeType();
         return new TabularType(
@@ -181,6 +198,55 @@ public final class CamelOpenMBeanTypes {
                         SimpleType.STRING });
     }
 
+    public static TabularType throttlerTabularType() throws OpenDataException {
+        CompositeType ct = throttlerCompositeType();
+        return new TabularType("throttler", "Throttler statistics", ct, new String[] { "key" });
+    }
+
+    public static CompositeType throttlerCompositeType() throws OpenDataException {
+        return new CompositeType(
+                "keys", "Keys",
+                new String[] { "key", "maximumRequests", "passed", "delayed", "rejected", "nextAllowedMillis" },
+                new String[] { "Key", "Maximum Requests", "Passed", "Delayed", "Rejected", "Next Allowed Millis" },
+                new OpenType[] {
+                        SimpleType.STRING, SimpleType.INTEGER, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                        SimpleType.LONG });
+    }
+
+    public static TabularType aggregateShardTabularType() throws OpenDataException {
+        CompositeType ct = aggregateShardCompositeType();
+        return new TabularType("aggregateShard", "Aggregate shard statistics", ct, new String[] { "index" });
+    }
+
+    public static CompositeType aggregateShardCompositeType() throws OpenDataException {
+        return new CompositeType(
+                "shards", "Shards",
+                new String[] { "index", "lockCount", "contendedCount", "lockWaitTime", "pendingTimeouts" },
+                new String[] { "Index", "Lock Count", "Contended Count", "Lock Wait Time", "Pending Timeouts" },
+                new OpenType[] {
+                        SimpleType.INTEGER, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG, SimpleType.INTEGER });
+    }
+
+    public static TabularType adaptiveThrottlerTabularType() throws OpenDataException {
+        CompositeType ct = adaptiveThrottlerCompositeType();
+        return new TabularType("adaptiveThrottler", "Adaptive Throttler statistics", ct, new String[] { "key" });
+    }
+
+    public static CompositeType adaptiveThrottlerCompositeType() throws OpenDataException {
+        return new CompositeType(
+                "keys", "Keys",
+                new String[] {
+                        "key", "limit", "maximumRequests", "inflight", "waiting", "rttMillis", "minRttMillis", "passed",
+                        "delayed", "rejected", "dropped" },
+                new String[] {
+                        "Key", "Limit", "Maximum Requests", "Inflight", "Waiting", "Rtt Millis", "Min Rtt Millis", "Passed",
+                        "Delayed", "Rejected", "Dropped" },
+                new OpenType[] {
+                        SimpleType.STRING, SimpleType.INTEGER, SimpleType.INTEGER, SimpleType.INTEGER, SimpleType.INTEGER,
+                        SimpleType.DOUBLE, SimpleType.DOUBLE, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                        SimpleType.LONG });
+    }
+
     public static TabularType choiceTabularType() throws OpenDataException {
         CompositeType ct = choiceCompositeType();
         return new TabularType("choice", "Choice statistics", ct, new String[] { "predicate" });
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.api.management.mbean;
 
+import javax.management.openmbean.TabularData;
+
 import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedOperation;
 
@@ -141,6 +143,12 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Total number of exchanged discarded")
     long getDiscarded();
 
+    @ManagedAttribute(description = "Number of shards the correlation groups are partitioned into")
+    int getShardCount();
+
+    @ManagedOperation(description = "Lock contention statistics of each shard of the correlation groups")
+    TabularData shardStatistics();
+
     @ManagedOperation(description = " Reset the statistics counters")
     void resetStatistics();
 
@@ -59,4 +59,20 @@ public interface ManagedExchangeFactoryManagerMBean extends ManagedServiceMBean
     @ManagedOperation(description = "Lists all the statistics in tabular form")
     TabularData listStatistics();
 
+    @ManagedAttribute(description = "Whether deep pooling is enabled (also pooling unit of work, message history and tasks)")
+    Boolean getDeepPooling();
+
+    @ManagedAttribute(description = "Total number of objects reused from the pools (if deep pooling is in use)")
+    Long getTotalPoolHits();
+
+    @ManagedAttribute(description = "Total number of new objects created as the pools were empty (if deep pooling is in use)")
+    Long getTotalPoolMisses();
+
+    @ManagedAttribute(description = "Total number of objects currently taken from the pools and not yet released back (if deep pooling is in use)."
+                                    + " If this number keeps growing then objects are leaking.")
+    Long getTotalPoolOutstanding();
+
+    @ManagedOperation(description = "Lists the statistics of the pools used by deep pooling in tabular form")
+    TabularData listPoolStatistics();
+
 }
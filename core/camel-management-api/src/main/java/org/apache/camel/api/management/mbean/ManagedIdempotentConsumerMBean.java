@@ -42,6 +42,15 @@ public interface ManagedIdempotentConsumerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Current count of duplicate Messages")
     long getDuplicateMessageCount();
 
+    @ManagedAttribute(description = "The number of lookups which did not call the idempotent repository, as its Bloom filter ruled out the key (only when using a BloomFilterIdempotentRepository)")
+    long getFilterSkippedCount();
+
+    @ManagedAttribute(description = "The number of lookups of new keys which the Bloom filter reported as possibly added (only when using a BloomFilterIdempotentRepository)")
+    long getFilterFalsePositiveCount();
+
+    @ManagedAttribute(description = "The observed false positive rate of the Bloom filter (only when using a BloomFilterIdempotentRepository)")
+    double getFilterFalsePositiveRate();
+
     @ManagedOperation(description = "Reset the current count of duplicate Messages")
     void resetDuplicateMessageCount();
 
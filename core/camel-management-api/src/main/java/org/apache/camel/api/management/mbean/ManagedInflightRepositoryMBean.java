@@ -41,4 +41,10 @@ public interface ManagedInflightRepositoryMBean extends ManagedServiceMBean {
     @ManagedOperation(description = "List all the exchanges that origins from the given route, which are currently inflight, limited and sorted")
     TabularData browse(String fromRouteId, int limit, boolean sortByLongestDuration);
 
+    @ManagedOperation(description = "Estimated duration (in millis) within which the given percentile (such as 50, 90, 99) of the exchanges from the given route were completed. Returns -1 if inflight browsing is not enabled.")
+    long durationPercentile(String routeId, double percentile);
+
+    @ManagedOperation(description = "Reset the statistics, such as the durations recorded per route")
+    void resetStatistics();
+
 }
@@ -47,6 +47,12 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Cipher used if writing with encryption")
     String getSpoolCipher();
 
+    @ManagedAttribute(description = "Whether spool files are memory mapped when read")
+    void setSpoolMemoryMapped(boolean spoolMemoryMapped);
+
+    @ManagedAttribute(description = "Whether spool files are memory mapped when read")
+    boolean isSpoolMemoryMapped();
+
     @ManagedAttribute(description = "Threshold in bytes when overflow and spooling to disk instead of keeping in memory")
     void setSpoolThreshold(long threshold);
 
@@ -101,6 +107,15 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Average number of bytes per cached stream for spooled (not in-memory) stream caches.")
     long getCacheSpoolAverageSize();
 
+    @ManagedAttribute(description = "Number of spool files which has been memory mapped for reading")
+    long getCacheSpoolMappedCounter();
+
+    @ManagedAttribute(description = "Total accumulated number of bytes of spool files which has been memory mapped for reading")
+    long getCacheSpoolMappedSize();
+
+    @ManagedAttribute(description = "Number of times a spooled StreamCache was read from a shared memory mapped view")
+    long getCacheSpoolMappedReadCounter();
+
     @ManagedAttribute(description = "Whether utilization statistics is enabled")
     boolean isStatisticsEnabled();
 
@@ -16,9 +16,12 @@
  */
 package org.apache.camel.api.management.mbean;
 
+import javax.management.openmbean.TabularData;
+
 import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
 
-public interface ManagedThrottlerMBean extends ManagedProcessorMBean {
+public interface ManagedThrottlerMBean extends ManagedProcessorMBean, ManagedExtendedInformation {
 
     @ManagedAttribute(description = "Maximum concurrent requests")
     long getMaximumRequests();
@@ -44,4 +47,35 @@ public interface ManagedThrottlerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Whether or not throttler throws the ThrottlerRejectedExecutionException when the exchange exceeds the request limit")
     Boolean isRejectExecution();
 
+    @ManagedAttribute(description = "Number of throttling keys currently in use (token bucket and adaptive concurrency mode only)")
+    int getKeyCount();
+
+    @ManagedAttribute(description = "Number of exchanges which has been delayed (token bucket and adaptive concurrency mode only)")
+    long getDelayedCount();
+
+    @ManagedAttribute(description = "Number of exchanges which has been rejected (token bucket and adaptive concurrency mode only)")
+    long getRejectedCount();
+
+    @ManagedAttribute(description = "Number of idle throttling keys which has been evicted (token bucket and adaptive concurrency modes only)")
+    long getEvictedCount();
+
+    @ManagedAttribute(description = "The algorithm adjusting the concurrency limit (adaptive concurrency mode only)")
+    String getLimitAlgorithm();
+
+    @ManagedAttribute(description = "Number of exchanges currently in flight (adaptive concurrency mode only)")
+    int getInflight();
+
+    @ManagedAttribute(description = "The smoothed round trip time in millis (adaptive concurrency mode only)")
+    double getRttMillis();
+
+    @ManagedAttribute(description = "The minimum round trip time in millis (adaptive concurrency mode only)")
+    double getMinRttMillis();
+
+    @ManagedAttribute(description = "Number of exchanges which failed with a timeout, which decreases the limit right away (adaptive concurrency mode only)")
+    long getDroppedCount();
+
+    @Override
+    @ManagedOperation(description = "Statistics of the throttler for each throttling key (token bucket and adaptive concurrency mode only)")
+    TabularData extendedInformation();
+
 }
@@ -18,11 +18,20 @@ package org.apache.camel.management.mbean;
 
 import java.util.Set;
 
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+
 import org.apache.camel.CamelContext;
+import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedAggregateProcessorMBean;
 import org.apache.camel.model.AggregateDefinition;
 import org.apache.camel.processor.aggregate.AggregateProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessorStatistics;
 
 @ManagedResource(description = "Managed AggregateProcessor")
 public class ManagedAggregateProcessor extends ManagedProcessor implements ManagedAggregateProcessorMBean {
@@ -296,6 +305,31 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.getStatistics().getDiscarded();
     }
 
+    @Override
+    public int getShardCount() {
+        return processor.getStatistics().getShardCount();
+    }
+
+    @Override
+    public TabularData shardStatistics() {
+        try {
+            TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.aggregateShardTabularType());
+            for (AggregateProcessorStatistics.ShardStatistics shard : processor.getStatistics().getShardStatistics()) {
+                CompositeType ct = CamelOpenMBeanTypes.aggregateShardCompositeType();
+                CompositeData data = new CompositeDataSupport(
+                        ct,
+                        new String[] { "index", "lockCount", "contendedCount", "lockWaitTime", "pendingTimeouts" },
+                        new Object[] {
+                                shard.getIndex(), shard.getLockCount(), shard.getContendedCount(), shard.getLockWaitTime(),
+                                shard.getPendingTimeouts() });
+                answer.put(data);
+            }
+            return answer;
+        } catch (Exception e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
     @Override
     public void resetStatistics() {
         processor.getStatistics().reset();
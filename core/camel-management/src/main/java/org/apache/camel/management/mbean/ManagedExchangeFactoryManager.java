@@ -17,6 +17,8 @@
 package org.apache.camel.management.mbean;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.CompositeDataSupport;
@@ -32,6 +34,7 @@ import org.apache.camel.api.management.mbean.ManagedExchangeFactoryManagerMBean;
 import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExchangeFactoryManager;
 import org.apache.camel.spi.ManagementStrategy;
+import org.apache.camel.spi.PooledObjectFactory;
 import org.apache.camel.util.URISupport;
 
 @ManagedResource(description = "Managed ExchangeFactory")
@@ -106,6 +109,73 @@ public class ManagedExchangeFactoryManager extends ManagedService implements Man
         return exchangeFactoryManager.getStatistics().getDiscardedCounter();
     }
 
+    @Override
+    public Boolean getDeepPooling() {
+        return getContext().getCamelContextExtension().getExchangeFactory().isDeepPooling();
+    }
+
+    @Override
+    public Long getTotalPoolHits() {
+        PooledObjectFactory.Statistics stats = exchangeFactoryManager.getPooledObjectStatistics();
+        return stats != null ? stats.getAcquiredCounter() : 0;
+    }
+
+    @Override
+    public Long getTotalPoolMisses() {
+        PooledObjectFactory.Statistics stats = exchangeFactoryManager.getPooledObjectStatistics();
+        return stats != null ? stats.getCreatedCounter() : 0;
+    }
+
+    @Override
+    public Long getTotalPoolOutstanding() {
+        PooledObjectFactory.Statistics stats = exchangeFactoryManager.getPooledObjectStatistics();
+        if (stats == null) {
+            return 0L;
+        }
+        long taken = stats.getCreatedCounter() + stats.getAcquiredCounter();
+        long returned = stats.getReleasedCounter() + stats.getDiscardedCounter();
+        return Math.max(0, taken - returned);
+    }
+
+    @Override
+    public TabularData listPoolStatistics() {
+        try {
+            TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.listPooledObjectFactoryTabularType());
+            Set<String> names = new HashSet<>();
+            for (PooledObjectFactory<?> pf : exchangeFactoryManager.getPooledObjectFactories()) {
+                CompositeType ct = CamelOpenMBeanTypes.listPooledObjectFactoryCompositeType();
+                String name = pf.toString();
+                // the name is used as key so it must be unique
+                String key = name;
+                for (int i = 2; !names.add(key); i++) {
+                    key = name + "#" + i;
+                }
+                name = key;
+                int capacity = pf.getCapacity();
+                int size = pf.getSize();
+                long created = 0;
+                long acquired = 0;
+                long released = 0;
+                long discarded = 0;
+                if (pf.isStatisticsEnabled() && pf.getStatistics() != null) {
+                    created = pf.getStatistics().getCreatedCounter();
+                    acquired = pf.getStatistics().getAcquiredCounter();
+                    released = pf.getStatistics().getReleasedCounter();
+                    discarded = pf.getStatistics().getDiscardedCounter();
+                }
+
+                CompositeData data = new CompositeDataSupport(
+                        ct,
+                        new String[] { "name", "capacity", "pooled", "created", "acquired", "released", "discarded" },
+                        new Object[] { name, capacity, size, created, acquired, released, discarded });
+                answer.put(data);
+            }
+            return answer;
+        } catch (Exception e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
     @Override
     public TabularData listStatistics() {
         try {
@@ -21,6 +21,7 @@ import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.ManagedIdempotentConsumerMBean;
 import org.apache.camel.model.IdempotentConsumerDefinition;
 import org.apache.camel.processor.idempotent.IdempotentConsumer;
+import org.apache.camel.support.processor.idempotent.BloomFilterIdempotentRepository;
 
 @ManagedResource(description = "Managed Idempotent Consumer")
 public class ManagedIdempotentConsumer extends ManagedProcessor implements ManagedIdempotentConsumerMBean {
@@ -75,6 +76,24 @@ public class ManagedIdempotentConsumer extends ManagedProcessor implements Manag
         return getProcessor().getDuplicateMessageCount();
     }
 
+    @Override
+    public long getFilterSkippedCount() {
+        BloomFilterIdempotentRepository filter = getBloomFilter();
+        return filter != null ? filter.getSkippedCount() : 0;
+    }
+
+    @Override
+    public long getFilterFalsePositiveCount() {
+        BloomFilterIdempotentRepository filter = getBloomFilter();
+        return filter != null ? filter.getFalsePositiveCount() : 0;
+    }
+
+    @Override
+    public double getFilterFalsePositiveRate() {
+        BloomFilterIdempotentRepository filter = getBloomFilter();
+        return filter != null ? filter.getFalsePositiveRate() : 0;
+    }
+
     @Override
     public void resetDuplicateMessageCount() {
         getProcessor().resetDuplicateMessageCount();
@@ -85,4 +104,11 @@ public class ManagedIdempotentConsumer extends ManagedProcessor implements Manag
         getProcessor().clear();
     }
 
+    private BloomFilterIdempotentRepository getBloomFilter() {
+        if (getProcessor().getIdempotentRepository() instanceof BloomFilterIdempotentRepository filter) {
+            return filter;
+        }
+        return null;
+    }
+
 }
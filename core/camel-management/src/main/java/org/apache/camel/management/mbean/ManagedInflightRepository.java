@@ -92,6 +92,16 @@ public class ManagedInflightRepository extends ManagedService implements Managed
         }
     }
 
+    @Override
+    public long durationPercentile(String routeId, double percentile) {
+        return inflightRepository.durationPercentile(routeId, percentile);
+    }
+
+    @Override
+    public void resetStatistics() {
+        inflightRepository.resetStatistics();
+    }
+
     private static CompositeData toCompositeData(InflightRepository.InflightExchange entry, CompositeType ct)
             throws OpenDataException {
         String exchangeId = entry.getExchange().getExchangeId();
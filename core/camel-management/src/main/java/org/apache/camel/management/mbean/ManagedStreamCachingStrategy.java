@@ -91,6 +91,16 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getSpoolCipher();
     }
 
+    @Override
+    public void setSpoolMemoryMapped(boolean spoolMemoryMapped) {
+        streamCachingStrategy.setSpoolMemoryMapped(spoolMemoryMapped);
+    }
+
+    @Override
+    public boolean isSpoolMemoryMapped() {
+        return streamCachingStrategy.isSpoolMemoryMapped();
+    }
+
     @Override
     public void setSpoolThreshold(long threshold) {
         streamCachingStrategy.setSpoolThreshold(threshold);
@@ -198,6 +208,21 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getStatistics().getCacheSpoolAverageSize();
     }
 
+    @Override
+    public long getCacheSpoolMappedCounter() {
+        return streamCachingStrategy.getStatistics().getCacheSpoolMappedCounter();
+    }
+
+    @Override
+    public long getCacheSpoolMappedSize() {
+        return streamCachingStrategy.getStatistics().getCacheSpoolMappedSize();
+    }
+
+    @Override
+    public long getCacheSpoolMappedReadCounter() {
+        return streamCachingStrategy.getStatistics().getCacheSpoolMappedReadCounter();
+    }
+
     @Override
     public boolean isStatisticsEnabled() {
         return streamCachingStrategy.getStatistics().isStatisticsEnabled();
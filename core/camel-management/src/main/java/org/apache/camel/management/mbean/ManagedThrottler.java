@@ -16,11 +16,21 @@
  */
 package org.apache.camel.management.mbean;
 
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+
 import org.apache.camel.CamelContext;
+import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedThrottlerMBean;
 import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.processor.AdaptiveConcurrencyThrottler;
 import org.apache.camel.processor.Throttler;
+import org.apache.camel.processor.TokenBucketThrottler;
 import org.apache.camel.processor.TotalRequestsThrottler;
 
 import static org.apache.camel.builder.Builder.constant;
@@ -53,6 +63,8 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public long getTimePeriodMillis() {
         if (throttler instanceof TotalRequestsThrottler t) {
             return t.getTimePeriodMillis();
+        } else if (throttler instanceof TokenBucketThrottler t) {
+            return t.getTimePeriodMillis();
         }
 
         return 0;
@@ -62,6 +74,8 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public void setTimePeriodMillis(long timePeriodMillis) {
         if (throttler instanceof TotalRequestsThrottler t) {
             t.setTimePeriodMillis(timePeriodMillis);
+        } else if (throttler instanceof TokenBucketThrottler t) {
+            t.setTimePeriodMillis(timePeriodMillis);
         }
     }
 
@@ -84,4 +98,142 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public Boolean isRejectExecution() {
         return throttler.isRejectExecution();
     }
+
+    @Override
+    public int getKeyCount() {
+        if (throttler instanceof TokenBucketThrottler t) {
+            return t.getKeyCount();
+        } else if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getKeyCount();
+        }
+        return 0;
+    }
+
+    @Override
+    public long getDelayedCount() {
+        if (throttler instanceof TokenBucketThrottler t) {
+            return t.getDelayedCount();
+        } else if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getDelayedCount();
+        }
+        return 0;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        if (throttler instanceof TokenBucketThrottler t) {
+            return t.getRejectedCount();
+        } else if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getRejectedCount();
+        }
+        return 0;
+    }
+
+    @Override
+    public long getEvictedCount() {
+        if (throttler instanceof TokenBucketThrottler t) {
+            return t.getEvictedCount();
+        } else if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getEvictedCount();
+        }
+        return 0;
+    }
+
+    @Override
+    public String getLimitAlgorithm() {
+        if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getLimitAlgorithm().name();
+        }
+        return null;
+    }
+
+    @Override
+    public int getInflight() {
+        if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getInflight();
+        }
+        return 0;
+    }
+
+    @Override
+    public double getRttMillis() {
+        if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getRttMillis();
+        }
+        return 0;
+    }
+
+    @Override
+    public double getMinRttMillis() {
+        if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getMinRttMillis();
+        }
+        return 0;
+    }
+
+    @Override
+    public long getDroppedCount() {
+        if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            return t.getDroppedCount();
+        }
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+        if (throttler instanceof TokenBucketThrottler t) {
+            t.reset();
+        } else if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+            t.reset();
+        }
+        super.reset();
+    }
+
+    @Override
+    public Boolean getSupportExtendedInformation() {
+        return throttler instanceof TokenBucketThrottler || throttler instanceof AdaptiveConcurrencyThrottler;
+    }
+
+    @Override
+    public TabularData extendedInformation() {
+        try {
+            if (throttler instanceof AdaptiveConcurrencyThrottler t) {
+                return adaptiveExtendedInformation(t);
+            }
+            TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.throttlerTabularType());
+            if (throttler instanceof TokenBucketThrottler t) {
+                for (TokenBucketThrottler.ThrottlingState state : t.getThrottlingStates()) {
+                    CompositeType ct = CamelOpenMBeanTypes.throttlerCompositeType();
+                    CompositeData data = new CompositeDataSupport(
+                            ct,
+                            new String[] { "key", "maximumRequests", "passed", "delayed", "rejected", "nextAllowedMillis" },
+                            new Object[] {
+                                    state.getKey(), state.getThrottleRate(), state.getPassedCount(), state.getDelayedCount(),
+                                    state.getRejectedCount(), state.getNextAllowedMillis() });
+                    answer.put(data);
+                }
+            }
+            return answer;
+        } catch (Exception e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        }
+    }
+
+    private static TabularData adaptiveExtendedInformation(AdaptiveConcurrencyThrottler throttler) throws Exception {
+        TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.adaptiveThrottlerTabularType());
+        for (AdaptiveConcurrencyThrottler.ThrottlingState state : throttler.getThrottlingStates()) {
+            CompositeType ct = CamelOpenMBeanTypes.adaptiveThrottlerCompositeType();
+            CompositeData data = new CompositeDataSupport(
+                    ct,
+                    new String[] {
+                            "key", "limit", "maximumRequests", "inflight", "waiting", "rttMillis", "minRttMillis", "passed",
+                            "delayed", "rejected", "dropped" },
+                    new Object[] {
+                            state.getKey(), state.getLimit(), state.getMaxLimit(), state.getInflight(), state.getWaiting(),
+                            state.getRttMillis(), state.getMinRttMillis(), state.getPassedCount(), state.getDelayedCount(),
+                            state.getRejectedCount(), state.getDroppedCount() });
+            answer.put(data);
+        }
+        return answer;
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.apache.camel.management.DefaultManagementObjectNameStrategy.TYPE_PROCESSOR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.AIX)
+public class ManagedAdaptiveConcurrencyThrottlerTest extends ManagementTestSupport {
+
+    @Test
+    public void testManageAdaptiveConcurrencyThrottler() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(3);
+        getMockEndpoint("mock:error").expectedMessageCount(1);
+
+        template.sendBodyAndHeader("direct:start", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:start", "A2", "key", "A");
+        template.sendBodyAndHeader("direct:start", "B1", "key", "B");
+        template.sendBodyAndHeader("direct:start", "timeout", "key", "B");
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = getCamelObjectName(TYPE_PROCESSOR, "mythrottler");
+
+        assertEquals("AdaptiveConcurrency", mbeanServer.getAttribute(on, "Mode"));
+        assertEquals("Aimd", mbeanServer.getAttribute(on, "LimitAlgorithm"));
+        assertEquals(10L, mbeanServer.getAttribute(on, "MaximumRequests"));
+        assertEquals(2, mbeanServer.getAttribute(on, "KeyCount"));
+        assertEquals(0, mbeanServer.getAttribute(on, "Inflight"));
+        assertEquals(1L, mbeanServer.getAttribute(on, "DroppedCount"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "RejectedCount"));
+        assertTrue((Double) mbeanServer.getAttribute(on, "RttMillis") > 0);
+        assertEquals(Boolean.TRUE, mbeanServer.getAttribute(on, "SupportExtendedInformation"));
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "extendedInformation", null, null);
+        assertNotNull(data);
+        assertEquals(2, data.size());
+
+        CompositeData a = data.get(new Object[] { "A" });
+        assertEquals(10, a.get("limit"));
+        assertEquals(10, a.get("maximumRequests"));
+        assertEquals(2L, a.get("passed"));
+        assertEquals(0L, a.get("dropped"));
+        CompositeData b = data.get(new Object[] { "B" });
+        // the timeout decreased the limit of the key
+        assertEquals(9, b.get("limit"));
+        assertEquals(2L, b.get("passed"));
+        assertEquals(1L, b.get("dropped"));
+
+        mbeanServer.invoke(on, "reset", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "DroppedCount"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                onException(ExchangeTimedOutException.class).handled(true).to("mock:error");
+
+                from("direct:start")
+                        .throttle(constant(10), header("key")).adaptiveConcurrencyMode().limitAlgorithm("Aimd")
+                        .id("mythrottler")
+                        .process(e -> {
+                            if ("timeout".equals(e.getMessage().getBody())) {
+                                throw new ExchangeTimedOutException(e, 1000);
+                            }
+                        })
+                        .to("mock:result");
+            }
+        };
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.camel.management;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
 
 import org.apache.camel.AggregationStrategy;
 import org.apache.camel.Exchange;
@@ -102,6 +103,12 @@ public class ManagedAggregateControllerTest extends ManagementTestSupport {
         Integer inflight = (Integer) mbeanServer.getAttribute(on, "InProgressCompleteExchanges");
         assertEquals(0, inflight.intValue());
 
+        Integer shards = (Integer) mbeanServer.getAttribute(on, "ShardCount");
+        assertEquals(1, shards.intValue());
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "shardStatistics", null, null);
+        assertEquals(1, data.size());
+
         pending = (Integer) mbeanServer.invoke(on, "aggregationRepositoryGroups", null, null);
         assertEquals(0, pending.intValue());
     }
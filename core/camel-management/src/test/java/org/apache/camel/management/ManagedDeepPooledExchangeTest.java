@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExchangePropertyKey;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.engine.PooledExchangeFactory;
+import org.apache.camel.impl.engine.PooledProcessorExchangeFactory;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.apache.camel.management.DefaultManagementObjectNameStrategy.TYPE_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.AIX)
+public class ManagedDeepPooledExchangeTest extends ManagementTestSupport {
+
+    private final AtomicInteger taps = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setMessageHistory(true);
+
+        PooledExchangeFactory pef = new PooledExchangeFactory();
+        pef.setStatisticsEnabled(true);
+        pef.setDeepPooling(true);
+        context.getCamelContextExtension().setExchangeFactory(pef);
+        context.getCamelContextExtension().setProcessorExchangeFactory(new PooledProcessorExchangeFactory());
+
+        return context;
+    }
+
+    @Test
+    public void testDeepPooling() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(5);
+        MockEndpoint timer = getMockEndpoint("mock:timer");
+        timer.expectedMessageCount(3);
+
+        // exchanges created by the producer template are not pooled, so the unit of work is pooled instead
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "Hello " + i);
+        }
+
+        // the timer consumer uses pooled exchanges, so the message history is pooled
+        context.getRouteController().startRoute("timer");
+
+        MockEndpoint.assertIsSatisfied(context);
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = getCamelObjectName(TYPE_SERVICE, "DefaultExchangeFactoryManager");
+
+        Boolean deep = (Boolean) mbeanServer.getAttribute(on, "DeepPooling");
+        assertTrue(deep);
+
+        Awaitility.await().untilAsserted(() -> {
+            Long hits = (Long) mbeanServer.getAttribute(on, "TotalPoolHits");
+            assertTrue(hits > 0, "Should reuse objects from the pools");
+
+            Long misses = (Long) mbeanServer.getAttribute(on, "TotalPoolMisses");
+            assertTrue(misses > 0, "Should create objects when the pools are empty");
+
+            Long outstanding = (Long) mbeanServer.getAttribute(on, "TotalPoolOutstanding");
+            assertEquals(0, outstanding.intValue(), "There should be no leaks");
+        });
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "listPoolStatistics", null, null);
+        Set<String> names = new HashSet<>();
+        for (Object row : data.values()) {
+            names.add((String) ((CompositeData) row).get("name"));
+        }
+        assertTrue(names.stream().anyMatch(n -> n.contains("UnitOfWork")), "Should have UnitOfWork pool: " + names);
+        assertTrue(names.stream().anyMatch(n -> n.contains("MessageHistory")), "Should have MessageHistory pool: " + names);
+    }
+
+    @Test
+    public void testSharedMessageHistoryIsNotReused() throws Exception {
+        getMockEndpoint("mock:tapped").expectedMessageCount(3);
+        getMockEndpoint("mock:tap").expectedMessageCount(3);
+
+        // the wire tap copies are still in use after the timer exchanges are done
+        context.getRouteController().startRoute("tapped");
+
+        MockEndpoint.assertIsSatisfied(context);
+        assertEquals(List.of(), errors);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:start")
+                        .setHeader("foo", constant("bar"))
+                        .to("mock:result");
+
+                from("timer:foo?period=1&delay=1&repeatCount=3").routeId("timer").noAutoStartup()
+                        .setHeader("foo", constant("bar"))
+                        .to("mock:timer");
+
+                from("timer:bar?period=1&delay=1&repeatCount=3").routeId("tapped").noAutoStartup()
+                        .wireTap("direct:tap")
+                        .to("mock:tapped");
+
+                from("direct:tap")
+                        .process(e -> {
+                            List<MessageHistory> list = e.getProperty(ExchangePropertyKey.MESSAGE_HISTORY, List.class);
+                            MessageHistory first = list.get(0);
+                            long time = first.getTime();
+                            if (taps.incrementAndGet() == 1) {
+                                // wait for the timer exchanges to be done, and their message history released
+                                Awaitility.await().until(() -> getMockEndpoint("mock:tapped").getReceivedCounter() == 3);
+                                Thread.sleep(100);
+                            }
+                            if (first.getTime() != time || !"tapped".equals(first.getRouteId())) {
+                                errors.add("Message history reused: " + first);
+                            }
+                        })
+                        .to("mock:tap");
+            }
+        };
+    }
+}
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.condition.OS;
 
 import static org.apache.camel.management.DefaultManagementObjectNameStrategy.TYPE_SERVICE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisabledOnOs(OS.AIX)
 public class ManagedInflightRepositoryTest extends ManagementTestSupport {
@@ -37,6 +38,32 @@ public class ManagedInflightRepositoryTest extends ManagementTestSupport {
         template.sendBody("direct:start", "Hello World");
 
         assertMockEndpointsSatisfied();
+
+        // browsing is not enabled so durations are not tracked
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName name = getCamelObjectName(TYPE_SERVICE, "DefaultInflightRepository");
+        Long p99 = (Long) mbeanServer.invoke(name, "durationPercentile", new Object[] { "foo", 99d },
+                new String[] { "java.lang.String", "double" });
+        assertEquals(-1, p99.longValue());
+    }
+
+    @Test
+    public void testInflightRepositoryDurationPercentile() throws Exception {
+        context.getInflightRepository().setInflightBrowseEnabled(true);
+
+        getMockEndpoint("mock:result").expectedMessageCount(3);
+
+        template.sendBody("direct:start", "Hello World");
+        template.sendBody("direct:start", "Bye World");
+        template.sendBody("direct:start", "Hi World");
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName name = getCamelObjectName(TYPE_SERVICE, "DefaultInflightRepository");
+        Long p99 = (Long) mbeanServer.invoke(name, "durationPercentile", new Object[] { "foo", 99d },
+                new String[] { "java.lang.String", "double" });
+        assertTrue(p99 >= 0, "Should track the durations");
     }
 
     @Override
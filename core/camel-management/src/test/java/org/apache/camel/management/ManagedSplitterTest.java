@@ -64,6 +64,9 @@ public class ManagedSplitterTest extends ManagementTestSupport {
         String exp = (String) mbeanServer.getAttribute(on, "Expression");
         assertEquals("${body}", exp);
 
+        Integer max = (Integer) mbeanServer.getAttribute(on, "MaxInFlight");
+        assertEquals(0, max.intValue());
+
         String xml = (String) mbeanServer.invoke(on, "dumpProcessorAsXml", null, null);
         assertTrue(xml.contains("<split"));
         assertTrue(xml.contains("</split>"));
@@ -96,6 +96,18 @@ public class ManagedStreamCachingStrategyTest extends ManagementTestSupport {
 
         Boolean remove = (Boolean) mbeanServer.getAttribute(name, "RemoveSpoolDirectoryWhenStopping");
         assertEquals(Boolean.TRUE, remove);
+
+        Boolean mapped = (Boolean) mbeanServer.getAttribute(name, "SpoolMemoryMapped");
+        assertEquals(Boolean.FALSE, mapped);
+
+        counter = (Long) mbeanServer.getAttribute(name, "CacheSpoolMappedCounter");
+        assertEquals(0, counter.longValue());
+
+        cacheSize = (Long) mbeanServer.getAttribute(name, "CacheSpoolMappedSize");
+        assertEquals(0, cacheSize.longValue());
+
+        counter = (Long) mbeanServer.getAttribute(name, "CacheSpoolMappedReadCounter");
+        assertEquals(0, counter.longValue());
     }
 
     @Override
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.ThrottlerRejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.apache.camel.management.DefaultManagementObjectNameStrategy.TYPE_PROCESSOR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DisabledOnOs(OS.AIX)
+public class ManagedTokenBucketThrottlerTest extends ManagementTestSupport {
+
+    @Test
+    public void testManageTokenBucketThrottler() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(4);
+        getMockEndpoint("mock:error").expectedMessageCount(1);
+
+        template.sendBodyAndHeader("direct:start", "A1", "key", "A");
+        template.sendBodyAndHeader("direct:start", "A2", "key", "A");
+        template.sendBodyAndHeader("direct:start", "A3", "key", "A");
+        template.sendBodyAndHeader("direct:start", "B1", "key", "B");
+        template.sendBodyAndHeader("direct:start", "B2", "key", "B");
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = getCamelObjectName(TYPE_PROCESSOR, "mythrottler");
+
+        assertEquals("TokenBucket", mbeanServer.getAttribute(on, "Mode"));
+        assertEquals(10000L, mbeanServer.getAttribute(on, "TimePeriodMillis"));
+        assertEquals(2L, mbeanServer.getAttribute(on, "MaximumRequests"));
+        assertEquals(2, mbeanServer.getAttribute(on, "KeyCount"));
+        assertEquals(1L, mbeanServer.getAttribute(on, "RejectedCount"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "DelayedCount"));
+        assertEquals(Boolean.TRUE, mbeanServer.getAttribute(on, "SupportExtendedInformation"));
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "extendedInformation", null, null);
+        assertNotNull(data);
+        assertEquals(2, data.size());
+
+        CompositeData a = data.get(new Object[] { "A" });
+        assertEquals(2, a.get("maximumRequests"));
+        assertEquals(2L, a.get("passed"));
+        assertEquals(1L, a.get("rejected"));
+        CompositeData b = data.get(new Object[] { "B" });
+        assertEquals(2L, b.get("passed"));
+        assertEquals(0L, b.get("rejected"));
+
+        mbeanServer.invoke(on, "reset", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "RejectedCount"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                onException(ThrottlerRejectedExecutionException.class).handled(true).to("mock:error");
+
+                from("direct:start")
+                        .throttle(constant(2), header("key")).tokenBucketMode().timePeriodMillis(10000)
+                        .rejectExecution(true).id("mythrottler")
+                        .to("mock:result");
+            }
+        };
+    }
+}
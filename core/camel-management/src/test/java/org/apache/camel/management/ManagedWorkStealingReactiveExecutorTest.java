@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.engine.WorkStealingReactiveExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.apache.camel.management.DefaultManagementObjectNameStrategy.TYPE_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.AIX)
+public class ManagedWorkStealingReactiveExecutorTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        WorkStealingReactiveExecutor executor = new WorkStealingReactiveExecutor();
+        executor.setLanes(2);
+        executor.setStatisticsEnabled(true);
+        context.getCamelContextExtension().setReactiveExecutor(executor);
+        return context;
+    }
+
+    @Test
+    public void testReactiveExecutor() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        template.sendBody("seda:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = getCamelObjectName(TYPE_SERVICE, "WorkStealingReactiveExecutor");
+        assertTrue(mbeanServer.isRegistered(on), "Should be registered");
+
+        Integer lanes = (Integer) mbeanServer.getAttribute(on, "Lanes");
+        assertEquals(2, lanes.intValue());
+        Integer capacity = (Integer) mbeanServer.getAttribute(on, "LaneCapacity");
+        assertEquals(1024, capacity.intValue());
+        Integer depth = (Integer) mbeanServer.getAttribute(on, "LaneDepth");
+        assertEquals(0, depth.intValue());
+        Long steals = (Long) mbeanServer.getAttribute(on, "Steals");
+        assertTrue(steals >= 0);
+        Long latency = (Long) mbeanServer.getAttribute(on, "MeanQueueLatency");
+        assertTrue(latency >= 0);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("seda:start")
+                        .to("log:foo")
+                        .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -22,6 +22,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
@@ -95,7 +97,7 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
 
     @Override
     public void writeTo(OutputStream os) throws IOException {
-        if (stream == null && ciphers == null) {
+        if (stream == null && ciphers == null && !tempFileManager.isMemoryMapped()) {
             Files.copy(file.toPath(), os);
         } else {
             IOHelper.copy(getInputStream(), os);
@@ -176,6 +178,12 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
     }
 
     private InputStream createInputStream(File file) throws IOException {
+        if (tempFileManager.isMemoryMapped()) {
+            ByteBuffer view = tempFileManager.mappedView(length);
+            if (view != null) {
+                return new ByteBufferInputStream(view);
+            }
+        }
         InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath(), StandardOpenOption.READ));
         if (ciphers != null) {
             in = new CipherInputStream(in, ciphers.createDecryptor()) {
@@ -193,6 +201,51 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         return in;
     }
 
+    /**
+     * An {@link InputStream} reading from a (read-only) view of a memory mapped spool file.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            ObjectHelper.notNull(b, "b");
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            int skip = (int) Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
     /**
      * Manages the temporary file for the file input stream caches.
      *
@@ -212,6 +265,9 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         private File tempFile;
         private OutputStream outputStream; // file output stream
         private CipherPair ciphers;
+        private StreamCachingStrategy strategy;
+        private boolean memoryMapped;
+        private volatile ByteBuffer mapped;
 
         // there can be several input streams, for example in the multi-cast, or wiretap parallel processing
         private List<FileInputStreamCache> fileInputStreamCaches;
@@ -331,6 +387,9 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
                     }
                 };
             }
+            // memory mapping is not in use with encryption as the data must be decrypted when read
+            memoryMapped = strategy.isSpoolMemoryMapped() && ciphers == null;
+            this.strategy = strategy;
             outputStream = out;
             return out;
         }
@@ -339,6 +398,55 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
             return new FileInputStreamCache(this);
         }
 
+        boolean isMemoryMapped() {
+            return memoryMapped;
+        }
+
+        /**
+         * Creates a new read-only view of the memory mapped spool file. The file is mapped once (and mapped again if
+         * it has grown since) and the mapping is shared by all the file input stream caches of the temporary file.
+         *
+         * @param  length the number of bytes the view should cover
+         * @return        the view, or <tt>null</tt> if the file cannot be memory mapped
+         */
+        ByteBuffer mappedView(long length) throws IOException {
+            if (length > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer answer = mapped;
+            if (answer == null || answer.capacity() < length) {
+                answer = mapFile(length);
+                if (answer == null) {
+                    return null;
+                }
+            }
+            if (strategy.getStatistics().isStatisticsEnabled()) {
+                strategy.getStatistics().onSpoolMappedRead();
+            }
+            return answer.duplicate().limit((int) length);
+        }
+
+        private synchronized ByteBuffer mapFile(long length) throws IOException {
+            if (mapped != null && mapped.capacity() >= length) {
+                return mapped;
+            }
+            if (tempFile == null) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < length || size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                LOG.trace("Memory mapping temporary stream cache file: {} with {} bytes", tempFile, size);
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (strategy.getStatistics().isStatisticsEnabled()) {
+                strategy.getStatistics().onSpoolMapped(mapped.capacity());
+            }
+            return mapped;
+        }
+
         void closeFileInputStreams() {
             if (fileInputStreamCaches != null) {
                 for (FileInputStreamCache fileInputStreamCache : fileInputStreamCaches) {
@@ -352,6 +460,8 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
             // cleanup temporary file
             try {
                 if (tempFile != null) {
+                    // the mapping is released when garbage collected
+                    mapped = null;
                     FileUtil.deleteFile(tempFile);
                     tempFile = null;
                 }
@@ -309,6 +309,20 @@ public final class CamelContextHelper {
         return getPositiveIntegerProperty(camelContext, Exchange.MAXIMUM_ENDPOINT_CACHE_SIZE);
     }
 
+    /**
+     * Gets the maximum expression cache size, which is the size of the cache of expressions shared by the languages.
+     * <p/>
+     * Will use the property set on CamelContext with the key {@link Exchange#MAXIMUM_EXPRESSION_CACHE_SIZE}. If no
+     * property has been set, then it will fallback to return a size of 1000.
+     *
+     * @param  camelContext             the camel context
+     * @return                          the maximum cache size
+     * @throws IllegalArgumentException is thrown if the property is illegal
+     */
+    public static int getMaximumExpressionCacheSize(CamelContext camelContext) throws IllegalArgumentException {
+        return getPositiveIntegerProperty(camelContext, Exchange.MAXIMUM_EXPRESSION_CACHE_SIZE);
+    }
+
     /**
      * Gets the maximum simple cache size.
      * <p/>
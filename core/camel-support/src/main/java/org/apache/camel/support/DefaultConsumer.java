@@ -132,7 +132,12 @@ public class DefaultConsumer extends ServiceSupport
      * @see            #createUoW(org.apache.camel.Exchange)
      */
     public void doneUoW(Exchange exchange) {
-        UnitOfWorkHelper.doneUow(exchange.getUnitOfWork(), exchange);
+        UnitOfWork uow = exchange.getUnitOfWork();
+        UnitOfWorkHelper.doneUow(uow, exchange);
+        if (uow != null && exchange.getUnitOfWork() == null && !(exchange instanceof PooledExchange)) {
+            // the uow is no longer in use (pooled exchanges keeps their uow for reuse)
+            PluginHelper.getUnitOfWorkFactory(endpoint.getCamelContext()).releaseUnitOfWork(uow);
+        }
     }
 
     @Override
@@ -16,9 +16,14 @@
  */
 package org.apache.camel.support;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.apache.camel.Exchange;
@@ -35,6 +40,10 @@ import org.apache.camel.spi.Metadata;
  * message. The "out" direction is opposite which is referred to propagating headers from Camel message to a native
  * message like JMS and CXF message. You can see example of DefaultHeaderFilterStrategy are being extended and invoked
  * in camel-jms and camel-cxf components.
+ * <p>
+ * Whether a header name matches the filters of a direction is remembered per header name (up to a limit of names), so
+ * the filters are only evaluated the first time a header name is seen. The remembered matches are discarded when the
+ * filters are changed.
  */
 @Metadata(label = "bean",
           description = "The default header filtering strategy. Users can configure which headers is allowed or denied.",
@@ -55,6 +64,9 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public static final String[] CAMEL_FILTER_STARTS_WITH = new String[] { "Camel", "camel", "org.apache.camel." };
 
+    // the maximum number of header names to remember whether they match the filters
+    private static final int MATCH_CACHE_MAX_SIZE = 1000;
+
     @Metadata(javaType = "java.lang.String",
               description = "Sets the in direction filter set. The in direction is referred to copying headers from an external message to a Camel message."
                             + " Multiple patterns can be separated by comma")
@@ -86,6 +98,9 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
                             + " When set to false, the pattern or filter will indicate that the header must be kept; anything not matched will be filtered (skipped).")
     private boolean filterOnMatch = true; // defaults to the previous behaviour
 
+    private final Map<String, Boolean> inMatches = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> outMatches = new ConcurrentHashMap<>();
+
     @Override
     public boolean applyFilterToCamelHeaders(String headerName, Object headerValue, Exchange exchange) {
         return doFiltering(Direction.OUT, headerName, headerValue, exchange);
@@ -104,7 +119,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public Set<String> getOutFilter() {
         if (outFilter == null) {
-            outFilter = new HashSet<>();
+            outFilter = new FilterSet();
         }
 
         return outFilter;
@@ -114,15 +129,21 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      * Sets the "out" direction filter set. The "out" direction is referred to copying headers from a Camel message to
      * an external message.
      *
+     * <p>
+     * The filter set is copied, so changes to the given set afterwards are not applied, instead use
+     * {@link #getOutFilter()} to change the filter set.
+     *
      * @param value the filter
      */
     public void setOutFilter(Set<String> value) {
-        outFilter = value;
+        outFilter = value != null ? new FilterSet(value) : null;
+        clearMatches();
     }
 
     public void setOutFilter(String value) {
         if (value != null) {
-            this.outFilter = Set.of(value.split(","));
+            this.outFilter = new FilterSet(Set.of(value.split(",")));
+            clearMatches();
         }
     }
 
@@ -134,6 +155,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setOutFilterStartsWith(String... outFilterStartsWith) {
         this.outFilterStartsWith = outFilterStartsWith;
+        clearMatches();
     }
 
     /**
@@ -160,6 +182,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
         } else {
             outFilterPattern = Pattern.compile(value);
         }
+        clearMatches();
     }
 
     /**
@@ -171,6 +194,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setOutFilterPattern(Pattern pattern) {
         outFilterPattern = pattern;
+        clearMatches();
     }
 
     /**
@@ -181,7 +205,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public Set<String> getInFilter() {
         if (inFilter == null) {
-            inFilter = new HashSet<>();
+            inFilter = new FilterSet();
         }
         return inFilter;
     }
@@ -190,15 +214,21 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      * Sets the "in" direction filter set. The "in" direction is referred to copying headers from an external message to
      * a Camel message.
      *
+     * <p>
+     * The filter set is copied, so changes to the given set afterwards are not applied, instead use
+     * {@link #getInFilter()} to change the filter set.
+     *
      * @param value the filter
      */
     public void setInFilter(Set<String> value) {
-        inFilter = value;
+        inFilter = value != null ? new FilterSet(value) : null;
+        clearMatches();
     }
 
     public void setInFilter(String value) {
         if (value != null) {
-            this.inFilter = Set.of(value.split(","));
+            this.inFilter = new FilterSet(Set.of(value.split(",")));
+            clearMatches();
         }
     }
 
@@ -210,6 +240,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setInFilterStartsWith(String... inFilterStartsWith) {
         this.inFilterStartsWith = inFilterStartsWith;
+        clearMatches();
     }
 
     /**
@@ -236,6 +267,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
         } else {
             inFilterPattern = Pattern.compile(value);
         }
+        clearMatches();
     }
 
     /**
@@ -247,6 +279,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setInFilterPattern(Pattern pattern) {
         inFilterPattern = pattern;
+        clearMatches();
     }
 
     /**
@@ -263,6 +296,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setLowerCase(boolean value) {
         lowerCase = value;
+        clearMatches();
     }
 
     /**
@@ -283,6 +317,7 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
      */
     public void setCaseInsensitive(boolean caseInsensitive) {
         this.caseInsensitive = caseInsensitive;
+        clearMatches();
     }
 
     public boolean isAllowNullValues() {
@@ -330,6 +365,22 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
             return true;
         }
 
+        Map<String, Boolean> matches = Direction.OUT == direction ? outMatches : inMatches;
+        Boolean match = matches.get(headerName);
+        if (match == null) {
+            match = evalMatch(direction, headerName);
+            if (matches.size() < MATCH_CACHE_MAX_SIZE) {
+                matches.put(headerName, match);
+            }
+        }
+        if (match) {
+            return filterOnMatch;
+        }
+
+        return extendedFilter(direction, headerName, headerValue, exchange);
+    }
+
+    private boolean evalMatch(Direction direction, String headerName) {
         Pattern pattern = null;
         Set<String> filter = null;
         String[] startsWith = null;
@@ -346,23 +397,26 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
 
         if (startsWith != null) {
             if (tryHeaderMatch(headerName, startsWith)) {
-                return filterOnMatch;
+                return true;
             }
         }
 
         if (pattern != null) {
             if (tryPattern(headerName, pattern)) {
-                return filterOnMatch;
+                return true;
             }
         }
 
         if (filter != null) {
-            if (evalFilterMatch(headerName, filter)) {
-                return filterOnMatch;
-            }
+            return evalFilterMatch(headerName, filter);
         }
 
-        return extendedFilter(direction, headerName, headerValue, exchange);
+        return false;
+    }
+
+    private void clearMatches() {
+        inMatches.clear();
+        outMatches.clear();
     }
 
     private boolean tryPattern(String headerName, Pattern pattern) {
@@ -409,4 +463,87 @@ public class DefaultHeaderFilterStrategy implements HeaderFilterStrategy {
         return false;
     }
 
+    /**
+     * A filter set which discards the remembered matches when its changed.
+     */
+    private final class FilterSet extends HashSet<String> {
+
+        private FilterSet() {
+        }
+
+        private FilterSet(Collection<String> filter) {
+            super(filter);
+        }
+
+        @Override
+        public boolean add(String s) {
+            boolean answer = super.add(s);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends String> c) {
+            boolean answer = super.addAll(c);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            boolean answer = super.remove(o);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            boolean answer = super.removeAll(c);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            boolean answer = super.retainAll(c);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super String> filter) {
+            boolean answer = super.removeIf(filter);
+            clearMatches();
+            return answer;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            clearMatches();
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            final Iterator<String> it = super.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return it.next();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    clearMatches();
+                }
+            };
+        }
+    }
+
 }
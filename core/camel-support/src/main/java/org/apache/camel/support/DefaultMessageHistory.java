@@ -25,13 +25,14 @@ import org.apache.camel.NamedNode;
  */
 public class DefaultMessageHistory implements MessageHistory {
 
-    private final String routeId;
-    private final NamedNode node;
-    private final String nodeId;
-    private final MonotonicClock clock = new MonotonicClock();
-    private final Message message;
+    private final ResetableClock clock = new ResetableClock();
+    private String routeId;
+    private NamedNode node;
+    private String nodeId;
+    private Message message;
     private boolean acceptDebugger;
     private long elapsed;
+    private volatile boolean shared;
 
     public DefaultMessageHistory(String routeId, NamedNode node) {
         this(routeId, node, null);
@@ -44,6 +45,36 @@ public class DefaultMessageHistory implements MessageHistory {
         this.message = message;
     }
 
+    /**
+     * Resets this message history so it can be reused for another node (such as when pooled).
+     */
+    protected void reset(String routeId, NamedNode node, Message message) {
+        this.routeId = routeId;
+        this.node = node;
+        this.nodeId = node != null ? node.getId() : null;
+        this.message = message;
+        this.acceptDebugger = false;
+        this.elapsed = 0;
+        this.shared = false;
+        clock.reset();
+    }
+
+    /**
+     * Marks this message history as shared with a copy of the exchange, which may still be in use when the exchange
+     * that created this message history is done.
+     */
+    public void markShared() {
+        this.shared = true;
+    }
+
+    /**
+     * Whether this message history is shared with a copy of the exchange, and therefore cannot be reused (such as when
+     * pooled).
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
     @Override
     public String getRouteId() {
         return routeId;
@@ -90,6 +90,11 @@ public final class DefaultPooledExchange extends AbstractExchange implements Poo
             // by unsetting (setting to 0) we also flag that this exchange is done and needs to be reset to use again
             clock.unset();
 
+            if (getContext().isMessageHistory()) {
+                // the message history can be reused (if deep pooling is enabled)
+                getContext().getMessageHistoryFactory().releaseMessageHistory(this);
+            }
+
             this.properties.clear();
             internalProperties.clear();
             if (this.safeCopyProperties != null) {
@@ -827,11 +827,24 @@ public final class ExchangeHelper {
     private static void setMessageHistory(Exchange target, Exchange source) {
         final Object history = source.getProperty(ExchangePropertyKey.MESSAGE_HISTORY);
         if (history != null) {
-            // use thread-safe list as message history may be accessed concurrently
-            target.setProperty(ExchangePropertyKey.MESSAGE_HISTORY, new CopyOnWriteArrayList<>((List<MessageHistory>) history));
+            target.setProperty(ExchangePropertyKey.MESSAGE_HISTORY, copyMessageHistory((List<MessageHistory>) history));
         }
     }
 
+    /*
+     * Copies the list of message history, where the message history in the list is shared with the copy
+     */
+    static List<MessageHistory> copyMessageHistory(List<MessageHistory> history) {
+        for (MessageHistory mh : history) {
+            if (mh instanceof DefaultMessageHistory dmh) {
+                // the message history must not be reused when the source exchange is done
+                dmh.markShared();
+            }
+        }
+        // use thread-safe list as message history may be accessed concurrently
+        return new CopyOnWriteArrayList<>(history);
+    }
+
     /**
      * Copies the exchange but the copy will be tied to the given context
      *
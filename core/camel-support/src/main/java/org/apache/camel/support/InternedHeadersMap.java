@@ -0,0 +1,444 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.camel.Exchange;
+
+/**
+ * A map that uses case insensitive keys, but preserves the original key cases, optimized for message headers.
+ * <p/>
+ * Well known header names (the Camel constants from {@link Exchange}, and common HTTP, JMS and Kafka headers) are
+ * interned to integer ids, which are resolved without allocating, and the entries of the map are compared by their id.
+ * Other header names are compared by a precomputed case insensitive hash and then
+ * {@link String#equalsIgnoreCase(String)}. The entries are stored in flat arrays in insertion order, which is fast and
+ * compact for the number of headers a message typically has, but lookups are O(n) so this map is not intended for
+ * messages with hundreds of headers.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed by the
+ * Camel routing engine.
+ */
+public class InternedHeadersMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final @Serial long serialVersionUID = 4671384230938112042L;
+
+    private static final String[] HTTP_HEADERS = {
+            "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Authorization", "Cache-Control",
+            "Connection", "Content-Disposition", "Content-Encoding", "Content-Language", "Content-Length",
+            "Content-Type", "Cookie", "Date", "ETag", "Expires", "Host", "If-Match", "If-Modified-Since",
+            "If-None-Match", "Keep-Alive", "Last-Modified", "Location", "Origin", "Pragma", "Proxy-Authorization",
+            "Range", "Referer", "Server", "Set-Cookie", "Transfer-Encoding", "Upgrade", "User-Agent", "Vary", "Via",
+            "WWW-Authenticate", "X-Forwarded-For", "X-Forwarded-Host", "X-Forwarded-Proto", "X-Request-ID",
+            "traceparent", "tracestate" };
+
+    private static final String[] JMS_HEADERS = {
+            "JMSCorrelationID", "JMSCorrelationIDAsBytes", "JMSDeliveryMode", "JMSDestination", "JMSExpiration",
+            "JMSMessageID", "JMSPriority", "JMSRedelivered", "JMSReplyTo", "JMSTimestamp", "JMSType", "JMSXGroupID",
+            "JMSXGroupSeq", "JMSXUserID", "JMSXDeliveryCount", "CamelJmsDestination", "CamelJmsDestinationName",
+            "CamelJMSDestinationProduced", "CamelJmsMessageType", "CamelJmsDeliveryMode", "CamelJmsRequestTimeout" };
+
+    private static final String[] KAFKA_HEADERS = {
+            "kafka.PARTITION_KEY", "kafka.PARTITION", "kafka.KEY", "kafka.TOPIC", "kafka.OVERRIDE_TOPIC",
+            "kafka.OFFSET", "kafka.HEADERS", "kafka.LAST_RECORD_BEFORE_COMMIT", "kafka.LAST_POLL_RECORD",
+            "kafka.TIMESTAMP", "kafka.OVERRIDE_TIMESTAMP", "kafka.RECORD_META", "CamelKafkaManualCommit" };
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // the well known names by id
+    private static final String[] NAMES;
+    // the case insensitive hash of the well known names by id
+    private static final int[] NAME_HASHES;
+    // exact lookup of the well known names
+    private static final Map<String, Integer> EXACT;
+    // case insensitive lookup of the well known names (open addressing of ids by case insensitive hash)
+    private static final int[] TABLE;
+
+    static {
+        Set<String> names = new LinkedHashSet<>();
+        for (Field field : Exchange.class.getFields()) {
+            if (field.getType() == String.class && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    names.add((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    // ignore
+                }
+            }
+        }
+        names.addAll(Arrays.asList(HTTP_HEADERS));
+        names.addAll(Arrays.asList(JMS_HEADERS));
+        names.addAll(Arrays.asList(KAFKA_HEADERS));
+
+        // the names must be unique ignoring case
+        Map<String, Integer> exact = new HashMap<>(names.size() * 2);
+        String[] arr = new String[names.size()];
+        int[] hashes = new int[names.size()];
+        int[] table = new int[Integer.highestOneBit(names.size()) << 2];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        int id = 0;
+        for (String name : names) {
+            int h = hash(name);
+            int i = h & mask;
+            boolean duplicate = false;
+            while (table[i] != -1) {
+                if (arr[table[i]].equalsIgnoreCase(name)) {
+                    duplicate = true;
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+            if (!duplicate) {
+                table[i] = id;
+                arr[id] = name;
+                hashes[id] = h;
+                exact.put(name, id);
+                id++;
+            }
+        }
+        NAMES = Arrays.copyOf(arr, id);
+        NAME_HASHES = Arrays.copyOf(hashes, id);
+        EXACT = exact;
+        TABLE = table;
+    }
+
+    // id of the well known name of the key, or -1 (the ids depend on the JVM so they are not serialized)
+    private transient int[] ids;
+    // case insensitive hash of the key
+    private transient int[] hashes;
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    private transient EntrySet entrySet;
+
+    public InternedHeadersMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InternedHeadersMap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.ids = new int[capacity];
+        this.hashes = new int[capacity];
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+    }
+
+    public InternedHeadersMap(Map<? extends String, ?> map) {
+        this(Math.max(DEFAULT_CAPACITY, map.size()));
+        putAll(map);
+    }
+
+    /**
+     * Whether the given name is a well known header name which is interned
+     */
+    public static boolean isWellKnown(String name) {
+        return name != null && (EXACT.containsKey(name) || resolveIgnoreCase(name, hash(name)) >= 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (key instanceof String) {
+            int index = indexOf((String) key);
+            if (index >= 0) {
+                return values[index];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Objects.requireNonNull(key);
+
+        final Integer known = EXACT.get(key);
+        final int id;
+        final int h;
+        if (known != null) {
+            id = known;
+            h = NAME_HASHES[id];
+        } else {
+            h = hash(key);
+            id = resolveIgnoreCase(key, h);
+        }
+        final int index = indexOf(key, id, h);
+        if (index >= 0) {
+            // keep the existing key (as a TreeMap does)
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        ids[size] = id;
+        hashes[size] = h;
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (key instanceof String) {
+            int index = indexOf((String) key);
+            if (index >= 0) {
+                Object old = values[index];
+                removeAt(index);
+                return old;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(String key) {
+        final Integer known = EXACT.get(key);
+        if (known != null) {
+            return indexOf(key, known, 0);
+        }
+        final int h = hash(key);
+        return indexOf(key, resolveIgnoreCase(key, h), h);
+    }
+
+    private int indexOf(String key, int id, int h) {
+        if (id >= 0) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == h && ids[i] < 0 && keys[i].equalsIgnoreCase(key)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(ids, index + 1, ids, index, moved);
+            System.arraycopy(hashes, index + 1, hashes, index, moved);
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    /**
+     * Resolves the id of the well known name in any case, or -1 if the name is not well known
+     */
+    private static int resolveIgnoreCase(String name, int hash) {
+        final int mask = TABLE.length - 1;
+        int i = hash & mask;
+        int candidate;
+        while ((candidate = TABLE[i]) != -1) {
+            if (NAMES[candidate].equalsIgnoreCase(name)) {
+                return candidate;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * A case insensitive hash which is consistent with {@link String#equalsIgnoreCase(String)}
+     */
+    private static int hash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 128) {
+                // fast path for ascii
+                if (c >= 'A' && c <= 'Z') {
+                    c += 32;
+                }
+            } else {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // the ids are indexes into the well known names, which are not guaranteed to be in the same order in the JVM
+        // that wrote the map, so they are resolved again from the keys
+        ids = new int[keys.length];
+        hashes = new int[keys.length];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash(keys[i]);
+            ids[i] = resolveIgnoreCase(keys[i], hashes[i]);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            InternedHeadersMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new HeaderEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    private final class HeaderEntry implements Entry<String, Object> {
+
+        private final int index;
+        private final String key;
+
+        private HeaderEntry(int index) {
+            this.index = index;
+            this.key = keys[index];
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return keys[index] == key ? values[index] : get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (keys[index] == key) {
+                Object old = values[index];
+                values[index] = value;
+                return old;
+            }
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return key.equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+}
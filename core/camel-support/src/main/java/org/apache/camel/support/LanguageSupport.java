@@ -18,12 +18,16 @@ package org.apache.camel.support;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelContextAware;
+import org.apache.camel.Expression;
 import org.apache.camel.ExpressionIllegalSyntaxException;
 import org.apache.camel.IsSingleton;
 import org.apache.camel.NoSuchBeanException;
+import org.apache.camel.Predicate;
+import org.apache.camel.spi.ExpressionCache;
 import org.apache.camel.spi.Language;
 import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.TimeUtils;
@@ -38,6 +42,7 @@ public abstract class LanguageSupport implements Language, IsSingleton, CamelCon
     private static final String[] SIMPLE_FUNCTION_START = new String[] { "${", "$simple{" };
 
     private CamelContext camelContext;
+    private String languageName;
 
     @Override
     public CamelContext getCamelContext() {
@@ -54,6 +59,56 @@ public abstract class LanguageSupport implements Language, IsSingleton, CamelCon
         return true;
     }
 
+    /**
+     * The name of the language, which is used for the statistics of the {@link ExpressionCache}.
+     */
+    protected String getLanguageName() {
+        if (languageName == null) {
+            org.apache.camel.spi.annotations.Language annotation
+                    = getClass().getAnnotation(org.apache.camel.spi.annotations.Language.class);
+            languageName = annotation != null ? annotation.value() : getClass().getSimpleName();
+        }
+        return languageName;
+    }
+
+    /**
+     * Gets the expression from the {@link ExpressionCache} of the CamelContext, or creates the expression if not
+     * cached.
+     * <p/>
+     * Languages which create expressions that are costly to create can use this to avoid creating the same expression
+     * over and over again. As the cached expressions are shared, the expressions must be thread-safe, and must not be
+     * modified once created.
+     *
+     * @param  expression the text of the expression
+     * @param  properties the properties used to create the expression
+     * @param  factory    to create the expression if not cached
+     * @return            the expression
+     */
+    protected Expression cachedExpression(String expression, Object[] properties, Supplier<Expression> factory) {
+        ExpressionCache cache = camelContext != null ? PluginHelper.getExpressionCache(camelContext) : null;
+        if (cache == null) {
+            return factory.get();
+        }
+        return cache.computeExpressionIfAbsent(getLanguageName(), this, expression, properties, factory);
+    }
+
+    /**
+     * Gets the predicate from the {@link ExpressionCache} of the CamelContext, or creates the predicate if not cached.
+     *
+     * @param  expression the text of the predicate
+     * @param  properties the properties used to create the predicate
+     * @param  factory    to create the predicate if not cached
+     * @return            the predicate
+     * @see               #cachedExpression(String, Object[], Supplier)
+     */
+    protected Predicate cachedPredicate(String expression, Object[] properties, Supplier<Predicate> factory) {
+        ExpressionCache cache = camelContext != null ? PluginHelper.getExpressionCache(camelContext) : null;
+        if (cache == null) {
+            return factory.get();
+        }
+        return cache.computePredicateIfAbsent(getLanguageName(), this, expression, properties, factory);
+    }
+
     /**
      * Loads the resource if the given expression is referring to an external resource by using the syntax
      * <tt>resource:scheme:uri<tt>.
@@ -35,6 +35,7 @@ import org.apache.camel.spi.ComponentResolver;
 import org.apache.camel.spi.ConfigurerResolver;
 import org.apache.camel.spi.DataFormatResolver;
 import org.apache.camel.spi.DeferServiceFactory;
+import org.apache.camel.spi.ExpressionCache;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.InterceptEndpointFactory;
 import org.apache.camel.spi.InternalProcessorFactory;
@@ -477,6 +478,20 @@ public final class PluginHelper {
         return extendedCamelContext.getContextPlugin(UnitOfWorkFactory.class);
     }
 
+    /**
+     * Gets the {@link ExpressionCache}
+     */
+    public static ExpressionCache getExpressionCache(CamelContext camelContext) {
+        return getExpressionCache(camelContext.getCamelContextExtension());
+    }
+
+    /**
+     * Gets the {@link ExpressionCache}
+     */
+    public static ExpressionCache getExpressionCache(ExtendedCamelContext extendedCamelContext) {
+        return extendedCamelContext.getContextPlugin(ExpressionCache.class);
+    }
+
     /**
      * Gets the {@link BeanIntrospection}
      */
@@ -50,7 +50,7 @@ public abstract class PooledObjectFactorySupport<T> extends ServiceSupport imple
         if (isPooled()) {
             this.pool = new ArrayBlockingQueue<>(capacity);
         }
-        if (isStatisticsEnabled()) {
+        if (isStatisticsEnabled() && statistics == null) {
             this.statistics = new UtilizationStatistics();
         }
     }
@@ -73,6 +73,10 @@ public abstract class PooledObjectFactorySupport<T> extends ServiceSupport imple
     @Override
     public void setStatisticsEnabled(boolean statisticsEnabled) {
         this.statisticsEnabled = statisticsEnabled;
+        if (statisticsEnabled && statistics == null) {
+            // statistics may be enabled at runtime (such as via JMX)
+            this.statistics = new UtilizationStatistics();
+        }
     }
 
     @Override
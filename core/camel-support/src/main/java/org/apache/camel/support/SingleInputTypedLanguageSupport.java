@@ -44,8 +44,37 @@ public abstract class SingleInputTypedLanguageSupport extends TypedLanguageSuppo
         return true;
     }
 
+    /**
+     * Whether the expressions and predicates are cached in the {@link org.apache.camel.spi.ExpressionCache}, which
+     * requires the expressions to be thread-safe and not modified once created. Expressions which are loaded from a
+     * resource are not cached, as the content of the resource may change.
+     */
+    protected boolean supportExpressionCache() {
+        return false;
+    }
+
     @Override
     public Expression createExpression(String expression, Object[] properties) {
+        if (supportExpressionCache() && isCacheable(expression)) {
+            return cachedExpression(expression, properties, () -> doCreateExpression(expression, properties));
+        }
+        return doCreateExpression(expression, properties);
+    }
+
+    @Override
+    public Predicate createPredicate(String expression, Object[] properties) {
+        if (supportExpressionCache() && isCacheable(expression)) {
+            return cachedPredicate(expression, properties, () -> doCreatePredicate(expression, properties));
+        }
+        return doCreatePredicate(expression, properties);
+    }
+
+    private boolean isCacheable(String expression) {
+        // the cache is keyed by the text of the expression, which is not the content of a resource
+        return expression != null && !isStaticResource(expression);
+    }
+
+    private Expression doCreateExpression(String expression, Object[] properties) {
         if (expression != null && isStaticResource(expression)) {
             expression = loadResource(expression);
         }
@@ -62,8 +91,7 @@ public abstract class SingleInputTypedLanguageSupport extends TypedLanguageSuppo
         return ExpressionBuilder.convertToExpression(createExpression(input, expression, properties), type);
     }
 
-    @Override
-    public Predicate createPredicate(String expression, Object[] properties) {
+    private Predicate doCreatePredicate(String expression, Object[] properties) {
         if (expression != null && isStaticResource(expression)) {
             expression = loadResource(expression);
         }
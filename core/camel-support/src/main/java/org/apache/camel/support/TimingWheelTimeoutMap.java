@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Comparator.comparing;
+import static org.apache.camel.TimeoutMap.Listener.Type.Evict;
+import static org.apache.camel.TimeoutMap.Listener.Type.Put;
+import static org.apache.camel.TimeoutMap.Listener.Type.Remove;
+
+/**
+ * A {@link TimeoutMap} which keeps its entries in a hashed timing wheel.
+ * <p/>
+ * The wheel has a fixed number of buckets (a power of two) and each bucket covers one tick, where the tick is the purge
+ * poll time. Entries are linked into the bucket of the tick they expire in, which makes put, remove and get O(1). The
+ * background purge task only visits the buckets for the ticks that have elapsed since the previous purge, so the cost of
+ * a purge is proportional to the entries in those buckets, and not to the size of the map as with
+ * {@link DefaultTimeoutMap}.
+ * <p/>
+ * Entries with a timeout longer than one revolution of the wheel (wheel size * tick) stay in their bucket and are
+ * checked again once per revolution. Calling {@link #get(Object)} renews the expire time of the entry, and the entry is
+ * lazily moved to its new bucket when its old bucket is visited.
+ * <p/>
+ * The map has the same semantics, constructors and hooks as {@link DefaultTimeoutMap}, such as locking (or not) and
+ * expired entries being evicted in the order of their expire time. You must provide a
+ * {@link java.util.concurrent.ScheduledExecutorService} in the constructor and invoke {@link #start()} and
+ * {@link #stop()} to control the background purge task.
+ */
+public class TimingWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V> {
+
+    /**
+     * The default number of buckets in the wheel
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final long tickDuration;
+    private final Lock lock;
+
+    private final List<Listener<K, V>> listeners = new ArrayList<>(2);
+
+    // the wheel, where each bucket is the head of a doubly linked list of entries
+    private final WheelEntry<K, V>[] wheel;
+    private final int mask;
+    // the last tick which has been purged, or -1 if not yet initialized
+    private long lastTick = -1;
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, true);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock) {
+        this(executor, requestMapPollTimeMillis, useLock ? new ReentrantLock() : NoLock.INSTANCE);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, Lock lock) {
+        this(executor, requestMapPollTimeMillis, lock, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, Lock lock,
+                                 int wheelSize) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        ObjectHelper.notNull(lock, "Lock");
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("Wheel size must be positive, was: " + wheelSize);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        this.tickDuration = Math.max(1, requestMapPollTimeMillis);
+        this.lock = lock;
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new WheelEntry[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public V get(K key) {
+        WheelEntry<K, V> entry;
+        // if no contains, the lock is not necessary
+        if (!map.containsKey(key)) {
+            return null;
+        }
+        lock.lock();
+        try {
+            entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            // the entry is moved to its new bucket lazily when the purge task visits its current bucket
+            updateExpireTime(entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry.getValue();
+    }
+
+    @Override
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<>(key, value, timeoutMillis);
+        lock.lock();
+        try {
+            updateExpireTime(entry);
+            WheelEntry<K, V> result = map.put(key, entry);
+            if (result != null) {
+                unlink(result);
+            }
+            link(entry, bucketTick(entry.getExpireTime()));
+            return unwrap(result);
+        } finally {
+            lock.unlock();
+            emitEvent(Put, key, value);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<>(key, value, timeoutMillis);
+        WheelEntry<K, V> result = null;
+        lock.lock();
+        try {
+            updateExpireTime(entry);
+            //Just make sure we don't override the old entry
+            result = map.putIfAbsent(key, entry);
+            if (result == null) {
+                link(entry, bucketTick(entry.getExpireTime()));
+            }
+            return unwrap(result);
+        } finally {
+            lock.unlock();
+            if (result != entry) {
+                emitEvent(Put, key, value); // conditional on map being changed
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        // if no contains, the lock is not necessary
+        if (!map.containsKey(key)) {
+            return null;
+        }
+
+        V value = null;
+        lock.lock();
+        try {
+            WheelEntry<K, V> entry = map.remove(key);
+            if (entry != null) {
+                unlink(entry);
+            }
+            value = unwrap(entry);
+            return value;
+        } finally {
+            lock.unlock();
+            if (value != null) {
+                emitEvent(Remove, key, value); // conditional on map being changed
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which purges old requests and schedules another poll
+     */
+    private void purgeTask() {
+        // only purge if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries have been timed out");
+        try {
+            purge();
+        } catch (Exception t) {
+            // must catch and log exception otherwise the executor will now schedule next purgeTask
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    protected void purge() {
+        log.trace("There are {} in the timeout map", map.size());
+        if (map.isEmpty()) {
+            return;
+        }
+
+        long now = currentTime();
+        long currentTick = now / tickDuration;
+
+        List<TimeoutMapEntry<K, V>> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            if (lastTick < 0) {
+                lastTick = currentTick;
+            }
+            // visit the buckets of the ticks which has elapsed since last purge (each bucket at most once), which
+            // includes the tick of the last purge as entries may have expired later in that tick
+            long from = Math.max(lastTick, currentTick - mask);
+            for (long tick = from; tick <= currentTick; tick++) {
+                purgeBucket((int) (tick & mask), now, currentTick, expired);
+            }
+            lastTick = currentTick;
+
+            // if we found any expired then we need to sort according to the expired time so we got the first expired first
+            if (expired.size() > 1) {
+                expired.sort(comparing(TimeoutMapEntry::getExpireTime));
+            }
+        } finally {
+            lock.unlock();
+            for (TimeoutMapEntry<K, V> entry : expired) {
+                emitEvent(Evict, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void purgeBucket(int index, long now, long currentTick, List<TimeoutMapEntry<K, V>> expired) {
+        WheelEntry<K, V> entry = wheel[index];
+        while (entry != null) {
+            // grab next before the entry may be unlinked or moved
+            WheelEntry<K, V> next = entry.next;
+            long expireTime = entry.getExpireTime();
+            if (expireTime < now) {
+                if (isValidForEviction(entry)) {
+                    log.debug("Evicting inactive entry ID: {}", entry);
+                    unlink(entry);
+                    map.remove(entry.getKey(), entry);
+                    expired.add(entry);
+                } else {
+                    // try again on next purge
+                    move(entry, currentTick);
+                }
+            } else {
+                // not yet expired (later revolution, renewed by get, or later in the current tick)
+                move(entry, Math.max(expireTime / tickDuration, currentTick));
+            }
+            entry = next;
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Number of buckets in the wheel
+     */
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    private static <K, V> V unwrap(TimeoutMapEntry<K, V> entry) {
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * The tick of the bucket an entry with the given expire time should be linked into. Entries which would belong to a
+     * tick that has already been purged are put in the bucket of the last purge, which is visited again on next purge.
+     */
+    private long bucketTick(long expireTime) {
+        long tick = expireTime / tickDuration;
+        if (lastTick < 0) {
+            lastTick = currentTime() / tickDuration;
+        }
+        return Math.max(tick, lastTick);
+    }
+
+    private void link(WheelEntry<K, V> entry, long tick) {
+        int index = (int) (tick & mask);
+        WheelEntry<K, V> head = wheel[index];
+        entry.bucket = index;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        wheel[index] = entry;
+    }
+
+    private void unlink(WheelEntry<K, V> entry) {
+        if (entry.bucket < 0) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = -1;
+    }
+
+    private void move(WheelEntry<K, V> entry, long tick) {
+        if (entry.bucket != (int) (tick & mask)) {
+            unlink(entry);
+            link(entry, tick);
+        }
+    }
+
+    @Override
+    public void addListener(Listener<K, V> listener) {
+        this.listeners.add(listener);
+    }
+
+    private void emitEvent(Listener.Type type, K key, V value) {
+        for (Listener<K, V> listener : listeners) {
+            try {
+                listener.timeoutMapEvent(type, key, value);
+            } catch (Exception t) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * lets schedule each time to allow folks to change the time at runtime
+     */
+    protected void schedulePoll() {
+        future = executor.scheduleWithFixedDelay(this::purgeTask, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        schedulePoll();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map and wheel if we stop
+        lock.lock();
+        try {
+            map.clear();
+            for (int i = 0; i < wheel.length; i++) {
+                WheelEntry<K, V> entry = wheel[i];
+                while (entry != null) {
+                    WheelEntry<K, V> next = entry.next;
+                    entry.prev = null;
+                    entry.next = null;
+                    entry.bucket = -1;
+                    entry = next;
+                }
+                wheel[i] = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+        private int bucket = -1;
+
+        WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+    }
+
+}
@@ -0,0 +1,531 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.Exchange;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.Configurer;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.ScannableIdempotentRepository;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link org.apache.camel.spi.IdempotentRepository} which keeps a local Bloom filter of the keys in front of another
+ * (usually remote) idempotent repository, such as the JDBC based repository.
+ * <p/>
+ * A Bloom filter can tell for sure that a key has never been added, so {@link #contains(String)} returns right away for
+ * those keys, without calling the repository. As the vast majority of the messages are usually unique, this saves a
+ * round trip to the repository for most lookups, such as when using the Idempotent Consumer EIP in non-eager mode, or
+ * the idempotent option of the file and ftp consumers. When the filter reports that a key may have been added, then
+ * the repository is called to get the actual answer. The repository is always called to add, remove and confirm keys.
+ * <p/>
+ * The filter is a counting Bloom filter, so keys can also be removed from it. It is sized for the expected number of
+ * keys and false positive probability, and when more keys are added, then it grows by adding another filter twice as
+ * large (a scalable Bloom filter), so the false positive probability stays within the configured value.
+ * <p/>
+ * On startup, the filter is warmed up with the keys of the repository, so the repository must be a
+ * {@link ScannableIdempotentRepository}, as otherwise the filter would wrongly report the keys already in the
+ * repository as new. <b>Important:</b> the filter only knows the keys which are added through this repository, or
+ * which were in the repository on startup. It should therefore only be used when this repository is the only one
+ * adding keys to the underlying repository (i.e.: not shared by several nodes), as otherwise the keys added by others
+ * may wrongly be reported as new.
+ */
+@Metadata(label = "bean",
+          description = "An idempotent repository which keeps a local Bloom filter of the keys in front of another (usually remote)"
+                        + " idempotent repository, so lookups of keys which are definitely new do not call the repository.",
+          annotations = { "interfaceName=org.apache.camel.spi.IdempotentRepository" })
+@Configurer(metadataOnly = true)
+@ManagedResource(description = "Bloom filter idempotent repository")
+public class BloomFilterIdempotentRepository extends ServiceSupport implements IdempotentRepository, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BloomFilterIdempotentRepository.class);
+
+    // each filter added when growing is twice as large and its false positive probability is half the previous one,
+    // so the overall false positive probability converges to the configured value
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final LongAdder negativeCount = new LongAdder();
+    private final LongAdder positiveCount = new LongAdder();
+    private final LongAdder falsePositiveCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private CamelContext camelContext;
+    private volatile CountingBloomFilter[] filters;
+
+    @Metadata(description = "The idempotent repository to keep the Bloom filter in front of, which must be a"
+                            + " ScannableIdempotentRepository",
+              required = true)
+    private IdempotentRepository repository;
+    @Metadata(description = "The expected number of keys, which the initial Bloom filter is sized for. When more keys are added, then"
+                            + " the filter grows.",
+              defaultValue = "100000")
+    private long expectedInsertions = 100000;
+    @Metadata(description = "The desired false positive probability of the Bloom filter, which is the probability that the"
+                            + " repository is called for a new key",
+              defaultValue = "0.01")
+    private double falsePositiveProbability = 0.01;
+
+    public BloomFilterIdempotentRepository() {
+    }
+
+    public BloomFilterIdempotentRepository(IdempotentRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Creates a new repository which keeps a Bloom filter of the keys in front of the given repository.
+     *
+     * @param repository the repository to keep the Bloom filter in front of
+     */
+    public static IdempotentRepository bloomFilterIdempotentRepository(IdempotentRepository repository) {
+        return new BloomFilterIdempotentRepository(repository);
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        return doAdd(null, key);
+    }
+
+    @Override
+    public boolean add(Exchange exchange, String key) {
+        return doAdd(exchange, key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        return doContains(null, key);
+    }
+
+    @Override
+    public boolean contains(Exchange exchange, String key) {
+        return doContains(exchange, key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        return doRemove(null, key);
+    }
+
+    @Override
+    public boolean remove(Exchange exchange, String key) {
+        return doRemove(exchange, key);
+    }
+
+    @Override
+    public boolean confirm(String key) {
+        return repository.confirm(key);
+    }
+
+    @Override
+    public boolean confirm(Exchange exchange, String key) {
+        return repository.confirm(exchange, key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Clear the store (danger this removes all entries)")
+    public void clear() {
+        repository.clear();
+        resetFilter();
+    }
+
+    private boolean doAdd(Exchange exchange, String key) {
+        long hash = hash(key);
+        boolean mightContain = mightContain(hash);
+        if (mightContain) {
+            positiveCount.increment();
+        } else {
+            negativeCount.increment();
+        }
+
+        // the repository is always called to store the key
+        boolean answer = exchange != null ? repository.add(exchange, key) : repository.add(key);
+        if (answer) {
+            if (mightContain) {
+                falsePositiveCount.increment();
+            }
+            put(hash);
+        }
+        return answer;
+    }
+
+    private boolean doContains(Exchange exchange, String key) {
+        long hash = hash(key);
+        if (!mightContain(hash)) {
+            // the key has definitely not been added
+            negativeCount.increment();
+            skippedCount.increment();
+            return false;
+        }
+
+        positiveCount.increment();
+        boolean answer = exchange != null ? repository.contains(exchange, key) : repository.contains(key);
+        if (!answer) {
+            falsePositiveCount.increment();
+        }
+        return answer;
+    }
+
+    private boolean doRemove(Exchange exchange, String key) {
+        boolean answer = exchange != null ? repository.remove(exchange, key) : repository.remove(key);
+        if (answer) {
+            long hash = hash(key);
+            // the key can only be removed from the filter if we know which filter it was added to, as removing it from
+            // another filter would decrement the counters of other keys (which then may be reported as not added), so
+            // when several filters may hold the key, then it is kept (it is a false positive from now on)
+            CountingBloomFilter holder = null;
+            for (CountingBloomFilter filter : filters) {
+                if (filter.mightContain(hash)) {
+                    if (holder != null) {
+                        return true;
+                    }
+                    holder = filter;
+                }
+            }
+            if (holder != null) {
+                holder.remove(hash);
+            }
+        }
+        return answer;
+    }
+
+    private boolean mightContain(long hash) {
+        for (CountingBloomFilter filter : filters) {
+            if (filter.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(long hash) {
+        CountingBloomFilter[] current = filters;
+        CountingBloomFilter filter = current[current.length - 1];
+        if (filter.getCount() >= filter.capacity) {
+            filter = grow(current);
+        }
+        filter.add(hash);
+    }
+
+    private synchronized CountingBloomFilter grow(CountingBloomFilter[] current) {
+        if (filters != current) {
+            // another thread has grown the filter already
+            return filters[filters.length - 1];
+        }
+        CountingBloomFilter last = current[current.length - 1];
+        CountingBloomFilter filter = new CountingBloomFilter(
+                last.capacity * GROWTH_FACTOR, last.falsePositiveProbability * TIGHTENING_RATIO);
+        LOG.debug("Growing the Bloom filter to {} filters, with capacity for {} keys", current.length + 1,
+                filter.capacity);
+
+        CountingBloomFilter[] answer = new CountingBloomFilter[current.length + 1];
+        System.arraycopy(current, 0, answer, 0, current.length);
+        answer[current.length] = filter;
+        filters = answer;
+        return filter;
+    }
+
+    private synchronized void resetFilter() {
+        // the sum of the false positive probabilities of the filters must be within the configured probability
+        filters = new CountingBloomFilter[] {
+                new CountingBloomFilter(expectedInsertions, falsePositiveProbability * (1 - TIGHTENING_RATIO)) };
+    }
+
+    public IdempotentRepository getRepository() {
+        return repository;
+    }
+
+    /**
+     * The idempotent repository to keep the Bloom filter in front of, which must be a
+     * {@link ScannableIdempotentRepository}, so the filter can be warmed up with the keys of the repository on startup.
+     */
+    public void setRepository(IdempotentRepository repository) {
+        this.repository = repository;
+    }
+
+    @ManagedAttribute(description = "The expected number of keys, which the initial Bloom filter is sized for")
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * The expected number of keys, which the initial Bloom filter is sized for. When more keys are added, then the
+     * filter grows by adding another filter twice as large. The default is 100000.
+     */
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    @ManagedAttribute(description = "The desired false positive probability of the Bloom filter")
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    /**
+     * The desired false positive probability of the Bloom filter, which is the probability that the repository is
+     * called to look up a key which has not been added. The lower the probability, the more memory the filter uses. The
+     * default is 0.01.
+     */
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    @ManagedAttribute(description = "The number of keys in the Bloom filter")
+    public long getFilterSize() {
+        long answer = 0;
+        for (CountingBloomFilter filter : filters) {
+            answer += filter.getCount();
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "The number of Bloom filters, which increases as the filter grows")
+    public int getFilterCount() {
+        return filters.length;
+    }
+
+    @ManagedAttribute(description = "The memory used by the Bloom filter in bytes")
+    public long getFilterMemorySize() {
+        long answer = 0;
+        for (CountingBloomFilter filter : filters) {
+            answer += (long) filter.counters.length() * Long.BYTES;
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "The estimated false positive probability of the Bloom filter, based on how full it is")
+    public double getEstimatedFalsePositiveProbability() {
+        // a key is a false positive if any of the filters reports it
+        double none = 1;
+        for (CountingBloomFilter filter : filters) {
+            none *= 1 - filter.estimatedFalsePositiveProbability();
+        }
+        return 1 - none;
+    }
+
+    @ManagedAttribute(description = "The number of lookups of keys which the Bloom filter reported as definitely new")
+    public long getNegativeCount() {
+        return negativeCount.sum();
+    }
+
+    @ManagedAttribute(description = "The number of lookups of keys which the Bloom filter reported as possibly added")
+    public long getPositiveCount() {
+        return positiveCount.sum();
+    }
+
+    @ManagedAttribute(description = "The number of lookups of keys which the Bloom filter reported as possibly added, but were new")
+    public long getFalsePositiveCount() {
+        return falsePositiveCount.sum();
+    }
+
+    @ManagedAttribute(description = "The number of lookups which did not call the repository, as the Bloom filter ruled out the key")
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    @ManagedAttribute(description = "The observed false positive rate of the Bloom filter, out of the lookups of new keys")
+    public double getFalsePositiveRate() {
+        long falsePositives = falsePositiveCount.sum();
+        long newKeys = falsePositives + negativeCount.sum();
+        return newKeys == 0 ? 0 : (double) falsePositives / newKeys;
+    }
+
+    @ManagedOperation(description = "Reset the statistics")
+    public void resetStatistics() {
+        negativeCount.reset();
+        positiveCount.reset();
+        falsePositiveCount.reset();
+        skippedCount.reset();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(repository, "repository", this);
+        if (!(repository instanceof ScannableIdempotentRepository scannable)) {
+            // the filter would not know the keys already in the repository, and report them as new
+            throw new IllegalArgumentException(
+                    "The repository " + repository + " must be a " + ScannableIdempotentRepository.class.getName()
+                                               + " so the Bloom filter can be warmed up with the keys of the repository");
+        }
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("ExpectedInsertions must be positive, was: " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException(
+                    "FalsePositiveProbability must be between 0 and 1, was: " + falsePositiveProbability);
+        }
+
+        CamelContextAware.trySetCamelContext(repository, camelContext);
+        ServiceHelper.startService(repository);
+
+        resetFilter();
+        scannable.scan(key -> put(hash(key)));
+        LOG.debug("Warmed up the Bloom filter with {} keys from the repository {}", getFilterSize(), repository);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopService(repository);
+    }
+
+    /**
+     * Hashes the key to 64 bits (FNV-1a with a murmur3 finalizer), which are split in the two hashes used to derive the
+     * indexes of the key in the filter.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * A counting Bloom filter with 4-bit counters, which are packed in longs and updated lock-free. A counter which
+     * reaches its maximum value sticks to it, so the keys sharing it can never be wrongly reported as not added.
+     */
+    private static final class CountingBloomFilter {
+
+        private static final int MAX_COUNT = 15;
+
+        private final long capacity;
+        private final double falsePositiveProbability;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray counters;
+        private final AtomicLong count = new AtomicLong();
+
+        CountingBloomFilter(long capacity, double falsePositiveProbability) {
+            this.capacity = capacity;
+            this.falsePositiveProbability = falsePositiveProbability;
+            // optimal number of counters and hash functions for the capacity and false positive probability
+            long optimal = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            long words = Math.min(Integer.MAX_VALUE, Math.max(1, (optimal + 15) / 16));
+            this.size = words * 16;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+            this.counters = new AtomicLongArray((int) words);
+        }
+
+        long getCount() {
+            return count.get();
+        }
+
+        boolean mightContain(long hash) {
+            long h1 = hash;
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                if (counter(index(h1, h2, i)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash) {
+            long h1 = hash;
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                update(index(h1, h2, i), 1);
+            }
+            count.incrementAndGet();
+        }
+
+        void remove(long hash) {
+            long h1 = hash;
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                update(index(h1, h2, i), -1);
+            }
+            count.decrementAndGet();
+        }
+
+        double estimatedFalsePositiveProbability() {
+            long used = 0;
+            for (int i = 0; i < counters.length(); i++) {
+                long word = counters.get(i);
+                for (int j = 0; j < 16; j++) {
+                    if ((word >>> (j << 2) & MAX_COUNT) != 0) {
+                        used++;
+                    }
+                }
+            }
+            return Math.pow((double) used / size, hashes);
+        }
+
+        private long index(long h1, long h2, int i) {
+            // double hashing to derive the hash functions from two hashes
+            return Math.floorMod(h1 + i * h2, size);
+        }
+
+        private int counter(long index) {
+            long word = counters.get((int) (index >>> 4));
+            return (int) (word >>> ((index & 15) << 2) & MAX_COUNT);
+        }
+
+        private void update(long index, int delta) {
+            int word = (int) (index >>> 4);
+            int shift = (int) (index & 15) << 2;
+            while (true) {
+                long current = counters.get(word);
+                int value = (int) (current >>> shift & MAX_COUNT);
+                if (value == MAX_COUNT || value == 0 && delta < 0) {
+                    // saturated counters are never decremented, and empty counters cannot be
+                    return;
+                }
+                long updated = current + ((long) delta << shift);
+                if (counters.compareAndSet(word, current, updated)) {
+                    return;
+                }
+            }
+        }
+    }
+}
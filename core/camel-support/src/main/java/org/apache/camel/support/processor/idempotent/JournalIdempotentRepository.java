@@ -0,0 +1,896 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.Configurer;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.spi.Metadata;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A log-structured file based implementation of {@link org.apache.camel.spi.IdempotentRepository}.
+ * <p/>
+ * Unlike {@link FileIdempotentRepository}, which scans and rewrites a single store file, this implementation appends
+ * every added and removed key as a record to a journal of segment files, and keeps all the live keys in an in-memory
+ * index. This makes {@link #add(String)}, {@link #contains(String)} and {@link #remove(String)} constant time
+ * operations, that never read the journal. The index is split in a number of stripes, each with its own lock, so
+ * concurrent consumers only contend when appending to the journal.
+ * <p/>
+ * When the active segment reaches the segment size, then a new segment is started. When enough keys have been removed
+ * (see {@link #setCompactionThreshold(double)}), the sealed segments are compacted in the background into a single
+ * segment with only the live keys. On startup the index is rebuilt by reading the segments sequentially, and a
+ * partially written record at the end of the journal (such as after a crash) is truncated.
+ * <p/>
+ * The index can optionally be kept off-heap (see {@link #setOffHeap(boolean)}), in which case it only holds a 128-bit
+ * fingerprint of each key in direct memory instead of the key itself, so millions of keys can be tracked without
+ * adding to the heap.
+ */
+@Metadata(label = "bean",
+          description = "A log-structured file based idempotent repository, which appends keys to a journal of segment files and keeps"
+                        + " an in-memory (optionally off-heap) index of the keys.",
+          annotations = { "interfaceName=org.apache.camel.spi.IdempotentRepository" })
+@Configurer(metadataOnly = true)
+@ManagedResource(description = "Journal based idempotent repository")
+public class JournalIdempotentRepository extends ServiceSupport implements IdempotentRepository, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalIdempotentRepository.class);
+
+    private static final String SEGMENT_PREFIX = "idempotent-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final byte RECORD_ADD = 'A';
+    private static final byte RECORD_REMOVE = 'R';
+    // type (1) + length (4) + crc (4)
+    private static final int RECORD_HEADER = 9;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final Object journalLock = new Object();
+    private final AtomicLong liveKeys = new AtomicLong();
+    private final AtomicLong compactionCounter = new AtomicLong();
+    private CamelContext camelContext;
+    private ExecutorService executorService;
+    private Stripe[] stripes;
+    // guarded by journalLock
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+    private FileChannel activeChannel;
+
+    @Metadata(description = "Directory of the journal segment files", required = true)
+    private File directory;
+    @Metadata(description = "The size in bytes of a journal segment file, before a new segment is started",
+              defaultValue = "" + 16 * 1024 * 1024)
+    private long segmentSize = 16 * 1024 * 1024;
+    @Metadata(description = "The ratio of removed records in the journal, which triggers compacting the sealed segments",
+              defaultValue = "0.5")
+    private double compactionThreshold = 0.5;
+    @Metadata(description = "The number of lock stripes of the index, which is the number of threads that can update the index concurrently",
+              defaultValue = "16")
+    private int concurrencyLevel = 16;
+    @Metadata(description = "Whether to keep the index of the keys off-heap (in direct memory). The off-heap index only holds a 128-bit"
+                            + " fingerprint of each key.")
+    private boolean offHeap;
+    @Metadata(description = "Whether to force every record to disk (fsync) before returning. This is slower, but no keys are lost"
+                            + " if the operating system crashes.")
+    private boolean sync;
+
+    public JournalIdempotentRepository() {
+    }
+
+    public JournalIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new journal based repository, with the segment files in the given directory.
+     *
+     * @param directory the directory of the segment files
+     */
+    public static IdempotentRepository journalIdempotentRepository(File directory) {
+        return new JournalIdempotentRepository(directory);
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        Stripe stripe = stripeFor(key);
+        boolean answer;
+        synchronized (stripe) {
+            if (stripe.index.contains(key)) {
+                return false;
+            }
+            append(RECORD_ADD, key);
+            answer = stripe.index.add(key);
+        }
+        if (answer) {
+            liveKeys.incrementAndGet();
+        }
+        return answer;
+    }
+
+    @Override
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.index.contains(key);
+        }
+    }
+
+    @Override
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            if (!stripe.index.contains(key)) {
+                return false;
+            }
+            append(RECORD_REMOVE, key);
+            stripe.index.remove(key);
+        }
+        liveKeys.decrementAndGet();
+        triggerCompaction();
+        return true;
+    }
+
+    @Override
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @Override
+    @ManagedOperation(description = "Clear the store (danger this removes all entries)")
+    public void clear() {
+        compactionLock.lock();
+        try {
+            clearStripes(0);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private void clearStripes(int i) {
+        // lock all the stripes so no adds or removes are in progress
+        if (i < stripes.length) {
+            synchronized (stripes[i]) {
+                clearStripes(i + 1);
+                stripes[i].index.clear();
+            }
+            return;
+        }
+        synchronized (journalLock) {
+            try {
+                IOHelper.close(activeChannel);
+                for (Segment segment : segments) {
+                    Files.deleteIfExists(segment.path);
+                }
+                segments.clear();
+                openSegment(1);
+            } catch (IOException e) {
+                throw RuntimeCamelException.wrapRuntimeCamelException(e);
+            }
+        }
+        liveKeys.set(0);
+    }
+
+    /**
+     * Compacts the sealed segments of the journal into a single segment with only the live keys.
+     */
+    @ManagedOperation(description = "Compacts the journal")
+    public void compact() {
+        compactionLock.lock();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Directory of the journal segment files
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory of the journal segment files")
+    public String getDirectoryPath() {
+        return directory.getPath();
+    }
+
+    @ManagedAttribute(description = "The size in bytes of a journal segment file")
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * The size in bytes of a journal segment file, before a new segment is started. The default is 16mb.
+     */
+    public void setSegmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    @ManagedAttribute(description = "The ratio of removed records in the journal, which triggers compacting the journal")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * The ratio of removed records in the journal (removed keys and the records of their adds), which triggers
+     * compacting the sealed segments. The default is 0.5. Set the value to 0 or negative to turn off automatic
+     * compaction.
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    /**
+     * The number of lock stripes of the index, which is the number of threads that can update the index concurrently.
+     * The default is 16.
+     */
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+    }
+
+    @ManagedAttribute(description = "Whether the index of the keys is off-heap")
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Whether to keep the index of the keys off-heap (in direct memory). The off-heap index only holds a 128-bit
+     * fingerprint of each key, and is sized by the number of keys instead of their length.
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @ManagedAttribute(description = "Whether every record is forced to disk")
+    public boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * Whether to force every record to disk (fsync) before returning. This is slower, but no keys are lost if the
+     * operating system crashes.
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @ManagedAttribute(description = "The number of keys in the store")
+    public long getSize() {
+        return liveKeys.get();
+    }
+
+    @ManagedAttribute(description = "The number of journal segment files")
+    public int getSegmentCount() {
+        synchronized (journalLock) {
+            return segments.size();
+        }
+    }
+
+    @ManagedAttribute(description = "The number of records in the journal")
+    public long getRecordCount() {
+        synchronized (journalLock) {
+            long answer = 0;
+            for (Segment segment : segments) {
+                answer += segment.records;
+            }
+            return answer;
+        }
+    }
+
+    @ManagedAttribute(description = "The size in bytes of the journal")
+    public long getJournalSize() {
+        synchronized (journalLock) {
+            long answer = 0;
+            for (Segment segment : segments) {
+                answer += segment.size;
+            }
+            return answer;
+        }
+    }
+
+    @ManagedAttribute(description = "The number of times the journal has been compacted")
+    public long getCompactionCount() {
+        return compactionCounter.get();
+    }
+
+    private Stripe stripeFor(String key) {
+        if (stripes == null) {
+            throw new IllegalStateException("JournalIdempotentRepository is not started");
+        }
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * Appends a record for the given key to the active segment, and starts a new segment if the active segment is full.
+     */
+    private void append(byte type, String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + data.length);
+        record.put(type).putInt(data.length).putInt((int) crc.getValue()).put(data).flip();
+
+        synchronized (journalLock) {
+            if (activeChannel == null) {
+                throw new IllegalStateException("JournalIdempotentRepository is not started");
+            }
+            try {
+                while (record.hasRemaining()) {
+                    activeChannel.write(record);
+                }
+                if (sync) {
+                    activeChannel.force(false);
+                }
+                active.records++;
+                active.size += RECORD_HEADER + data.length;
+                if (type == RECORD_REMOVE) {
+                    active.removes++;
+                }
+                if (active.size >= segmentSize) {
+                    // next sequence number is reserved for compacting the now sealed segments
+                    IOHelper.close(activeChannel);
+                    openSegment(active.sequence + 2);
+                }
+            } catch (IOException e) {
+                throw RuntimeCamelException.wrapRuntimeCamelException(e);
+            }
+        }
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        Path path = directory.toPath().resolve(segmentName(sequence));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        active = new Segment(sequence, path);
+        active.size = activeChannel.size();
+        segments.add(active);
+    }
+
+    private static String segmentName(long sequence) {
+        return SEGMENT_PREFIX + String.format("%019d", sequence) + SEGMENT_SUFFIX;
+    }
+
+    private void triggerCompaction() {
+        if (compactionThreshold <= 0 || compacting.get() || !isRunAllowed()) {
+            return;
+        }
+        long records = 0;
+        long removes = 0;
+        synchronized (journalLock) {
+            if (segments.size() < 2) {
+                // only the active segment, which is never compacted
+                return;
+            }
+            for (Segment segment : segments) {
+                records += segment.records;
+                removes += segment.removes;
+            }
+        }
+        // a removed key is two dead records (the add and the remove)
+        if (records == 0 || (double) (removes * 2) / records < compactionThreshold) {
+            return;
+        }
+        if (compacting.compareAndSet(false, true)) {
+            Runnable task = () -> {
+                try {
+                    compact();
+                } catch (Exception e) {
+                    LOG.warn("Error compacting idempotent journal: {} due to {}. This exception is ignored.", directory,
+                            e.getMessage(), e);
+                } finally {
+                    compacting.set(false);
+                }
+            };
+            if (executorService != null) {
+                executorService.submit(task);
+            } else {
+                task.run();
+            }
+        }
+    }
+
+    private void doCompact() throws IOException {
+        List<Segment> sealed;
+        long sequence;
+        synchronized (journalLock) {
+            if (active.records == 0 && segments.size() < 2) {
+                return;
+            }
+            // seal the active segment, so all the segments before it can be compacted
+            IOHelper.close(activeChannel);
+            sealed = new ArrayList<>(segments);
+            sequence = active.sequence + 1;
+            openSegment(active.sequence + 2);
+        }
+
+        LOG.debug("Compacting {} segments of idempotent journal: {}", sealed.size(), directory);
+
+        // keep the keys which are live, keys removed while compacting are removed again
+        // when replaying the newer segments
+        Path target = directory.toPath().resolve(segmentName(sequence));
+        Path temp = directory.toPath().resolve(segmentName(sequence) + COMPACT_SUFFIX);
+        Segment compacted = new Segment(sequence, target);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            for (Segment segment : sealed) {
+                readSegment(segment.path, false, (type, key, record) -> {
+                    if (type == RECORD_ADD && contains(key)) {
+                        if (buffer.remaining() < record.length) {
+                            flush(out, buffer);
+                        }
+                        if (record.length > buffer.capacity()) {
+                            out.write(ByteBuffer.wrap(record));
+                        } else {
+                            buffer.put(record);
+                        }
+                        compacted.records++;
+                        compacted.size += record.length;
+                    }
+                });
+            }
+            flush(out, buffer);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        synchronized (journalLock) {
+            segments.removeAll(sealed);
+            segments.add(0, compacted);
+        }
+        for (Segment segment : sealed) {
+            if (!segment.path.equals(target)) {
+                Files.deleteIfExists(segment.path);
+            }
+        }
+        compactionCounter.incrementAndGet();
+        LOG.debug("Compacted {} segments of idempotent journal: {} into {} with {} keys", sealed.size(), directory,
+                target, compacted.records);
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads the records of the given segment.
+     *
+     * @return the position after the last valid record
+     */
+    private static long readSegment(Path path, boolean last, RecordHandler handler) throws IOException {
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                byte[] record;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if ((type != RECORD_ADD && type != RECORD_REMOVE) || length < 0) {
+                        throw new IOException("Invalid record");
+                    }
+                    record = new byte[RECORD_HEADER + length];
+                    ByteBuffer.wrap(record).put((byte) type).putInt(length).putInt(checksum);
+                    in.readFully(record, RECORD_HEADER, length);
+                    CRC32 crc = new CRC32();
+                    crc.update(record, RECORD_HEADER, length);
+                    if ((int) crc.getValue() != checksum) {
+                        throw new IOException("Invalid checksum");
+                    }
+                } catch (IOException e) {
+                    if (last) {
+                        LOG.warn("Incomplete record at position {} in idempotent journal segment: {}. The segment is truncated.",
+                                position, path);
+                    } else {
+                        LOG.warn("Corrupt record at position {} in idempotent journal segment: {} due to {}."
+                                 + " The remainder of the segment is skipped.",
+                                position, path, e instanceof EOFException ? "end of file" : e.getMessage());
+                    }
+                    break;
+                }
+                String key = new String(record, RECORD_HEADER, record.length - RECORD_HEADER, StandardCharsets.UTF_8);
+                handler.onRecord((byte) type, key, record);
+                position += record.length;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Rebuilds the index from the segment files
+     */
+    protected void loadStore() throws IOException {
+        if (!directory.exists()) {
+            LOG.debug("Creating idempotent journal directory: {}", directory);
+            if (!directory.mkdirs()) {
+                throw new IOException("Cannot create idempotent journal directory: " + directory);
+            }
+        }
+
+        List<Segment> found = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(COMPACT_SUFFIX)) {
+                    // left over from an unfinished compaction
+                    FileUtil.deleteFile(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    String seq = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                    found.add(new Segment(Long.parseLong(seq), file.toPath()));
+                }
+            }
+        }
+        found.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+
+        LOG.trace("Loading {} segments from idempotent journal: {}", found.size(), directory);
+
+        long keys = 0;
+        for (int i = 0; i < found.size(); i++) {
+            Segment segment = found.get(i);
+            boolean last = i == found.size() - 1;
+            long valid = readSegment(segment.path, last, (type, key, record) -> {
+                Stripe stripe = stripeFor(key);
+                if (type == RECORD_ADD) {
+                    stripe.index.add(key);
+                } else {
+                    stripe.index.remove(key);
+                    segment.removes++;
+                }
+                segment.records++;
+            });
+            segment.size = valid;
+            if (last && valid < Files.size(segment.path)) {
+                try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+        }
+        for (Stripe stripe : stripes) {
+            keys += stripe.index.size();
+        }
+        liveKeys.set(keys);
+
+        synchronized (journalLock) {
+            segments.clear();
+            segments.addAll(found);
+            if (found.isEmpty()) {
+                openSegment(1);
+            } else {
+                // continue appending to the last segment
+                Segment last = found.get(found.size() - 1);
+                segments.remove(last);
+                openSegment(last.sequence);
+                active.records = last.records;
+                active.removes = last.removes;
+            }
+        }
+
+        LOG.debug("Loaded {} keys from {} segments of idempotent journal: {}", keys, segments.size(), directory);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+
+        int size = Integer.highestOneBit(Math.max(1, concurrencyLevel));
+        if (size < concurrencyLevel) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(offHeap ? new OffHeapKeyIndex() : new HeapKeyIndex());
+        }
+        loadStore();
+
+        if (camelContext != null && executorService == null) {
+            executorService = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this,
+                    "JournalIdempotentRepositoryCompaction");
+        }
+        triggerCompaction();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executorService != null && camelContext != null) {
+            camelContext.getExecutorServiceManager().shutdownGraceful(executorService);
+            executorService = null;
+        }
+        compactionLock.lock();
+        try {
+            synchronized (journalLock) {
+                IOHelper.close(activeChannel);
+                activeChannel = null;
+                active = null;
+                segments.clear();
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+        for (Stripe stripe : stripes) {
+            stripe.index.clear();
+        }
+        liveKeys.set(0);
+    }
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void onRecord(byte type, String key, byte[] record) throws IOException;
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private long records;
+        private long removes;
+        private long size;
+
+        private Segment(long sequence, Path path) {
+            this.sequence = sequence;
+            this.path = path;
+        }
+    }
+
+    private static final class Stripe {
+        private final KeyIndex index;
+
+        private Stripe(KeyIndex index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The index of the keys of a stripe, which is guarded by the lock of the stripe.
+     */
+    private interface KeyIndex {
+
+        boolean add(String key);
+
+        boolean contains(String key);
+
+        boolean remove(String key);
+
+        int size();
+
+        void clear();
+    }
+
+    private static final class HeapKeyIndex implements KeyIndex {
+        private final Set<String> keys = new HashSet<>();
+
+        @Override
+        public boolean add(String key) {
+            return keys.add(key);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        public boolean remove(String key) {
+            return keys.remove(key);
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public void clear() {
+            keys.clear();
+        }
+    }
+
+    /**
+     * An open addressing hash set of 128-bit fingerprints of the keys in direct memory. An empty slot is all zeros, and
+     * a removed slot (tombstone) is zero followed by one, which a fingerprint never is as its high half is never zero.
+     */
+    private static final class OffHeapKeyIndex implements KeyIndex {
+        private static final int SLOT = 16;
+        private static final int INITIAL_SLOTS = 256;
+
+        private ByteBuffer table;
+        private int mask;
+        private int size;
+        private int used;
+
+        private OffHeapKeyIndex() {
+            allocate(INITIAL_SLOTS);
+        }
+
+        private void allocate(int slots) {
+            table = ByteBuffer.allocateDirect(slots * SLOT);
+            mask = slots - 1;
+            used = 0;
+        }
+
+        @Override
+        public boolean add(String key) {
+            long[] fp = fingerprint(key);
+            if (find(fp[0], fp[1]) >= 0) {
+                return false;
+            }
+            // keep the load (including tombstones) at most a half
+            if ((used + 1) * 2 > mask + 1) {
+                rehash(size * 4 > mask + 1 ? (mask + 1) * 2 : mask + 1);
+            }
+            insert(fp[0], fp[1]);
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            long[] fp = fingerprint(key);
+            return find(fp[0], fp[1]) >= 0;
+        }
+
+        @Override
+        public boolean remove(String key) {
+            long[] fp = fingerprint(key);
+            int slot = find(fp[0], fp[1]);
+            if (slot < 0) {
+                return false;
+            }
+            table.putLong(slot * SLOT, 0L);
+            table.putLong(slot * SLOT + 8, 1L);
+            size--;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            allocate(INITIAL_SLOTS);
+            size = 0;
+        }
+
+        private int find(long hi, long lo) {
+            int slot = (int) lo & mask;
+            while (true) {
+                long h = table.getLong(slot * SLOT);
+                long l = table.getLong(slot * SLOT + 8);
+                if (h == hi && l == lo) {
+                    return slot;
+                } else if (h == 0 && l == 0) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void insert(long hi, long lo) {
+            int slot = (int) lo & mask;
+            while (table.getLong(slot * SLOT) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            if (table.getLong(slot * SLOT + 8) == 0) {
+                // reusing a tombstone does not add to the load
+                used++;
+            }
+            table.putLong(slot * SLOT, hi);
+            table.putLong(slot * SLOT + 8, lo);
+        }
+
+        private void rehash(int slots) {
+            ByteBuffer old = table;
+            int oldSlots = mask + 1;
+            allocate(slots);
+            for (int i = 0; i < oldSlots; i++) {
+                long h = old.getLong(i * SLOT);
+                if (h != 0) {
+                    insert(h, old.getLong(i * SLOT + 8));
+                }
+            }
+        }
+
+        private static long[] fingerprint(String key) {
+            byte[] data = key.getBytes(StandardCharsets.UTF_8);
+            // two independent 64-bit hashes (FNV-1a and a multiply-xorshift mix)
+            long hi = 0xcbf29ce484222325L;
+            long lo = 0x9e3779b97f4a7c15L ^ data.length;
+            for (byte b : data) {
+                hi ^= b & 0xff;
+                hi *= 0x100000001b3L;
+                lo = (lo ^ (b & 0xff)) * 0xff51afd7ed558ccdL;
+                lo ^= lo >>> 29;
+            }
+            hi ^= hi >>> 33;
+            lo ^= lo >>> 32;
+            lo *= 0xc4ceb9fe1a85ec53L;
+            lo ^= lo >>> 33;
+            if (hi == 0) {
+                hi = 1;
+            }
+            return new long[] { hi, lo };
+        }
+    }
+}
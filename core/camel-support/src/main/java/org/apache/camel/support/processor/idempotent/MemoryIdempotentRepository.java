@@ -16,7 +16,10 @@
  */
 package org.apache.camel.support.processor.idempotent;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedOperation;
@@ -24,6 +27,7 @@ import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.spi.Configurer;
 import org.apache.camel.spi.IdempotentRepository;
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.ScannableIdempotentRepository;
 import org.apache.camel.support.LRUCache;
 import org.apache.camel.support.LRUCacheFactory;
 import org.apache.camel.support.service.ServiceHelper;
@@ -39,7 +43,7 @@ import org.apache.camel.support.service.ServiceSupport;
           annotations = { "interfaceName=org.apache.camel.spi.IdempotentRepository" })
 @Configurer(metadataOnly = true)
 @ManagedResource(description = "Memory based idempotent repository")
-public class MemoryIdempotentRepository extends ServiceSupport implements IdempotentRepository {
+public class MemoryIdempotentRepository extends ServiceSupport implements ScannableIdempotentRepository {
 
     private static final int MAX_CACHE_SIZE = 1000;
 
@@ -129,6 +133,15 @@ public class MemoryIdempotentRepository extends ServiceSupport implements Idempo
         }
     }
 
+    @Override
+    public void scan(Consumer<String> consumer) {
+        List<String> keys;
+        synchronized (cacheAndStoreLock) {
+            keys = new ArrayList<>(cache.keySet());
+        }
+        keys.forEach(consumer);
+    }
+
     public Map<String, Object> getCache() {
         return cache;
     }
@@ -37,6 +37,7 @@ import org.apache.camel.support.service.ServiceSupport;
 import org.apache.camel.util.concurrent.RejectableScheduledThreadPoolExecutor;
 import org.apache.camel.util.concurrent.RejectableThreadPoolExecutor;
 import org.apache.camel.util.concurrent.SizedScheduledExecutorService;
+import org.apache.camel.util.concurrent.ThreadPerTaskExecutorService;
 import org.apache.camel.util.concurrent.ThreadType;
 import org.apache.camel.util.concurrent.ThreadFactoryTypeAware;
 
@@ -64,6 +65,11 @@ public class DefaultThreadPoolFactory extends ServiceSupport implements CamelCon
 
     @Override
     public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (Boolean.TRUE.equals(profile.getVirtualThreadPerTask())
+                && factory instanceof ThreadFactoryTypeAware factoryTypeAware && factoryTypeAware.isVirtual()) {
+            // a new virtual thread per task (no pool)
+            return new ThreadPerTaskExecutorService(factory);
+        }
         // allow core thread timeout is default true if not configured
         boolean allow = profile.getAllowCoreThreadTimeOut() != null ? profile.getAllowCoreThreadTimeOut() : true;
         return newThreadPool(profile.getPoolSize(),
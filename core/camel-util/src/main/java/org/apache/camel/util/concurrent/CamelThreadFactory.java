@@ -37,6 +37,14 @@ public final class CamelThreadFactory implements ThreadFactory {
         this.daemon = daemon;
     }
 
+    /**
+     * Creates a thread factory for the given type of threads. Virtual threads requires JDK 21+, and therefore this
+     * factory always creates platform threads.
+     */
+    public CamelThreadFactory(String pattern, String name, boolean daemon, ThreadType threadType) {
+        this(pattern, name, daemon);
+    }
+
     @Override
     public Thread newThread(Runnable runnable) {
         String threadName = ThreadHelper.resolveThreadName(pattern, name);
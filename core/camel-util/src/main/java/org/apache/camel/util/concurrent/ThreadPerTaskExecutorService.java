@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} that starts a new thread for each task, which is intended to be used
+ * with a {@link ThreadFactory} that creates virtual threads.
+ * <p/>
+ * There is no pool and no task queue, as virtual threads are cheap to create, and therefore blocking tasks (such as
+ * HTTP or JDBC calls) do not need a pool of platform threads to be sized for the expected concurrency.
+ * <p/>
+ * The executor keeps track of how many tasks have been executed, how many are currently running, and how many times a
+ * thread was pinned to its carrier thread (which must be reported via {@link #onPinned(long, long)}).
+ */
+public class ThreadPerTaskExecutorService extends AbstractExecutorService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadPerTaskExecutorService.class);
+
+    private final ThreadFactory threadFactory;
+    private final Map<Long, Thread> threads = new ConcurrentHashMap<>();
+    private final Map<Long, Long> finishedThreads = new ConcurrentHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition terminated = lock.newCondition();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder pinned = new LongAdder();
+    private final AtomicLong maxPinnedTime = new AtomicLong();
+    private final LongAdder totalPinnedTime = new LongAdder();
+    private volatile boolean shutdown;
+    private volatile boolean trackFinishedThreads;
+    private String id;
+    private String sourceId;
+    private String routeId;
+
+    public ThreadPerTaskExecutorService(ThreadFactory threadFactory) {
+        ObjectHelper.notNull(threadFactory, "threadFactory");
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Whether the threads created by this executor are virtual threads.
+     */
+    public boolean isVirtual() {
+        return threadFactory instanceof ThreadFactoryTypeAware && ((ThreadFactoryTypeAware) threadFactory).isVirtual();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        if (shutdown) {
+            throw new RejectedExecutionException("ThreadPerTaskExecutorService has been shutdown");
+        }
+
+        int size = active.incrementAndGet();
+        if (shutdown) {
+            // shutdown while we were accepting the task
+            onDone();
+            throw new RejectedExecutionException("ThreadPerTaskExecutorService has been shutdown");
+        }
+        peak.accumulateAndGet(size, Math::max);
+
+        Thread thread;
+        try {
+            thread = threadFactory.newThread(() -> runTask(command));
+        } catch (Exception e) {
+            onDone();
+            throw new RejectedExecutionException("Cannot create thread for task: " + command, e);
+        }
+        if (thread == null) {
+            onDone();
+            throw new RejectedExecutionException("ThreadFactory did not create a thread for task: " + command);
+        }
+        submitted.increment();
+        threads.put(thread.getId(), thread);
+        try {
+            thread.start();
+        } catch (Throwable e) {
+            threads.remove(thread.getId());
+            onDone();
+            throw new RejectedExecutionException("Cannot start thread for task: " + command, e);
+        }
+    }
+
+    private void runTask(Runnable command) {
+        Thread thread = Thread.currentThread();
+        try {
+            command.run();
+            completed.increment();
+        } catch (Throwable e) {
+            failed.increment();
+            LOG.warn("Error executing task {} on thread {} due to {}. This exception is ignored.", command,
+                    thread.getName(), e.getMessage(), e);
+        } finally {
+            long tid = thread.getId();
+            threads.remove(tid);
+            if (trackFinishedThreads) {
+                finishedThreads.put(tid, System.nanoTime());
+            }
+            onDone();
+        }
+    }
+
+    private void onDone() {
+        if (active.decrementAndGet() == 0 && shutdown) {
+            signalTerminated();
+        }
+    }
+
+    private void signalTerminated() {
+        lock.lock();
+        try {
+            terminated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (active.get() == 0) {
+            signalTerminated();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        for (Thread thread : threads.values()) {
+            thread.interrupt();
+        }
+        // there is no task queue so there are never any pending tasks
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && active.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!isTerminated()) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the given thread is (or recently was) running a task from this executor.
+     *
+     * @param threadId the thread id
+     */
+    public boolean isExecutorThread(long threadId) {
+        return threads.containsKey(threadId) || finishedThreads.containsKey(threadId);
+    }
+
+    /**
+     * Callback when a thread from this executor was pinned to its carrier thread.
+     *
+     * @param threadId the thread id
+     * @param duration how long the thread was pinned (nanos)
+     */
+    public void onPinned(long threadId, long duration) {
+        pinned.increment();
+        totalPinnedTime.add(duration);
+        maxPinnedTime.accumulateAndGet(duration, Math::max);
+    }
+
+    /**
+     * Whether to keep track of the ids of the threads which has finished, so events received after the thread finished
+     * (such as JFR events) can still be correlated with this executor via {@link #isExecutorThread(long)}.
+     */
+    public void setTrackFinishedThreads(boolean trackFinishedThreads) {
+        this.trackFinishedThreads = trackFinishedThreads;
+        if (!trackFinishedThreads) {
+            finishedThreads.clear();
+        }
+    }
+
+    public boolean isTrackFinishedThreads() {
+        return trackFinishedThreads;
+    }
+
+    /**
+     * Removes the tracked finished threads which has finished before the given time.
+     *
+     * @param time the time in nanos (as from {@link System#nanoTime()})
+     */
+    public void purgeFinishedThreads(long time) {
+        Iterator<Long> it = finishedThreads.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() - time < 0) {
+                it.remove();
+            }
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(String routeId) {
+        this.routeId = routeId;
+    }
+
+    /**
+     * Number of tasks that has been submitted
+     */
+    public long getSubmittedTasks() {
+        return submitted.sum();
+    }
+
+    /**
+     * Number of tasks that has completed successfully
+     */
+    public long getCompletedTasks() {
+        return completed.sum();
+    }
+
+    /**
+     * Number of tasks that failed with an exception
+     */
+    public long getFailedTasks() {
+        return failed.sum();
+    }
+
+    /**
+     * Number of tasks currently running
+     */
+    public int getActiveTasks() {
+        return active.get();
+    }
+
+    /**
+     * Highest number of tasks that have been running at the same time
+     */
+    public int getPeakActiveTasks() {
+        return peak.get();
+    }
+
+    /**
+     * Number of times a thread was pinned to its carrier thread
+     */
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    /**
+     * Total time threads have been pinned to their carrier threads (nanos)
+     */
+    public long getTotalPinnedTime() {
+        return totalPinnedTime.sum();
+    }
+
+    /**
+     * Longest time a thread has been pinned to its carrier thread (nanos)
+     */
+    public long getMaxPinnedTime() {
+        return maxPinnedTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadPerTaskExecutorService[" + threadFactory + ", active: " + active.get() + ", submitted: "
+               + submitted.sum() + (shutdown ? ", shutdown" : "") + "]";
+    }
+}
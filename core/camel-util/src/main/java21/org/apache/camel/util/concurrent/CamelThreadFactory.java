@@ -41,6 +41,17 @@ public final class CamelThreadFactory implements ThreadFactoryTypeAware {
         this.threadType = daemon ? TYPE : ThreadFactoryType.PLATFORM;
     }
 
+    /**
+     * Creates a thread factory for the given type of threads, regardless of the System property
+     * {@code camel.threads.virtual.enabled}.
+     */
+    public CamelThreadFactory(String pattern, String name, boolean daemon, ThreadType threadType) {
+        this.pattern = pattern;
+        this.name = name;
+        this.daemon = daemon;
+        this.threadType = threadType == ThreadType.VIRTUAL ? ThreadFactoryType.VIRTUAL : ThreadFactoryType.PLATFORM;
+    }
+
     @Override
     public boolean isVirtual() {
         return threadType == ThreadFactoryType.VIRTUAL;
@@ -89,9 +89,11 @@ public class ModelParser extends BaseParser {
                 case "eagerCheckCompletion": def.setEagerCheckCompletion(val); yield true;
                 case "executorService": def.setExecutorService(val); yield true;
                 case "forceCompletionOnStop": def.setForceCompletionOnStop(val); yield true;
+                case "groupCommitInterval": def.setGroupCommitInterval(val); yield true;
                 case "ignoreInvalidCorrelationKeys": def.setIgnoreInvalidCorrelationKeys(val); yield true;
                 case "optimisticLocking": def.setOptimisticLocking(val); yield true;
                 case "parallelProcessing": def.setParallelProcessing(val); yield true;
+                case "shards": def.setShards(val); yield true;
                 case "timeoutCheckerExecutorService": def.setTimeoutCheckerExecutorService(val); yield true;
                 default: yield processorDefinitionAttributeHandler().accept(def, key, val);
             }, (def, key) -> switch (key) {
@@ -1089,6 +1091,7 @@ public class ModelParser extends BaseParser {
                 case "aggregationStrategyMethodName": def.setAggregationStrategyMethodName(val); yield true;
                 case "delimiter": def.setDelimiter(val); yield true;
                 case "executorService": def.setExecutorService(val); yield true;
+                case "maxInFlight": def.setMaxInFlight(val); yield true;
                 case "onPrepare": def.setOnPrepare(val); yield true;
                 case "parallelAggregate": def.setParallelAggregate(val); yield true;
                 case "parallelProcessing": def.setParallelProcessing(val); yield true;
@@ -1185,6 +1188,7 @@ public class ModelParser extends BaseParser {
                 case "asyncDelayed": def.setAsyncDelayed(val); yield true;
                 case "callerRunsWhenRejected": def.setCallerRunsWhenRejected(val); yield true;
                 case "executorService": def.setExecutorService(val); yield true;
+                case "limitAlgorithm": def.setLimitAlgorithm(val); yield true;
                 case "mode": def.setMode(val); yield true;
                 case "rejectExecution": def.setRejectExecution(val); yield true;
                 case "timePeriodMillis": def.setTimePeriodMillis(val); yield true;
@@ -1619,6 +1623,7 @@ public class ModelParser extends BaseParser {
                 case "deliveryAttemptInterval": def.setDeliveryAttemptInterval(val); yield true;
                 case "ignoreInvalidExchanges": def.setIgnoreInvalidExchanges(val); yield true;
                 case "rejectOld": def.setRejectOld(val); yield true;
+                case "ringBuffer": def.setRingBuffer(val); yield true;
                 case "timeout": def.setTimeout(val); yield true;
                 default: yield false;
             }, noElementHandler(), noValueHandler());
@@ -772,6 +772,7 @@ public class ModelWriter extends BaseWriter {
         doWriteAttribute("eagerCheckCompletion", def.getEagerCheckCompletion());
         doWriteAttribute("timeoutCheckerExecutorService", def.getTimeoutCheckerExecutorService());
         doWriteAttribute("completionOnNewCorrelationGroup", def.getCompletionOnNewCorrelationGroup());
+        doWriteAttribute("groupCommitInterval", def.getGroupCommitInterval());
         doWriteAttribute("completionInterval", def.getCompletionInterval());
         doWriteAttribute("parallelProcessing", def.getParallelProcessing());
         doWriteAttribute("forceCompletionOnStop", def.getForceCompletionOnStop());
@@ -780,6 +781,7 @@ public class ModelWriter extends BaseWriter {
         doWriteAttribute("completeAllOnStop", def.getCompleteAllOnStop());
         doWriteAttribute("completionSize", def.getCompletionSize());
         doWriteAttribute("aggregationStrategyMethodName", def.getAggregationStrategyMethodName());
+        doWriteAttribute("shards", def.getShards());
         doWriteAttribute("aggregateController", def.getAggregateController());
         doWriteAttribute("completionTimeout", def.getCompletionTimeout());
         doWriteAttribute("ignoreInvalidCorrelationKeys", def.getIgnoreInvalidCorrelationKeys());
@@ -1704,6 +1706,7 @@ public class ModelWriter extends BaseWriter {
         doWriteAttribute("stopOnException", def.getStopOnException());
         doWriteAttribute("delimiter", def.getDelimiter());
         doWriteAttribute("parallelProcessing", def.getParallelProcessing());
+        doWriteAttribute("maxInFlight", def.getMaxInFlight());
         doWriteAttribute("parallelAggregate", def.getParallelAggregate());
         doWriteAttribute("shareUnitOfWork", def.getShareUnitOfWork());
         doWriteAttribute("aggregationStrategyMethodAllowNull", def.getAggregationStrategyMethodAllowNull());
@@ -1776,6 +1779,7 @@ public class ModelWriter extends BaseWriter {
         doWriteAttribute("mode", def.getMode());
         doWriteAttribute("timePeriodMillis", def.getTimePeriodMillis());
         doWriteAttribute("rejectExecution", def.getRejectExecution());
+        doWriteAttribute("limitAlgorithm", def.getLimitAlgorithm());
         doWriteAttribute("callerRunsWhenRejected", def.getCallerRunsWhenRejected());
         doWriteAttribute("executorService", def.getExecutorService());
         doWriteAttribute("asyncDelayed", def.getAsyncDelayed());
@@ -2251,6 +2255,7 @@ public class ModelWriter extends BaseWriter {
     protected void doWriteStreamResequencerConfig(String name, StreamResequencerConfig def) throws IOException {
         startElement(name);
         doWriteAttribute("comparator", def.getComparator());
+        doWriteAttribute("ringBuffer", def.getRingBuffer());
         doWriteAttribute("timeout", def.getTimeout());
         doWriteAttribute("rejectOld", def.getRejectOld());
         doWriteAttribute("ignoreInvalidExchanges", def.getIgnoreInvalidExchanges());
@@ -379,6 +379,44 @@ public interface StubEndpointBuilderFactory {
             doSetProperty("purgeWhenStopping", purgeWhenStopping);
             return this;
         }
+        /**
+         * Whether the concurrent consumers should use virtual threads instead
+         * of platform threads (requires Java 21 or newer). Virtual threads are
+         * cheap, which allows to use a high number of concurrent consumers for
+         * blocking processing (such as HTTP or JDBC calls) without tying up a
+         * platform thread per consumer.
+         * 
+         * The option is a: <code>boolean</code> type.
+         * 
+         * Default: false
+         * Group: consumer (advanced)
+         * 
+         * @param virtualThreads the value to set
+         * @return the dsl builder
+         */
+        default AdvancedStubEndpointConsumerBuilder virtualThreads(boolean virtualThreads) {
+            doSetProperty("virtualThreads", virtualThreads);
+            return this;
+        }
+        /**
+         * Whether the concurrent consumers should use virtual threads instead
+         * of platform threads (requires Java 21 or newer). Virtual threads are
+         * cheap, which allows to use a high number of concurrent consumers for
+         * blocking processing (such as HTTP or JDBC calls) without tying up a
+         * platform thread per consumer.
+         * 
+         * The option will be converted to a <code>boolean</code> type.
+         * 
+         * Default: false
+         * Group: consumer (advanced)
+         * 
+         * @param virtualThreads the value to set
+         * @return the dsl builder
+         */
+        default AdvancedStubEndpointConsumerBuilder virtualThreads(String virtualThreads) {
+            doSetProperty("virtualThreads", virtualThreads);
+            return this;
+        }
         /**
          * Define the queue instance which will be used by the endpoint.
          * 
@@ -199,6 +199,26 @@ public class SedaUriDsl(
     it.property("purgeWhenStopping", purgeWhenStopping.toString())
   }
 
+  /**
+   * Whether the concurrent consumers should use virtual threads instead of platform threads
+   * (requires Java 21 or newer). Virtual threads are cheap, which allows to use a high number of
+   * concurrent consumers for blocking processing (such as HTTP or JDBC calls) without tying up a
+   * platform thread per consumer.
+   */
+  public fun virtualThreads(virtualThreads: String) {
+    it.property("virtualThreads", virtualThreads)
+  }
+
+  /**
+   * Whether the concurrent consumers should use virtual threads instead of platform threads
+   * (requires Java 21 or newer). Virtual threads are cheap, which allows to use a high number of
+   * concurrent consumers for blocking processing (such as HTTP or JDBC calls) without tying up a
+   * platform thread per consumer.
+   */
+  public fun virtualThreads(virtualThreads: Boolean) {
+    it.property("virtualThreads", virtualThreads.toString())
+  }
+
   /**
    * Whether a thread that sends messages to a full SEDA queue will block until the queue's capacity
    * is no longer exhausted. By default, an exception will be thrown stating that the queue is full. By
@@ -181,6 +181,22 @@ class AggregateDsl(
         def.completeAllOnStop = completeAllOnStop
     }
 
+    fun shards(shards: Int) {
+        def.shards = shards.toString()
+    }
+
+    fun shards(shards: String) {
+        def.shards = shards
+    }
+
+    fun groupCommitInterval(groupCommitInterval: Long) {
+        def.groupCommitInterval(groupCommitInterval)
+    }
+
+    fun groupCommitInterval(groupCommitInterval: String) {
+        def.groupCommitInterval = groupCommitInterval
+    }
+
     fun parallelProcessing(parallelProcessing: Boolean) {
         def.parallelProcessing(parallelProcessing)
     }
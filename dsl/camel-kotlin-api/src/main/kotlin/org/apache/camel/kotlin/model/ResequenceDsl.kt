@@ -145,6 +145,14 @@ class StreamResequenceDsl(
         def.rejectOld = rejectOld
     }
 
+    fun ringBuffer(ringBuffer: Boolean) {
+        def.ringBuffer = ringBuffer.toString()
+    }
+
+    fun ringBuffer(ringBuffer: String) {
+        def.ringBuffer = ringBuffer
+    }
+
     fun comparator(comparator: ExpressionResultComparator) {
         def.comparatorBean = comparator
     }
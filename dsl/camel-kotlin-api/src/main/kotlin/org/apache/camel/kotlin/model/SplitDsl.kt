@@ -122,4 +122,12 @@ class SplitDsl(
     fun shareUnitOfWork(shareUnitOfWork: String) {
         def.shareUnitOfWork(shareUnitOfWork)
     }
+
+    fun maxInFlight(maxInFlight: Int) {
+        def.maxInFlight(maxInFlight)
+    }
+
+    fun maxInFlight(maxInFlight: String) {
+        def.maxInFlight(maxInFlight)
+    }
 }
\ No newline at end of file
@@ -30,6 +30,10 @@ class ThrottleDsl(
         def.mode(mode)
     }
 
+    fun limitAlgorithm(limitAlgorithm: String) {
+        def.limitAlgorithm(limitAlgorithm)
+    }
+
     fun correlationExpression(correlationExpression: Expression) {
         def.correlationExpression(correlationExpression)
     }
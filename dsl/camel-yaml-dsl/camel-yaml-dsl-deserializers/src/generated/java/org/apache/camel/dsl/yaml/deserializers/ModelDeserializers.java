@@ -348,12 +348,14 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     @YamlProperty(name = "eagerCheckCompletion", type = "boolean", description = "Use eager completion checking which means that the completionPredicate will use the incoming Exchange. As opposed to without eager completion checking the completionPredicate will use the aggregated Exchange.", displayName = "Eager Check Completion"),
                     @YamlProperty(name = "executorService", type = "string", description = "If using parallelProcessing you can specify a custom thread pool to be used. In fact also if you are not using parallelProcessing this custom thread pool is used to send out aggregated exchanges as well.", displayName = "Executor Service"),
                     @YamlProperty(name = "forceCompletionOnStop", type = "boolean", description = "Indicates to complete all current aggregated exchanges when the context is stopped", displayName = "Force Completion On Stop"),
+                    @YamlProperty(name = "groupCommitInterval", type = "string", description = "Sets the interval in millis to coalesce the writes to the aggregation repository and commit them together (group commit), which uses the batch operations if the repository is a BatchAggregationRepository. Each incoming exchange continues routing when the repository writes of its aggregation have been committed, which improves throughput with persistent repositories at the cost of latency. The default is 0 which writes to the repository for each exchange. Group commit cannot be used together with optimistic locking.", displayName = "Group Commit Interval"),
                     @YamlProperty(name = "id", type = "string", description = "Sets the id of this node", displayName = "Id"),
                     @YamlProperty(name = "ignoreInvalidCorrelationKeys", type = "boolean", description = "If a correlation key cannot be successfully evaluated it will be ignored by logging a DEBUG and then just ignore the incoming Exchange.", displayName = "Ignore Invalid Correlation Keys"),
                     @YamlProperty(name = "inheritErrorHandler", type = "boolean"),
                     @YamlProperty(name = "optimisticLockRetryPolicy", type = "object:org.apache.camel.model.OptimisticLockRetryPolicyDefinition", description = "Allows to configure retry settings when using optimistic locking.", displayName = "Optimistic Lock Retry Policy"),
                     @YamlProperty(name = "optimisticLocking", type = "boolean", description = "Turns on using optimistic locking, which requires the aggregationRepository being used, is supporting this by implementing org.apache.camel.spi.OptimisticLockingAggregationRepository .", displayName = "Optimistic Locking"),
                     @YamlProperty(name = "parallelProcessing", type = "boolean", description = "When aggregated are completed they are being send out of the aggregator. This option indicates whether or not Camel should use a thread pool with multiple threads for concurrency. If no custom thread pool has been specified then Camel creates a default pool with 10 concurrent threads.", displayName = "Parallel Processing"),
+                    @YamlProperty(name = "shards", type = "number", description = "Sets the number of shards the correlation groups are partitioned into, which is rounded up to a power of two. Each shard has its own lock and completion timeout index, so correlation groups in different shards can be aggregated concurrently, which improves throughput when there are many active correlation groups. The default is to use a single lock for all the correlation groups. Sharding cannot be used together with optimistic locking, completionFromBatchConsumer or completionOnNewCorrelationGroup.", displayName = "Shards"),
                     @YamlProperty(name = "steps", type = "array:org.apache.camel.model.ProcessorDefinition"),
                     @YamlProperty(name = "timeoutCheckerExecutorService", type = "string", description = "If using either of the completionTimeout, completionTimeoutExpression, or completionInterval options a background thread is created to check for the completion for every aggregator. Set this option to provide a custom thread pool to be used rather than creating a new thread for every aggregator.", displayName = "Timeout Checker Executor Service")
             }
@@ -488,6 +490,11 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     target.setForceCompletionOnStop(val);
                     break;
                 }
+                case "groupCommitInterval": {
+                    String val = asText(node);
+                    target.setGroupCommitInterval(val);
+                    break;
+                }
                 case "ignoreInvalidCorrelationKeys": {
                     String val = asText(node);
                     target.setIgnoreInvalidCorrelationKeys(val);
@@ -513,6 +520,11 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     target.setParallelProcessing(val);
                     break;
                 }
+                case "shards": {
+                    String val = asText(node);
+                    target.setShards(val);
+                    break;
+                }
                 case "timeoutCheckerExecutorService": {
                     String val = asText(node);
                     target.setTimeoutCheckerExecutorService(val);
@@ -17021,6 +17033,7 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     @YamlProperty(name = "expression", type = "object:org.apache.camel.model.language.ExpressionDefinition", description = "Expression of how to split the message body, such as as-is, using a tokenizer, or using a xpath.", displayName = "Expression", oneOf = "expression"),
                     @YamlProperty(name = "id", type = "string", description = "Sets the id of this node", displayName = "Id"),
                     @YamlProperty(name = "inheritErrorHandler", type = "boolean"),
+                    @YamlProperty(name = "maxInFlight", type = "number", defaultValue = "0", description = "Sets the maximum number of split messages which can be in-flight at the same time, when using parallel processing. The splitter does not split the next message until the number of split messages which has not yet been aggregated is below this limit. This bounds the memory used when splitting big streams in parallel. When this option is set then the replies are aggregated in the same order as the messages was split, even in streaming mode. The default is 0 which means no limit.", displayName = "Max In Flight"),
                     @YamlProperty(name = "onPrepare", type = "string", description = "Uses the Processor when preparing the org.apache.camel.Exchange to be sent. This can be used to deep-clone messages that should be sent, or any custom logic needed before the exchange is sent.", displayName = "On Prepare"),
                     @YamlProperty(name = "parallelAggregate", type = "boolean", description = "If enabled then the aggregate method on AggregationStrategy can be called concurrently. Notice that this would require the implementation of AggregationStrategy to be implemented as thread-safe. By default this is false meaning that Camel synchronizes the call to the aggregate method. Though in some use-cases this can be used to archive higher performance when the AggregationStrategy is implemented as thread-safe.", displayName = "Parallel Aggregate"),
                     @YamlProperty(name = "parallelProcessing", type = "boolean", description = "If enabled then processing each split messages occurs concurrently. Note the caller thread will still wait until all messages has been fully processed, before it continues. It's only processing the sub messages from the splitter which happens concurrently. When parallel processing is enabled, then the Camel routing engin will continue processing using last used thread from the parallel thread pool. However, if you want to use the original thread that called the splitter, then make sure to enable the synchronous option as well.", displayName = "Parallel Processing"),
@@ -17087,6 +17100,11 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     target.setInheritErrorHandler(java.lang.Boolean.valueOf(val));
                     break;
                 }
+                case "maxInFlight": {
+                    String val = asText(node);
+                    target.setMaxInFlight(val);
+                    break;
+                }
                 case "onPrepare": {
                     String val = asText(node);
                     target.setOnPrepare(val);
@@ -17520,6 +17538,7 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     @YamlProperty(name = "deliveryAttemptInterval", type = "string", defaultValue = "1000", description = "Sets the interval in milliseconds the stream resequencer will at most wait while waiting for condition of being able to deliver.", displayName = "Delivery Attempt Interval"),
                     @YamlProperty(name = "ignoreInvalidExchanges", type = "boolean", description = "Whether to ignore invalid exchanges", displayName = "Ignore Invalid Exchanges"),
                     @YamlProperty(name = "rejectOld", type = "boolean", description = "If true, throws an exception when messages older than the last delivered message are processed", displayName = "Reject Old"),
+                    @YamlProperty(name = "ringBuffer", type = "boolean", description = "Whether to hold the messages in a ring buffer indexed by the sequence number, instead of a sorted set. This is faster for dense numeric sequences (such as offsets) as inserting and delivering a message is a constant time operation. The sequence expression must evaluate to a long, and the custom comparator is not used. Gaps in the sequence occupy capacity until they time out, and when the buffer is full the caller is blocked until older messages have been delivered.", displayName = "Ring Buffer"),
                     @YamlProperty(name = "timeout", type = "string", defaultValue = "1000", description = "Sets minimum time (milliseconds) to wait for missing elements (messages).", displayName = "Timeout")
             }
     )
@@ -17563,6 +17582,11 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     target.setRejectOld(val);
                     break;
                 }
+                case "ringBuffer": {
+                    String val = asText(node);
+                    target.setRingBuffer(val);
+                    break;
+                }
                 case "timeout": {
                     String val = asText(node);
                     target.setTimeout(val);
@@ -18141,7 +18165,8 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     @YamlProperty(name = "expression", type = "object:org.apache.camel.model.language.ExpressionDefinition", description = "Expression to configure the maximum number of messages to throttle per request", displayName = "Expression", oneOf = "expression"),
                     @YamlProperty(name = "id", type = "string", description = "Sets the id of this node", displayName = "Id"),
                     @YamlProperty(name = "inheritErrorHandler", type = "boolean"),
-                    @YamlProperty(name = "mode", type = "enum:TotalRequests,ConcurrentRequests", defaultValue = "TotalRequests", description = "Sets the throttling mode to one of the available modes enumerated in ThrottlingMode", displayName = "Mode"),
+                    @YamlProperty(name = "limitAlgorithm", type = "enum:Aimd,Gradient,Vegas", defaultValue = "Gradient", description = "The algorithm to adjust the concurrency limit with from the observed latency, when using the adaptive concurrency mode. Aimd increases the limit by one while exchanges complete, and decreases it by a ratio when an exchange times out. Gradient decreases the limit as soon as the latency increases compared to the long term average latency. Vegas estimates the number of exchanges queued downstream from the latency compared to the minimum latency, and keeps this number small.", displayName = "Limit Algorithm"),
+                    @YamlProperty(name = "mode", type = "enum:TotalRequests,ConcurrentRequests,TokenBucket,AdaptiveConcurrency", defaultValue = "TotalRequests", description = "Sets the throttling mode to one of the available modes enumerated in ThrottlingMode", displayName = "Mode"),
                     @YamlProperty(name = "rejectExecution", type = "boolean", description = "Whether or not throttler throws the ThrottlerRejectedExecutionException when the exchange exceeds the request limit Is by default false", displayName = "Reject Execution"),
                     @YamlProperty(name = "timePeriodMillis", type = "string", defaultValue = "1000", description = "Sets the time period during which the maximum request count is valid for", displayName = "Time Period Millis")
             }
@@ -18196,6 +18221,11 @@ public final class ModelDeserializers extends YamlDeserializerSupport {
                     target.setInheritErrorHandler(java.lang.Boolean.valueOf(val));
                     break;
                 }
+                case "limitAlgorithm": {
+                    String val = asText(node);
+                    target.setLimitAlgorithm(val);
+                    break;
+                }
                 case "mode": {
                     String val = asText(node);
                     target.setMode(val);
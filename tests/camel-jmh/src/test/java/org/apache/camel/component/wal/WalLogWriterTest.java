@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.wal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.apache.camel.itest.jmh.BenchmarkSupport;
+import org.apache.camel.util.FileUtil;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests the number of entries per second appended by the write-ahead log writer: the {@link LogWriter} writing every
+ * entry to the file, versus the {@link LogWriter} with group commit. Note that the writer with group commit also forces
+ * the file to disk whenever the group commit size is reached, whereas the other writer leaves it to the log supervisor.
+ *
+ * This benchmark is in the camel-wal package, as the log entries are not public.
+ */
+public class WalLogWriterTest {
+
+    private static final int BATCH = 1000;
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        File dir;
+        LogEntry entry;
+        LogWriter writer;
+        LogWriter groupCommitWriter;
+        Blackhole blackhole;
+        int writerCount;
+        int groupCommitWriterCount;
+
+        @Setup(Level.Trial)
+        public void initialize(Blackhole blackhole) throws IOException {
+            this.blackhole = blackhole;
+            dir = Files.createTempDirectory("camel-jmh-wal").toFile();
+
+            ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+            value.putLong(System.currentTimeMillis());
+            entry = new LogEntry(LogEntry.EntryState.NEW, 0, "record-key".getBytes(), 0, value.array());
+        }
+
+        // the writers are created on every iteration, to bound the size of the log files
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            writer = newWriter(0);
+            groupCommitWriter = newWriter(LogWriter.DEFAULT_GROUP_COMMIT_SIZE);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            writer.close();
+            groupCommitWriter.close();
+            writerCount = 0;
+            groupCommitWriterCount = 0;
+            FileUtil.removeDir(dir);
+            dir.mkdirs();
+        }
+
+        // once the transaction log of a writer rolls over, then every append rewrites the records of the previous layer,
+        // so the writers are replaced before that happens to only measure appending
+        LogWriter writer() throws IOException {
+            if (++writerCount == LogWriter.DEFAULT_CAPACITY) {
+                writer.close();
+                writer = newWriter(0);
+                writerCount = 1;
+            }
+            return writer;
+        }
+
+        LogWriter groupCommitWriter() throws IOException {
+            if (++groupCommitWriterCount == LogWriter.DEFAULT_CAPACITY) {
+                groupCommitWriter.close();
+                groupCommitWriter = newWriter(LogWriter.DEFAULT_GROUP_COMMIT_SIZE);
+                groupCommitWriterCount = 1;
+            }
+            return groupCommitWriter;
+        }
+
+        private LogWriter newWriter(int groupCommitSize) throws IOException {
+            File file = new File(dir, groupCommitSize > 0 ? "group.log" : "writer.log");
+            return new LogWriter(file, new DefaultLogSupervisor(100), LogWriter.DEFAULT_CAPACITY, groupCommitSize);
+        }
+
+        @TearDown(Level.Trial)
+        public void cleanup() {
+            FileUtil.removeDir(dir);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void writer(BenchmarkState state) throws Exception {
+        for (int i = 0; i < BATCH; i++) {
+            state.blackhole.consume(state.writer().append(state.entry));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void groupCommitWriter(BenchmarkState state) throws Exception {
+        for (int i = 0; i < BATCH; i++) {
+            state.blackhole.consume(state.groupCommitWriter().append(state.entry));
+        }
+    }
+}
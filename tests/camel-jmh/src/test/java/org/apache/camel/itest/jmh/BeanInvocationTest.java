@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.lang.reflect.Method;
+
+import org.apache.camel.Body;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Header;
+import org.apache.camel.Producer;
+import org.apache.camel.component.bean.MethodHandleInvoker;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.ObjectHelper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests invoking a bean method with a typical <tt>@Body</tt> and <tt>@Header</tt> signature using reflection, using a
+ * {@link MethodHandleInvoker}, and using the bean component which binds the parameters before invoking the method.
+ */
+public class BeanInvocationTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        CamelContext camel;
+        MyBean bean;
+        Method method;
+        MethodHandleInvoker invoker;
+        Object[] arguments;
+        Producer producer;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            bean = new MyBean();
+            method = MyBean.class.getMethod("greet", String.class, String.class, int.class);
+            invoker = MethodHandleInvoker.create(method);
+            arguments = new Object[] { "World", "Camel", 3 };
+
+            camel = new DefaultCamelContext();
+            camel.getRegistry().bind("myBean", bean);
+            camel.start();
+
+            producer = camel.getEndpoint("bean:myBean?method=greet").createProducer();
+            producer.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            producer.stop();
+            camel.stop();
+        }
+
+        Exchange createExchange() {
+            Exchange exchange = new DefaultExchange(camel);
+            exchange.getMessage().setBody("World");
+            exchange.getMessage().setHeader("name", "Camel");
+            exchange.getMessage().setHeader("count", 3);
+            return exchange;
+        }
+    }
+
+    @Benchmark
+    public void invokeDirect(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.bean.greet("World", "Camel", 3));
+    }
+
+    @Benchmark
+    public void invokeReflection(BenchmarkState state, Blackhole bh) throws Exception {
+        bh.consume(ObjectHelper.invokeMethodSafe(state.method, state.bean, state.arguments));
+    }
+
+    @Benchmark
+    public void invokeMethodHandle(BenchmarkState state, Blackhole bh) throws Exception {
+        bh.consume(state.invoker.invoke(state.bean, state.arguments));
+    }
+
+    @Benchmark
+    public void invokeBeanProducer(BenchmarkState state, Blackhole bh) throws Exception {
+        Exchange exchange = state.createExchange();
+        state.producer.process(exchange);
+        bh.consume(exchange.getMessage().getBody());
+    }
+
+    public static class MyBean {
+
+        public String greet(@Body String body, @Header("name") String name, @Header("count") int count) {
+            return count > 0 ? body : name;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Common settings and test data for the benchmarks, so the results of the benchmarks can be compared between releases.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Runs all the benchmarks in the given class, and saves the results as JSON in the target directory.
+     */
+    public static void launch(Class<?> benchmark) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                // run all the benchmarks in the class
+                .include(benchmark.getName() + ".*")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .threads(1)
+                .forks(1)
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + benchmark.getSimpleName() + ".json")
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * Creates a message body of the given size (in characters) which consists of lines of text.
+     */
+    static String createBody(int size) {
+        StringBuilder sb = new StringBuilder(size);
+        int line = 0;
+        while (sb.length() < size) {
+            sb.append("Line ").append(line++).append(" Hello World\n");
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
+    /**
+     * Creates the given number of message headers.
+     */
+    static Map<String, Object> createHeaders(int count) {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            headers.put("header" + i, "value" + i);
+        }
+        return headers;
+    }
+}
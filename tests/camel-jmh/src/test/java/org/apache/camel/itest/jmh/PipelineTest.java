@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests the {@link org.apache.camel.processor.Pipeline} with direct and seda based routes.
+ */
+public class PipelineTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "100", "10000" })
+        int messageSize;
+
+        @Param({ "0", "10", "50" })
+        int headerCount;
+
+        CamelContext camel;
+        ProducerTemplate producer;
+        String body;
+        Map<String, Object> headers;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            body = BenchmarkSupport.createBody(messageSize);
+            headers = BenchmarkSupport.createHeaders(headerCount);
+
+            camel = new DefaultCamelContext();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() {
+                    from("direct:start")
+                            .setHeader("foo", constant("bar"))
+                            .process(e -> e.getMessage().setHeader("counter", 1))
+                            .transform(body())
+                            .to("direct:end");
+
+                    from("seda:start")
+                            .setHeader("foo", constant("bar"))
+                            .process(e -> e.getMessage().setHeader("counter", 1))
+                            .transform(body())
+                            .to("direct:end");
+
+                    from("direct:end")
+                            .removeHeader("counter");
+                }
+            });
+            camel.start();
+            producer = camel.createProducerTemplate();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void direct(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.producer.requestBodyAndHeaders("direct:start", state.body, state.headers));
+    }
+
+    @Benchmark
+    public void seda(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.producer.requestBodyAndHeaders("seda:start", state.body, state.headers));
+    }
+
+}
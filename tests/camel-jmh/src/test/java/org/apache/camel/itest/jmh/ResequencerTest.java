@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.camel.processor.resequencer.ResequencerEngine;
+import org.apache.camel.processor.resequencer.RingBufferResequencerEngine;
+import org.apache.camel.processor.resequencer.SequenceElementComparator;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests the stream resequencer engines, the {@link ResequencerEngine} with a sorted set and the
+ * {@link RingBufferResequencerEngine}, with dense sequence numbers that arrive shuffled within a window.
+ */
+public class ResequencerTest {
+
+    private static final int BATCH = 1024;
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        // how far out of order the sequence numbers can arrive
+        @Param({ "16", "1024" })
+        int window;
+
+        ResequencerEngine<Long> treeEngine;
+        RingBufferResequencerEngine<Long> ringEngine;
+        Blackhole blackhole;
+        long[] offsets;
+        long treeNext;
+        long ringNext;
+
+        @Setup(Level.Trial)
+        public void initialize(Blackhole blackhole) throws Exception {
+            this.blackhole = blackhole;
+
+            // the batch is shuffled within each window
+            List<Long> list = new ArrayList<>(BATCH);
+            Random random = new Random(42);
+            for (int i = 0; i < BATCH; i += window) {
+                List<Long> block = new ArrayList<>(window);
+                for (int j = i; j < i + window && j < BATCH; j++) {
+                    block.add((long) j);
+                }
+                Collections.shuffle(block, random);
+                list.addAll(block);
+            }
+            offsets = list.stream().mapToLong(Long::longValue).toArray();
+
+            treeEngine = new ResequencerEngine<>(new LongComparator());
+            treeEngine.setSequenceSender(this.blackhole::consume);
+            treeEngine.start();
+            ringEngine = new RingBufferResequencerEngine<>(Long::longValue, Math.max(BATCH, window * 2));
+            ringEngine.setSequenceSender(this.blackhole::consume);
+            ringEngine.start();
+
+            // the first element always waits for the timeout, as there is no last delivered element yet
+            treeEngine.setTimeout(1);
+            ringEngine.setTimeout(1);
+            treeEngine.insert(0L);
+            ringEngine.insert(0L);
+            Thread.sleep(100);
+            treeEngine.deliver();
+            ringEngine.deliver();
+            treeNext = 1;
+            ringNext = 1;
+
+            // the timeout of out of order elements is cancelled when their predecessor arrives
+            treeEngine.setTimeout(1000);
+            ringEngine.setTimeout(1000);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            treeEngine.stop();
+            ringEngine.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void treeSet(BenchmarkState state) throws Exception {
+        long base = state.treeNext;
+        for (long offset : state.offsets) {
+            state.treeEngine.insert(base + offset);
+            state.treeEngine.deliver();
+        }
+        state.treeNext = base + BATCH;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void ringBuffer(BenchmarkState state) throws Exception {
+        long base = state.ringNext;
+        for (long offset : state.offsets) {
+            state.ringEngine.insert(base + offset);
+            state.ringEngine.deliver();
+        }
+        state.ringNext = base + BATCH;
+    }
+
+    private static final class LongComparator implements SequenceElementComparator<Long> {
+
+        @Override
+        public boolean predecessor(Long o1, Long o2) {
+            return o1 == o2 - 1;
+        }
+
+        @Override
+        public boolean successor(Long o1, Long o2) {
+            return o2 == o1 - 1;
+        }
+
+        @Override
+        public boolean isValid(Long o1) {
+            return o1 != null;
+        }
+
+        @Override
+        public int compare(Long o1, Long o2) {
+            return Long.compare(o1, o2);
+        }
+    }
+
+}
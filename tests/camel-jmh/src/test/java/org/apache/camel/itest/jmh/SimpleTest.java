@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.spi.Language;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests the {@link org.apache.camel.language.simple.SimpleLanguage} evaluating pre-created expressions and predicates,
+ * and creating the expression (from the cache) per evaluation as when the expression is dynamic.
+ */
+public class SimpleTest {
+
+    private static final String EXPRESSION = "Hello ${header.foo} from ${exchangeProperty.bar} with ${body}";
+    private static final String PREDICATE = "${header.foo} == 'beer' && ${body} contains 'World'";
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "100", "10000" })
+        int messageSize;
+
+        @Param({ "0", "10", "50" })
+        int headerCount;
+
+        CamelContext camel;
+        Language simple;
+        Exchange exchange;
+        Expression expression;
+        Expression header;
+        Predicate predicate;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            camel = new DefaultCamelContext();
+            camel.start();
+
+            exchange = new DefaultExchange(camel);
+            exchange.getMessage().setBody(BenchmarkSupport.createBody(messageSize));
+            exchange.getMessage().setHeaders(BenchmarkSupport.createHeaders(headerCount));
+            exchange.getMessage().setHeader("foo", "beer");
+            exchange.setProperty("bar", "Camel");
+
+            simple = camel.resolveLanguage("simple");
+            expression = simple.createExpression(EXPRESSION);
+            expression.init(camel);
+            header = simple.createExpression("${header.foo}");
+            header.init(camel);
+            predicate = simple.createPredicate(PREDICATE);
+            predicate.init(camel);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void simpleHeader(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.header.evaluate(state.exchange, String.class));
+    }
+
+    @Benchmark
+    public void simpleExpression(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.expression.evaluate(state.exchange, String.class));
+    }
+
+    @Benchmark
+    public void simplePredicate(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.predicate.matches(state.exchange));
+    }
+
+    @Benchmark
+    public void simpleCreateExpression(BenchmarkState state, Blackhole bh) {
+        Expression exp = state.simple.createExpression(EXPRESSION);
+        exp.init(state.camel);
+        bh.consume(exp.evaluate(state.exchange, String.class));
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tests the {@link org.apache.camel.impl.converter.CoreTypeConverterRegistry#convertTo(Class, Exchange, Object)} for
+ * common conversions.
+ */
+public class TypeConverterTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkSupport.launch(this.getClass());
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "100", "10000" })
+        int messageSize;
+
+        CamelContext camel;
+        TypeConverter converter;
+        Exchange exchange;
+        String body;
+        byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            body = BenchmarkSupport.createBody(messageSize);
+            bytes = body.getBytes(StandardCharsets.UTF_8);
+
+            camel = new DefaultCamelContext();
+            camel.start();
+            converter = camel.getTypeConverter();
+            exchange = new DefaultExchange(camel);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void stringToInteger(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(Integer.class, state.exchange, "12345"));
+    }
+
+    @Benchmark
+    public void integerToString(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, state.exchange, 12345));
+    }
+
+    @Benchmark
+    public void bytesToString(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, state.exchange, state.bytes));
+    }
+
+    @Benchmark
+    public void stringToBytes(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(byte[].class, state.exchange, state.body));
+    }
+
+    @Benchmark
+    public void stringToInputStream(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(InputStream.class, state.exchange, state.body));
+    }
+
+    @Benchmark
+    public void noConverter(BenchmarkState state, Blackhole bh) {
+        // there is no converter to Thread so this is a known miss after the first attempt
+        bh.consume(state.converter.tryConvertTo(Thread.class, state.exchange, 12345));
+    }
+
+    @Benchmark
+    public void sameType(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, state.exchange, state.body));
+    }
+
+}